@@ -17,8 +17,8 @@ import org.jboss.logging.Logger;
 import de.shop.auth.controller.AuthController;
 import de.shop.bestellverwaltung.domain.Bestellung;
 import de.shop.bestellverwaltung.service.BestellungService;
-import de.shop.kundenverwaltung.service.KundeService;
 import de.shop.produktverwaltung.service.ProduktService;
+import de.shop.produktverwaltung.service.util.FlashSale.Zulassung;
 import de.shop.produktverwaltung.service.util.SuchFilter;
 import de.shop.util.Client;
 import de.shop.util.Log;
@@ -47,8 +47,6 @@ public class BestellungController implements Serializable {
 	@Inject
 	private ProduktService ps;
 	@Inject
-	private KundeService ks;
-	@Inject
 	private transient HttpServletRequest request;
 	
 	@Inject
@@ -72,7 +70,10 @@ public class BestellungController implements Serializable {
 	// ////////////////////////////////////////////////////////////////////////////////////////////////
 	// PUBLIC METHODS
 	
-	@Transactional
+	/**
+	 * Ohne eigene Transaktion: die Zulassung zum Flash-Sale wird eingeholt,
+	 * bevor bs.bestelle() die Transaktion beginnt
+	 */
 	public String bestellen() throws Exception {
 
 		if (warenkorb.isEmpty()) {
@@ -82,13 +83,19 @@ public class BestellungController implements Serializable {
 		LOGGER.debugf("Neue Bestellung mit insgesamt %s Positionen",
 				warenkorb.getSize());
 		if (kunde.getUser() == null) throw new Exception("kein Kunde");
-		final Bestellung bestellung = new Bestellung(warenkorb.getPositionen(), kunde.getUser());
-		kunde.getUser().addBestellung(bestellung);
-		ks.updateKunde(kunde.getUser(), locale, false);
-		
-//		bs.addBestellung(bestellung, locale);
-//		bs.addBestellposten(bestellung);
-		bestellung.setGesamtpreis(bestellung.errechneGesamtpreis());
+
+		// Nur die neue Bestellung speichern, nicht den ganzen Kunden mergen
+		final Zulassung zulassung = bs.lasseZu(warenkorb.getPositionen());
+		final Bestellung bestellung;
+		try {
+			bestellung = bs.bestelle(kunde.getUser().getKundeID(),
+					warenkorb.getPositionen(), zulassung, locale);
+		}
+		finally {
+			bs.gibFrei(zulassung);
+		}
+		LOGGER.debugf("Neue Bestellung mit ID %s", bestellung.getBestellungID());
+
 		warenkorb.reset();
 		return "/index";
 	}
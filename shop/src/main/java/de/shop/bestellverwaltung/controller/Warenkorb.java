@@ -2,16 +2,28 @@ package de.shop.bestellverwaltung.controller;
 
 import javax.enterprise.context.SessionScoped;
 import javax.faces.event.ValueChangeEvent;
+import javax.inject.Inject;
 import javax.inject.Named;
 
 import de.shop.bestellverwaltung.domain.Bestellposten;
 import de.shop.produktverwaltung.domain.Produktdaten;
+import de.shop.produktverwaltung.service.util.FlashSale;
 import de.shop.util.Log;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-
+import java.util.Map;
+
+/**
+ * Warenkorb der Session. Die Bestellposten sind nach der ID ihrer
+ * Produktdaten abgelegt, so dass Hinzufuegen, Loeschen und Aendern der
+ * Anzahl auch bei grossen Warenkoerben nicht den ganzen Warenkorb
+ * durchsuchen. Der Gesamtpreis wird dabei in Cent (long) mitgefuehrt und
+ * ist beim Rendern ohne Rechnung und ohne Rundungsfehler verfuegbar.
+ */
 @Named("wk")
 @Log
 @SessionScoped
@@ -22,47 +34,86 @@ public class Warenkorb implements Serializable {
 
 	private static final long serialVersionUID = 2822410085540035488L;
 
-	private List<Bestellposten> positionen = new ArrayList<>();
+	/**
+	 * Attribut des Spinners mit der ID der Produktdaten, siehe
+	 * {@link #spinner(ValueChangeEvent)}
+	 */
+	public static final String ATTR_PRODUKTDATEN_ID = "produktdatenId";
+
+	private static final int CENT_PRO_EURO = 100;
+
+	// In der Reihenfolge des Hinzufuegens
+	private final Map<Integer, Bestellposten> positionen = new LinkedHashMap<>();
+
+	private long gesamtpreisCent;
+
+	// Liste fuer die Anzeige, wird nur bei neuen oder geloeschten Posten neu
+	// aufgebaut
+	private transient List<Bestellposten> positionenListe;
+
+	@Inject
+	private FlashSale flashSale;
 
 	// ////////////////////////////////////////////////////////////////////////////////////////////////
 	// PUBLIC METHODS
 
 	public void add(Produktdaten produktdaten) {
-		
-		System.out.println("Add: " + produktdaten);
-
 		// Parametertest
-		if (produktdaten == null) {
+		if (produktdaten == null || produktdaten.getProduktdatenID() == null) {
 			return;
 		}
-		
-
-		// Neuen Bestellposten mit Produktdaten und Anzahl=1 anlegen
-		final Bestellposten neuerBestellposten = new Bestellposten();
-		neuerBestellposten.setAnzahl(Integer.valueOf(1));
-		neuerBestellposten.setProduktdaten(produktdaten);
-		boolean x = false;
-		for (Bestellposten posten : positionen) {
-			if (posten.getProduktdaten() == neuerBestellposten.getProduktdaten()) {
-				posten.setAnzahl(posten.getAnzahl() + 1);
-				x = true;
-				break;
-			}
+
+		// Im Flash-Sale ausverkauft: gar nicht erst in den Warenkorb
+		if (flashSale.isAusverkauft(produktdaten.getProduktdatenID())) {
+			return;
 		}
-		if (x == false)
-			positionen.add(neuerBestellposten);
+
+		final Bestellposten posten = positionen.get(produktdaten
+				.getProduktdatenID());
+		if (posten == null) {
+			// Neuen Bestellposten mit Produktdaten und Anzahl=1 anlegen
+			final Bestellposten neuerBestellposten = new Bestellposten();
+			neuerBestellposten.setAnzahl(Integer.valueOf(1));
+			neuerBestellposten.setProduktdaten(produktdaten);
+			positionen.put(produktdaten.getProduktdatenID(), neuerBestellposten);
+			positionenListe = null;
+		}
+		else {
+			posten.setAnzahl(posten.getAnzahl() + 1);
+		}
+		gesamtpreisCent += preisCent(produktdaten);
 	}
-	
-	public void spinner(ValueChangeEvent e) { //Bestellposten neuerBestellposten) {
-//		for (Bestellposten posten : positionen) {
-//			if (posten.getProduktdaten() == neuerBestellposten.getProduktdaten()) {
-//				posten.setAnzahl(neuerBestellposten.getAnzahl());
-//			}
-//		}
-		
-		
+
+	/**
+	 * Neue Anzahl aus dem Spinner eines Bestellpostens. Der Spinner traegt
+	 * die ID der Produktdaten im Attribut {@value #ATTR_PRODUKTDATEN_ID}.
+	 */
+	public void spinner(ValueChangeEvent e) {
+		final Object id = e.getComponent().getAttributes()
+				.get(ATTR_PRODUKTDATEN_ID);
+		final Object anzahl = e.getNewValue();
+		if (id instanceof Number && anzahl instanceof Number) {
+			setAnzahl(((Number) id).intValue(), ((Number) anzahl).intValue());
+		}
+	}
+
+	/**
+	 * Aendert die Anzahl eines Bestellpostens; bei 0 oder weniger wird er
+	 * geloescht
+	 */
+	public void setAnzahl(Integer produktdatenId, int anzahl) {
+		final Bestellposten posten = positionen.get(produktdatenId);
+		if (posten == null) {
+			return;
+		}
+		if (anzahl <= 0) {
+			delete(posten);
+			return;
+		}
+		gesamtpreisCent += (anzahl - posten.getAnzahl())
+				* preisCent(posten.getProduktdaten());
+		posten.setAnzahl(anzahl);
 	}
-	
 
 	public boolean isEmpty() {
 		return positionen.isEmpty();
@@ -70,27 +121,53 @@ public class Warenkorb implements Serializable {
 
 	public void reset() {
 		positionen.clear();
+		positionenListe = null;
+		gesamtpreisCent = 0;
 	}
 
 	public void delete(Bestellposten bestellposten) {
-		System.out.println(positionen.size());
-		positionen.remove(bestellposten);
+		if (bestellposten == null || bestellposten.getProduktdaten() == null) {
+			return;
+		}
+		final Bestellposten entfernt = positionen.remove(bestellposten
+				.getProduktdaten().getProduktdatenID());
+		if (entfernt != null) {
+			gesamtpreisCent -= entfernt.getAnzahl()
+					* preisCent(entfernt.getProduktdaten());
+			positionenListe = null;
+		}
 	}
 
 	// //////////////////////////////////////////////////////////////////////////////////////////////
 	// GETTER & SETTER
 
+	/**
+	 * @return Unveraenderliche Liste der Bestellposten
+	 */
 	public List<Bestellposten> getPositionen() {
-		return positionen;
+		if (positionenListe == null) {
+			positionenListe = Collections
+					.unmodifiableList(new ArrayList<>(positionen.values()));
+		}
+		return positionenListe;
 	}
+
 	public double getGesamtpreis() {
-		double x = 0;
-		for (Bestellposten posten : positionen) {
-			x += posten.getAnzahl() * posten.getProduktdaten().getPreis();
-		}
-		return x;
+		return (double) gesamtpreisCent / CENT_PRO_EURO;
+	}
+
+	public long getGesamtpreisCent() {
+		return gesamtpreisCent;
 	}
+
 	public int getSize() {
 		return positionen.size();
 	}
+
+	// //////////////////////////////////////////////////////////////////////////////////////////////
+	// PRIVATE METHODS
+
+	private static long preisCent(Produktdaten produktdaten) {
+		return Math.round(produktdaten.getPreis() * CENT_PRO_EURO);
+	}
 }
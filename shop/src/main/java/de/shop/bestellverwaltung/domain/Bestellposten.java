@@ -44,6 +44,10 @@ import org.codehaus.jackson.annotate.JsonIgnore;
 	@NamedQuery(
 			name = Bestellposten.ALL_BESTELLPOSTEN,
 			query = "FROM Bestellposten"),
+	@NamedQuery(
+			name = Bestellposten.BESTELLPOSTEN_NACH_ID_SEITE,
+			query = "FROM Bestellposten b WHERE b.bestellpostenID > :nachId "
+					+ "ORDER BY b.bestellpostenID"),
 	@NamedQuery(
 			name = Bestellposten.NUR_BESTELLPOSTEN_NACH_ID,
 			query = "from Bestellposten where bestellpostenID = :id"),
@@ -61,7 +65,7 @@ import org.codehaus.jackson.annotate.JsonIgnore;
 			query = "from Bestellposten where anzahl = :anzahl"),
 	@NamedQuery(
 			name = Bestellposten.BESTELLPOSTEN_UPDATE_FK,
-			query = "UPDATE Bestellposten SET bestellung_fk = :bestellungfk WHERE bestellposten_id = :id")
+			query = "UPDATE Bestellposten b SET b.bestellung = :bestellung WHERE b.bestellpostenID IN :ids")
 })
 public class Bestellposten implements Serializable {
 	
@@ -87,6 +91,8 @@ public class Bestellposten implements Serializable {
 			+ "BestellpostenChangeFk";
 	public static final String ALL_BESTELLPOSTEN = PREFIX
 			+ "AllBestellposten";
+	public static final String BESTELLPOSTEN_NACH_ID_SEITE = PREFIX
+			+ "AbschnittNachId";
 	public static final String NUR_BESTELLPOSTEN_NACH_ID = PREFIX
 			+ "SucheNachId";
 	
@@ -19,7 +19,7 @@ import javax.persistence.ManyToOne;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
 import javax.persistence.OneToMany;
-import javax.persistence.OrderColumn;
+import javax.persistence.OrderBy;
 import javax.persistence.PrePersist;
 import javax.persistence.PreUpdate;
 import javax.persistence.Table;
@@ -52,6 +52,12 @@ import de.shop.util.IdGroup;
 @Table(name = "Bestellung")
 @NamedQueries({
 		@NamedQuery(name = Bestellung.ALL_BESTELLUNGEN, query = "from Bestellung b"),
+		@NamedQuery(name = Bestellung.BESTELLUNG_VERSION_BY_ID, query = "select b.version "
+				+ "from Bestellung b "
+				+ "where b.bestellungID = :id"),
+		@NamedQuery(name = Bestellung.BESTELLUNG_NACH_ID_SEITE, query = "from Bestellung b "
+				+ "where b.bestellungID > :nachId "
+				+ "order by b.bestellungID"),
 		@NamedQuery(name = Bestellung.BESTELLUNG_BY_PREISSPANNE, query = "from Bestellung b "
 				+ "where b.gesamtpreis " + "BETWEEN :min AND :max"),
 		@NamedQuery(name = Bestellung.BESTELLUNG_BY_PREISSPANNE_WITH_BESTELLPOSTEN, query = "Select b "
@@ -85,6 +91,20 @@ public class Bestellung implements Serializable {
 	public static final String ALL_BESTELLUNGEN = PREFIX
 			+ "findAllBestellungen";
 
+	/**
+	 * Name fuer NamedQuery, die nur die Version einer Bestellung liefert (fuer
+	 * ETags)
+	 */
+	public static final String BESTELLUNG_VERSION_BY_ID = PREFIX
+			+ "findVersionById";
+
+	/**
+	 * Name fuer NamedQuery zur abschnittsweisen Suche aller Bestellungen
+	 * (Keyset nach ID)
+	 */
+	public static final String BESTELLUNG_NACH_ID_SEITE = PREFIX
+			+ "findBestellungenNachId";
+
 	/**
 	 * Name fr NamedQuery zur Suche einer Bestellung innerhalb einer
 	 * Preisspanne
@@ -144,12 +164,15 @@ public class Bestellung implements Serializable {
 	private URI kundeUri;
 
 	/**
-	 * Liste aller Bestellposten dieser Bestellung
+	 * Liste aller Bestellposten dieser Bestellung. Den Fremdschluessel
+	 * schreibt Bestellposten.bestellung beim INSERT; neue Posten speichert
+	 * BestellungService.addBestellposten(), daher kein CascadeType.PERSIST.
 	 */
-	@OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
-	@JoinColumn(name = "Bestellung_FK")
+	@OneToMany(mappedBy = "bestellung", fetch = FetchType.EAGER, cascade = {
+			CascadeType.MERGE, CascadeType.REMOVE, CascadeType.REFRESH,
+			CascadeType.DETACH })
 	//@NotNull(message = "{bestellverwaltung.bestellung.bestellpositionen.notNull}")
-	@OrderColumn(name = "idx")
+	@OrderBy("bestellpostenID")
 	@JsonIgnore
 	private List<Bestellposten> bestellposten;
 
@@ -274,6 +297,10 @@ public class Bestellung implements Serializable {
 			bestellposten = new ArrayList<Bestellposten>();
 		}
 
+		// Beide Seiten der Beziehung setzen, der Posten besitzt den
+		// Fremdschluessel
+		neuerPosten.setBestellung(this);
+
 		// Posten hinzufgen
 		bestellposten.add(neuerPosten);
 
@@ -0,0 +1,77 @@
+package de.shop.bestellverwaltung.domain;
+
+import static javax.persistence.TemporalType.TIMESTAMP;
+
+import java.io.Serializable;
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.NamedQuery;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+
+/**
+ * Ergebnis einer Anfrage mit Idempotency-Key: die dabei angelegte
+ * Bestellung. Der Schluessel ist Primaerschluessel, so dass dieselbe Anfrage
+ * auch nach einem Neustart oder auf einem anderen Server nur einmal
+ * ausgefuehrt wird.
+ *
+ * @see de.shop.bestellverwaltung.service.util.Idempotenzspeicher
+ */
+@Entity
+@Table(name = "Idempotenzschluessel")
+@NamedQuery(name = Idempotenzschluessel.IDEMPOTENZSCHLUESSEL_ABGELAUFEN,
+		query = "DELETE FROM Idempotenzschluessel i WHERE i.erstellt < :grenze")
+public class Idempotenzschluessel implements Serializable {
+
+	private static final long serialVersionUID = -5064195117236403916L;
+
+	public static final String IDEMPOTENZSCHLUESSEL_ABGELAUFEN = "Idempotenzschluessel.loescheAbgelaufene";
+
+	/**
+	 * Laenge eines SHA-256-Hashwerts in Hex
+	 */
+	public static final int SCHLUESSEL_LAENGE = 64;
+
+	@Id
+	@Column(name = "Schluessel", length = SCHLUESSEL_LAENGE)
+	private String schluessel;
+
+	@Column(name = "Bestellung_FK", nullable = false, updatable = false)
+	private Integer bestellungId;
+
+	@Column(name = "Erstellt", nullable = false, updatable = false)
+	@Temporal(TIMESTAMP)
+	private Date erstellt;
+
+	protected Idempotenzschluessel() {
+		super();
+	}
+
+	public Idempotenzschluessel(String schluessel, Integer bestellungId) {
+		this.schluessel = schluessel;
+		this.bestellungId = bestellungId;
+		this.erstellt = new Date();
+	}
+
+	public String getSchluessel() {
+		return schluessel;
+	}
+
+	public Integer getBestellungId() {
+		return bestellungId;
+	}
+
+	public Date getErstellt() {
+		return erstellt == null ? null : (Date) erstellt.clone();
+	}
+
+	@Override
+	public String toString() {
+		return "Idempotenzschluessel [schluessel=" + schluessel
+				+ ", bestellungId=" + bestellungId + ", erstellt=" + erstellt
+				+ "]";
+	}
+}
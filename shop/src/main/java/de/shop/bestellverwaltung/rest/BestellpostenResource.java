@@ -1,10 +1,12 @@
 package de.shop.bestellverwaltung.rest;
 
+import static de.shop.util.SmileProvider.APPLICATION_SMILE;
 import static java.util.logging.Level.FINER;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 
 import java.lang.invoke.MethodHandles;
 import java.util.Collection;
+import java.util.List;
 import java.util.Locale;
 import java.util.logging.Logger;
 
@@ -20,6 +22,7 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 
 import org.jboss.resteasy.annotations.providers.jaxb.Wrapped;
@@ -33,13 +36,15 @@ import de.shop.kundenverwaltung.domain.Kunde;
 import de.shop.kundenverwaltung.service.KundeService;
 import de.shop.produktverwaltung.domain.Produktdaten;
 import de.shop.produktverwaltung.service.ProduktdatenService;
+import de.shop.util.Abschnittsquelle;
+import de.shop.util.JsonStreamer;
 import de.shop.util.LocaleHelper;
 import de.shop.util.Log;
 import de.shop.util.Transactional;
 import de.shop.util.exceptions.NotFoundException;
 
 @Path("/bestellposten")
-@Produces(APPLICATION_JSON)
+@Produces({APPLICATION_JSON, APPLICATION_SMILE })
 @Consumes
 @RequestScoped
 @Transactional
@@ -71,6 +76,9 @@ public class BestellpostenResource {
 	@Inject
 	private LocaleHelper localeHelper;
 	
+	@Inject
+	private JsonStreamer jsonStreamer;
+	
 	///////////////////////////////////////////////////////////////////////
 	// METHODS
 	
@@ -78,7 +86,7 @@ public class BestellpostenResource {
 		Lege einen Bestellposten an
 	 */
 	@POST
-	@Consumes(APPLICATION_JSON)
+	@Consumes({APPLICATION_JSON, APPLICATION_SMILE })
 	@Produces
 	public void addBestellposten(Bestellposten bestellposten, @Context UriInfo uriInfo) {
 	
@@ -114,7 +122,7 @@ public class BestellpostenResource {
 	*Verndere einen Bestellposten
 	*/
 	@PUT
-	@Consumes(APPLICATION_JSON)
+	@Consumes({APPLICATION_JSON, APPLICATION_SMILE })
 	@Produces
 	public void updateBestellposten(Bestellposten bestellposten, @Context UriInfo uriInfo) {
 		
@@ -168,6 +176,30 @@ public class BestellpostenResource {
 		return results;
 	}
 	
+	/**
+		Alle Bestellposten abschnittsweise als JSON-Array, ohne sie vorher
+		komplett zu laden
+	 */
+	@GET
+	@Path("stream")
+	@Produces(APPLICATION_JSON)
+	public Response streameAlleBestellposten() {
+
+		LOGGER.log(FINER, "Alle Bestellposten Streamen");
+		
+		return Response.ok(jsonStreamer.streame(new Abschnittsquelle<Bestellposten>() {
+			@Override
+			public List<Bestellposten> lade(Integer nachId, int anzahl) {
+				return bps.findBestellpostenNachId(nachId, anzahl);
+			}
+
+			@Override
+			public Integer getId(Bestellposten bestellposten) {
+				return bestellposten.getBestellpostenID();
+			}
+		})).build();
+	}
+	
 	/**
 		Suche nach Bestellposten nach ID des Bestellpostens
 		@return genau 1 Bestellposten
@@ -1,5 +1,6 @@
 package de.shop.bestellverwaltung.rest;
 
+import static de.shop.util.SmileProvider.APPLICATION_SMILE;
 import static java.util.logging.Level.FINER;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 
@@ -14,6 +15,7 @@ import javax.inject.Inject;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
@@ -22,6 +24,7 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 
@@ -30,10 +33,19 @@ import org.jboss.resteasy.annotations.providers.jaxb.Wrapped;
 import de.shop.bestellverwaltung.domain.Bestellposten;
 import de.shop.bestellverwaltung.domain.Bestellung;
 import de.shop.bestellverwaltung.service.BestellpostenService;
+import de.shop.bestellverwaltung.service.BestellungEingang;
 import de.shop.bestellverwaltung.service.BestellungService;
 import de.shop.bestellverwaltung.service.BestellungService.FetchType;
+import de.shop.bestellverwaltung.service.util.Idempotenzspeicher;
 import de.shop.kundenverwaltung.domain.Kunde;
+import de.shop.kundenverwaltung.rest.UriHelperKunde;
 import de.shop.kundenverwaltung.service.KundeService;
+import de.shop.produktverwaltung.service.util.FlashSale.Zulassung;
+import de.shop.util.Abrufplan;
+import de.shop.util.Abschnittsquelle;
+import de.shop.util.ETagHelper;
+import de.shop.util.Erweitert;
+import de.shop.util.JsonStreamer;
 import de.shop.util.LocaleHelper;
 import de.shop.util.Log;
 import de.shop.util.Transactional;
@@ -45,14 +57,20 @@ import de.shop.util.exceptions.NotFoundException;
  * @author Matthias Schnell
  */
 @Path("/bestellung")
-@Produces(APPLICATION_JSON)
+@Produces({APPLICATION_JSON, APPLICATION_SMILE })
 @Consumes
 @RequestScoped
-@Transactional
 @Log
 public class BestellungResource {
 	private static final int EXISTING_KUNDEN_ID = 101;
 
+	// Erlaubte Werte fuer ?expand=
+	private static final String EXPAND_BESTELLPOSTEN = "bestellposten";
+	private static final String EXPAND_PRODUKTDATEN = "bestellposten.produktdaten";
+	private static final String EXPAND_KUNDE = "kunde";
+
+	private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
 	// /////////////////////////////////////////////////////////////////////
 	// ATTRIBUTES
 	@Context
@@ -61,6 +79,9 @@ public class BestellungResource {
 	@Context
 	private UriInfo uriInfo;
 
+	@Context
+	private Request request;
+
 	// INJECTS
 	@Inject
 	private LocaleHelper localeHelper;
@@ -82,13 +103,23 @@ public class BestellungResource {
 	@Inject
 	private UriHelperBestellung uriHelperBestellung;
 
+	@Inject
+	private UriHelperKunde uriHelperKunde;
+
+	@Inject
+	private JsonStreamer jsonStreamer;
+
+	@Inject
+	private BestellungEingang eingang;
+
 	// /////////////////////////////////////////////////////////////////////
 	// METHODS
 
 	
 	@PUT
-	@Consumes(APPLICATION_JSON)
+	@Consumes({APPLICATION_JSON, APPLICATION_SMILE })
 	@Produces
+	@Transactional
 	public void updateBestellung(Bestellung bestellung) {
 
 		final Locale locale = localeHelper.getLocale(headers);
@@ -142,9 +173,14 @@ public class BestellungResource {
 //		final URI beUri = uriHelperBestellung.getUriBestellung(pBE, uriInfo);
 //		return Response.created(beUri).build();
 //	}
+	/**
+	 * Ohne eigene Transaktion: die Zulassung zum Flash-Sale wird eingeholt,
+	 * bevor die Bestellung in einer Transaktion gespeichert wird
+	 */
 	@POST
-	@Consumes(APPLICATION_JSON)
-	public Response createBestellung(Bestellung bestellung) throws Exception {
+	@Consumes({APPLICATION_JSON, APPLICATION_SMILE })
+	public Response createBestellung(Bestellung bestellung,
+			@HeaderParam(IDEMPOTENCY_KEY) String idempotencyKey) throws Exception {
 		// Schluessel des Kunden extrahieren
 		final String kundeUriStr = bestellung.getKundeUri().toString();
 		final int startPos = kundeUriStr.lastIndexOf('/') + 1;
@@ -156,6 +192,13 @@ public class BestellungResource {
 		catch (NumberFormatException e) {
 			throw new NotFoundException("Kein Kunde vorhanden mit der ID " + kundeIdStr, e);
 		}
+
+		// Bei einer wiederholten Anfrage liefert der Service die ID der
+		// Bestellung der ersten Anfrage
+		final String schluessel = idempotencyKey == null || idempotencyKey.isEmpty()
+				? null
+				: Idempotenzspeicher.erzeugeSchluessel(kundeId, idempotencyKey);
+
 		final Locale localeDefault = localeHelper.getLocale(headers);
 		final Kunde k = ks.findKundeById(kundeId, localeDefault);
 		
@@ -165,8 +208,25 @@ public class BestellungResource {
 		bestellung.setKunde(k);
 		
 		final Locale locale = localeHelper.getLocale(headers);
-		bestellung = bs.addBestellung(bestellung, locale);
-		final URI bestellungUri = uriHelperBestellung.getUriBestellung(bestellung, uriInfo);
+		final Integer bestellungId;
+		// Bei eingeschaltetem Group Commit ueber die Warteschlange speichern.
+		// Mit Idempotency-Key nicht: der Schluessel muss in derselben
+		// Transaktion wie die Bestellung gespeichert werden
+		if (eingang.isAktiv() && schluessel == null) {
+			bestellungId = eingang.bestelle(bestellung, locale).getBestellungID();
+		}
+		else {
+			final Zulassung zulassung = bs.lasseZu(bestellung.getBestellposten());
+			try {
+				bestellungId = schluessel == null
+						? bs.addBestellung(bestellung, zulassung, locale).getBestellungID()
+						: bs.addBestellung(bestellung, zulassung, schluessel, locale);
+			}
+			finally {
+				bs.gibFrei(zulassung);
+			}
+		}
+		final URI bestellungUri = uriHelperBestellung.getUriBestellung(bestellungId, uriInfo);
 		//LOGGER.trace(bestellungUri);
 		
 		final Response response = Response.created(bestellungUri).build();
@@ -176,6 +236,7 @@ public class BestellungResource {
 	@Path("{id:[1-9][0-9]*}")
 	@DELETE
 	@Produces
+	@Transactional
 	public void deleteBestellung(@PathParam("id") Integer pKID) {
 
 		final Locale locale = localeHelper.getLocale(headers);
@@ -184,6 +245,7 @@ public class BestellungResource {
 	
 	@GET
 	@Wrapped(element = "bestellungen")
+	@Transactional
 	public List<Bestellung> findAllBestellung() {
 		LOGGER.log(FINER, "REST BEGINN: findAllBestellung");
 
@@ -205,11 +267,65 @@ public class BestellungResource {
 
 	}
 
+	/**
+	 * Alle Bestellungen abschnittsweise als JSON-Array, ohne sie vorher
+	 * komplett zu laden. Ohne Bestellungen wird ein leeres Array geliefert.
+	 */
+	@GET
+	@Path("stream")
+	@Produces(APPLICATION_JSON)
+	@Transactional
+	public Response streameAlleBestellungen() {
+		LOGGER.log(FINER, "REST: streameAlleBestellungen");
+
+		return Response.ok(
+				jsonStreamer.streame(new Abschnittsquelle<Bestellung>() {
+					@Override
+					public List<Bestellung> lade(Integer nachId, int anzahl) {
+						return bs.findBestellungenNachId(nachId, anzahl);
+					}
+
+					@Override
+					public Integer getId(Bestellung bestellung) {
+						return bestellung.getBestellungID();
+					}
+
+					@Override
+					public void vorbereiten(Bestellung bestellung) {
+						// URLs innerhalb der Bestellung anpassen
+						uriHelperBestellung.updateUriBestellung(bestellung,
+								uriInfo);
+					}
+				})).build();
+	}
+
+	/**
+	 * Finde eine Bestellung; mit ?expand=bestellposten,kunde werden die
+	 * Beziehungen in derselben Query gelesen und eingebettet
+	 * (bestellposten.produktdaten holt zusaetzlich die Produktdaten der
+	 * Posten). Eingebettete Entities haben eigene Versionen, deshalb gibt es
+	 * dann kein ETag.
+	 */
 	@GET
 	@Path("{id:[1-9][0-9]*}")
-	public Bestellung findBestellungById(@PathParam("id") Integer pID) {
+	@Transactional
+	public Response findBestellungById(@PathParam("id") Integer pID,
+			@QueryParam("expand") String pExpand) {
+		final Abrufplan plan = Abrufplan.lese(pExpand, EXPAND_BESTELLPOSTEN,
+				EXPAND_PRODUKTDATEN, EXPAND_KUNDE);
+
+		// Unveraendert laut If-None-Match? Dann nur die Version lesen
+		final Integer version = plan.isLeer() ? bs.findVersionById(pID) : null;
+		if (version != null) {
+			final Response nichtGeaendert = ETagHelper.nichtGeaendert(request,
+					pID, version);
+			if (nichtGeaendert != null) {
+				return nichtGeaendert;
+			}
+		}
+
 		final Locale localeDefault = localeHelper.getLocale(headers);
-		final Bestellung be = bs.findBestellungById(pID, localeDefault);
+		final Bestellung be = bs.findBestellungById(pID, plan, localeDefault);
 		if (be == null) {
 			final String msg = "Kein Bestellung gefunden mit der ID" + pID;
 
@@ -219,10 +335,23 @@ public class BestellungResource {
 		// URLs innerhalb der gefundenen Bestellung anpassen
 		uriHelperBestellung.updateUriBestellung(be, uriInfo);
 
-		return be;
+		if (plan.isLeer()) {
+			return ETagHelper.mitETag(be, pID, be.getVersion());
+		}
+
+		final Erweitert<Bestellung> erweitert = new Erweitert<>(be);
+		if (plan.enthaelt(EXPAND_BESTELLPOSTEN)) {
+			erweitert.mit(EXPAND_BESTELLPOSTEN, be.getBestellposten());
+		}
+		if (plan.enthaelt(EXPAND_KUNDE) && be.getKunde() != null) {
+			uriHelperKunde.updateUriKunde(be.getKunde(), uriInfo);
+			erweitert.mit(EXPAND_KUNDE, be.getKunde());
+		}
+		return Response.ok(erweitert).build();
 	}
 
 	@GET
+	@Transactional
 	public List<Bestellung> findBestellungenByPreisspanne(
 			@QueryParam("min") Double pMin, @QueryParam("max") Double pMax,
 			@Context UriInfo uriInfo) {
@@ -247,6 +376,7 @@ public class BestellungResource {
 
 	@GET
 	@Path("{id:[1-9][0-9]*}/kunde")
+	@Transactional
 	public List<Bestellung> findBestellungenByKundeId(
 			@PathParam("kid") Integer pKID, @Context UriInfo uriInfo) {
 
@@ -275,6 +405,7 @@ public class BestellungResource {
 
 	@GET
 	@Path("{bestellungFk:[1-9][0-9]*}/bestellposten")
+	@Transactional
 	public List<Bestellposten> findBestellpostenByBestellungId(
 			@PathParam("bestellungFk") Integer bestellungFk,
 			@Context UriInfo uriInfo) {
@@ -29,10 +29,14 @@ public class UriHelperBestellung {
 	}
 
 	public URI getUriBestellung(Bestellung bestellung, UriInfo uriInfo) {
+		return getUriBestellung(bestellung.getBestellungID(), uriInfo);
+	}
+
+	public URI getUriBestellung(Integer bestellungId, UriInfo uriInfo) {
 		final UriBuilder ub = uriInfo.getBaseUriBuilder()
 				.path(BestellungResource.class)
 				.path(BestellungResource.class, "findBestellungById");
-		final URI uri = ub.build(bestellung.getBestellungID());
+		final URI uri = ub.build(bestellungId);
 		return uri;
 	}
 
@@ -1,5 +1,6 @@
 package de.shop.bestellverwaltung.service;
 
+import static de.shop.util.Mehrfachsuche.MAX_IN_PARAMETER;
 import static java.util.logging.Level.FINER;
 
 import java.io.Serializable;
@@ -120,6 +121,19 @@ public class BestellpostenService implements Serializable {
 		return bp;
 	}
 	
+	/**
+	 * Finde einen Abschnitt aller Bestellposten (Keyset nach ID), z.B. fuer
+	 * das Streaming
+	 */
+	@SuppressWarnings("unchecked")
+	public List<Bestellposten> findBestellpostenNachId(Integer nachId, int anzahl) {
+		
+		return em.createNamedQuery(Bestellposten.BESTELLPOSTEN_NACH_ID_SEITE)
+				.setParameter("nachId", nachId)
+				.setMaxResults(anzahl)
+				.getResultList();
+	}
+	
 	/**
 	 * Finde einen Bestellposten anhand der ID
 	 * @param justBestellposten 
@@ -304,9 +318,31 @@ public class BestellpostenService implements Serializable {
 	}	
 	
 	
-	public void updateAfterCreateBestellung(int bpId, int bId) {
-		em.createNamedQuery(Bestellposten.BESTELLPOSTEN_UPDATE_FK).setParameter("bestellungfk", bpId).
-		setParameter("id", bId).executeUpdate();
+	/**
+	 * Ordnet bereits gespeicherte Bestellposten einer Bestellung zu, mit
+	 * einem UPDATE je Block von IDs statt einem UPDATE pro Bestellposten
+	 * 
+	 * @param b
+	 *            Die (gespeicherte) Bestellung
+	 * @param bpIds
+	 *            IDs der Bestellposten
+	 * @return Anzahl geaenderter Bestellposten
+	 */
+	public int updateAfterCreateBestellung(Bestellung b, List<Integer> bpIds) {
+		LOGGER.log(FINER, "BEGINN: Bestellposten {0} zu Bestellung {1}",
+				new Object[] {bpIds, b.getBestellungID() });
+
+		int anzahl = 0;
+		for (int i = 0; i < bpIds.size(); i += MAX_IN_PARAMETER) {
+			anzahl += em.createNamedQuery(Bestellposten.BESTELLPOSTEN_UPDATE_FK)
+					.setParameter("bestellung", b)
+					.setParameter("ids", bpIds.subList(i,
+							Math.min(i + MAX_IN_PARAMETER, bpIds.size())))
+					.executeUpdate();
+		}
+
+		LOGGER.log(FINER, "ENDE: {0} Bestellposten zugeordnet", anzahl);
+		return anzahl;
 	}
 	
 	
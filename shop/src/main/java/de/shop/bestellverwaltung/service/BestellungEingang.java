@@ -0,0 +1,483 @@
+package de.shop.bestellverwaltung.service;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.logging.Level.FINER;
+import static java.util.logging.Level.INFO;
+import static java.util.logging.Level.WARNING;
+import static javax.ejb.ConcurrencyManagementType.BEAN;
+import static javax.ejb.TransactionAttributeType.NOT_SUPPORTED;
+import static javax.ejb.TransactionAttributeType.REQUIRES_NEW;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.ejb.Asynchronous;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.EJBException;
+import javax.ejb.LocalBean;
+import javax.ejb.SessionContext;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
+import javax.ejb.TransactionAttribute;
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import de.shop.bestellverwaltung.domain.Bestellposten;
+import de.shop.bestellverwaltung.domain.Bestellung;
+import de.shop.produktverwaltung.service.util.FlashSale.Zulassung;
+import de.shop.util.AbstractShopException;
+import de.shop.util.Config;
+import de.shop.util.exceptions.EingangUeberlastetException;
+
+/**
+ * Optionaler Eingang fuer neue Bestellungen bei Lastspitzen (Group Commit).
+ * Statt jede Bestellung in einer eigenen Transaktion zu speichern, stellen
+ * die Aufrufer sie in eine begrenzte Warteschlange. Wenige Schreiber
+ * speichern jeweils bis zu {@link #MAX_GRUPPE} Bestellungen, bzw. was
+ * innerhalb von {@link #MAX_WARTEZEIT_MILLIS} ms eingeht, in einer
+ * gemeinsamen Transaktion; Flush und Commit fallen so nur einmal pro Gruppe
+ * an. Die Schreiber sind asynchrone EJB-Aufrufe im Thread-Pool des
+ * Containers, die sich nach {@link #LAUFZEIT_SEKUNDEN} s (oder nach einem
+ * Fehler) selbst neu einplanen.
+ *
+ * Fuer den Aufrufer aendert sich nichts: eine ungueltige oder nicht
+ * lieferbare Bestellung scheitert einzeln, die anderen der Gruppe werden
+ * trotzdem gespeichert. Scheitert der Commit der Gruppe, wird jede ihrer
+ * Bestellungen noch einmal einzeln gespeichert. Wartet ein Aufrufer laenger
+ * als {@link #MAX_ERGEBNIS_SEKUNDEN} s, erhaelt er eine
+ * {@link EingangUeberlastetException}.
+ *
+ * Die Zulassung zum Flash-Sale holt der Aufrufer vor dem Einreihen und
+ * ausserhalb jeder Transaktion. Die Gruppe bindet nur noch die Zulassungen
+ * ihrer Auftraege und wartet nie auf einen Platz, den ein anderer Auftrag
+ * derselben Gruppe belegt. Erst fuer die einzelne Wiederholung nach einem
+ * gescheiterten Commit laesst der Schreiber die Bestellung neu zu.
+ *
+ * Eingeschaltet wird der Eingang mit dem Env-Entry gruppenCommit in der
+ * web.xml (siehe {@link Config}).
+ */
+@Singleton
+@Startup
+@LocalBean
+@ConcurrencyManagement(BEAN)
+public class BestellungEingang {
+
+	// /////////////////////////////////////////////////////////////////////
+	// ATTRIBUTES
+
+	private static final Logger LOGGER = Logger.getLogger(MethodHandles
+			.lookup().lookupClass().getName());
+
+	/**
+	 * Maximale Anzahl Bestellungen pro Transaktion, passend zu
+	 * hibernate.jdbc.batch_size
+	 */
+	public static final int MAX_GRUPPE = 50;
+
+	/**
+	 * So lange sammelt ein Schreiber nach der ersten Bestellung weitere
+	 */
+	public static final long MAX_WARTEZEIT_MILLIS = 5;
+
+	/**
+	 * Maximale Anzahl wartender Bestellungen
+	 */
+	public static final int KAPAZITAET = 2000;
+
+	/**
+	 * So lange wartet ein Aufrufer auf das Ergebnis seiner Bestellung
+	 */
+	public static final long MAX_ERGEBNIS_SEKUNDEN = 30;
+
+	/**
+	 * Nach dieser Zeit plant sich ein Schreiber neu ein
+	 */
+	public static final long LAUFZEIT_SEKUNDEN = 60;
+
+	// So lange wartet ein Aufrufer auf einen freien Platz
+	private static final long MAX_EINREIHEN_MILLIS = 100;
+
+	// So lange wartet ein Schreiber auf die erste Bestellung einer Gruppe
+	private static final long LEERLAUF_MILLIS = 1000;
+
+	private static final int SCHREIBER = 2;
+
+	@Inject
+	private Config config;
+
+	@PersistenceContext
+	private EntityManager em;
+
+	@Inject
+	private BestellungService bs;
+
+	@Resource
+	private SessionContext ctx;
+
+	private final BlockingQueue<Auftrag> warteschlange = new ArrayBlockingQueue<>(
+			KAPAZITAET);
+
+	// Eigene Business-Sicht fuer asynchrone Aufrufe und REQUIRES_NEW
+	private BestellungEingang self;
+
+	private volatile boolean aktiv;
+
+	// /////////////////////////////////////////////////////////////////////
+	// METHODS
+
+	@PostConstruct
+	private void starten() {
+		if (!config.isGruppenCommit()) {
+			return;
+		}
+		self = ctx.getBusinessObject(BestellungEingang.class);
+		aktiv = true;
+		for (int i = 0; i < SCHREIBER; i++) {
+			self.schreibe();
+		}
+		LOGGER.log(INFO,
+				"Group Commit fuer Bestellungen mit {0} Schreibern, bis zu {1} Bestellungen pro Transaktion",
+				new Object[] {SCHREIBER, MAX_GRUPPE });
+	}
+
+	@PreDestroy
+	private void beenden() {
+		if (!aktiv) {
+			return;
+		}
+		aktiv = false;
+
+		// Nicht mehr bearbeitete Bestellungen abweisen
+		final List<Auftrag> rest = new ArrayList<>();
+		warteschlange.drainTo(rest);
+		for (Auftrag auftrag : rest) {
+			if (auftrag.abbrechen()) {
+				auftrag.scheitern(new EingangUeberlastetException());
+			}
+		}
+	}
+
+	/**
+	 * @return true, falls Bestellungen ueber den Eingang gespeichert werden
+	 */
+	@TransactionAttribute(NOT_SUPPORTED)
+	public boolean isAktiv() {
+		return aktiv;
+	}
+
+	/**
+	 * Laesst eine Bestellung im Flash-Sale zu, stellt sie in die
+	 * Warteschlange und wartet auf das Ergebnis. Exceptions der Bestellung
+	 * (z.B. bei der Validierung oder Zulassung) werden unveraendert
+	 * weitergereicht.
+	 * 
+	 * @return Die gespeicherte Bestellung mit ID
+	 * @throws EingangUeberlastetException
+	 *             Falls die Warteschlange voll ist oder die Bestellung nicht
+	 *             rechtzeitig gespeichert wird
+	 */
+	@TransactionAttribute(NOT_SUPPORTED)
+	public Bestellung bestelle(Bestellung bestellung, Locale locale) {
+		final Zulassung zulassung = bs.lasseZu(bestellung.getBestellposten());
+		final Auftrag auftrag = new Auftrag(bestellung, zulassung, locale);
+		boolean eingereiht = false;
+		try {
+			eingereiht = aktiv
+					&& warteschlange.offer(auftrag, MAX_EINREIHEN_MILLIS,
+							MILLISECONDS);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (!eingereiht) {
+			bs.gibFrei(zulassung);
+			throw new EingangUeberlastetException();
+		}
+		try {
+			return auftrag.warte(SECONDS.toNanos(MAX_ERGEBNIS_SEKUNDEN));
+		}
+		finally {
+			// Hat ein Schreiber den Auftrag uebernommen, geben er bzw. das Ende
+			// seiner Transaktion die Zulassung frei
+			if (auftrag.isAbgebrochen()) {
+				bs.gibFrei(zulassung);
+			}
+		}
+	}
+
+	/**
+	 * Ein Schreiber: sammelt Gruppen und speichert sie, bis die Laufzeit
+	 * abgelaufen ist, und plant sich dann neu ein
+	 */
+	@Asynchronous
+	@TransactionAttribute(NOT_SUPPORTED)
+	public void schreibe() {
+		final long ende = System.nanoTime() + SECONDS.toNanos(LAUFZEIT_SEKUNDEN);
+		try {
+			final List<Auftrag> gruppe = new ArrayList<>(MAX_GRUPPE);
+			while (aktiv && System.nanoTime() < ende) {
+				sammle(gruppe);
+				if (!gruppe.isEmpty()) {
+					schreibeGruppeOderEinzeln(gruppe);
+					gruppe.clear();
+				}
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		finally {
+			// Auch nach einem Error: solange aktiv, laufen SCHREIBER Schreiber
+			if (aktiv) {
+				self.schreibe();
+			}
+		}
+	}
+
+	/**
+	 * Speichert eine Gruppe in einer eigenen Transaktion. Einzelne
+	 * Bestellungen, die nicht gespeichert werden koennen, scheitern sofort.
+	 * 
+	 * @return Die Auftraege, deren Bestellungen mit dem Commit gespeichert
+	 *         sind
+	 */
+	@TransactionAttribute(REQUIRES_NEW)
+	public List<Auftrag> schreibeGruppe(List<Auftrag> gruppe) {
+		LOGGER.log(FINER, "BEGINN: Gruppe mit {0} Bestellungen", gruppe.size());
+
+		final List<Auftrag> angenommen = new ArrayList<>(gruppe.size());
+		for (Auftrag auftrag : gruppe) {
+			if (auftrag.isFertig()) {
+				continue;
+			}
+			try {
+				bs.persistiereBestellung(auftrag.bestellung, auftrag.zulassung,
+						auftrag.locale);
+				angenommen.add(auftrag);
+			}
+			catch (AbstractShopException e) {
+				scheitern(auftrag, e);
+			}
+		}
+
+		// Ein Flush fuer die ganze Gruppe (JDBC-Batch)
+		em.flush();
+
+		LOGGER.log(FINER, "ENDE: Gruppe mit {0} Bestellungen",
+				angenommen.size());
+		return angenommen;
+	}
+
+	/*
+	 * Wartet bis zu LEERLAUF_MILLIS auf die erste Bestellung und sammelt dann
+	 * bis zu MAX_GRUPPE Bestellungen oder bis MAX_WARTEZEIT_MILLIS abgelaufen
+	 * ist. Abgebrochene Auftraege werden uebergangen.
+	 */
+	private void sammle(List<Auftrag> gruppe) throws InterruptedException {
+		final Auftrag erster = warteschlange.poll(LEERLAUF_MILLIS,
+				MILLISECONDS);
+		if (erster == null) {
+			return;
+		}
+		uebernehme(erster, gruppe);
+		final long frist = System.nanoTime()
+				+ MILLISECONDS.toNanos(MAX_WARTEZEIT_MILLIS);
+		while (gruppe.size() < MAX_GRUPPE) {
+			final long rest = frist - System.nanoTime();
+			if (rest <= 0) {
+				break;
+			}
+			final Auftrag auftrag = warteschlange.poll(rest, NANOSECONDS);
+			if (auftrag == null) {
+				break;
+			}
+			uebernehme(auftrag, gruppe);
+		}
+	}
+
+	private static void uebernehme(Auftrag auftrag, List<Auftrag> gruppe) {
+		if (auftrag.beginne()) {
+			gruppe.add(auftrag);
+		}
+	}
+
+	private void schreibeGruppeOderEinzeln(List<Auftrag> gruppe) {
+		try {
+			final List<Auftrag> angenommen = self.schreibeGruppe(gruppe);
+			for (Auftrag auftrag : angenommen) {
+				auftrag.erfuellen();
+			}
+		}
+		catch (RuntimeException e) {
+			LOGGER.log(WARNING,
+					"Commit einer Gruppe mit {0} Bestellungen gescheitert, speichere einzeln",
+					gruppe.size());
+			for (Auftrag auftrag : gruppe) {
+				schreibeEinzeln(auftrag);
+			}
+		}
+	}
+
+	private void schreibeEinzeln(Auftrag auftrag) {
+		if (auftrag.isFertig()) {
+			return;
+		}
+		auftrag.zuruecksetzen();
+		try {
+			// Der Rollback der Gruppe hat die Zulassung freigegeben bzw. sie
+			// wurde nicht mehr gebunden: ausserhalb der Transaktion neu
+			// zulassen, damit die Bestellung nicht ohne Tokens gespeichert wird
+			bs.gibFrei(auftrag.zulassung);
+			auftrag.zulassung = bs.lasseZu(auftrag.bestellung
+					.getBestellposten());
+			if (!self.schreibeGruppe(Collections.singletonList(auftrag))
+					.isEmpty()) {
+				auftrag.erfuellen();
+			}
+		}
+		catch (EJBException e) {
+			scheitern(auftrag, e.getCausedByException() == null ? e : e
+					.getCausedByException());
+		}
+		catch (RuntimeException e) {
+			scheitern(auftrag, e);
+		}
+	}
+
+	// Eine gescheiterte Bestellung gibt ihre Zulassung sofort frei
+	private void scheitern(Auftrag auftrag, Exception e) {
+		bs.gibFrei(auftrag.zulassung);
+		auftrag.scheitern(e);
+	}
+
+	// /////////////////////////////////////////////////////////////////////
+	// INNER CLASSES
+
+	/**
+	 * Eine Bestellung in der Warteschlange und ihr Ergebnis fuer den
+	 * wartenden Aufrufer
+	 */
+	public static final class Auftrag {
+		private enum Zustand {
+			WARTEND, IN_ARBEIT, ABGEBROCHEN
+		}
+
+		private final Bestellung bestellung;
+		private final Locale locale;
+
+		// Neu zugelassen, falls die Bestellung einzeln wiederholt wird
+		private volatile Zulassung zulassung;
+
+		private final AtomicReference<Zustand> zustand = new AtomicReference<>(
+				Zustand.WARTEND);
+
+		private final CountDownLatch fertig = new CountDownLatch(1);
+
+		private volatile Exception fehler;
+
+		Auftrag(Bestellung bestellung, Zulassung zulassung, Locale locale) {
+			this.bestellung = bestellung;
+			this.zulassung = zulassung;
+			this.locale = locale;
+		}
+
+		/**
+		 * Ein Schreiber uebernimmt den Auftrag
+		 * 
+		 * @return false, falls der Aufrufer nicht mehr wartet
+		 */
+		boolean beginne() {
+			return zustand.compareAndSet(Zustand.WARTEND, Zustand.IN_ARBEIT);
+		}
+
+		/**
+		 * @return true, falls noch kein Schreiber den Auftrag uebernommen hat
+		 */
+		boolean abbrechen() {
+			return zustand.compareAndSet(Zustand.WARTEND, Zustand.ABGEBROCHEN);
+		}
+
+		void erfuellen() {
+			fertig.countDown();
+		}
+
+		void scheitern(Exception e) {
+			fehler = e;
+			fertig.countDown();
+		}
+
+		boolean isFertig() {
+			return fertig.getCount() == 0;
+		}
+
+		/**
+		 * @return true, falls der Auftrag ohne Schreiber beendet wurde
+		 */
+		boolean isAbgebrochen() {
+			return zustand.get() == Zustand.ABGEBROCHEN;
+		}
+
+		/**
+		 * Wartet auf das Ergebnis. Laeuft die Zeit ab, bevor ein Schreiber
+		 * den Auftrag uebernommen hat, wird er abgebrochen; sonst wird noch
+		 * einmal so lange auf den laufenden Commit gewartet.
+		 * 
+		 * @throws EingangUeberlastetException
+		 *             Falls kein Ergebnis vorliegt
+		 */
+		Bestellung warte(long timeoutNanos) {
+			try {
+				boolean ergebnis = fertig.await(timeoutNanos, NANOSECONDS);
+				if (!ergebnis && !abbrechen()) {
+					// Der Commit laeuft bereits
+					ergebnis = fertig.await(timeoutNanos, NANOSECONDS);
+				}
+				if (!ergebnis) {
+					throw new EingangUeberlastetException();
+				}
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				abbrechen();
+				throw new EingangUeberlastetException();
+			}
+
+			final Exception e = fehler;
+			if (e == null) {
+				return bestellung;
+			}
+			if (e instanceof RuntimeException) {
+				throw (RuntimeException) e;
+			}
+			throw new EJBException(e);
+		}
+
+		/*
+		 * Nach dem Rollback der Gruppe: die bereits vergebenen IDs gelten
+		 * nicht mehr
+		 */
+		void zuruecksetzen() {
+			bestellung.setBestellungID(null);
+			bestellung.setVersion(0);
+			if (bestellung.getBestellposten() != null) {
+				for (Bestellposten bp : bestellung.getBestellposten()) {
+					bp.setBestellpostenID(null);
+				}
+			}
+		}
+	}
+}
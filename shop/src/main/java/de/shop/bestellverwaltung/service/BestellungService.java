@@ -5,8 +5,12 @@ import static java.util.logging.Level.FINEST;
 
 import java.io.Serializable;
 import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.logging.Logger;
 
@@ -19,6 +23,14 @@ import javax.validation.groups.Default;
 
 import de.shop.bestellverwaltung.domain.Bestellposten;
 import de.shop.bestellverwaltung.domain.Bestellung;
+import de.shop.bestellverwaltung.domain.Bestellung_;
+import de.shop.bestellverwaltung.service.util.Idempotenzspeicher;
+import de.shop.kundenverwaltung.domain.Kunde;
+import de.shop.produktverwaltung.domain.Produktdaten;
+import de.shop.produktverwaltung.service.util.FlashSale;
+import de.shop.produktverwaltung.service.util.FlashSale.Zulassung;
+import de.shop.produktverwaltung.service.util.Lagerbestand;
+import de.shop.util.Abrufplan;
 import de.shop.util.IdGroup;
 import de.shop.util.Transactional;
 import de.shop.util.ValidatorProvider;
@@ -53,23 +65,109 @@ public class BestellungService implements Serializable {
 	@Inject
 	private BestellpostenService bps;
 	
+	@Inject
+	private Lagerbestand lagerbestand;
+	
+	@Inject
+	private FlashSale flashSale;
+	
+	@Inject
+	private Idempotenzspeicher idempotenzspeicher;
+	
 	
 	// /////////////////////////////////////////////////////////////////////
 	// METHODS
+	/**
+	 * Laesst eine Bestellung mit Produktdaten im Flash-Sale zu. Wird vor der
+	 * Bestell-Transaktion aufgerufen, damit eine wartende Bestellung weder
+	 * Transaktion noch Connection belegt. Die Zulassung wird beim Speichern
+	 * an die Transaktion gebunden; danach schliesst der Aufrufer sie in jedem
+	 * Fall mit {@link #gibFrei(Zulassung)} ab.
+	 * 
+	 * @throws de.shop.util.exceptions.AusverkauftException
+	 *             Falls der Flash-Sale ausverkauft ist
+	 * @throws de.shop.util.exceptions.WartezeitUeberschrittenException
+	 *             Falls die Bestellung zu lange warten muesste
+	 */
+	public Zulassung lasseZu(Collection<Bestellposten> pPositionen) {
+		return flashSale.zulassen(getMengen(pPositionen));
+	}
+
+	/**
+	 * Gibt eine Zulassung nach dem Ende der Bestell-Transaktion frei, falls
+	 * sie nicht an die Transaktion gebunden wurde, z.B. weil die Validierung
+	 * gescheitert ist. Eine gebundene Zulassung bleibt unveraendert.
+	 */
+	public void gibFrei(Zulassung pZulassung) {
+		flashSale.freigeben(pZulassung);
+	}
+
 	/**
 	 * Lege eine Bestellung an
 	 * 
 	 * @param pBD
+	 * @param pZulassung
+	 *            Zulassung aus {@link #lasseZu(Collection)} oder null
 	 * @return
 	 * @throws Exception 
 	 */
 	@Transactional
-	public Bestellung addBestellung(Bestellung pBD, Locale pLocale) throws Exception {
+	public Bestellung addBestellung(Bestellung pBD, Zulassung pZulassung,
+			Locale pLocale) throws Exception {
 
 		if (pBD == null)
 			return pBD;
 		LOGGER.log(FINER, "SERVICE BEGINN: createBestellung with pKD= {0}", pBD);
 
+		persistiereBestellung(pBD, pZulassung, pLocale);
+		
+		/**
+		 * Datenbank synchronisieren
+		 */
+		em.flush();
+
+		LOGGER.log(FINEST, "SERVICE: Bestellung {0} Persist erfolgreich.",
+				pBD.getBestellungID());
+
+		LOGGER.log(FINER, "SERVICE END: createBestellung with pBD= {0}", pBD);
+		return pBD;
+	}
+
+	/**
+	 * Lege eine Bestellung hoechstens einmal pro Schluessel an (siehe
+	 * {@link Idempotenzspeicher}); Schluessel und Bestellung werden in
+	 * derselben Transaktion gespeichert
+	 * 
+	 * @return ID der neuen Bestellung oder der Bestellung einer frueheren
+	 *         Anfrage mit demselben Schluessel
+	 */
+	@Transactional
+	public Integer addBestellung(Bestellung pBD, Zulassung pZulassung,
+			String pSchluessel, Locale pLocale) throws Exception {
+		final Integer frueher = idempotenzspeicher
+				.beginneInTransaktion(pSchluessel);
+		if (frueher != null) {
+			LOGGER.log(FINER, "Wiederholte Anfrage fuer Bestellung {0}", frueher);
+			return frueher;
+		}
+
+		addBestellung(pBD, pZulassung, pLocale);
+		idempotenzspeicher.setzeErgebnis(pSchluessel, pBD.getBestellungID());
+		return pBD.getBestellungID();
+	}
+
+	/**
+	 * Prueft die Bestellung, reserviert die bestellten Mengen und uebergibt
+	 * sie dem EntityManager. Geschrieben wird erst beim naechsten Flush bzw.
+	 * Commit, so dass mehrere Bestellungen in einer Transaktion gemeinsam
+	 * gespeichert werden koennen (siehe {@link BestellungEingang}).
+	 * 
+	 * @param pZulassung
+	 *            Zulassung aus {@link #lasseZu(Collection)} oder null
+	 */
+	@Transactional
+	public void persistiereBestellung(Bestellung pBD, Zulassung pZulassung,
+			Locale pLocale) {
 		/**
 		 * Prfen ob Bestelldaten korrekt sind
 		 */
@@ -77,21 +175,128 @@ public class BestellungService implements Serializable {
 		LOGGER.log(FINEST, "SERVICE: Bestellung {0} validierung erfolgreich.",
 				pBD.getBestellungID());
 
+		/**
+		 * Bestellte Mengen reservieren
+		 */
+		reserviereBestand(pBD, pZulassung);
+
 		/**
 		 * Die Bestellung wird an die Datenbank bergeben
 		 */
 		em.persist(pBD);
-		
+		addBestellposten(pBD);
+	}
+
+	/**
+	 * Bestellung aus dem Warenkorb: legt nur die neue Bestellung samt ihren
+	 * Bestellposten an. Kunde und Produktdaten werden per getReference()
+	 * referenziert, d.h. der Kunde wird weder geladen noch gemergt. Dadurch
+	 * haengt der Aufwand nicht von der Anzahl seiner bisherigen Bestellungen
+	 * ab (Kunde.bestellungen ist EAGER mit CascadeType.ALL).
+	 * 
+	 * @param pKID
+	 *            ID des bestellenden Kunden
+	 * @param pPositionen
+	 *            Positionen des Warenkorbs, nur Produktdaten-ID und Anzahl
+	 *            werden uebernommen
+	 * @param pZulassung
+	 *            Zulassung aus {@link #lasseZu(Collection)} oder null
+	 * @return Die neue Bestellung mit ID
+	 */
+	@Transactional
+	public Bestellung bestelle(Integer pKID, List<Bestellposten> pPositionen,
+			Zulassung pZulassung, Locale pLocale) {
+		LOGGER.log(FINER, "SERVICE BEGINN: bestelle fuer Kunde {0}, {1} Positionen",
+				new Object[] {pKID, pPositionen.size() });
+
+		final Bestellung bestellung = new Bestellung();
+		bestellung.setKunde(em.getReference(Kunde.class, pKID));
+		for (Bestellposten position : pPositionen) {
+			// Preis kommt aus dem 2nd-Level-Cache, nicht aus dem Warenkorb
+			final Produktdaten produktdaten = em.getReference(
+					Produktdaten.class, position.getProduktdaten()
+							.getProduktdatenID());
+			bestellung.addBestellposten(new Bestellposten(bestellung,
+					produktdaten, position.getAnzahl()));
+		}
+		bestellung.setGesamtpreis(bestellung.errechneGesamtpreis());
+
 		/**
-		 * Datenbank synchronisieren
+		 * Pruefen ob Bestelldaten korrekt sind
 		 */
+		validateBestellung(bestellung, pLocale, Default.class);
+
+		/**
+		 * Bestellte Mengen reservieren
+		 */
+		reserviereBestand(bestellung, pZulassung);
+
+		/**
+		 * Nur die Bestellung und ihre Bestellposten speichern
+		 */
+		em.persist(bestellung);
+		addBestellposten(bestellung);
 		em.flush();
 
-		LOGGER.log(FINEST, "SERVICE: Bestellung {0} Persist erfolgreich.",
-				pBD.getBestellungID());
+		LOGGER.log(FINER, "SERVICE END: bestelle mit ID {0}",
+				bestellung.getBestellungID());
+		return bestellung;
+	}
 
-		LOGGER.log(FINER, "SERVICE END: createBestellung with pBD= {0}", pBD);
-		return pBD;
+	/**
+	 * Reserviert die Mengen aller Bestellposten im Lagerbestand. Nach dem
+	 * Commit der laufenden Transaktion werden sie abgebucht, nach einem
+	 * Rollback wieder freigegeben. Die Zulassung fuer Produktdaten im
+	 * Flash-Sale wird an die Transaktion gebunden; ohne vorherige Zulassung
+	 * wird sie hier ohne Warten eingeholt.
+	 * 
+	 * @param pZulassung
+	 *            Zulassung aus {@link #lasseZu(Collection)} oder null
+	 * @throws de.shop.util.exceptions.NichtVerfuegbarException
+	 *             Falls eine Menge nicht verfuegbar ist
+	 * @throws de.shop.util.exceptions.AusverkauftException
+	 *             Falls der Flash-Sale ausverkauft ist
+	 * @throws de.shop.util.exceptions.WartezeitUeberschrittenException
+	 *             Falls ohne vorherige Zulassung kein Platz frei ist
+	 */
+	public void reserviereBestand(Bestellung pBD, Zulassung pZulassung) {
+		if (pBD.getBestellposten() == null) {
+			return;
+		}
+		final Map<Integer, Integer> mengen = getMengen(pBD.getBestellposten());
+		final Zulassung zulassung;
+		if (pZulassung == null) {
+			zulassung = flashSale.zulassenInTransaktion(mengen);
+		}
+		else {
+			zulassung = pZulassung;
+			flashSale.bindeAnTransaktion(zulassung);
+		}
+		try {
+			lagerbestand.reserviereInTransaktion(mengen);
+		}
+		catch (RuntimeException e) {
+			// Die Transaktion wird bei Shop-Exceptions trotzdem committed
+			flashSale.freigeben(zulassung);
+			throw e;
+		}
+	}
+
+	private static Map<Integer, Integer> getMengen(
+			Collection<Bestellposten> pPositionen) {
+		final Map<Integer, Integer> mengen = new HashMap<>();
+		if (pPositionen == null) {
+			return mengen;
+		}
+		for (Bestellposten bp : pPositionen) {
+			if (bp.getProduktdaten() == null) {
+				continue;
+			}
+			final Integer id = bp.getProduktdaten().getProduktdatenID();
+			final Integer bisher = mengen.get(id);
+			mengen.put(id, bisher == null ? bp.getAnzahl() : bisher + bp.getAnzahl());
+		}
+		return mengen;
 	}
 
 	/**
@@ -111,11 +316,46 @@ public class BestellungService implements Serializable {
 		LOGGER.log(FINER, "SERVICE END: findAllBestellungen");
 		return be;
 	}
+
+	/**
+	 * Finde einen Abschnitt aller Bestellungen (Keyset nach ID), z.B. fuer
+	 * das Streaming
+	 */
+	@SuppressWarnings("unchecked")
+	public List<Bestellung> findBestellungenNachId(Integer nachId, int anzahl) {
+		return em.createNamedQuery(Bestellung.BESTELLUNG_NACH_ID_SEITE)
+				.setParameter("nachId", nachId)
+				.setMaxResults(anzahl)
+				.getResultList();
+	}
+	/**
+	 * Ordnet alle Bestellposten der (gespeicherten) Bestellung zu: neue
+	 * Bestellposten werden mit gesetztem Fremdschluessel eingefuegt (als
+	 * JDBC-Batch, siehe hibernate.jdbc.batch_size), bereits gespeicherte mit
+	 * einem einzigen UPDATE ... WHERE ... IN. Auch Bestellungen mit hunderten
+	 * Posten kommen so mit wenigen Roundtrips aus. Jede neue Bestellung wird
+	 * ueber diese Methode gespeichert, da Bestellung.bestellposten kein
+	 * CascadeType.PERSIST hat.
+	 */
 	@Transactional
 	public void addBestellposten(Bestellung b) {
+		if (b.getBestellposten() == null) {
+			return;
+		}
+		final List<Integer> gespeichert = new ArrayList<>();
 		for (Bestellposten posten : b.getBestellposten()) {
+			final boolean verwaltet = em.contains(posten);
 			posten.setBestellung(b);
-			bps.updateAfterCreateBestellung(posten.getBestellpostenID(), b.getBestellungID());
+			if (posten.getBestellpostenID() == null) {
+				em.persist(posten);
+			}
+			else if (!verwaltet) {
+				// Verwaltete Posten schreibt der Flush (ebenfalls als Batch)
+				gespeichert.add(posten.getBestellpostenID());
+			}
+		}
+		if (!gespeichert.isEmpty()) {
+			bps.updateAfterCreateBestellung(b, gespeichert);
 		}
 	}
 
@@ -127,6 +367,20 @@ public class BestellungService implements Serializable {
 	 */
 
 	public Bestellung findBestellungById(Integer pID, Locale pLocale) {
+		return findBestellungById(pID, Abrufplan.KEINER, pLocale);
+	}
+
+	/**
+	 * Finde eine Bestellung anhand seiner ID samt den Beziehungen des
+	 * Abrufplans (bestellposten, bestellposten.produktdaten, kunde) mit einer
+	 * Query
+	 * 
+	 * @param pID
+	 * @param pPlan
+	 * @return gefundene Bestellung
+	 */
+	public Bestellung findBestellungById(Integer pID, Abrufplan pPlan,
+			Locale pLocale) {
 		if (pID == null) {
 			return null;
 		}
@@ -145,12 +399,25 @@ public class BestellungService implements Serializable {
 		 * Gefundene Bestellung speichern
 		 */
 
-		be = em.find(Bestellung.class, pID);
+		be = pPlan.findeById(em, Bestellung.class, Bestellung_.bestellungID,
+				pID);
 
 		LOGGER.log(FINER, "SERVICE END: findBestellungById with pID= {0}", pID);
 		return be;
 	}
 
+	/**
+	 * Liest nur die Version einer Bestellung, z.B. fuer ETags
+	 * 
+	 * @return Version oder null, falls es keine Zeile mit der ID gibt
+	 */
+	public Integer findVersionById(Integer id) {
+		final List<Integer> versionen = em
+				.createNamedQuery(Bestellung.BESTELLUNG_VERSION_BY_ID, Integer.class)
+				.setParameter("id", id).getResultList();
+		return versionen.isEmpty() ? null : versionen.get(0);
+	}
+
 	/**
 	 * Find eine Bestellung anhand einer Spreisspanne
 	 * 
@@ -0,0 +1,47 @@
+package de.shop.bestellverwaltung.service;
+
+import static java.util.logging.Level.FINER;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Date;
+import java.util.logging.Logger;
+
+import javax.ejb.Schedule;
+import javax.ejb.Singleton;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import de.shop.bestellverwaltung.domain.Idempotenzschluessel;
+import de.shop.bestellverwaltung.service.util.Idempotenzspeicher;
+
+/**
+ * Loescht abgelaufene {@link Idempotenzschluessel} regelmaessig aus der
+ * Datenbank, damit die Tabelle nicht unbegrenzt waechst.
+ */
+@Singleton
+public class IdempotenzschluesselLoescher {
+
+	// /////////////////////////////////////////////////////////////////////
+	// ATTRIBUTES
+
+	private static final Logger LOGGER = Logger.getLogger(MethodHandles
+			.lookup().lookupClass().getName());
+
+	@PersistenceContext
+	private EntityManager em;
+
+	// /////////////////////////////////////////////////////////////////////
+	// METHODS
+
+	@Schedule(hour = "*", minute = "17", persistent = false)
+	public void loesche() {
+		final Date grenze = new Date(System.currentTimeMillis()
+				- Idempotenzspeicher.GUELTIGKEIT_MILLIS);
+		final int geloescht = em
+				.createNamedQuery(
+						Idempotenzschluessel.IDEMPOTENZSCHLUESSEL_ABGELAUFEN)
+				.setParameter("grenze", grenze).executeUpdate();
+		LOGGER.log(FINER, "{0} abgelaufene Idempotenzschluessel geloescht",
+				geloescht);
+	}
+}
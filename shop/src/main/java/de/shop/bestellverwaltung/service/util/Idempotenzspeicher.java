@@ -0,0 +1,281 @@
+package de.shop.bestellverwaltung.service.util;
+
+import static de.shop.util.Constants.HASH_ALGORITHM;
+import static de.shop.util.Constants.HASH_CHARSET;
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.logging.Level.FINER;
+import static javax.transaction.Status.STATUS_COMMITTED;
+
+import java.io.UnsupportedEncodingException;
+import java.lang.invoke.MethodHandles;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.Logger;
+
+import javax.annotation.Resource;
+import javax.enterprise.context.ApplicationScoped;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import de.shop.bestellverwaltung.domain.Idempotenzschluessel;
+import de.shop.util.exceptions.IdempotenzKonfliktException;
+
+/**
+ * Ergebnisse von Anfragen mit Idempotency-Key, damit wiederholte Anfragen
+ * (z.B. nach einem Timeout im Client) nicht erneut ausgefuehrt werden. Die
+ * letzten Ergebnisse stehen begrenzt und befristet im Speicher; dahinter
+ * liegt die Tabelle {@link Idempotenzschluessel}.
+ *
+ * Laeuft eine Anfrage mit demselben Schluessel gerade noch, wartet die
+ * Wiederholung auf deren Ergebnis statt sie ein zweites Mal auszufuehren.
+ * Das Ergebnis gilt erst nach dem Commit; nach einem Rollback (oder ohne
+ * Ergebnis) wird der Schluessel wieder frei.
+ */
+@ApplicationScoped
+public class Idempotenzspeicher {
+
+	// /////////////////////////////////////////////////////////////////////
+	// ATTRIBUTES
+
+	private static final Logger LOGGER = Logger.getLogger(MethodHandles
+			.lookup().lookupClass().getName());
+
+	/**
+	 * Maximale Anzahl abgeschlossener Ergebnisse im Speicher
+	 */
+	public static final int MAX_EINTRAEGE = 10000;
+
+	/**
+	 * So lange wird ein Ergebnis wiederverwendet (Speicher und Datenbank)
+	 */
+	public static final long GUELTIGKEIT_MILLIS = HOURS.toMillis(24);
+
+	/**
+	 * So lange wartet eine Wiederholung auf die laufende Anfrage
+	 */
+	private static final long MAX_WARTEZEIT_NANOS = SECONDS.toNanos(30);
+
+	private static final int HEX = 16;
+	private static final int BYTE_MASKE = 0xff;
+
+	// Aelteste zuerst; laufende Anfragen werden nicht verdraengt
+	private final Map<String, Eintrag> eintraege = new LinkedHashMap<String, Eintrag>() {
+		private static final long serialVersionUID = 2471253390541932409L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Eintrag> eldest) {
+			return size() > MAX_EINTRAEGE && eldest.getValue().isFertig();
+		}
+	};
+
+	@PersistenceContext
+	private EntityManager em;
+
+	@Resource
+	private TransactionSynchronizationRegistry transaktionen;
+
+	// /////////////////////////////////////////////////////////////////////
+	// METHODS
+
+	/**
+	 * @param bereich
+	 *            Bereich des Schluessels, z.B. die ID des Kunden, damit sich
+	 *            Schluessel verschiedener Clients nicht ueberschneiden
+	 * @param idempotencyKey
+	 *            Wert des Headers Idempotency-Key
+	 * @return Schluessel fester Laenge
+	 */
+	public static String erzeugeSchluessel(Object bereich, String idempotencyKey) {
+		try {
+			final MessageDigest digest = MessageDigest
+					.getInstance(HASH_ALGORITHM);
+			final byte[] hash = digest.digest((bereich + " " + idempotencyKey)
+					.getBytes(HASH_CHARSET));
+			final StringBuilder sb = new StringBuilder(
+					Idempotenzschluessel.SCHLUESSEL_LAENGE);
+			for (byte b : hash) {
+				final String hex = Integer.toString(b & BYTE_MASKE, HEX);
+				if (hex.length() == 1) {
+					sb.append('0');
+				}
+				sb.append(hex);
+			}
+			return sb.toString();
+		}
+		catch (NoSuchAlgorithmException | UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Beginnt eine Anfrage in der laufenden Transaktion. Liefert das Ergebnis
+	 * einer frueheren Anfrage mit demselben Schluessel oder null: dann fuehrt
+	 * der Aufrufer die Anfrage aus und meldet ihr Ergebnis in derselben
+	 * Transaktion mit {@link #setzeErgebnis(String, Integer)}.
+	 *
+	 * @return ID der Bestellung der frueheren Anfrage oder null
+	 * @throws IdempotenzKonfliktException
+	 *             Falls eine gleichzeitige Anfrage nicht rechtzeitig fertig
+	 *             wird
+	 */
+	public Integer beginneInTransaktion(String schluessel) {
+		final long frist = System.nanoTime() + MAX_WARTEZEIT_NANOS;
+		for (;;) {
+			Eintrag eintrag;
+			boolean eigener = false;
+			synchronized (eintraege) {
+				eintrag = eintraege.get(schluessel);
+				if (eintrag != null && eintrag.isAbgelaufen()) {
+					eintraege.remove(schluessel);
+					eintrag = null;
+				}
+				if (eintrag == null) {
+					eintrag = new Eintrag();
+					eintraege.put(schluessel, eintrag);
+					eigener = true;
+				}
+			}
+
+			if (eigener) {
+				return beginne(schluessel, eintrag);
+			}
+
+			// Auf die laufende Anfrage warten
+			LOGGER.log(FINER, "Warte auf laufende Anfrage {0}", schluessel);
+			if (!eintrag.warte(frist)) {
+				throw new IdempotenzKonfliktException();
+			}
+			final Integer bestellungId = eintrag.getBestellungId();
+			if (bestellungId != null) {
+				return bestellungId;
+			}
+			// Die laufende Anfrage wurde abgebrochen: erneut versuchen
+		}
+	}
+
+	/**
+	 * Merkt sich das Ergebnis der Anfrage; es gilt fuer Wiederholungen erst
+	 * nach dem Commit
+	 */
+	public void setzeErgebnis(String schluessel, Integer bestellungId) {
+		final Eintrag eintrag;
+		synchronized (eintraege) {
+			eintrag = eintraege.get(schluessel);
+		}
+		if (eintrag == null) {
+			throw new IllegalStateException("Keine laufende Anfrage "
+					+ schluessel);
+		}
+		eintrag.ausstehend = bestellungId;
+
+		// Bei einer gleichzeitigen Anfrage auf einem anderen Server scheitert
+		// der Primaerschluessel hier und die Transaktion wird zurueckgesetzt
+		em.persist(new Idempotenzschluessel(schluessel, bestellungId));
+		em.flush();
+	}
+
+	/*
+	 * Die Anfrage gehoert dem Aufrufer; vorher noch in der Datenbank nach
+	 * einem Ergebnis suchen, z.B. nach einem Neustart
+	 */
+	private Integer beginne(final String schluessel, final Eintrag eintrag) {
+		try {
+			final Idempotenzschluessel gespeichert = em.find(
+					Idempotenzschluessel.class, schluessel);
+			if (gespeichert != null) {
+				if (gespeichert.getErstellt().getTime() + GUELTIGKEIT_MILLIS > System
+						.currentTimeMillis()) {
+					eintrag.abschliessen(gespeichert.getBestellungId());
+					return gespeichert.getBestellungId();
+				}
+				// Abgelaufen: vor dem neuen Ergebnis loeschen
+				em.remove(gespeichert);
+				em.flush();
+			}
+
+			transaktionen
+					.registerInterposedSynchronization(new Synchronization() {
+						@Override
+						public void beforeCompletion() {
+							// nichts zu tun
+						}
+
+						@Override
+						public void afterCompletion(int status) {
+							if (status == STATUS_COMMITTED
+									&& eintrag.ausstehend != null) {
+								eintrag.abschliessen(eintrag.ausstehend);
+							}
+							else {
+								abbrechen(schluessel, eintrag);
+							}
+						}
+					});
+			return null;
+		}
+		catch (RuntimeException e) {
+			abbrechen(schluessel, eintrag);
+			throw e;
+		}
+	}
+
+	private void abbrechen(String schluessel, Eintrag eintrag) {
+		synchronized (eintraege) {
+			if (eintraege.get(schluessel) == eintrag) {
+				eintraege.remove(schluessel);
+			}
+		}
+		eintrag.abschliessen(null);
+	}
+
+	// /////////////////////////////////////////////////////////////////////
+	// INNER CLASSES
+
+	private static final class Eintrag {
+		private final CountDownLatch fertig = new CountDownLatch(1);
+
+		// Ergebnis der eigenen Transaktion, gilt erst nach dem Commit
+		private volatile Integer ausstehend;
+
+		private volatile Integer bestellungId;
+
+		private volatile long abgeschlossen;
+
+		void abschliessen(Integer id) {
+			bestellungId = id;
+			abgeschlossen = System.currentTimeMillis();
+			fertig.countDown();
+		}
+
+		boolean isFertig() {
+			return fertig.getCount() == 0;
+		}
+
+		boolean isAbgelaufen() {
+			return isFertig()
+					&& abgeschlossen + GUELTIGKEIT_MILLIS < System
+							.currentTimeMillis();
+		}
+
+		boolean warte(long frist) {
+			try {
+				return fertig.await(frist - System.nanoTime(), NANOSECONDS);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+
+		Integer getBestellungId() {
+			return bestellungId;
+		}
+	}
+}
@@ -80,7 +80,10 @@ import de.shop.util.IdGroup;
 				query = "SELECT DISTINCT a from Adresse as a join a.kunde where a.adresseID=:adresseID"),
 		@NamedQuery(
 				name = Adresse.ADRESSE_BY_ADRESSEID, 
-				query = "SELECT DISTINCT a FROM Adresse a WHERE a.adresseID = :adresseID") })
+				query = "SELECT DISTINCT a FROM Adresse a WHERE a.adresseID = :adresseID"),
+		@NamedQuery(
+				name = Adresse.ADRESSE_VERSION_BY_ADRESSEID, 
+				query = "SELECT a.version FROM Adresse a WHERE a.adresseID = :adresseID") })
 // @formatter:on
 public class Adresse implements Serializable {
 
@@ -131,6 +134,13 @@ public class Adresse implements Serializable {
 	public static final String ADRESSE_BY_ADRESSEID = PREFIX
 			+ "findeKundeByAdresseID";
 
+	/**
+	 * Name fuer eine Query, die nur die Version einer Adresse liefert (fuer
+	 * ETags)
+	 */
+	public static final String ADRESSE_VERSION_BY_ADRESSEID = PREFIX
+			+ "findeVersionByAdresseID";
+
 	/**
 	 * Name fr eine Query, die nur nach Kunden mit Adresse sucht
 	 */
@@ -333,6 +343,11 @@ public class Adresse implements Serializable {
 		this.adresseID = adresseID;
 	}
 
+	@JsonIgnore
+	public int getVersion() {
+		return this.version;
+	}
+
 	@JsonProperty("erstellt")
 	public Date getErstellt() {
 		return erstellt == null ? null : (Date) erstellt.clone();
@@ -72,6 +72,10 @@ import de.shop.util.IdGroup;
 @Cacheable
 @NamedQueries({
 		@NamedQuery(name = Kunde.ALL_KUNDEN, query = "SELECT k FROM Kunde k"),
+		@NamedQuery(name = Kunde.KUNDE_BY_IDS, query = "SELECT k FROM Kunde k "
+				+ "WHERE k.kundeID IN :ids"),
+		@NamedQuery(name = Kunde.KUNDE_VERSION_BY_ID, query = "SELECT k.version FROM Kunde k "
+				+ "WHERE k.kundeID = :id"),
 		@NamedQuery(name = Kunde.KUNDE_BY_NACHNAME, query = "SELECT k FROM Kunde k "
 				+ "WHERE k.nachname = :name"),
 		@NamedQuery(name = Kunde.KUNDE_BY_NACHNAME_JOIN_BESTELLUNG, 
@@ -127,6 +131,17 @@ public class Kunde implements Serializable, Cloneable {
 	 */
 	public static final String KUNDE_BY_ID = PREFIX + "findKundeByID";
 
+	/**
+	 * Name eines Querys: Suche Kunden mittels mehrerer IDs
+	 */
+	public static final String KUNDE_BY_IDS = PREFIX + "findKundenByIDs";
+
+	/**
+	 * Name eines Querys: Nur die Version eines Kunden mittels ID (fuer ETags)
+	 */
+	public static final String KUNDE_VERSION_BY_ID = PREFIX
+			+ "findVersionByID";
+
 	/**
 	 * Name eines Querys: Suche Kunde mittels ID Join auf Bestellungstabelle
 	 */
@@ -370,6 +385,10 @@ public class Kunde implements Serializable, Cloneable {
 		return this.kundeID;
 	}
 
+	public int getVersion() {
+		return this.version;
+	}
+
 	public void setKundeID(Integer kundeID) {
 		this.kundeID = kundeID;
 	}
@@ -1,6 +1,12 @@
 package de.shop.kundenverwaltung.rest;
 
+import static de.shop.kundenverwaltung.service.KundeService.FELD_EMAIL;
+import static de.shop.kundenverwaltung.service.KundeService.FELD_GEBURTSDATUM;
+import static de.shop.kundenverwaltung.service.KundeService.FELD_ID;
+import static de.shop.kundenverwaltung.service.KundeService.FELD_NACHNAME;
+import static de.shop.kundenverwaltung.service.KundeService.FELD_VORNAME;
 import static de.shop.util.Constants.KEINE_ID;
+import static de.shop.util.SmileProvider.APPLICATION_SMILE;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 
 import java.io.IOException;
@@ -9,6 +15,7 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -25,15 +32,23 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 
 import org.jboss.logging.Logger;
 
+import de.shop.bestellverwaltung.domain.Bestellung;
+import de.shop.bestellverwaltung.rest.UriHelperBestellung;
 import de.shop.kundenverwaltung.domain.Adresse;
 import de.shop.kundenverwaltung.domain.Kunde;
 import de.shop.kundenverwaltung.service.KundeService;
 import de.shop.kundenverwaltung.service.KundeService.FetchType;
+import de.shop.util.Abrufplan;
+import de.shop.util.ETagHelper;
+import de.shop.util.Erweitert;
+import de.shop.util.Feldauswahl;
+import de.shop.util.IdListe;
 import de.shop.util.JsonFile;
 import de.shop.util.LocaleHelper;
 import de.shop.util.Log;
@@ -46,7 +61,7 @@ import de.shop.util.exceptions.NotFoundException;
  * @author Matthias Schnell
  */
 @Path("/kunden")
-@Produces(APPLICATION_JSON)
+@Produces({APPLICATION_JSON, APPLICATION_SMILE })
 @Consumes
 @RequestScoped
 @Transactional
@@ -59,12 +74,23 @@ public class KundeResource {
 	private static final Logger LOGGER = Logger.getLogger(MethodHandles
 			.lookup().lookupClass());
 
+	// Erlaubte Werte fuer ?expand=
+	private static final String EXPAND_BESTELLUNGEN = "bestellungen";
+	private static final String EXPAND_BESTELLPOSTEN = "bestellungen.bestellposten";
+
+	// Felder ohne Spalte fuer ?fields=
+	private static final String FELD_BESTELLUNGEN_URI = "bestellungenUri";
+	private static final String FELD_ADRESSEN_URI = "adressenUri";
+
 	@Context
 	private HttpHeaders headers;
 
 	@Context
 	private UriInfo uriInfo;
 
+	@Context
+	private Request request;
+
 	// INJECTS
 	@Inject
 	private LocaleHelper localeHelper;
@@ -75,6 +101,9 @@ public class KundeResource {
 	@Inject
 	private UriHelperKunde uriHelperKunde;
 
+	@Inject
+	private UriHelperBestellung uriHelperBestellung;
+
 	// LOGGER
 	@PostConstruct
 	private void postConstruct() {
@@ -90,7 +119,7 @@ public class KundeResource {
 	// METHODS
 
 	@POST
-	@Consumes(APPLICATION_JSON)
+	@Consumes({APPLICATION_JSON, APPLICATION_SMILE })
 	@Produces
 	public Response addKunde(Kunde pKD) {
 
@@ -118,7 +147,7 @@ public class KundeResource {
 
 	@Path("{kid:[1-9][0-9]*}/pic")
 	@POST
-	@Consumes(APPLICATION_JSON)
+	@Consumes({APPLICATION_JSON, APPLICATION_SMILE })
 	public Response uploadKundePic(@PathParam("kid") Integer pKID, JsonFile pPic) {
 		final Locale locale = localeHelper.getLocale(headers);
 
@@ -142,12 +171,37 @@ public class KundeResource {
 		return new JsonFile(kd.getPic().getBytes());
 	}
 
+	/**
+	 * Finde einen Kunden; mit ?expand=bestellungen werden seine Bestellungen
+	 * in derselben Query gelesen und eingebettet, mit
+	 * bestellungen.bestellposten zusaetzlich deren Posten. Eingebettete
+	 * Entities haben eigene Versionen, deshalb gibt es dann kein ETag.
+	 * 
+	 * @param pID
+	 * @param pExpand
+	 * @return gefundener Kunde
+	 */
 	@GET
 	@Path("{kid:[1-9][0-9]*}")
-	public Kunde findKundeById(@PathParam("kid") Integer pID) {
+	public Response findKundeById(@PathParam("kid") Integer pID,
+			@QueryParam("expand") String pExpand) {
+
+		final Abrufplan plan = Abrufplan.lese(pExpand, EXPAND_BESTELLUNGEN,
+				EXPAND_BESTELLPOSTEN);
+
+		// Unveraendert laut If-None-Match? Dann nur die Version lesen
+		final Integer version = plan.isLeer() ? ks.findKundeVersionById(pID)
+				: null;
+		if (version != null) {
+			final Response nichtGeaendert = ETagHelper.nichtGeaendert(request,
+					pID, version);
+			if (nichtGeaendert != null) {
+				return nichtGeaendert;
+			}
+		}
 
 		final Locale locale = localeHelper.getLocale(headers);
-		final Kunde kd = ks.findKundeById(pID, locale);
+		final Kunde kd = ks.findKundeById(pID, plan, locale);
 		if (kd == null) {
 			final String msg = "Kein Kunde gefunden mit der ID" + pID;
 
@@ -157,20 +211,73 @@ public class KundeResource {
 		// URLs des gefundenen Kunden anpassen
 		uriHelperKunde.updateUriKunde(kd, uriInfo);
 
+		if (plan.isLeer()) {
+			return ETagHelper.mitETag(kd, pID, kd.getVersion());
+		}
+
+		final List<Object> bestellungen = new ArrayList<>();
+		for (Bestellung be : kd.getBestellungen()) {
+			uriHelperBestellung.updateUriBestellung(be, uriInfo);
+			if (plan.enthaelt(EXPAND_BESTELLPOSTEN)) {
+				bestellungen.add(new Erweitert<>(be).mit("bestellposten",
+						be.getBestellposten()));
+			}
+			else {
+				bestellungen.add(be);
+			}
+		}
+		return Response.ok(
+				new Erweitert<>(kd).mit(EXPAND_BESTELLUNGEN, bestellungen))
+				.build();
+	}
+
+	/**
+	 * Mittels /kunden/auswahl?ids=1,2,3 mehrere Kunden mit einer Anfrage
+	 * finden, in der Reihenfolge der IDs
+	 * 
+	 * @param pIDs
+	 *            kommaseparierte IDs
+	 * @return gefundene Kunden
+	 */
+	@GET
+	@Path("auswahl")
+	public List<Kunde> findKundenByIds(@QueryParam("ids") String pIDs) {
+
+		final List<Kunde> kd = ks.findKundenByIds(IdListe.lese(pIDs));
+		if (kd.isEmpty()) {
+			final String msg = "Keine Kunden gefunden mit den IDs " + pIDs;
+			throw new NotFoundException(msg);
+		}
+
+		// URLs innerhalb der gefundenen Kunden anpassen
+		for (Kunde k : kd) {
+			uriHelperKunde.updateUriKunde(k, uriInfo);
+		}
+
 		return kd;
 	}
 
 	/**
 	 * Mittels /kunden alle Kunden finden bzw /kunden?nachname="pName" ein Kunde
-	 * mit einem bestimmen Nachnamen
+	 * mit einem bestimmen Nachnamen. Mit ?fields=nachname,vorname werden nur
+	 * diese Felder (und die ID) gelesen und geliefert.
 	 * 
 	 * @param pName
-	 * @param uriInfo
+	 * @param pFields
+	 *            kommaseparierte Felder oder null fuer den ganzen Kunden
 	 * @return
 	 */
 	@GET
-	public List<Kunde> findAllKundenOrByNachname(
-			@QueryParam("name") String pName) {
+	public List<?> findAllKundenOrByNachname(
+			@QueryParam("name") String pName,
+			@QueryParam("fields") String pFields) {
+
+		final Feldauswahl auswahl = Feldauswahl.lese(pFields, FELD_ID,
+				FELD_NACHNAME, FELD_VORNAME, FELD_EMAIL, FELD_GEBURTSDATUM,
+				FELD_BESTELLUNGEN_URI, FELD_ADRESSEN_URI);
+		if (!auswahl.isAlle()) {
+			return findKundenTeilweise(pName, auswahl);
+		}
 
 		List<Kunde> kd = null;
 		if ("".equals(pName)) {
@@ -199,9 +306,50 @@ public class KundeResource {
 		return kd;
 	}
 
+	/*
+	 * Kunden mit Feldauswahl; URIs werden nur gebildet, wenn sie ausgewaehlt
+	 * sind
+	 */
+	private List<Map<String, Object>> findKundenTeilweise(String pName,
+			Feldauswahl pAuswahl) {
+
+		final Locale locale = localeHelper.getLocale(headers);
+		final List<Map<String, Object>> kd = ks.findKunden(pName, pAuswahl,
+				locale);
+		if (kd.isEmpty()) {
+			final String msg = pName == null || pName.isEmpty() ? "Kein Kunde vorhanden"
+					: "Kein Kunde mit dem Nachnamen " + pName + " gefunden.";
+			throw new NotFoundException(msg);
+		}
+
+		for (Map<String, Object> k : kd) {
+			final Integer kundeId = (Integer) k.get(FELD_ID);
+			if (pAuswahl.enthaelt(FELD_BESTELLUNGEN_URI)) {
+				k.put(FELD_BESTELLUNGEN_URI,
+						uriHelperKunde.getUriBestellungen(kundeId, uriInfo));
+			}
+			if (pAuswahl.enthaelt(FELD_ADRESSEN_URI)) {
+				k.put(FELD_ADRESSEN_URI,
+						uriHelperKunde.getUriAdressen(kundeId, uriInfo));
+			}
+		}
+
+		return kd;
+	}
+
 	@GET
 	@Path("{aid:[1-9][0-9]*}/adresse")
-	public Adresse findAdresseById(@PathParam("aid") Integer aID) {
+	public Response findAdresseById(@PathParam("aid") Integer aID) {
+
+		// Unveraendert laut If-None-Match? Dann nur die Version lesen
+		final Integer version = ks.findAdresseVersionById(aID);
+		if (version != null) {
+			final Response nichtGeaendert = ETagHelper.nichtGeaendert(request,
+					aID, version);
+			if (nichtGeaendert != null) {
+				return nichtGeaendert;
+			}
+		}
 
 		// Locale
 		final Locale locale = localeHelper.getLocale(headers);
@@ -214,7 +362,7 @@ public class KundeResource {
 			throw new NotFoundException(msg);
 		}
 
-		return result;
+		return ETagHelper.mitETag(result, aID, result.getVersion());
 	}
 
 	@GET
@@ -245,7 +393,7 @@ public class KundeResource {
 	}
 
 	@PUT
-	@Consumes(APPLICATION_JSON)
+	@Consumes({APPLICATION_JSON, APPLICATION_SMILE })
 	@Produces
 	public void updateKunde(Kunde pKD) {
 
@@ -30,22 +30,30 @@ public class UriHelperKunde {
 
 	public void updateUriKunde(Kunde kunde, UriInfo uriInfo) {
 		// URL fuer Bestellungen setzen
-		UriBuilder ub = uriInfo.getBaseUriBuilder()
-				.path(BestellungResource.class)
-				.path(BestellungResource.class, "findBestellungenByKundeId");
-		final URI bestellungenUri = ub.build(kunde.getKundeID());
-		kunde.setBestellungenUri(bestellungenUri);
+		kunde.setBestellungenUri(getUriBestellungen(kunde.getKundeID(),
+				uriInfo));
 
 		// URL fuer Adresse setzen
-		ub = uriInfo.getBaseUriBuilder().path(KundeResource.class)
-				.path(KundeResource.class, "findAdressenByKundeId");
-		final URI adressenUri = ub.build(kunde.getKundeID());
-		kunde.setAdressenUri(adressenUri);
+		kunde.setAdressenUri(getUriAdressen(kunde.getKundeID(), uriInfo));
 
 		LOGGER.trace(kunde);
 
 	}
 
+	public URI getUriBestellungen(Integer kundeId, UriInfo uriInfo) {
+		final UriBuilder ub = uriInfo.getBaseUriBuilder()
+				.path(BestellungResource.class)
+				.path(BestellungResource.class, "findBestellungenByKundeId");
+		return ub.build(kundeId);
+	}
+
+	public URI getUriAdressen(Integer kundeId, UriInfo uriInfo) {
+		final UriBuilder ub = uriInfo.getBaseUriBuilder()
+				.path(KundeResource.class)
+				.path(KundeResource.class, "findAdressenByKundeId");
+		return ub.build(kundeId);
+	}
+
 	public URI getUriAdresse(Adresse adresse, UriInfo uriInfo) {
 		final UriBuilder ub = uriInfo.getBaseUriBuilder()
 				.path(KundeResource.class)
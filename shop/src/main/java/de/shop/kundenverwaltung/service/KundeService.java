@@ -1,10 +1,12 @@
 package de.shop.kundenverwaltung.service;
 
 import java.io.Serializable;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 
 import org.jboss.logging.Logger;
@@ -16,6 +18,11 @@ import javax.inject.Inject;
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Root;
 import javax.validation.ConstraintViolation;
 import javax.validation.Validator;
 import javax.validation.groups.Default;
@@ -25,11 +32,15 @@ import de.shop.auth.service.jboss.AuthService.RolleType;
 import de.shop.kundenverwaltung.domain.Adresse;
 import de.shop.kundenverwaltung.domain.Adresse_;
 import de.shop.kundenverwaltung.domain.Kunde;
+import de.shop.kundenverwaltung.domain.Kunde_;
 import de.shop.kundenverwaltung.domain.PasswordGroup;
+import de.shop.util.Abrufplan;
+import de.shop.util.Feldauswahl;
 import de.shop.util.File;
 import de.shop.util.FileHelper;
 import de.shop.util.FileHelper.MimeType;
 import de.shop.util.IdGroup;
+import de.shop.util.Mehrfachsuche;
 import de.shop.util.ValidatorProvider;
 import de.shop.util.exceptions.AdresseValidationException;
 import de.shop.util.exceptions.ConcurrentDeletedException;
@@ -52,6 +63,13 @@ public class KundeService implements Serializable {
 	// ATTRIBUTES
 	private static final long serialVersionUID = -3457208054417097021L;
 
+	// Felder fuer die Feldauswahl, Namen wie im JSON des Kunden
+	public static final String FELD_ID = "kundeID";
+	public static final String FELD_NACHNAME = "nachname";
+	public static final String FELD_VORNAME = "vorname";
+	public static final String FELD_EMAIL = "email";
+	public static final String FELD_GEBURTSDATUM = "geburtsdatum";
+
 	public enum FetchType {
 		JUST_KUNDE, WITH_BESTELLUNGEN
 	}
@@ -204,6 +222,42 @@ public class KundeService implements Serializable {
 		return kd;
 	}
 
+	/**
+	 * Finde alle Kunden bzw. die Kunden mit dem Nachnamen, liest aber nur die
+	 * Spalten der ausgewaehlten Felder
+	 * 
+	 * @param pName
+	 *            Nachname oder null bzw. "" fuer alle Kunden
+	 * @param pAuswahl
+	 *            Felder, siehe FELD_...
+	 * @return Je Kunde eine Map Feld -> Wert
+	 */
+	public List<Map<String, Object>> findKunden(String pName,
+			Feldauswahl pAuswahl, Locale pLocale) {
+
+		final CriteriaBuilder builder = em.getCriteriaBuilder();
+		final CriteriaQuery<Tuple> query = builder.createTupleQuery();
+		final Root<Kunde> k = query.from(Kunde.class);
+
+		final Map<String, Path<?>> spalten = new HashMap<>();
+		spalten.put(FELD_ID, k.get(Kunde_.kundeID));
+		spalten.put(FELD_NACHNAME, k.get(Kunde_.nachname));
+		spalten.put(FELD_VORNAME, k.get(Kunde_.vorname));
+		spalten.put(FELD_EMAIL, k.get(Kunde_.email));
+		spalten.put(FELD_GEBURTSDATUM, k.get(Kunde_.geburtsdatum));
+		pAuswahl.selektiere(query, spalten);
+
+		if (pName != null && !pName.isEmpty()) {
+			/**
+			 * Pruefe ob Nachname richtig eingegeben ist
+			 */
+			validateKundeNachname(pName, pLocale);
+			query.where(builder.equal(k.get(Kunde_.nachname), pName));
+		}
+
+		return pAuswahl.alsMaps(em.createQuery(query).getResultList());
+	}
+
 	/**
 	 * Finde einen Kunde anhand seiner ID
 	 * 
@@ -212,6 +266,18 @@ public class KundeService implements Serializable {
 	 */
 
 	public Kunde findKundeById(Integer pID, Locale pLocale) {
+		return findKundeById(pID, Abrufplan.KEINER, pLocale);
+	}
+
+	/**
+	 * Finde einen Kunde anhand seiner ID samt den Beziehungen des Abrufplans
+	 * (bestellungen, bestellungen.bestellposten) mit einer Query
+	 * 
+	 * @param pID
+	 * @param pPlan
+	 * @return gefundenen Kunde
+	 */
+	public Kunde findKundeById(Integer pID, Abrufplan pPlan, Locale pLocale) {
 
 		/**
 		 * Prfung ob ID Korrekt eingegeben ist
@@ -224,11 +290,23 @@ public class KundeService implements Serializable {
 		 * Gefundenen Kunde speichern
 		 */
 
-		kd = em.find(Kunde.class, pID);
+		kd = pPlan.findeById(em, Kunde.class, Kunde_.kundeID, pID);
 
 		return kd;
 	}
 
+	/**
+	 * Finde mehrere Kunden anhand ihrer IDs: Kunden im 2nd-Level-Cache werden
+	 * von dort gelesen, die uebrigen mit einer IN-Query
+	 * 
+	 * @param pIDs
+	 * @return gefundene Kunden in der Reihenfolge der IDs
+	 */
+	public List<Kunde> findKundenByIds(List<Integer> pIDs) {
+		return Mehrfachsuche.findeByIds(em, Kunde.class, Kunde.KUNDE_BY_IDS,
+				pIDs);
+	}
+
 	/**
 	 * Finde eine Adresse anhand ihrer AdressenID
 	 * 
@@ -249,6 +327,30 @@ public class KundeService implements Serializable {
 		return ad;
 	}
 
+	/**
+	 * Liest nur die Version eines Kunden, z.B. fuer ETags
+	 * 
+	 * @return Version oder null, falls es keine Zeile mit der ID gibt
+	 */
+	public Integer findKundeVersionById(Integer id) {
+		final List<Integer> versionen = em
+				.createNamedQuery(Kunde.KUNDE_VERSION_BY_ID, Integer.class)
+				.setParameter("id", id).getResultList();
+		return versionen.isEmpty() ? null : versionen.get(0);
+	}
+
+	/**
+	 * Liest nur die Version einer Adresse, z.B. fuer ETags
+	 * 
+	 * @return Version oder null, falls es keine Zeile mit der ID gibt
+	 */
+	public Integer findAdresseVersionById(Integer id) {
+		final List<Integer> versionen = em
+				.createNamedQuery(Adresse.ADRESSE_VERSION_BY_ADRESSEID, Integer.class)
+				.setParameter("adresseID", id).getResultList();
+		return versionen.isEmpty() ? null : versionen.get(0);
+	}
+
 	/**
 	 * Finde einen Kunde anhand seiner E-Mail
 	 * 
@@ -17,8 +17,10 @@ import de.shop.produktverwaltung.domain.Produkt;
 import de.shop.produktverwaltung.domain.Produktdaten;
 import de.shop.produktverwaltung.service.ProduktService;
 import de.shop.produktverwaltung.service.ProduktdatenService;
+import de.shop.produktverwaltung.service.util.ProduktUebersicht;
 import de.shop.produktverwaltung.service.util.SuchFilter;
 import de.shop.util.Log;
+import de.shop.util.Seite;
 import de.shop.util.Transactional;
 
 @Named("pc")
@@ -59,16 +61,22 @@ public class ProduktController implements Serializable {
 
 	private List<Produktdaten> produktdatenSuche;
 
-	private List<Produkt> produkteKomplett;
+	private List<ProduktUebersicht> produktUebersichten;
+
+	private String produkteWeiter;
+
+	private boolean weitereSeite = false;
 
 	private Produktdaten produktdatenCreate;
 
 	private SuchFilter suchFilter;
 
-	private List<String> hersteller;
-
+	/**
+	 * Die Auswahlliste der Hersteller kommt direkt aus dem
+	 * anwendungsweiten Merkmalverzeichnis und wird nicht pro Session kopiert
+	 */
 	public List<String> getHersteller() {
-		return hersteller;
+		return produktService.findAlleHersteller();
 	}
 
 	private boolean geaendert = false;
@@ -115,10 +123,7 @@ public class ProduktController implements Serializable {
 				suchFilter, null);
 	}
 
-	@Transactional
 	public void createEmptySuchfilter() {
-		
-		hersteller = produktService.findAlleHersteller();
 
 		if (suchFilter != null) {
 			return;
@@ -242,11 +247,36 @@ public class ProduktController implements Serializable {
 	// ////////////////////////////////////////////////////////////////////////////////////////////////
 	// PRIVATE METHODS
 
+	@Transactional
+	public void naechsteProduktSeite() {
+
+		if (produkteWeiter == null) {
+			return;
+		}
+
+		final Seite<ProduktUebersicht> seite = produktService
+				.findProduktUebersichten(produkteWeiter, null);
+		produktUebersichten = seite.getInhalt();
+		produkteWeiter = seite.getWeiter();
+		weitereSeite = true;
+	}
+
+	@Transactional
+	public void ersteProduktSeite() {
+
+		ladeAlleProdukt();
+	}
+
 	@PostConstruct
 	@Transactional
 	private void ladeAlleProdukt() {
 
-		produkteKomplett = produktService.findProdukte();
+		// Die Liste braucht nur die Uebersichten, nicht alle Produktdaten
+		final Seite<ProduktUebersicht> seite = produktService
+				.findProduktUebersichten(null, null);
+		produktUebersichten = seite.getInhalt();
+		produkteWeiter = seite.getWeiter();
+		weitereSeite = false;
 	}
 
 	// //////////////////////////////////////////////////////////////////////////////////////////////
@@ -268,8 +298,16 @@ public class ProduktController implements Serializable {
 		return produktSearch;
 	}
 
-	public List<Produkt> getProdukteKomplett() {
-		return produkteKomplett;
+	public List<ProduktUebersicht> getProduktUebersichten() {
+		return produktUebersichten;
+	}
+
+	public String getProdukteWeiter() {
+		return produkteWeiter;
+	}
+
+	public boolean isWeitereSeite() {
+		return weitereSeite;
 	}
 
 	public SuchFilter getSuchFilter() {
@@ -0,0 +1,47 @@
+package de.shop.produktverwaltung.domain;
+
+import java.io.Serializable;
+
+import javax.persistence.Column;
+import javax.persistence.MappedSuperclass;
+
+/**
+ * Eintrag einer kleinen Nachschlagetabelle fuer Merkmale von Produkten und
+ * Produktdaten: die Entities referenzieren die Zeile per Fremdschluessel, die
+ * Bezeichnung steht genau einmal in der Tabelle. Die ID deklarieren die
+ * Unterklassen.
+ *
+ * @param <C>
+ *            Typ der ID
+ *
+ * @see de.shop.produktverwaltung.service.Merkmalverzeichnis
+ */
+@MappedSuperclass
+public abstract class AbstractMerkmal<C extends Number> implements
+		Serializable {
+
+	private static final long serialVersionUID = 6803351180244795611L;
+
+	@Column(name = "Bezeichnung", nullable = false, unique = true, updatable = false)
+	private String bezeichnung;
+
+	protected AbstractMerkmal() {
+		super();
+	}
+
+	protected AbstractMerkmal(String bezeichnung) {
+		this.bezeichnung = bezeichnung;
+	}
+
+	public abstract C getId();
+
+	public String getBezeichnung() {
+		return bezeichnung;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + " [id=" + getId()
+				+ ", bezeichnung=" + bezeichnung + "]";
+	}
+}
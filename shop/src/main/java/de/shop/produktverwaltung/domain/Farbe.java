@@ -0,0 +1,52 @@
+package de.shop.produktverwaltung.domain;
+
+import static javax.persistence.GenerationType.SEQUENCE;
+
+import javax.persistence.Cacheable;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+
+/**
+ * Nachschlagetabelle der Farben von Produktdaten
+ */
+@Entity
+@Table(name = "Farbe")
+@Cacheable
+@NamedQueries({
+	@NamedQuery(name = Farbe.FARBE_ALLE, query = "FROM Farbe f"),
+	@NamedQuery(name = Farbe.FARBE_BY_BEZEICHNUNG,
+			query = "FROM Farbe f WHERE f.bezeichnung = :bezeichnung") })
+public class Farbe extends AbstractMerkmal<Short> {
+
+	private static final long serialVersionUID = -2365063815733470419L;
+
+	public static final String FARBE_ALLE = "Farbe.findeAlle";
+
+	public static final String FARBE_BY_BEZEICHNUNG = "Farbe.findeByBezeichnung";
+
+	// Beginnt oberhalb der IDs aus den SQL-Skripten
+	@Id
+	@GeneratedValue(strategy = SEQUENCE, generator = "Farbe_SEQ")
+	@SequenceGenerator(name = "Farbe_SEQ", sequenceName = "Farbe_SEQ", initialValue = 1000, allocationSize = 1)
+	@Column(name = "ID", updatable = false)
+	private Short id;
+
+	protected Farbe() {
+		super();
+	}
+
+	public Farbe(String bezeichnung) {
+		super(bezeichnung);
+	}
+
+	@Override
+	public Short getId() {
+		return id;
+	}
+}
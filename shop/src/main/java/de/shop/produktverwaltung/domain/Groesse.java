@@ -0,0 +1,52 @@
+package de.shop.produktverwaltung.domain;
+
+import static javax.persistence.GenerationType.SEQUENCE;
+
+import javax.persistence.Cacheable;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+
+/**
+ * Nachschlagetabelle der Groessen von Produktdaten
+ */
+@Entity
+@Table(name = "Groesse")
+@Cacheable
+@NamedQueries({
+	@NamedQuery(name = Groesse.GROESSE_ALLE, query = "FROM Groesse g"),
+	@NamedQuery(name = Groesse.GROESSE_BY_BEZEICHNUNG,
+			query = "FROM Groesse g WHERE g.bezeichnung = :bezeichnung") })
+public class Groesse extends AbstractMerkmal<Short> {
+
+	private static final long serialVersionUID = 3410778206815928373L;
+
+	public static final String GROESSE_ALLE = "Groesse.findeAlle";
+
+	public static final String GROESSE_BY_BEZEICHNUNG = "Groesse.findeByBezeichnung";
+
+	// Beginnt oberhalb der IDs aus den SQL-Skripten
+	@Id
+	@GeneratedValue(strategy = SEQUENCE, generator = "Groesse_SEQ")
+	@SequenceGenerator(name = "Groesse_SEQ", sequenceName = "Groesse_SEQ", initialValue = 1000, allocationSize = 1)
+	@Column(name = "ID", updatable = false)
+	private Short id;
+
+	protected Groesse() {
+		super();
+	}
+
+	public Groesse(String bezeichnung) {
+		super(bezeichnung);
+	}
+
+	@Override
+	public Short getId() {
+		return id;
+	}
+}
@@ -0,0 +1,52 @@
+package de.shop.produktverwaltung.domain;
+
+import static javax.persistence.GenerationType.SEQUENCE;
+
+import javax.persistence.Cacheable;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+
+/**
+ * Nachschlagetabelle der Hersteller von Produkten
+ */
+@Entity
+@Table(name = "Hersteller")
+@Cacheable
+@NamedQueries({
+	@NamedQuery(name = Hersteller.HERSTELLER_ALLE, query = "FROM Hersteller h"),
+	@NamedQuery(name = Hersteller.HERSTELLER_BY_BEZEICHNUNG,
+			query = "FROM Hersteller h WHERE h.bezeichnung = :bezeichnung") })
+public class Hersteller extends AbstractMerkmal<Integer> {
+
+	private static final long serialVersionUID = -8119744083416245380L;
+
+	public static final String HERSTELLER_ALLE = "Hersteller.findeAlle";
+
+	public static final String HERSTELLER_BY_BEZEICHNUNG = "Hersteller.findeByBezeichnung";
+
+	// Integer statt Short: Hersteller kommen mit jedem Katalog-Import hinzu
+	@Id
+	@GeneratedValue(strategy = SEQUENCE, generator = "Hersteller_SEQ")
+	@SequenceGenerator(name = "Hersteller_SEQ", sequenceName = "Hersteller_SEQ", initialValue = 1000, allocationSize = 1)
+	@Column(name = "ID", updatable = false)
+	private Integer id;
+
+	protected Hersteller() {
+		super();
+	}
+
+	public Hersteller(String bezeichnung) {
+		super(bezeichnung);
+	}
+
+	@Override
+	public Integer getId() {
+		return id;
+	}
+}
@@ -0,0 +1,65 @@
+package de.shop.produktverwaltung.domain;
+
+import java.io.Serializable;
+
+/**
+ * Ereignis, das bei jeder Schreiboperation auf Produkt oder Produktdaten
+ * gefeuert wird. Beobachter (z.B. In-Memory-Indizes) koennen sich damit
+ * aktuell halten, ohne die Datenbank erneut abzufragen.
+ *
+ * @see KatalogListener
+ */
+public class KatalogAenderung implements Serializable {
+
+	// /////////////////////////////////////////////////////////////////////
+	// ATTRIBUTES
+
+	private static final long serialVersionUID = -3489023734817345210L;
+
+	private final Art art;
+
+	private final Object entity;
+
+	// /////////////////////////////////////////////////////////////////////
+	// CONSTRUCTOR
+
+	public KatalogAenderung(Art art, Object entity) {
+		this.art = art;
+		this.entity = entity;
+	}
+
+	// /////////////////////////////////////////////////////////////////////
+	// METHODS
+
+	/**
+	 * @return Das geaenderte Produkt oder null, falls Produktdaten geaendert
+	 *         wurden
+	 */
+	public Produkt getProdukt() {
+		return entity instanceof Produkt ? (Produkt) entity : null;
+	}
+
+	/**
+	 * @return Die geaenderten Produktdaten oder null, falls ein Produkt
+	 *         geaendert wurde
+	 */
+	public Produktdaten getProduktdaten() {
+		return entity instanceof Produktdaten ? (Produktdaten) entity : null;
+	}
+
+	public Art getArt() {
+		return art;
+	}
+
+	@Override
+	public String toString() {
+		return "KatalogAenderung [art=" + art + ", entity=" + entity + "]";
+	}
+
+	// /////////////////////////////////////////////////////////////////////
+	// INNER CLASSES
+
+	public enum Art {
+		NEU, GEAENDERT, GELOESCHT;
+	}
+}
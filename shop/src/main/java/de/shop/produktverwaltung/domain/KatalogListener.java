@@ -0,0 +1,88 @@
+package de.shop.produktverwaltung.domain;
+
+import static java.util.logging.Level.WARNING;
+
+import java.lang.invoke.MethodHandles;
+import java.util.logging.Logger;
+
+import javax.enterprise.inject.spi.BeanManager;
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import de.shop.produktverwaltung.domain.KatalogAenderung.Art;
+
+/**
+ * JPA-Entity-Listener fuer Produkt und Produktdaten. Die Lifecycle-Events
+ * werden als CDI-Event {@link KatalogAenderung} weitergereicht. Da JPA 2.0
+ * keine Injection in Entity-Listener unterstuetzt, werden BeanManager und
+ * TransactionSynchronizationRegistry per JNDI ermittelt.
+ *
+ * Transaktionen, die mit {@link #ohneEreignisse} markiert sind (z.B. beim
+ * Katalog-Import), feuern keine Events; die Indizes werden danach einmal
+ * komplett neu aufgebaut.
+ */
+public class KatalogListener {
+
+	// /////////////////////////////////////////////////////////////////////
+	// ATTRIBUTES
+
+	private static final Logger LOGGER = Logger.getLogger(MethodHandles
+			.lookup().lookupClass().getName());
+
+	private static final String BEAN_MANAGER = "java:comp/BeanManager";
+
+	private static final String TRANSAKTIONEN = "java:comp/TransactionSynchronizationRegistry";
+
+	private static final String OHNE_EREIGNISSE = KatalogListener.class
+			.getName() + ".ohneEreignisse";
+
+	// /////////////////////////////////////////////////////////////////////
+	// METHODS
+
+	/**
+	 * Unterdrueckt die Events fuer den Rest der laufenden Transaktion
+	 */
+	public static void ohneEreignisse(
+			TransactionSynchronizationRegistry transaktionen) {
+		transaktionen.putResource(OHNE_EREIGNISSE, Boolean.TRUE);
+	}
+
+	@PostPersist
+	private void nachSpeichern(Object entity) {
+		feuere(new KatalogAenderung(Art.NEU, entity));
+	}
+
+	@PostUpdate
+	private void nachUpdate(Object entity) {
+		feuere(new KatalogAenderung(Art.GEAENDERT, entity));
+	}
+
+	@PostRemove
+	private void nachLoeschen(Object entity) {
+		feuere(new KatalogAenderung(Art.GELOESCHT, entity));
+	}
+
+	private static void feuere(KatalogAenderung aenderung) {
+		final BeanManager beanManager;
+		final TransactionSynchronizationRegistry transaktionen;
+		try {
+			final InitialContext ctx = new InitialContext();
+			beanManager = (BeanManager) ctx.lookup(BEAN_MANAGER);
+			transaktionen = (TransactionSynchronizationRegistry) ctx
+					.lookup(TRANSAKTIONEN);
+		}
+		catch (NamingException e) {
+			LOGGER.log(WARNING, "Kein BeanManager fuer {0}", aenderung);
+			return;
+		}
+		if (transaktionen.getTransactionKey() != null
+				&& transaktionen.getResource(OHNE_EREIGNISSE) != null) {
+			return;
+		}
+		beanManager.fireEvent(aenderung);
+	}
+}
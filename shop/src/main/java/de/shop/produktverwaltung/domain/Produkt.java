@@ -1,5 +1,7 @@
 package de.shop.produktverwaltung.domain;
 
+import static javax.persistence.AccessType.FIELD;
+import static javax.persistence.FetchType.LAZY;
 import static javax.persistence.TemporalType.DATE;
 
 import java.io.Serializable;
@@ -9,15 +11,20 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
+import javax.persistence.Access;
 import javax.persistence.Basic;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
 import javax.persistence.OneToMany;
+import javax.persistence.PostLoad;
 import javax.persistence.PrePersist;
 import javax.persistence.PreUpdate;
 import javax.persistence.Table;
@@ -50,37 +57,50 @@ import de.shop.util.IdGroup;
 // @formatter:off
 @Entity
 @Table(name = "Produkt")
+@Cacheable
+@Access(FIELD)
+@EntityListeners(KatalogListener.class)
 @NamedQueries({
 		@NamedQuery(
 				name = Produkt.PRODUKT_KOMPLETT, 
 				query = "FROM Produkt p"),
+		@NamedQuery(
+				name = Produkt.PRODUKT_SEITE, 
+				query = "SELECT p FROM Produkt p WHERE p.produktId > :nachId ORDER BY p.produktId"),
+		@NamedQuery(
+				name = Produkt.PRODUKT_BY_IDS,
+				query = "FROM Produkt p WHERE p.produktId IN :ids"),
+		@NamedQuery(
+				name = Produkt.PRODUKT_VERSION_BY_ID,
+				query = "SELECT p.version FROM Produkt p WHERE p.produktId = :id"),
 		@NamedQuery(
 				name = Produkt.PRODUKT_ID_FETCH, 
-				query = "SELECT DISTINCT p FROM Produkt p LEFT JOIN p.produktdaten WHERE p.produktId = :id"),
+				query = "SELECT DISTINCT p FROM Produkt p LEFT JOIN FETCH p.produktdaten WHERE p.produktId = :id"),
 		@NamedQuery(
 				name = Produkt.PRODUKT_MIT_PRODUKTDATEN, 
 				query = "SELECT distinct p FROM Produkt p JOIN p.produktdaten"),
 		@NamedQuery(
 				name = Produkt.PRODUKT_BY_HERSTELLER, 
-				query = "FROM Produkt p WHERE p.hersteller = :hersteller"),
+				query = "FROM Produkt p WHERE p.herstellerMerkmal.id = :herstellerId"),
 		@NamedQuery(
 				name = Produkt.PRODUKT_BY_LIKE_BESCHREIBUNG, 
 				query = "SELECT produkt FROM Produkt as produkt WHERE beschreibung LIKE CONCAT('%',:beschreibung,'%')"),
 		@NamedQuery(
 				name = Produkt.PRODUKT_LISTE_GROESSEN, 
-				query = "SELECT DISTINCT p.groesse FROM Produktdaten p WHERE UPPER(p.groesse) "
-						+ "LIKE UPPER(CONCAT(:prefix,'%')) ORDER BY p.groesse ASC"),
+				query = "SELECT g.bezeichnung FROM Groesse g WHERE UPPER(g.bezeichnung) "
+						+ "LIKE UPPER(CONCAT(:prefix,'%')) "
+						+ "AND EXISTS (SELECT pd FROM Produktdaten pd WHERE pd.groesseMerkmal = g) "
+						+ "ORDER BY g.bezeichnung ASC"),
 		@NamedQuery(
 				name = Produkt.PRODUKT_LISTE_HERSTELLER,
-				query = "SELECT DISTINCT p.hersteller FROM Produkt p WHERE UPPER(p.hersteller) "
-						+ "LIKE UPPER(CONCAT(:prefix,'%')) ORDER BY p.hersteller ASC"),
+				query = "SELECT h.bezeichnung FROM Hersteller h WHERE UPPER(h.bezeichnung) "
+						+ "LIKE UPPER(CONCAT(:prefix,'%')) "
+						+ "AND EXISTS (SELECT p FROM Produkt p WHERE p.herstellerMerkmal = h) "
+						+ "ORDER BY h.bezeichnung ASC"),
 		@NamedQuery(
 				name = Produkt.PRODUKT_LISTE_PRODUKTE, 
 				query = "SELECT DISTINCT p.beschreibung FROM Produkt p WHERE UPPER(p.beschreibung) "
-						+ "LIKE UPPER(CONCAT(:prefix,'%')) ORDER BY p.beschreibung ASC"),
-		@NamedQuery(
-				name = Produkt.PRODUKT_ALLE_HERSTELLER,
-				query = "SELECT DISTINCT p.hersteller FROM Produkt p ORDER BY hersteller ASC") })
+						+ "LIKE UPPER(CONCAT(:prefix,'%')) ORDER BY p.beschreibung ASC") })
 // @formatter:on
 public class Produkt implements Serializable {
 
@@ -129,8 +149,23 @@ public class Produkt implements Serializable {
 	public static final String PRODUKT_LISTE_PRODUKTE = PREFIX
 			+ "listeAlleProdukteByPrefix";
 
-	public static final String PRODUKT_ALLE_HERSTELLER = PREFIX
-			+ "listeAlleHersteller";
+	/**
+	 * Name fuer eine Query, die die Produkte nach einer bestimmten ID liefert
+	 * (Keyset-Pagination)
+	 */
+	public static final String PRODUKT_SEITE = PREFIX + "SucheProdukteNachId";
+
+	/**
+	 * Name fuer eine Query, die Produkte anhand mehrerer IDs sucht
+	 */
+	public static final String PRODUKT_BY_IDS = PREFIX + "SucheNachIds";
+
+	/**
+	 * Name fuer eine Query, die nur die Version eines Produkts liefert (fuer
+	 * ETags)
+	 */
+	public static final String PRODUKT_VERSION_BY_ID = PREFIX
+			+ "SucheVersionNachId";
 
 	/**
 	 * Die ID des Produktes. Wird von Hibernate automatisch generiert
@@ -151,14 +186,23 @@ public class Produkt implements Serializable {
 	@Column(name = "Beschreibung", length = 255)
 	private String beschreibung;
 
-	// TODO Eventuell Hersteller in eigene Klasse/Tabelle auslagern
 	/**
-	 * Der Hersteller des Produktes
+	 * Der Hersteller des Produktes. In der DB als Fremdschluessel, siehe
+	 * herstellerMerkmal
 	 */
+	@Transient
 	@NotEmpty(message = "{produktverwaltung.hersteller.notempty}")
-	@Column(name = "Hersteller", length = 32)
 	private String hersteller;
 
+	/**
+	 * Zeile in der Tabelle Hersteller; wird vor persist() und merge() vom
+	 * Merkmalverzeichnis zugeordnet
+	 */
+	@ManyToOne(fetch = LAZY)
+	@JoinColumn(name = "Hersteller_FK")
+	@JsonIgnore
+	private Hersteller herstellerMerkmal;
+
 	/**
 	 * Liste aller Varianten dieses Produktes
 	 */
@@ -242,6 +286,15 @@ public class Produkt implements Serializable {
 		geaendert = DateFormatter.korrigiereDatum(geaendert);
 	}
 
+	/**
+	 * Uebernimmt den Namen des Herstellers aus dem 2nd-Level-Cache
+	 */
+	@PostLoad
+	private void uebernehmeHersteller() {
+		hersteller = herstellerMerkmal == null ? null : herstellerMerkmal
+				.getBezeichnung();
+	}
+
 	/**
 	 * Wird vor dem Aktualisieren/Updaten in der DB aufgerufen
 	 */
@@ -322,6 +375,10 @@ public class Produkt implements Serializable {
 		return this.produktId;
 	}
 
+	public int getVersion() {
+		return this.version;
+	}
+
 	public void setProduktId(Integer produktId) {
 		this.produktId = produktId;
 	}
@@ -354,6 +411,18 @@ public class Produkt implements Serializable {
 		return this.hersteller;
 	}
 
+	public Hersteller getHerstellerMerkmal() {
+		return herstellerMerkmal;
+	}
+
+	/**
+	 * Setzt nur die Beziehung, der Name in {@link #getHersteller()} bleibt
+	 * unveraendert.
+	 */
+	public void setHerstellerMerkmal(Hersteller herstellerMerkmal) {
+		this.herstellerMerkmal = herstellerMerkmal;
+	}
+
 	public void setHersteller(String hersteller) {
 		this.hersteller = hersteller;
 	}
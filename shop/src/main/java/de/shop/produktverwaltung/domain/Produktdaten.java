@@ -1,23 +1,30 @@
 package de.shop.produktverwaltung.domain;
 
+import static javax.persistence.AccessType.FIELD;
+import static javax.persistence.FetchType.LAZY;
 import static javax.persistence.TemporalType.DATE;
 
 import java.io.Serializable;
 import java.util.Date;
 
+import javax.persistence.Access;
 import javax.persistence.Basic;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
+import javax.persistence.PostLoad;
 import javax.persistence.PrePersist;
 import javax.persistence.PreUpdate;
 import javax.persistence.Table;
 import javax.persistence.Temporal;
+import javax.persistence.Transient;
 import javax.persistence.Version;
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
@@ -42,13 +49,30 @@ import de.shop.util.ProduktdatenIdGroup;
 //@formatter:off
 @Entity
 @Table(name = "Produktdaten")
+@Cacheable
+@Access(FIELD)
+@EntityListeners(KatalogListener.class)
 @NamedQueries({ 
 	@NamedQuery(
 			name = Produktdaten.PRODUKTDATEN_KOMPLETT,
 			query = "FROM Produktdaten pd"),
+	@NamedQuery(
+			name = Produktdaten.PRODUKTDATEN_SEITE,
+			query = "FROM Produktdaten pd WHERE pd.produktdatenID > :nachId ORDER BY pd.produktdatenID"),
+	@NamedQuery(
+			name = Produktdaten.PRODUKTDATEN_BY_IDS,
+			query = "FROM Produktdaten pd WHERE pd.produktdatenID IN :ids"),
+	@NamedQuery(
+			name = Produktdaten.PRODUKTDATEN_VERSION_BY_ID,
+			query = "SELECT pd.version FROM Produktdaten pd WHERE pd.produktdatenID = :id"),
+	@NamedQuery(
+			name = Produktdaten.PRODUKTDATEN_GUENSTIGSTE,
+			query = "FROM Produktdaten pd WHERE pd.anzahlVerfuegbar > 0 "
+					+ "ORDER BY pd.preis, pd.produktdatenID"),
 	@NamedQuery(
 			name = Produktdaten.PRODUKTDATEN_BY_GROESSE, 
-			query = "FROM Produktdaten pd WHERE pd.groesse = :groesse"),
+			query = "SELECT pd FROM Produktdaten pd "
+					+ "WHERE pd.groesseMerkmal.bezeichnung = :groesse"),
 	@NamedQuery(
 			name = Produktdaten.PRODUKTDATEN_BY_PRODUKT_ID,
 			query = "select produktdaten from Produktdaten as produktdaten "
@@ -69,6 +93,26 @@ public class Produktdaten implements Serializable {
 	public static final String PRODUKTDATEN_KOMPLETT = PREFIX
 			+ "findeAlleProduktdaten";
 	
+	public static final String PRODUKTDATEN_SEITE = PREFIX
+			+ "findeProduktdatenNachId";
+
+	public static final String PRODUKTDATEN_BY_IDS = PREFIX
+			+ "findeProduktdatenByIds";
+
+	/**
+	 * Name fuer eine Query, die nur die Version von Produktdaten liefert (fuer
+	 * ETags)
+	 */
+	public static final String PRODUKTDATEN_VERSION_BY_ID = PREFIX
+			+ "findeVersionById";
+
+	/**
+	 * Name fuer eine Query, die verfuegbare Produktdaten aufsteigend nach
+	 * Preis liefert
+	 */
+	public static final String PRODUKTDATEN_GUENSTIGSTE = PREFIX
+			+ "findeGuenstigsteVerfuegbare";
+
 	public static final String PRODUKTDATEN_BY_PRODUKT_ID = PREFIX + "findeProduktdatenByProduktId";
 
 	@Id
@@ -81,7 +125,8 @@ public class Produktdaten implements Serializable {
 	@Min(value = 0, message = "{produktverwaltung.anzahl.min}")
 	private int anzahlVerfuegbar;
 
-	@Column(name = "Groesse")
+	// In der DB als Fremdschluessel, siehe groesseMerkmal
+	@Transient
 	@NotEmpty(message = "{produktverwaltung.groesse.notempty}")
 	private String groesse;
 
@@ -89,10 +134,22 @@ public class Produktdaten implements Serializable {
 	@Min(value = 1, message = "{produktverwaltung.preis.min}")
 	private double preis;
 
-	@Column(name = "Farbe")
+	// In der DB als Fremdschluessel, siehe farbeMerkmal
+	@Transient
 	@NotEmpty(message = "{produktverwaltung.farbe.notempty}")
 	private String farbe;
 
+	// Wird vor persist() und merge() vom Merkmalverzeichnis zugeordnet
+	@ManyToOne(fetch = LAZY)
+	@JoinColumn(name = "Groesse_FK")
+	@JsonIgnore
+	private Groesse groesseMerkmal;
+
+	@ManyToOne(fetch = LAZY)
+	@JoinColumn(name = "Farbe_FK")
+	@JsonIgnore
+	private Farbe farbeMerkmal;
+
 	@ManyToOne
 	@JoinColumn(name = "Produkt_FK")
 	@Valid
@@ -147,6 +204,16 @@ public class Produktdaten implements Serializable {
 		geaendert = DateFormatter.korrigiereDatum(geaendert);
 	}
 
+	/**
+	 * Uebernimmt die Bezeichnungen von Groesse und Farbe. Beide Entities
+	 * liegen im 2nd-Level-Cache, deshalb kostet das keine zusaetzliche Query.
+	 */
+	@PostLoad
+	private void uebernehmeMerkmale() {
+		groesse = groesseMerkmal == null ? null : groesseMerkmal.getBezeichnung();
+		farbe = farbeMerkmal == null ? null : farbeMerkmal.getBezeichnung();
+	}
+
 	/**
 	 * Wird vor dem Aktualisieren/Updaten in der DB aufgerufen
 	 */
@@ -223,6 +290,11 @@ public class Produktdaten implements Serializable {
 		return this.produktdatenID;
 	}
 
+	@JsonIgnore
+	public int getVersion() {
+		return this.version;
+	}
+
 	public void setProduktdatenID(Integer produktdatenID) {
 		this.produktdatenID = produktdatenID;
 	}
@@ -231,6 +303,18 @@ public class Produktdaten implements Serializable {
 		return groesse;
 	}
 
+	public Groesse getGroesseMerkmal() {
+		return groesseMerkmal;
+	}
+
+	/**
+	 * Setzt nur die Beziehung, die Bezeichnung in {@link #getGroesse()}
+	 * bleibt unveraendert.
+	 */
+	public void setGroesseMerkmal(Groesse groesseMerkmal) {
+		this.groesseMerkmal = groesseMerkmal;
+	}
+
 	public void setGroesse(String groesse) {
 		this.groesse = groesse;
 	}
@@ -263,6 +347,17 @@ public class Produktdaten implements Serializable {
 		return this.farbe;
 	}
 
+	public Farbe getFarbeMerkmal() {
+		return farbeMerkmal;
+	}
+
+	/**
+	 * Setzt nur die Beziehung, siehe {@link #setGroesseMerkmal(Groesse)}
+	 */
+	public void setFarbeMerkmal(Farbe farbeMerkmal) {
+		this.farbeMerkmal = farbeMerkmal;
+	}
+
 	public void setFarbe(String farbe) {
 		this.farbe = farbe;
 	}
@@ -0,0 +1,84 @@
+package de.shop.produktverwaltung.rest;
+
+import static de.shop.util.SmileProvider.APPLICATION_SMILE;
+import static java.util.logging.Level.FINER;
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+import static javax.ws.rs.core.MediaType.TEXT_PLAIN;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.invoke.MethodHandles;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Locale;
+import java.util.logging.Logger;
+
+import javax.enterprise.context.RequestScoped;
+import javax.inject.Inject;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+
+import de.shop.produktverwaltung.service.ProduktService;
+import de.shop.produktverwaltung.service.util.ImportErgebnis;
+import de.shop.util.Log;
+
+/**
+ * Katalog-Import unter /produkte/import. Anders als ProduktResource ohne
+ * {@link de.shop.util.Transactional}: der Import speichert in Abschnitten mit
+ * eigenen Transaktionen, eine umschliessende Transaktion bliebe sonst ueber
+ * den ganzen Import offen und liefe in den Timeout.
+ */
+//@formatter:off
+@Path("/produkte/import")
+@Produces({APPLICATION_JSON, APPLICATION_SMILE })
+@Consumes
+@RequestScoped
+@Log
+// @formatter:on
+public class KatalogImportResource {
+
+	private static final Logger LOGGER = Logger.getLogger(MethodHandles
+			.lookup().lookupClass().getName());
+
+	/**
+	 * Eine JSON-Zeile pro Datensatz (Newline Delimited JSON)
+	 */
+	private static final String NDJSON = "application/x-ndjson";
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	@Inject
+	private ProduktService produktService;
+
+	/**
+	 * Katalog-Import: ein Produkt samt Produktdaten pro Zeile (NDJSON). Die
+	 * Eingabe wird beim Lesen verarbeitet; fehlerhafte Zeilen werden mit
+	 * ihren Meldungen im Ergebnis zurueckgeliefert.
+	 */
+	@POST
+	@Consumes({NDJSON, TEXT_PLAIN })
+	public ImportErgebnis importiereProdukte(InputStream eingabe,
+			@Context HttpHeaders headers) {
+
+		// Log
+		LOGGER.log(FINER, "REST BEGINN: Katalog-Import");
+
+		// Locale auswaehlen
+		final List<Locale> locales = headers.getAcceptableLanguages();
+		final Locale locale = locales.isEmpty() ? Locale.getDefault() : locales
+				.get(0);
+
+		// Service aufrufen
+		final ImportErgebnis ergebnis = produktService.importiereProdukte(
+				new InputStreamReader(eingabe, UTF8), locale);
+
+		// Log
+		LOGGER.log(FINER, "REST ENDE: Katalog-Import. {0}", ergebnis);
+
+		return ergebnis;
+	}
+}
@@ -1,5 +1,6 @@
 package de.shop.produktverwaltung.rest;
 
+import static de.shop.util.SmileProvider.APPLICATION_SMILE;
 import static java.util.logging.Level.FINER;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 
@@ -19,8 +20,10 @@ import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 
@@ -28,13 +31,20 @@ import de.shop.produktverwaltung.domain.Produkt;
 import de.shop.produktverwaltung.domain.Produktdaten;
 import de.shop.produktverwaltung.service.ProduktService;
 import de.shop.produktverwaltung.service.ProduktdatenService;
+import de.shop.produktverwaltung.service.util.Aehnlichkeit;
+import de.shop.produktverwaltung.service.util.ProduktUebersicht;
+import de.shop.util.Abrufplan;
+import de.shop.util.ETagHelper;
+import de.shop.util.Erweitert;
+import de.shop.util.IdListe;
 import de.shop.util.Log;
+import de.shop.util.Seite;
 import de.shop.util.Transactional;
 import de.shop.util.exceptions.NotFoundException;
 
 //@formatter:off
 @Path("/produkte")
-@Produces(APPLICATION_JSON)
+@Produces({APPLICATION_JSON, APPLICATION_SMILE })
 @Consumes
 @RequestScoped
 @Transactional
@@ -45,6 +55,11 @@ public class ProduktResource {
 	private static final Logger LOGGER = Logger.getLogger(MethodHandles
 			.lookup().lookupClass().getName());
 
+	/**
+	 * Erlaubter Wert fuer ?expand=
+	 */
+	private static final String EXPAND_PRODUKTDATEN = "produktdaten";
+
 	@Inject
 	private ProduktService produktService;
 
@@ -55,7 +70,7 @@ public class ProduktResource {
 	private UriHelperProdukt uriHelperProdukt;
 
 	@POST
-	@Consumes(APPLICATION_JSON)
+	@Consumes({APPLICATION_JSON, APPLICATION_SMILE })
 	@Produces
 	public Response addProdukt(Produkt produkt, @Context UriInfo uriInfo,
 			@Context HttpHeaders headers) {
@@ -79,22 +94,260 @@ public class ProduktResource {
 
 	}
 
+	/**
+	 * Liefert alle Produkte seitenweise. Das Token "weiter" der Antwort wird
+	 * fuer die naechste Seite als Query-Parameter mitgeschickt.
+	 */
+	@GET
+	public Seite<Produkt> findProdukte(@QueryParam("weiter") String weiter,
+			@QueryParam("anzahl") Integer anzahl, @Context UriInfo uriInfo) {
+
+		// Log
+		LOGGER.log(FINER, "REST BEGINN: Finde Produkte (weiter={0})", weiter);
+
+		// Service aufrufen
+		final Seite<Produkt> seite = produktService.findProdukte(weiter,
+				anzahl);
+
+		// Ggf. Fehlermeldung
+		if (seite.getInhalt().isEmpty()) {
+			throw new NotFoundException("Keine Produkte gefunden!");
+		}
+
+		// URI
+		for (Produkt produkt : seite.getInhalt()) {
+			uriHelperProdukt.updateProduktdatenURI(produkt, uriInfo);
+		}
+
+		// Log
+		LOGGER.log(FINER, "REST ENDE: Finde Produkte. Ergebnis={0}", seite);
+
+		return seite;
+	}
+
+	/**
+	 * Liefert mehrere Produkte mit einer Anfrage, z.B. fuer eine Merkliste:
+	 * /produkte/auswahl?ids=300,301,305. Die Reihenfolge entspricht der
+	 * Anfrage, unbekannte IDs werden uebersprungen.
+	 */
+	@GET
+	@Path("auswahl")
+	public List<Produkt> findProdukteByIds(@QueryParam("ids") String ids,
+			@Context UriInfo uriInfo) {
+
+		// Log
+		LOGGER.log(FINER, "REST BEGINN: Finde Produkte by IDs = {0}", ids);
+
+		// Service aufrufen
+		final List<Produkt> results = produktService.findProdukteByIds(IdListe
+				.lese(ids));
+
+		// Ggf. Fehlermeldung
+		if (results.isEmpty()) {
+			throw new NotFoundException("Keine Produkte mit ids = " + ids
+					+ " gefunden!");
+		}
+
+		// URI
+		for (Produkt produkt : results) {
+			uriHelperProdukt.updateProduktdatenURI(produkt, uriInfo);
+		}
+
+		// Log
+		LOGGER.log(FINER, "REST ENDE: Finde Produkte by IDs. Ergebnis = {0}",
+				results);
+
+		return results;
+	}
+
+	/**
+	 * Liefert Uebersichten aller Produkte seitenweise: guenstigster Preis,
+	 * gesamter Bestand, Groessen und Farben, ohne die Produktdaten selbst
+	 */
+	@GET
+	@Path("uebersicht")
+	public Seite<ProduktUebersicht> findProduktUebersichten(
+			@QueryParam("weiter") String weiter,
+			@QueryParam("anzahl") Integer anzahl) {
+
+		// Log
+		LOGGER.log(FINER, "REST BEGINN: Finde Produkt-Uebersichten (weiter={0})",
+				weiter);
+
+		final Seite<ProduktUebersicht> seite = produktService
+				.findProduktUebersichten(weiter, anzahl);
+
+		// Ggf. Fehlermeldung
+		if (seite.getInhalt().isEmpty()) {
+			throw new NotFoundException("Keine Produkte gefunden!");
+		}
+
+		// Log
+		LOGGER.log(FINER, "REST ENDE: Finde Produkt-Uebersichten. Ergebnis={0}",
+				seite);
+
+		return seite;
+	}
+
+	/**
+	 * Liefert alle Hersteller seitenweise in alphabetischer Reihenfolge
+	 */
+	@GET
+	@Path("hersteller")
+	public Seite<String> findAlleHersteller(
+			@QueryParam("weiter") String weiter,
+			@QueryParam("anzahl") Integer anzahl) {
+
+		// Log
+		LOGGER.log(FINER, "REST BEGINN: Finde Hersteller (weiter={0})", weiter);
+
+		// Service aufrufen
+		final Seite<String> seite = produktService.findAlleHersteller(weiter,
+				anzahl);
+
+		// Ggf. Fehlermeldung
+		if (seite.getInhalt().isEmpty()) {
+			throw new NotFoundException("Keine Hersteller gefunden!");
+		}
+
+		// Log
+		LOGGER.log(FINER, "REST ENDE: Finde Hersteller. Ergebnis={0}", seite);
+
+		return seite;
+	}
+
+	/**
+	 * Volltextsuche ueber Beschreibung und Hersteller, sortiert nach Relevanz
+	 */
+	@GET
+	@Path("volltext")
+	public List<Produkt> findProdukteByVolltext(
+			@QueryParam("suchtext") String suchtext,
+			@QueryParam("anzahl") Integer anzahl, @Context UriInfo uriInfo) {
+
+		// Log
+		LOGGER.log(FINER, "REST BEGINN: Volltextsuche nach {0}", suchtext);
+
+		// Service aufrufen
+		final List<Produkt> produkte = produktService.findProdukteByVolltext(
+				suchtext, anzahl);
+
+		// Ggf. Fehlermeldung
+		if (produkte.isEmpty()) {
+			throw new NotFoundException("Keine Produkte zu \"" + suchtext
+					+ "\" gefunden!");
+		}
+
+		// URI
+		for (Produkt produkt : produkte) {
+			uriHelperProdukt.updateProduktdatenURI(produkt, uriInfo);
+		}
+
+		// Log
+		LOGGER.log(FINER, "REST ENDE: Volltextsuche. Ergebnis: {0} Produkt(e)",
+				produkte.size());
+
+		return produkte;
+	}
+
+	/**
+	 * Fehlertolerante Suche ueber Hersteller und Beschreibung
+	 */
+	@GET
+	@Path("unscharf")
+	public List<Produkt> findProdukteUnscharf(
+			@QueryParam("suchtext") String suchtext,
+			@QueryParam("anzahl") Integer anzahl, @Context UriInfo uriInfo) {
+
+		// Log
+		LOGGER.log(FINER, "REST BEGINN: Unscharfe Suche nach {0}", suchtext);
+
+		// Service aufrufen
+		final List<Produkt> produkte = produktService.findProdukteUnscharf(
+				suchtext, anzahl);
+
+		// Ggf. Fehlermeldung
+		if (produkte.isEmpty()) {
+			throw new NotFoundException("Keine Produkte aehnlich zu \""
+					+ suchtext + "\" gefunden!");
+		}
+
+		// URI
+		for (Produkt produkt : produkte) {
+			uriHelperProdukt.updateProduktdatenURI(produkt, uriInfo);
+		}
+
+		// Log
+		LOGGER.log(FINER, "REST ENDE: Unscharfe Suche. Ergebnis: {0} Produkt(e)",
+				produkte.size());
+
+		return produkte;
+	}
+
+	/**
+	 * "Meinten Sie ...?"-Vorschlaege zu einem vertippten Suchtext
+	 */
+	@GET
+	@Path("aehnlich")
+	public List<Aehnlichkeit> findAehnlicheBegriffe(
+			@QueryParam("suchtext") String suchtext) {
+
+		// Log
+		LOGGER.log(FINER, "REST BEGINN: Aehnliche Begriffe zu {0}", suchtext);
+
+		// Service aufrufen
+		final List<Aehnlichkeit> vorschlaege = produktService
+				.findAehnlicheBegriffe(suchtext);
+
+		// Ggf. Fehlermeldung
+		if (vorschlaege.isEmpty()) {
+			throw new NotFoundException("Keine Vorschlaege zu \"" + suchtext
+					+ "\" gefunden!");
+		}
+
+		// Log
+		LOGGER.log(FINER, "REST ENDE: Aehnliche Begriffe. Ergebnis: {0}",
+				vorschlaege);
+
+		return vorschlaege;
+	}
+
+	/**
+	 * Liefert ein Produkt; mit ?expand=produktdaten werden die Produktdaten
+	 * in derselben Query gelesen und eingebettet. Eingebettete Produktdaten
+	 * haben eigene Versionen, deshalb gibt es dann kein ETag.
+	 */
 	@GET
 	@Path("{id:[1-9][0-9]*}")
-	public Produkt findProduktById(@PathParam("id") Integer id,
-			@Context UriInfo uriInfo, @Context HttpHeaders headers) {
+	public Response findProduktById(@PathParam("id") Integer id,
+			@QueryParam("expand") String expand, @Context UriInfo uriInfo,
+			@Context HttpHeaders headers, @Context Request request) {
 
 		// Log
 		LOGGER.log(FINER, "REST Beginn: Finde Produkt by ID={0}", id);
 
+		final Abrufplan plan = Abrufplan.lese(expand, EXPAND_PRODUKTDATEN);
+
+		// Unveraendert laut If-None-Match? Dann nur die Version lesen
+		final Integer version = plan.isLeer() ? produktService
+				.findVersionById(id) : null;
+		if (version != null) {
+			final Response nichtGeaendert = ETagHelper.nichtGeaendert(request,
+					id, version);
+			if (nichtGeaendert != null) {
+				LOGGER.log(FINER, "REST Ende: Produkt {0} nicht geaendert", id);
+				return nichtGeaendert;
+			}
+		}
+
 		// Locale auswhlen
 		final List<Locale> locales = headers.getAcceptableLanguages();
 		final Locale locale = locales.isEmpty() ? Locale.getDefault() : locales
 				.get(0);
 
 		// Service aufrufen
-		final Produkt produkt = produktService.findProduktByID(id,
-				ProduktService.FetchType.NUR_PRODUKTE, locale);
+		final Produkt produkt = produktService.findProduktByID(id, plan,
+				locale);
 
 		// Ggf. Fehlermeldung
 		if (produkt == null) {
@@ -109,7 +362,12 @@ public class ProduktResource {
 		LOGGER.log(FINER, "REST Ende: Finde Produkt by Id. Ergebnis={0}",
 				produkt);
 
-		return produkt;
+		if (plan.isLeer()) {
+			return ETagHelper.mitETag(produkt, id, produkt.getVersion());
+		}
+		return Response.ok(
+				new Erweitert<>(produkt).mit(EXPAND_PRODUKTDATEN,
+						produkt.getProduktdaten())).build();
 
 	}
 
@@ -191,7 +449,7 @@ public class ProduktResource {
 
 	// formatter:off
 	@PUT
-	@Consumes(APPLICATION_JSON)
+	@Consumes({APPLICATION_JSON, APPLICATION_SMILE })
 	@Produces
 	// formatter:on
 	public void updateProdukt(Produkt produkt, @Context UriInfo uriInfo,
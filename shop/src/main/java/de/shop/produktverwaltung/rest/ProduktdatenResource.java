@@ -1,18 +1,28 @@
 package de.shop.produktverwaltung.rest;
 
+import static de.shop.produktverwaltung.service.ProduktdatenService.FELD_ANZAHL;
+import static de.shop.produktverwaltung.service.ProduktdatenService.FELD_FARBE;
+import static de.shop.produktverwaltung.service.ProduktdatenService.FELD_GROESSE;
+import static de.shop.produktverwaltung.service.ProduktdatenService.FELD_ID;
+import static de.shop.produktverwaltung.service.ProduktdatenService.FELD_PREIS;
+import static de.shop.util.SmileProvider.APPLICATION_SMILE;
 import static java.util.logging.Level.FINER;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+import static javax.ws.rs.core.Response.Status.BAD_REQUEST;
 
 import java.lang.invoke.MethodHandles;
 import java.net.URI;
 import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.logging.Logger;
 
 import javax.enterprise.context.RequestScoped;
 import javax.inject.Inject;
 import javax.ws.rs.Consumes;
+import javax.ws.rs.DELETE;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
@@ -20,8 +30,10 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 
@@ -32,14 +44,23 @@ import de.shop.produktverwaltung.domain.Produktdaten;
 import de.shop.produktverwaltung.service.ProduktService;
 import de.shop.produktverwaltung.service.ProduktService.FetchType;
 import de.shop.produktverwaltung.service.ProduktdatenService;
+import de.shop.produktverwaltung.service.util.CacheStatistik;
+import de.shop.produktverwaltung.service.util.FlashSaleStatus;
 import de.shop.produktverwaltung.service.util.SuchFilter;
+import de.shop.produktverwaltung.service.util.Suchergebnis;
+import de.shop.util.Abschnittsquelle;
+import de.shop.util.ETagHelper;
+import de.shop.util.Feldauswahl;
+import de.shop.util.IdListe;
+import de.shop.util.JsonStreamer;
 import de.shop.util.Log;
+import de.shop.util.Seite;
 import de.shop.util.Transactional;
 import de.shop.util.exceptions.NotFoundException;
 
 //@formatter:off
 @Path("/produktdaten")
-@Produces(APPLICATION_JSON)
+@Produces({APPLICATION_JSON, APPLICATION_SMILE })
 @Consumes
 @RequestScoped
 @Transactional
@@ -59,9 +80,12 @@ public class ProduktdatenResource {
 	@Inject
 	private UriHelperProduktdaten uriHelperProduktdaten;
 
+	@Inject
+	private JsonStreamer jsonStreamer;
+
 	// formatter:off
 	@POST
-	@Consumes(APPLICATION_JSON)
+	@Consumes({APPLICATION_JSON, APPLICATION_SMILE })
 	@Produces
 	// formatter:on
 	public Response addProduktdaten(Produktdaten produktdaten,
@@ -94,12 +118,25 @@ public class ProduktdatenResource {
 
 	@GET
 	@Path("{id:[1-9][0-9]*}")
-	public Produktdaten findProduktdatenById(@PathParam("id") Integer id,
-			@Context UriInfo uriInfo, @Context HttpHeaders headers) {
+	public Response findProduktdatenById(@PathParam("id") Integer id,
+			@Context UriInfo uriInfo, @Context HttpHeaders headers,
+			@Context Request request) {
 
 		// Log
 		LOGGER.log(FINER, "REST BEGINN: Finde Produktdaten by ID = {0}", id);
 
+		// Unveraendert laut If-None-Match? Dann nur die Version lesen
+		final Integer version = produktdatenService.findVersionById(id);
+		if (version != null) {
+			final Response nichtGeaendert = ETagHelper.nichtGeaendert(request,
+					id, version);
+			if (nichtGeaendert != null) {
+				LOGGER.log(FINER,
+						"REST ENDE: Produktdaten {0} nicht geaendert", id);
+				return nichtGeaendert;
+			}
+		}
+
 		// Locale auswhlen
 		final List<Locale> locales = headers.getAcceptableLanguages();
 		final Locale locale = locales.isEmpty() ? Locale.getDefault() : locales
@@ -119,12 +156,16 @@ public class ProduktdatenResource {
 		LOGGER.log(FINER,
 				"REST ENDE: Finde Produktdaten by Id. Ergebnis = {0}", result);
 
-		return result;
+		return ETagHelper.mitETag(result, id, result.getVersion());
 	}
 
+	/**
+	 * Detailsuche. Mit ?fields=farbe,preis werden nur diese Felder (und die
+	 * ID) gelesen und geliefert, z.B. fuer Listen in mobilen Clients.
+	 */
 	@GET
 	@Wrapped(element = "produktdaten")
-	public Collection<Produktdaten> findProduktdatenByDetailSuche(
+	public Collection<?> findProduktdatenByDetailSuche(
 			@QueryParam("farbe") String farbe,
 			@QueryParam("anzahl") int anzahl,
 			@QueryParam("beschreibung") String beschreibung,
@@ -132,16 +173,16 @@ public class ProduktdatenResource {
 			@QueryParam("hersteller") String hersteller,
 			@QueryParam("preis_unten") double preisUnten,
 			@QueryParam("preis_oben") double preisOben,
+			@QueryParam("fields") String fields,
 			@Context UriInfo uriInfo, @Context HttpHeaders headers) {
 
-		final SuchFilter filter = new SuchFilter();
-		filter.setFarbe(farbe);
-		filter.setAnzahl(anzahl == 0 ? null : anzahl);
-		filter.setBeschreibung(beschreibung);
-		filter.setGroesse(groesse);
-		filter.setHersteller(hersteller);
-		filter.setPreisOben(preisOben == 0 ? null : preisOben);
-		filter.setPreisUnten(preisUnten == 0 ? null : preisUnten);
+		final SuchFilter filter = erzeugeSuchFilter(farbe, anzahl,
+				beschreibung, groesse, hersteller, preisUnten, preisOben);
+		final Feldauswahl auswahl = Feldauswahl.lese(fields, FELD_ID,
+				FELD_ANZAHL, FELD_FARBE, FELD_GROESSE, FELD_PREIS);
+		if (!auswahl.isAlle()) {
+			return findProduktdatenTeilweise(filter, auswahl);
+		}
 
 		// Log
 		LOGGER.log(
@@ -173,8 +214,271 @@ public class ProduktdatenResource {
 		return results;
 	}
 
+	/*
+	 * Detailsuche mit Feldauswahl
+	 */
+	private List<Map<String, Object>> findProduktdatenTeilweise(
+			SuchFilter filter, Feldauswahl auswahl) {
+
+		// Log
+		LOGGER.log(FINER,
+				"REST BEGINN: Finde Produktdaten by Detail Suche (Filter = {0}, {1})",
+				new Object[] {filter, auswahl });
+
+		// Service aufrufen
+		final List<Map<String, Object>> results = produktdatenService
+				.findProduktdatenProjektionByFilter(filter, auswahl);
+
+		// Ggf. Fehlermeldung
+		if (results.isEmpty()) {
+			throw new NotFoundException(
+					"Keine passenden Produktdaten gefunden!");
+		}
+
+		// Log
+		LOGGER.log(FINER,
+				"REST ENDE: Finde Produktdaten by Detail Suche. Gefunden: {0}",
+				results.size());
+
+		return results;
+	}
+
+	/**
+	 * Liefert mehrere Produktdaten mit einer Anfrage, z.B. fuer einen
+	 * Warenkorb: /produktdaten/auswahl?ids=401,402,405. Die Reihenfolge
+	 * entspricht der Anfrage, unbekannte IDs werden uebersprungen.
+	 */
+	@GET
+	@Path("auswahl")
+	public List<Produktdaten> findProduktdatenByIds(
+			@QueryParam("ids") String ids) {
+
+		// Log
+		LOGGER.log(FINER, "REST BEGINN: Finde Produktdaten by IDs = {0}", ids);
+
+		// Service aufrufen
+		final List<Produktdaten> results = produktdatenService
+				.findProduktdatenByIds(IdListe.lese(ids));
+
+		// Ggf. Fehlermeldung
+		if (results.isEmpty()) {
+			throw new NotFoundException("Keine Produktdaten mit ids = " + ids
+					+ " gefunden!");
+		}
+
+		// Log
+		LOGGER.log(FINER,
+				"REST ENDE: Finde Produktdaten by IDs. Ergebnis = {0}", results);
+
+		return results;
+	}
+
+	/**
+	 * Liefert alle Produktdaten seitenweise. Das Token "weiter" der Antwort
+	 * wird fuer die naechste Seite als Query-Parameter mitgeschickt.
+	 */
+	@GET
+	@Path("alle")
+	public Seite<Produktdaten> findProduktdatenKomplett(
+			@QueryParam("weiter") String weiter,
+			@QueryParam("anzahl") Integer anzahl) {
+
+		// Log
+		LOGGER.log(FINER, "REST BEGINN: Finde alle Produktdaten (weiter={0})",
+				weiter);
+
+		// Service aufrufen
+		final Seite<Produktdaten> seite = produktdatenService
+				.findProduktdatenKomplett(weiter, anzahl);
+
+		// Ggf. Fehlermeldung
+		if (seite.getInhalt().isEmpty()) {
+			throw new NotFoundException("Keine Produktdaten gefunden!");
+		}
+
+		// Log
+		LOGGER.log(FINER, "REST ENDE: Finde alle Produktdaten. Ergebnis={0}",
+				seite);
+
+		return seite;
+	}
+
+	/**
+	 * Liefert die guenstigsten verfuegbaren Produktdaten, aufsteigend nach
+	 * Preis
+	 */
+	@GET
+	@Path("guenstigste")
+	public List<Produktdaten> findGuenstigsteVerfuegbare(
+			@QueryParam("anzahl") Integer anzahl) {
+
+		// Log
+		LOGGER.log(FINER,
+				"REST BEGINN: Finde guenstigste Produktdaten (anzahl={0})",
+				anzahl);
+
+		// Service aufrufen
+		final List<Produktdaten> produktdaten = produktdatenService
+				.findGuenstigsteVerfuegbare(anzahl);
+
+		// Ggf. Fehlermeldung
+		if (produktdaten.isEmpty()) {
+			throw new NotFoundException("Keine verfuegbaren Produktdaten gefunden!");
+		}
+
+		// Log
+		LOGGER.log(FINER,
+				"REST ENDE: Finde guenstigste Produktdaten. Ergebnis: {0}",
+				produktdaten.size());
+
+		return produktdaten;
+	}
+
+	/**
+	 * Detailsuche wie {@link #findProduktdatenByDetailSuche}, liefert aber
+	 * zusaetzlich die Anzahl der Treffer pro Farbe, Groesse, Hersteller und
+	 * Preisbereich.
+	 */
+	@GET
+	@Path("suche")
+	public Suchergebnis findProduktdatenMitFacetten(
+			@QueryParam("farbe") String farbe,
+			@QueryParam("anzahl") int anzahl,
+			@QueryParam("beschreibung") String beschreibung,
+			@QueryParam("groesse") String groesse,
+			@QueryParam("hersteller") String hersteller,
+			@QueryParam("preis_unten") double preisUnten,
+			@QueryParam("preis_oben") double preisOben,
+			@Context HttpHeaders headers) {
+
+		final SuchFilter filter = erzeugeSuchFilter(farbe, anzahl,
+				beschreibung, groesse, hersteller, preisUnten, preisOben);
+
+		// Log
+		LOGGER.log(FINER,
+				"REST BEGINN: Detail Suche mit Facetten (Filter = {0})", filter);
+
+		// Locale auswaehlen
+		final List<Locale> locales = headers.getAcceptableLanguages();
+		final Locale locale = locales.isEmpty() ? Locale.getDefault() : locales
+				.get(0);
+
+		// Service aufrufen
+		final Suchergebnis ergebnis = produktdatenService
+				.findProduktdatenMitFacetten(filter, locale);
+
+		// Ggf. Fehlermeldung
+		if (ergebnis.isEmpty()) {
+			throw new NotFoundException(
+					"Keine passenden Produktdaten gefunden!");
+		}
+
+		// Log
+		LOGGER.log(FINER, "REST ENDE: Detail Suche mit Facetten. {0}",
+				ergebnis);
+
+		return ergebnis;
+	}
+
+	/**
+	 * Detailsuche fuer grosse Ergebnismengen: die Treffer werden nach ID
+	 * sortiert abschnittsweise als JSON-Array geschrieben, ohne sie vorher
+	 * komplett zu laden. Ohne Treffer wird ein leeres Array geliefert.
+	 */
+	@GET
+	@Path("stream")
+	@Produces(APPLICATION_JSON)
+	public Response streameProduktdaten(@QueryParam("farbe") String farbe,
+			@QueryParam("anzahl") int anzahl,
+			@QueryParam("beschreibung") String beschreibung,
+			@QueryParam("groesse") String groesse,
+			@QueryParam("hersteller") String hersteller,
+			@QueryParam("preis_unten") double preisUnten,
+			@QueryParam("preis_oben") double preisOben) {
+
+		final SuchFilter filter = erzeugeSuchFilter(farbe, anzahl,
+				beschreibung, groesse, hersteller, preisUnten, preisOben);
+
+		LOGGER.log(FINER, "REST: Stream Produktdaten (Filter = {0})", filter);
+
+		return Response.ok(
+				jsonStreamer.streame(new Abschnittsquelle<Produktdaten>() {
+					@Override
+					public List<Produktdaten> lade(Integer nachId, int max) {
+						return produktdatenService
+								.findProduktdatenByFilterNachId(filter,
+										nachId, max);
+					}
+
+					@Override
+					public Integer getId(Produktdaten produktdaten) {
+						return produktdaten.getProduktdatenID();
+					}
+				})).build();
+	}
+
+	/**
+	 * Kennzahlen des Caches fuer die Detailsuche
+	 */
+	@GET
+	@Path("cache")
+	public CacheStatistik findSuchCacheStatistik() {
+		return produktdatenService.getSuchCacheStatistik();
+	}
+
+	/**
+	 * Startet einen Flash-Sale: nur die angegebene Stueckzahl wird verkauft,
+	 * weitere Bestellungen werden sofort abgelehnt
+	 */
 	@PUT
-	@Consumes(APPLICATION_JSON)
+	@Path("{id:[1-9][0-9]*}/flashsale")
+	public FlashSaleStatus starteFlashSale(@PathParam("id") Integer id,
+			@QueryParam("tokens") int tokens,
+			@QueryParam("parallel") @DefaultValue("4") int parallel,
+			@Context HttpHeaders headers) {
+
+		if (tokens < 0 || parallel < 1) {
+			throw new WebApplicationException(BAD_REQUEST);
+		}
+
+		final List<Locale> locales = headers.getAcceptableLanguages();
+		final Locale locale = locales.isEmpty() ? Locale.getDefault() : locales
+				.get(0);
+
+		final FlashSaleStatus status = produktdatenService.starteFlashSale(id,
+				tokens, parallel, locale);
+		if (status == null) {
+			throw new NotFoundException("Keine Produktdaten mit der ID " + id
+					+ " gefunden.");
+		}
+		return status;
+	}
+
+	@GET
+	@Path("{id:[1-9][0-9]*}/flashsale")
+	public FlashSaleStatus findFlashSaleStatus(@PathParam("id") Integer id) {
+		final FlashSaleStatus status = produktdatenService
+				.getFlashSaleStatus(id);
+		if (status == null) {
+			throw new NotFoundException(
+					"Kein Flash-Sale fuer die Produktdaten mit der ID " + id);
+		}
+		return status;
+	}
+
+	@DELETE
+	@Path("{id:[1-9][0-9]*}/flashsale")
+	public FlashSaleStatus beendeFlashSale(@PathParam("id") Integer id) {
+		final FlashSaleStatus status = produktdatenService.beendeFlashSale(id);
+		if (status == null) {
+			throw new NotFoundException(
+					"Kein Flash-Sale fuer die Produktdaten mit der ID " + id);
+		}
+		return status;
+	}
+
+	@PUT
+	@Consumes({APPLICATION_JSON, APPLICATION_SMILE })
 	@Produces
 	public void updateProduktdaten(Produktdaten produktdaten,
 			@Context UriInfo uriInfo, @Context HttpHeaders headers) {
@@ -200,4 +504,19 @@ public class ProduktdatenResource {
 		LOGGER.log(FINER, "REST ENDE: Update Produkte = {0}", produktdaten);
 
 	}
+
+	private static SuchFilter erzeugeSuchFilter(String farbe, int anzahl,
+			String beschreibung, String groesse, String hersteller,
+			double preisUnten, double preisOben) {
+
+		final SuchFilter filter = new SuchFilter();
+		filter.setFarbe(farbe);
+		filter.setAnzahl(anzahl == 0 ? null : anzahl);
+		filter.setBeschreibung(beschreibung);
+		filter.setGroesse(groesse);
+		filter.setHersteller(hersteller);
+		filter.setPreisOben(preisOben == 0 ? null : preisOben);
+		filter.setPreisUnten(preisUnten == 0 ? null : preisUnten);
+		return filter;
+	}
 }
@@ -0,0 +1,73 @@
+package de.shop.produktverwaltung.service;
+
+import static java.util.logging.Level.FINER;
+import static javax.ejb.TransactionAttributeType.REQUIRES_NEW;
+
+import java.lang.invoke.MethodHandles;
+import java.util.List;
+import java.util.logging.Logger;
+
+import javax.annotation.Resource;
+import javax.ejb.LocalBean;
+import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import de.shop.produktverwaltung.domain.KatalogListener;
+import de.shop.produktverwaltung.domain.Produkt;
+
+/**
+ * Speichert einen Abschnitt eines Katalog-Imports in einer eigenen
+ * Transaktion. Ein langer Import bleibt damit unter dem Transaktions-Timeout,
+ * und ein fehlerhafter Abschnitt rollt nur sich selbst zurueck.
+ *
+ * Pro Produkt werden keine {@link de.shop.produktverwaltung.domain.KatalogAenderung}
+ * gefeuert; die Indizes baut der Aufrufer nach dem Import einmal neu auf.
+ *
+ * @see ProduktService#importiereProdukte(java.io.Reader, java.util.Locale)
+ */
+@Stateless
+@LocalBean
+public class KatalogImport {
+
+	// /////////////////////////////////////////////////////////////////////
+	// ATTRIBUTES
+
+	private static final Logger LOGGER = Logger.getLogger(MethodHandles
+			.lookup().lookupClass().getName());
+
+	@PersistenceContext
+	private EntityManager em;
+
+	@Resource
+	private TransactionSynchronizationRegistry transaktionen;
+
+	@Inject
+	private Merkmalverzeichnis merkmalverzeichnis;
+
+	// /////////////////////////////////////////////////////////////////////
+	// METHODS
+
+	/**
+	 * @param produkte
+	 *            Bereits validierte Produkte samt Produktdaten; die INSERTs
+	 *            gehen beim Commit als JDBC-Batch zur Datenbank
+	 */
+	@TransactionAttribute(REQUIRES_NEW)
+	public void speichere(List<Produkt> produkte) {
+
+		LOGGER.log(FINER, "BEGINN: Speichere {0} importierte Produkte",
+				produkte.size());
+
+		KatalogListener.ohneEreignisse(transaktionen);
+		for (Produkt produkt : produkte) {
+			merkmalverzeichnis.ordneZu(produkt);
+			em.persist(produkt);
+		}
+
+		LOGGER.log(FINER, "ENDE: Speichere importierte Produkte");
+	}
+}
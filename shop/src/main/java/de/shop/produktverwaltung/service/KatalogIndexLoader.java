@@ -0,0 +1,91 @@
+package de.shop.produktverwaltung.service;
+
+import static java.util.logging.Level.WARNING;
+
+import java.lang.invoke.MethodHandles;
+import java.util.List;
+import java.util.logging.Logger;
+
+import javax.annotation.PostConstruct;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceException;
+
+import de.shop.produktverwaltung.domain.Produkt;
+import de.shop.produktverwaltung.domain.Produktdaten;
+import de.shop.produktverwaltung.service.util.ProduktUebersichtIndex;
+import de.shop.produktverwaltung.service.util.ProduktdatenIndex;
+import de.shop.produktverwaltung.service.util.TrigrammIndex;
+import de.shop.produktverwaltung.service.util.VolltextIndex;
+import de.shop.produktverwaltung.service.util.VorschlagIndex;
+
+/**
+ * Baut beim Deployment die In-Memory-Indizes des Katalogs auf. Schlaegt der
+ * Aufbau fehl, bleiben die Indizes "kalt" und die Services fragen weiterhin
+ * direkt die Datenbank ab. Nach einem Katalog-Import werden die Indizes
+ * ueber {@link #ladeNeu()} einmal komplett neu aufgebaut.
+ *
+ * Gelesen wird direkt ueber den EntityManager, damit ProduktService diesen
+ * Loader ohne zyklische Abhaengigkeit nutzen kann.
+ */
+@Singleton
+@Startup
+public class KatalogIndexLoader {
+
+	// /////////////////////////////////////////////////////////////////////
+	// ATTRIBUTES
+
+	private static final Logger LOGGER = Logger.getLogger(MethodHandles
+			.lookup().lookupClass().getName());
+
+	@PersistenceContext
+	private EntityManager em;
+
+	@Inject
+	private ProduktdatenIndex produktdatenIndex;
+
+	@Inject
+	private VorschlagIndex vorschlagIndex;
+
+	@Inject
+	private VolltextIndex volltextIndex;
+
+	@Inject
+	private TrigrammIndex trigrammIndex;
+
+	@Inject
+	private ProduktUebersichtIndex produktUebersichtIndex;
+
+	// /////////////////////////////////////////////////////////////////////
+	// METHODS
+
+	@PostConstruct
+	private void ladeIndizes() {
+		try {
+			final List<Produkt> produkte = em.createNamedQuery(
+					Produkt.PRODUKT_KOMPLETT, Produkt.class).getResultList();
+			final List<Produktdaten> produktdaten = em.createNamedQuery(
+					Produktdaten.PRODUKTDATEN_KOMPLETT, Produktdaten.class)
+					.getResultList();
+			produktdatenIndex.aufbauen(produkte, produktdaten);
+			vorschlagIndex.aufbauen(produkte, produktdaten);
+			volltextIndex.aufbauen(produkte);
+			trigrammIndex.aufbauen(produkte);
+			produktUebersichtIndex.aufbauen(produkte, produktdaten);
+		}
+		catch (PersistenceException e) {
+			LOGGER.log(WARNING, "Katalog-Index konnte nicht aufgebaut werden",
+					e);
+		}
+	}
+
+	/**
+	 * Baut alle Indizes aus dem aktuellen Stand der Datenbank neu auf
+	 */
+	public void ladeNeu() {
+		ladeIndizes();
+	}
+}
@@ -0,0 +1,99 @@
+package de.shop.produktverwaltung.service;
+
+import static java.util.logging.Level.FINER;
+import static java.util.logging.Level.SEVERE;
+import static javax.persistence.LockModeType.PESSIMISTIC_WRITE;
+
+import java.lang.invoke.MethodHandles;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import javax.annotation.PreDestroy;
+import javax.ejb.Schedule;
+import javax.ejb.Singleton;
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import de.shop.produktverwaltung.domain.Produktdaten;
+import de.shop.produktverwaltung.service.util.Abbuchung;
+import de.shop.produktverwaltung.service.util.Lagerbestand;
+
+/**
+ * Write-Behind fuer den {@link Lagerbestand}: bucht die verkauften Mengen
+ * regelmaessig aus der Datenbank ab. Ein UPDATE pro Produktdaten und
+ * Intervall ersetzt damit die Optimistic-Locking-Updates pro Bestellung.
+ *
+ * Abgebucht wird ueber die versionierten Entities statt per Bulk-UPDATE:
+ * Hibernate invalidiert bei einem Bulk-UPDATE die komplette Cache-Region der
+ * Produktdaten, so aktualisiert es nur die geaenderten Eintraege. Die Zeile
+ * wird dazu mit SELECT ... FOR UPDATE gelesen; gleichzeitige Aenderungen mit
+ * Optimistic Locking scheitern dann an der hochgezaehlten Version statt die
+ * Abbuchung zu ueberschreiben.
+ */
+@Singleton
+public class LagerbestandSchreiber {
+
+	// /////////////////////////////////////////////////////////////////////
+	// ATTRIBUTES
+
+	private static final Logger LOGGER = Logger.getLogger(MethodHandles
+			.lookup().lookupClass().getName());
+
+	@PersistenceContext
+	private EntityManager em;
+
+	@Inject
+	private Lagerbestand lagerbestand;
+
+	// /////////////////////////////////////////////////////////////////////
+	// METHODS
+
+	@Schedule(hour = "*", minute = "*", second = "*/2", persistent = false)
+	public void schreibe() {
+
+		// Nach einem Rollback sind die Mengen wieder ausstehend
+		final Abbuchung abbuchung = lagerbestand
+				.entnehmeAusstehendeInTransaktion();
+		if (abbuchung.isEmpty()) {
+			return;
+		}
+
+		LOGGER.log(FINER, "BEGINN: Bestand abbuchen {0}", abbuchung);
+
+		final Map<Integer, Integer> mengen = new HashMap<>(
+				abbuchung.getMengeByProduktdatenId());
+		for (Map.Entry<Integer, Integer> e : mengen.entrySet()) {
+			// Liest an der Cache-Region vorbei den aktuellen Stand
+			final Produktdaten produktdaten = em.find(Produktdaten.class,
+					e.getKey(), PESSIMISTIC_WRITE);
+			if (produktdaten == null
+					|| produktdaten.getAnzahlVerfuegbar() < e.getValue()) {
+				// Nicht verwerfen: beim naechsten Mal erneut versuchen
+				LOGGER.log(SEVERE,
+						"Bestand der Produktdaten {0} reicht nicht fuer {1} verkaufte Stueck",
+						new Object[] {e.getKey(), e.getValue() });
+				lagerbestand.zuruecklegen(abbuchung, e.getKey());
+				continue;
+			}
+
+			// Beim Commit: UPDATE mit neuer Version, Aktualisierung des
+			// Cache-Eintrags und ueber den KatalogListener Abgleich von
+			// Zaehler und Indizes
+			final int neu = produktdaten.getAnzahlVerfuegbar() - e.getValue();
+			produktdaten.setAnzahlVerfuegbar(neu);
+			abbuchung.setInDatenbank(e.getKey(), neu);
+		}
+
+		LOGGER.log(FINER, "ENDE: Bestand abbuchen");
+	}
+
+	/**
+	 * Beim Undeployment nichts Verkauftes verlieren
+	 */
+	@PreDestroy
+	private void beenden() {
+		schreibe();
+	}
+}
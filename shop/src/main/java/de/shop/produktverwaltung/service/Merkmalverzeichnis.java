@@ -0,0 +1,271 @@
+package de.shop.produktverwaltung.service;
+
+import static java.util.logging.Level.FINER;
+import static java.util.logging.Level.INFO;
+import static javax.ejb.ConcurrencyManagementType.BEAN;
+import static javax.ejb.TransactionAttributeType.MANDATORY;
+import static javax.ejb.TransactionAttributeType.REQUIRES_NEW;
+import static javax.transaction.Status.STATUS_COMMITTED;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.LocalBean;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
+import javax.ejb.TransactionAttribute;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import de.shop.produktverwaltung.domain.AbstractMerkmal;
+import de.shop.produktverwaltung.domain.Farbe;
+import de.shop.produktverwaltung.domain.Groesse;
+import de.shop.produktverwaltung.domain.Hersteller;
+import de.shop.produktverwaltung.domain.Produkt;
+import de.shop.produktverwaltung.domain.Produktdaten;
+import de.shop.produktverwaltung.service.util.Woerterbuch;
+
+/**
+ * Haelt die Nachschlagetabellen fuer Farbe, Groesse und Hersteller im
+ * Speicher. Suchbegriffe werden hier einmal pro Suche in Codes aufgeloest,
+ * so dass die Datenbank Fremdschluessel statt LOWER(varchar) vergleicht. Die
+ * sortierte Liste aller Hersteller fuer Auswahllisten wird nur bei einem
+ * neuen Hersteller neu aufgebaut.
+ *
+ * Die Merkmale von Produkten und Produktdaten ordnen die Services vor
+ * persist() und merge() mit {@link #ordneZu(Produkt)} bzw.
+ * {@link #ordneZu(Produktdaten)} zu: neue Bezeichnungen werden in der
+ * Transaktion des Aufrufers angelegt und erst nach deren Commit ins
+ * Woerterbuch uebernommen. Legen zwei Transaktionen gleichzeitig dieselbe
+ * Bezeichnung an, scheitert eine davon an der Unique-Constraint.
+ */
+@Singleton
+@Startup
+@LocalBean
+@ConcurrencyManagement(BEAN)
+public class Merkmalverzeichnis {
+
+	// /////////////////////////////////////////////////////////////////////
+	// ATTRIBUTES
+
+	private static final Logger LOGGER = Logger.getLogger(MethodHandles
+			.lookup().lookupClass().getName());
+
+	// Schluessel fuer die in der laufenden Transaktion angelegten Merkmale
+	private static final String NEUE_MERKMALE = Merkmalverzeichnis.class
+			.getName() + ".neueMerkmale";
+
+	@PersistenceContext
+	private EntityManager em;
+
+	@Resource
+	private TransactionSynchronizationRegistry transaktionen;
+
+	private final Woerterbuch<Short> farben = new Woerterbuch<>();
+
+	private final Woerterbuch<Short> groessen = new Woerterbuch<>();
+
+	private final Woerterbuch<Integer> hersteller = new Woerterbuch<>();
+
+	// Unveraenderliche, alphabetisch sortierte Kopie der Hersteller
+	private volatile List<String> alleHersteller = Collections.emptyList();
+
+	// /////////////////////////////////////////////////////////////////////
+	// METHODS
+
+	@PostConstruct
+	private void laden() {
+		ladeTabellen();
+
+		LOGGER.log(INFO,
+				"Woerterbuch mit {0} Farben, {1} Groessen und {2} Herstellern geladen",
+				new Object[] {farben.size(), groessen.size(), hersteller.size() });
+	}
+
+	/**
+	 * Ordnet Farbe und Groesse der Produktdaten ihren Zeilen in den
+	 * Nachschlagetabellen zu; unbekannte Bezeichnungen werden in der
+	 * laufenden Transaktion angelegt. Muss vor persist() bzw. merge()
+	 * aufgerufen werden.
+	 */
+	@TransactionAttribute(MANDATORY)
+	public void ordneZu(Produktdaten produktdaten) {
+		produktdaten.setFarbeMerkmal(zuordnen(Farbe.class, farben,
+				Farbe.FARBE_BY_BEZEICHNUNG, produktdaten.getFarbe()));
+		produktdaten.setGroesseMerkmal(zuordnen(Groesse.class, groessen,
+				Groesse.GROESSE_BY_BEZEICHNUNG, produktdaten.getGroesse()));
+	}
+
+	/**
+	 * Ordnet den Hersteller des Produkts und die Merkmale aller seiner
+	 * Produktdaten zu, siehe {@link #ordneZu(Produktdaten)}
+	 */
+	@TransactionAttribute(MANDATORY)
+	public void ordneZu(Produkt produkt) {
+		produkt.setHerstellerMerkmal(zuordnen(Hersteller.class, hersteller,
+				Hersteller.HERSTELLER_BY_BEZEICHNUNG, produkt.getHersteller()));
+		for (Produktdaten produktdaten : produkt.getProduktdaten()) {
+			ordneZu(produktdaten);
+		}
+	}
+
+	/**
+	 * @return Codes aller Farben, die den Suchbegriff enthalten
+	 */
+	public List<Short> findFarbCodes(String suchbegriff) {
+		return farben.findCodes(suchbegriff, true);
+	}
+
+	/**
+	 * @return Codes aller Groessen, die dem Suchbegriff entsprechen
+	 */
+	public List<Short> findGroessenCodes(String suchbegriff) {
+		return groessen.findCodes(suchbegriff, false);
+	}
+
+	/**
+	 * @return Codes aller Hersteller, deren Name den Suchbegriff enthaelt
+	 */
+	public List<Integer> findHerstellerCodes(String suchbegriff) {
+		return hersteller.findCodes(suchbegriff, true);
+	}
+
+	/**
+	 * @return Code des Herstellers mit genau diesem Namen oder null; legt
+	 *         keinen neuen Hersteller an
+	 */
+	public Integer findHerstellerCode(String name) {
+		return hersteller.getCode(name);
+	}
+
+	/**
+	 * @return Alle Hersteller in alphabetischer Reihenfolge (unveraenderlich)
+	 */
+	public List<String> getAlleHersteller() {
+		return alleHersteller;
+	}
+
+	/**
+	 * Liest alle Nachschlagetabellen in einer eigenen Transaktion neu ein,
+	 * z.B. wenn ein anderer Server neue Bezeichnungen angelegt hat
+	 */
+	@TransactionAttribute(REQUIRES_NEW)
+	public void ladeNeu() {
+		ladeTabellen();
+	}
+
+	private void ladeTabellen() {
+		for (Farbe farbe : em.createNamedQuery(Farbe.FARBE_ALLE, Farbe.class)
+				.getResultList()) {
+			farben.setze(farbe.getId(), farbe.getBezeichnung());
+		}
+		for (Groesse groesse : em.createNamedQuery(Groesse.GROESSE_ALLE,
+				Groesse.class).getResultList()) {
+			groessen.setze(groesse.getId(), groesse.getBezeichnung());
+		}
+		for (Hersteller h : em.createNamedQuery(Hersteller.HERSTELLER_ALLE,
+				Hersteller.class).getResultList()) {
+			hersteller.setze(h.getId(), h.getBezeichnung());
+		}
+		sortiereHersteller();
+	}
+
+	// Synchronisiert, damit nach zwei gleichzeitigen Commits die zuletzt
+	// geschriebene Liste beide Hersteller enthaelt
+	private synchronized void sortiereHersteller() {
+		final List<String> namen = new ArrayList<>(hersteller.getWerte());
+		Collections.sort(namen);
+		alleHersteller = Collections.unmodifiableList(namen);
+	}
+
+	private <C extends Number, M extends AbstractMerkmal<C>> M zuordnen(
+			Class<M> typ, final Woerterbuch<C> woerterbuch, String query,
+			String bezeichnung) {
+		if (bezeichnung == null || bezeichnung.isEmpty()) {
+			return null;
+		}
+
+		// In dieser Transaktion schon angelegt, aber noch nicht im Woerterbuch
+		final Map<String, AbstractMerkmal<?>> neue = getNeueMerkmale();
+		final String schluessel = typ.getSimpleName() + ':' + bezeichnung;
+		final AbstractMerkmal<?> angelegt = neue.get(schluessel);
+		if (angelegt != null) {
+			return typ.cast(angelegt);
+		}
+
+		final C code = woerterbuch.getCode(bezeichnung);
+		if (code != null) {
+			// Aus dem 2nd-Level-Cache, ohne SELECT
+			return em.getReference(typ, code);
+		}
+
+		// Evtl. von einem anderen Server angelegt
+		final List<M> vorhanden = em.createNamedQuery(query, typ)
+				.setParameter("bezeichnung", bezeichnung).getResultList();
+		if (!vorhanden.isEmpty()) {
+			final M merkmal = vorhanden.get(0);
+			uebernehme(woerterbuch, merkmal);
+			return merkmal;
+		}
+
+		final M merkmal = typ.cast(neuesMerkmal(typ, bezeichnung));
+		em.persist(merkmal);
+		neue.put(schluessel, merkmal);
+		LOGGER.log(FINER, "Neue Bezeichnung {0}", merkmal);
+
+		transaktionen.registerInterposedSynchronization(new Synchronization() {
+			@Override
+			public void beforeCompletion() {
+				// nichts zu tun
+			}
+
+			@Override
+			public void afterCompletion(int status) {
+				if (status == STATUS_COMMITTED) {
+					uebernehme(woerterbuch, merkmal);
+				}
+			}
+		});
+		return merkmal;
+	}
+
+	private static AbstractMerkmal<?> neuesMerkmal(Class<?> typ,
+			String bezeichnung) {
+		if (typ == Farbe.class) {
+			return new Farbe(bezeichnung);
+		}
+		if (typ == Groesse.class) {
+			return new Groesse(bezeichnung);
+		}
+		return new Hersteller(bezeichnung);
+	}
+
+	private <C extends Number> void uebernehme(Woerterbuch<C> woerterbuch,
+			AbstractMerkmal<C> merkmal) {
+		woerterbuch.setze(merkmal.getId(), merkmal.getBezeichnung());
+		if (woerterbuch == hersteller) {
+			sortiereHersteller();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, AbstractMerkmal<?>> getNeueMerkmale() {
+		Map<String, AbstractMerkmal<?>> neue = (Map<String, AbstractMerkmal<?>>) transaktionen
+				.getResource(NEUE_MERKMALE);
+		if (neue == null) {
+			neue = new HashMap<>();
+			transaktionen.putResource(NEUE_MERKMALE, neue);
+		}
+		return neue;
+	}
+}
@@ -2,15 +2,26 @@ package de.shop.produktverwaltung.service;
 
 import static java.util.logging.Level.FINER;
 import static java.util.logging.Level.SEVERE;
+import static java.util.logging.Level.WARNING;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
 import java.io.Serializable;
 import java.lang.invoke.MethodHandles;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.logging.Logger;
 
+import javax.ejb.EJBException;
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
@@ -20,7 +31,21 @@ import javax.validation.groups.Default;
 
 import de.shop.produktverwaltung.domain.Produkt;
 import de.shop.produktverwaltung.domain.Produkt_;
+import de.shop.produktverwaltung.service.util.Aehnlichkeit;
+import de.shop.produktverwaltung.service.util.ImportErgebnis;
+import de.shop.produktverwaltung.service.util.ImportValidierung;
+import de.shop.produktverwaltung.service.util.ImportZeile;
+import de.shop.produktverwaltung.service.util.ProduktUebersicht;
+import de.shop.produktverwaltung.service.util.ProduktUebersichtIndex;
+import de.shop.produktverwaltung.service.util.TrigrammIndex;
+import de.shop.produktverwaltung.service.util.VolltextIndex;
+import de.shop.produktverwaltung.service.util.VorschlagIndex;
+import de.shop.util.Abrufplan;
 import de.shop.util.IdGroup;
+import de.shop.util.InternalError;
+import de.shop.util.Mehrfachsuche;
+import de.shop.util.Seite;
+import de.shop.util.SeitenToken;
 import de.shop.util.ValidatorProvider;
 import de.shop.util.exceptions.ConcurrentDeletedException;
 import de.shop.util.exceptions.ProduktValidationException;
@@ -48,12 +73,64 @@ public class ProduktService implements Serializable {
 
 	private static final long serialVersionUID = -2526893314875328558L;
 
+	/**
+	 * Maximale Anzahl Vorschlaege fuer die Autovervollstaendigung
+	 */
+	private static final int MAX_VORSCHLAEGE = 20;
+
+	/**
+	 * Anzahl Zeilen eines Imports, die in einem asynchronen Aufruf validiert
+	 * werden
+	 */
+	private static final int IMPORT_BLOCK_GROESSE = 250;
+
+	/**
+	 * Anzahl Bloecke, die gleichzeitig validiert werden
+	 */
+	private static final int IMPORT_PARALLELE_BLOECKE = 4;
+
+	/**
+	 * Anzahl importierter Produkte pro Transaktion; entspricht
+	 * hibernate.jdbc.batch_size in persistence.xml
+	 */
+	private static final int IMPORT_ABSCHNITT_GROESSE = 50;
+
+	/**
+	 * Property fuer die Validierung des Herstellers; als @Transient nicht im
+	 * Metamodell Produkt_
+	 */
+	private static final String PROPERTY_HERSTELLER = "hersteller";
+
 	@PersistenceContext
 	private transient EntityManager entityManager;
 
 	@Inject
 	private ValidatorProvider validatorProvider;
 
+	@Inject
+	private VorschlagIndex vorschlagIndex;
+
+	@Inject
+	private VolltextIndex volltextIndex;
+
+	@Inject
+	private TrigrammIndex trigrammIndex;
+
+	@Inject
+	private ProduktUebersichtIndex produktUebersichtIndex;
+
+	@Inject
+	private ImportValidierung importValidierung;
+
+	@Inject
+	private KatalogImport katalogImport;
+
+	@Inject
+	private KatalogIndexLoader katalogIndexLoader;
+
+	@Inject
+	private Merkmalverzeichnis merkmalverzeichnis;
+
 	// /////////////////////////////////////////////////////////////////////
 	// METHODS
 
@@ -63,9 +140,11 @@ public class ProduktService implements Serializable {
 		// Log
 		LOGGER.log(FINER, "BEGINN: Suche Groessen by Prefix");
 
-		final List<String> results = entityManager
+		final List<String> results = vorschlagIndex.isBereit() ? vorschlagIndex
+				.findGroessen(prefix, MAX_VORSCHLAEGE) : entityManager
 				.createNamedQuery(Produkt.PRODUKT_LISTE_GROESSEN)
-				.setParameter("prefix", prefix).getResultList();
+				.setParameter("prefix", prefix)
+				.setMaxResults(MAX_VORSCHLAEGE).getResultList();
 
 		// Log
 		LOGGER.log(FINER, "ENDE: Suche Groessen by Prefix");
@@ -80,9 +159,11 @@ public class ProduktService implements Serializable {
 		// Log
 		LOGGER.log(FINER, "BEGINN: Suche Hersteller by Prefix");
 
-		final List<String> results = entityManager
+		final List<String> results = vorschlagIndex.isBereit() ? vorschlagIndex
+				.findHersteller(prefix, MAX_VORSCHLAEGE) : entityManager
 				.createNamedQuery(Produkt.PRODUKT_LISTE_HERSTELLER)
-				.setParameter("prefix", prefix).getResultList();
+				.setParameter("prefix", prefix)
+				.setMaxResults(MAX_VORSCHLAEGE).getResultList();
 
 		// Log
 		LOGGER.log(FINER, "ENDE: Suche Hersteller by Prefix");
@@ -97,9 +178,11 @@ public class ProduktService implements Serializable {
 		// Log
 		LOGGER.log(FINER, "BEGINN: Suche Beschreibung by Prefix");
 
-		final List<String> results = entityManager
+		final List<String> results = vorschlagIndex.isBereit() ? vorschlagIndex
+				.findBeschreibungen(prefix, MAX_VORSCHLAEGE) : entityManager
 				.createNamedQuery(Produkt.PRODUKT_LISTE_PRODUKTE)
-				.setParameter("prefix", prefix).getResultList();
+				.setParameter("prefix", prefix)
+				.setMaxResults(MAX_VORSCHLAEGE).getResultList();
 
 		// Log
 		LOGGER.log(FINER, "ENDE: Suche Beschreibung by Prefix");
@@ -118,6 +201,7 @@ public class ProduktService implements Serializable {
 				Default.class));
 
 		// Neues Produkt speichern
+		merkmalverzeichnis.ordneZu(neuesProdukt);
 		entityManager.persist(neuesProdukt);
 
 		// Log
@@ -126,6 +210,135 @@ public class ProduktService implements Serializable {
 		return neuesProdukt;
 	}
 
+	/**
+	 * Importiert Produkte samt Produktdaten zeilenweise (NDJSON, siehe
+	 * {@link ImportValidierung}). Die Eingabe wird blockweise gelesen;
+	 * waehrend ein Block gespeichert wird, werden die naechsten Bloecke
+	 * bereits parallel validiert. Gespeichert wird in Abschnitten mit je
+	 * einer eigenen Transaktion (siehe {@link KatalogImport}), daher darf der
+	 * Aufrufer keine Transaktion offen halten. Fehlerhafte Zeilen und Zeilen
+	 * eines zurueckgerollten Abschnitts werden im Ergebnis gemeldet. Nach dem
+	 * Import werden die Indizes einmal neu aufgebaut.
+	 * 
+	 * @param eingabe
+	 *            Eine Zeile pro Produkt
+	 * @param locale
+	 *            Sprache der Fehlermeldungen
+	 * @return Anzahl gespeicherter Produkte und fehlerhafte Zeilen
+	 */
+	public ImportErgebnis importiereProdukte(Reader eingabe, Locale locale) {
+
+		// Log
+		LOGGER.log(FINER, "BEGINN: Import von Produkten");
+
+		final Validator validator = getValidator(locale);
+		final BufferedReader reader = new BufferedReader(eingabe);
+		final ImportErgebnis ergebnis = new ImportErgebnis();
+		final Deque<Future<List<ImportZeile>>> bloecke = new ArrayDeque<>();
+		final List<ImportZeile> abschnitt = new ArrayList<>(
+				IMPORT_ABSCHNITT_GROESSE);
+
+		int nummer = 1;
+		boolean gelesen = false;
+		try {
+			while (true) {
+				while (!gelesen && bloecke.size() < IMPORT_PARALLELE_BLOECKE) {
+					final List<String> zeilen = leseBlock(reader);
+					if (zeilen.isEmpty()) {
+						gelesen = true;
+					}
+					else {
+						bloecke.add(importValidierung.pruefe(zeilen, nummer,
+								validator));
+						nummer += zeilen.size();
+					}
+				}
+				if (bloecke.isEmpty()) {
+					break;
+				}
+
+				for (ImportZeile zeile : bloecke.poll().get()) {
+					if (zeile.isFehlerhaft()) {
+						ergebnis.fehlerhaft(zeile);
+						continue;
+					}
+					if (zeile.getProdukt() == null) {
+						// Leerzeile
+						continue;
+					}
+
+					abschnitt.add(zeile);
+					if (abschnitt.size() == IMPORT_ABSCHNITT_GROESSE) {
+						speichereAbschnitt(abschnitt, ergebnis);
+					}
+				}
+			}
+			speichereAbschnitt(abschnitt, ergebnis);
+		}
+		catch (IOException | ExecutionException e) {
+			throw new InternalError(e);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InternalError(e);
+		}
+		finally {
+			// Auch nach einem Abbruch sind die bisherigen Abschnitte
+			// gespeichert
+			if (ergebnis.getProdukte() > 0) {
+				katalogIndexLoader.ladeNeu();
+			}
+		}
+
+		// Log
+		LOGGER.log(FINER, "ENDE: Import von Produkten. {0}", ergebnis);
+
+		return ergebnis;
+	}
+
+	/*
+	 * Speichert einen Abschnitt in einer eigenen Transaktion; rollt sie
+	 * zurueck, wird jede Zeile des Abschnitts als fehlerhaft gemeldet
+	 */
+	private void speichereAbschnitt(List<ImportZeile> abschnitt,
+			ImportErgebnis ergebnis) {
+
+		if (abschnitt.isEmpty()) {
+			return;
+		}
+
+		final List<Produkt> produkte = new ArrayList<>(abschnitt.size());
+		for (ImportZeile zeile : abschnitt) {
+			produkte.add(zeile.getProdukt());
+		}
+		try {
+			katalogImport.speichere(produkte);
+			for (ImportZeile zeile : abschnitt) {
+				ergebnis.gespeichert(zeile);
+			}
+		}
+		catch (EJBException e) {
+			final Throwable ursache = e.getCause() == null ? e : e.getCause();
+			LOGGER.log(WARNING, "Import: Abschnitt ab Zeile "
+					+ abschnitt.get(0).getZeile() + " nicht gespeichert",
+					ursache);
+			ergebnis.nichtGespeichert(abschnitt,
+					"Abschnitt nicht gespeichert: " + ursache.getMessage());
+		}
+		abschnitt.clear();
+	}
+
+	private static List<String> leseBlock(BufferedReader reader)
+			throws IOException {
+		final List<String> zeilen = new ArrayList<>(IMPORT_BLOCK_GROESSE);
+		String zeile;
+		while (zeilen.size() < IMPORT_BLOCK_GROESSE
+				&& (zeile = reader.readLine()) != null) {
+			zeilen.add(zeile);
+		}
+		return zeilen;
+	}
+
 	@SuppressWarnings("unchecked")
 	public List<Produkt> findProdukte() {
 
@@ -142,6 +355,95 @@ public class ProduktService implements Serializable {
 
 	}
 
+	/**
+	 * Liefert eine Seite aller Produkte, sortiert nach ID
+	 *
+	 * @param weiter
+	 *            Token der vorherigen Seite oder null fuer die erste Seite
+	 * @param anzahl
+	 *            Gewuenschte Seitengroesse (wird begrenzt)
+	 * @return Produkte der Seite und ggf. Token fuer die naechste Seite
+	 */
+	@SuppressWarnings("unchecked")
+	public Seite<Produkt> findProdukte(String weiter, Integer anzahl) {
+
+		// Log
+		LOGGER.log(FINER, "BEGINN: Suche Seite nach Produkt-Token={0}", weiter);
+
+		final int groesse = Seite.begrenze(anzahl);
+		final Integer nachId = weiter == null || weiter.isEmpty() ? 0
+				: SeitenToken.leseInteger(weiter);
+
+		final List<Produkt> results = entityManager
+				.createNamedQuery(Produkt.PRODUKT_SEITE)
+				.setParameter("nachId", nachId).setMaxResults(groesse + 1)
+				.getResultList();
+
+		// Log
+		LOGGER.log(FINER, "ENDE: Suche Seite nach Produkt-Token. Gefunden: {0}",
+				results.size());
+
+		if (results.size() <= groesse) {
+			return new Seite<>(results, null);
+		}
+		final List<Produkt> inhalt = new ArrayList<>(results.subList(0, groesse));
+		return new Seite<>(inhalt, SeitenToken.erzeuge(inhalt.get(groesse - 1)
+				.getProduktId()));
+	}
+
+	/**
+	 * Liefert eine Seite mit Uebersichten aller Produkte (guenstigster Preis,
+	 * Bestand, Groessen und Farben), sortiert nach ID. Die Uebersichten kommen
+	 * aus dem Read-Model; solange es nicht aufgebaut ist, werden sie aus den
+	 * Produktdaten berechnet.
+	 *
+	 * @param weiter
+	 *            Token der vorherigen Seite oder null fuer die erste Seite
+	 * @param anzahl
+	 *            Gewuenschte Seitengroesse (wird begrenzt)
+	 * @return Uebersichten der Seite und ggf. Token fuer die naechste Seite
+	 */
+	public Seite<ProduktUebersicht> findProduktUebersichten(String weiter,
+			Integer anzahl) {
+
+		// Log
+		LOGGER.log(FINER, "BEGINN: Suche Seite mit Produkt-Uebersichten nach Token={0}",
+				weiter);
+
+		final int groesse = Seite.begrenze(anzahl);
+		final Integer nachId = weiter == null || weiter.isEmpty() ? 0
+				: SeitenToken.leseInteger(weiter);
+
+		final List<ProduktUebersicht> results;
+		if (produktUebersichtIndex.isBereit()) {
+			results = produktUebersichtIndex.findUebersichten(nachId,
+					groesse + 1);
+		}
+		else {
+			@SuppressWarnings("unchecked")
+			final List<Produkt> produkte = entityManager
+					.createNamedQuery(Produkt.PRODUKT_SEITE)
+					.setParameter("nachId", nachId)
+					.setMaxResults(groesse + 1).getResultList();
+			results = new ArrayList<>(produkte.size());
+			for (Produkt produkt : produkte) {
+				results.add(ProduktUebersichtIndex.zusammenfassen(produkt));
+			}
+		}
+
+		// Log
+		LOGGER.log(FINER, "ENDE: Suche Seite mit Produkt-Uebersichten. Gefunden: {0}",
+				results.size());
+
+		if (results.size() <= groesse) {
+			return new Seite<>(results, null);
+		}
+		final List<ProduktUebersicht> inhalt = new ArrayList<>(results.subList(
+				0, groesse));
+		return new Seite<>(inhalt, SeitenToken.erzeuge(inhalt
+				.get(groesse - 1).getProduktId()));
+	}
+
 	/**
 	 * Suche Produkt nach ID
 	 * 
@@ -182,6 +484,43 @@ public class ProduktService implements Serializable {
 		return result;
 	}
 
+	/**
+	 * Sucht ein Produkt samt den Beziehungen des Abrufplans (produktdaten) mit
+	 * einer Query
+	 *
+	 * @return Gefundenes Produkt oder null
+	 */
+	public Produkt findProduktByID(Integer id, Abrufplan plan, Locale locale) {
+
+		// Log
+		LOGGER.log(FINER, "BEGINN: Suche nach ProduktID={0} mit {1}",
+				new Object[] {id, plan });
+
+		// Validierung
+		checkViolations(getValidator(locale).validateValue(Produkt.class,
+				Produkt_.produktId.getName(), id, IdGroup.class));
+
+		final Produkt result = plan.findeById(entityManager, Produkt.class,
+				Produkt_.produktId, id);
+
+		// Log
+		LOGGER.log(FINER, "ENDE: Suche nach ProduktID. Ergebnis={0}", result);
+
+		return result;
+	}
+
+	/**
+	 * Liest nur die Version eines Produkts, z.B. fuer ETags
+	 * 
+	 * @return Version oder null, falls es keine Zeile mit der ID gibt
+	 */
+	public Integer findVersionById(Integer id) {
+		final List<Integer> versionen = entityManager
+				.createNamedQuery(Produkt.PRODUKT_VERSION_BY_ID, Integer.class)
+				.setParameter("id", id).getResultList();
+		return versionen.isEmpty() ? null : versionen.get(0);
+	}
+
 	@SuppressWarnings("unchecked")
 	public List<Produkt> findProduktByHersteller(String hersteller,
 			FetchType fetchType, Locale locale) {
@@ -191,12 +530,19 @@ public class ProduktService implements Serializable {
 
 		// Validierung Hersteller
 		checkViolations(getValidator(locale).validateValue(Produkt.class,
-				Produkt_.hersteller.getName(), hersteller));
+				PROPERTY_HERSTELLER, hersteller));
+
+		// Unbekannter Hersteller: keine Produkte, keine Query
+		final Integer herstellerId = merkmalverzeichnis
+				.findHerstellerCode(hersteller);
+		if (herstellerId == null) {
+			return new ArrayList<>();
+		}
 
 		// Named Query aufrufen
 		final List<Produkt> results = entityManager
 				.createNamedQuery(Produkt.PRODUKT_BY_HERSTELLER)
-				.setParameter("hersteller", hersteller).getResultList();
+				.setParameter("herstellerId", herstellerId).getResultList();
 
 		// Log
 		LOGGER.log(FINER,
@@ -230,6 +576,131 @@ public class ProduktService implements Serializable {
 		return results;
 	}
 
+	/**
+	 * Volltextsuche ueber Beschreibung und Hersteller. Die Treffer werden nach
+	 * Relevanz (BM25) sortiert; solange der Index nicht aufgebaut ist, wird
+	 * ersatzweise per LIKE in der Beschreibung gesucht.
+	 *
+	 * @param suchtext
+	 *            Freitext, z.B. "herren hosen"
+	 * @param anzahl
+	 *            Maximale Anzahl Treffer (wird begrenzt)
+	 * @return Passende Produkte, die relevantesten zuerst
+	 */
+	@SuppressWarnings("unchecked")
+	public List<Produkt> findProdukteByVolltext(String suchtext, Integer anzahl) {
+
+		// Log
+		LOGGER.log(FINER, "BEGINN: Volltextsuche nach {0}", suchtext);
+
+		final int max = Seite.begrenze(anzahl);
+		if (suchtext == null || suchtext.trim().isEmpty()) {
+			return new ArrayList<>();
+		}
+
+		if (!volltextIndex.isBereit()) {
+			return entityManager
+					.createNamedQuery(Produkt.PRODUKT_BY_LIKE_BESCHREIBUNG)
+					.setParameter("beschreibung", suchtext.trim())
+					.setMaxResults(max).getResultList();
+		}
+
+		final List<Produkt> results = findProdukteByIds(volltextIndex
+				.suche(suchtext, max));
+
+		// Log
+		LOGGER.log(FINER, "ENDE: Volltextsuche. Ergebnis: {0} Produkt(e)",
+				results.size());
+
+		return results;
+	}
+
+	/**
+	 * "Meinten Sie ...?": aehnlich geschriebene Hersteller und Woerter aus
+	 * Beschreibungen zu einem (vertippten) Suchtext
+	 *
+	 * @param suchtext
+	 *            Eingabe des Kunden
+	 * @return Vorschlaege, die aehnlichsten zuerst; leer, solange der Index
+	 *         nicht aufgebaut ist
+	 */
+	public List<Aehnlichkeit> findAehnlicheBegriffe(String suchtext) {
+
+		// Log
+		LOGGER.log(FINER, "BEGINN: Suche aehnliche Begriffe zu {0}", suchtext);
+
+		final List<Aehnlichkeit> results = trigrammIndex.isBereit() ? trigrammIndex
+				.meintenSie(suchtext, MAX_VORSCHLAEGE) : new ArrayList<Aehnlichkeit>();
+
+		// Log
+		LOGGER.log(FINER, "ENDE: Suche aehnliche Begriffe. Ergebnis: {0}",
+				results);
+
+		return results;
+	}
+
+	/**
+	 * Fehlertolerante Suche ueber Hersteller und Beschreibung. Solange der
+	 * Index nicht aufgebaut ist, wird ersatzweise per LIKE in der
+	 * Beschreibung gesucht.
+	 *
+	 * @param suchtext
+	 *            Eingabe des Kunden, ggf. mit Tippfehlern
+	 * @param anzahl
+	 *            Maximale Anzahl Treffer (wird begrenzt)
+	 * @return Aehnliche Produkte, die aehnlichsten zuerst
+	 */
+	@SuppressWarnings("unchecked")
+	public List<Produkt> findProdukteUnscharf(String suchtext, Integer anzahl) {
+
+		// Log
+		LOGGER.log(FINER, "BEGINN: Unscharfe Suche nach {0}", suchtext);
+
+		final int max = Seite.begrenze(anzahl);
+		if (suchtext == null || suchtext.trim().isEmpty()) {
+			return new ArrayList<>();
+		}
+
+		if (!trigrammIndex.isBereit()) {
+			return entityManager
+					.createNamedQuery(Produkt.PRODUKT_BY_LIKE_BESCHREIBUNG)
+					.setParameter("beschreibung", suchtext.trim())
+					.setMaxResults(max).getResultList();
+		}
+
+		final List<Produkt> results = findProdukteByIds(trigrammIndex
+				.suche(suchtext, max));
+
+		// Log
+		LOGGER.log(FINER, "ENDE: Unscharfe Suche. Ergebnis: {0} Produkt(e)",
+				results.size());
+
+		return results;
+	}
+
+	/**
+	 * Suche nach Produkten anhand mehrerer IDs. Produkte im 2nd-Level-Cache
+	 * werden von dort gelesen, die uebrigen mit einer IN-Query.
+	 *
+	 * @param ids
+	 *            IDs der Produkte, z.B. nach Relevanz sortiert
+	 * @return Gefundene Produkte in der Reihenfolge der IDs
+	 */
+	public List<Produkt> findProdukteByIds(List<Integer> ids) {
+
+		// Log
+		LOGGER.log(FINER, "BEGINN: Suche Produkte nach IDs={0}", ids);
+
+		final List<Produkt> results = Mehrfachsuche.findeByIds(entityManager,
+				Produkt.class, Produkt.PRODUKT_BY_IDS, ids);
+
+		// Log
+		LOGGER.log(FINER, "ENDE: Suche Produkte nach IDs. Ergebnis: {0}",
+				results.size());
+
+		return results;
+	}
+
 	public ProduktService updateProdukt(Produkt produkt, Locale locale) {
 
 		// Log
@@ -251,6 +722,7 @@ public class ProduktService implements Serializable {
 		}
 
 		// Neues Produkt speichern
+		merkmalverzeichnis.ordneZu(produkt);
 		entityManager.merge(produkt);
 
 		// Log
@@ -283,10 +755,43 @@ public class ProduktService implements Serializable {
 		}
 	}
 
-	@SuppressWarnings("unchecked")
+	/**
+	 * @return Alle Hersteller in alphabetischer Reihenfolge aus dem
+	 *         Merkmalverzeichnis, ohne Zugriff auf die DB
+	 */
 	public List<String> findAlleHersteller() {
-		return entityManager.createNamedQuery(Produkt.PRODUKT_ALLE_HERSTELLER)
-				.getResultList();
+		return merkmalverzeichnis.getAlleHersteller();
+	}
+
+	/**
+	 * Liefert eine Seite aller Hersteller in alphabetischer Reihenfolge aus
+	 * dem Merkmalverzeichnis
+	 *
+	 * @param weiter
+	 *            Token der vorherigen Seite oder null fuer die erste Seite
+	 * @param anzahl
+	 *            Gewuenschte Seitengroesse (wird begrenzt)
+	 * @return Hersteller der Seite und ggf. Token fuer die naechste Seite
+	 */
+	public Seite<String> findAlleHersteller(String weiter, Integer anzahl) {
+
+		final int groesse = Seite.begrenze(anzahl);
+		final List<String> alle = merkmalverzeichnis.getAlleHersteller();
+
+		// Keyset: erster Hersteller nach dem letzten der vorherigen Seite
+		int von = 0;
+		if (weiter != null && !weiter.isEmpty()) {
+			final int pos = Collections.binarySearch(alle,
+					SeitenToken.leseString(weiter));
+			von = pos >= 0 ? pos + 1 : -pos - 1;
+		}
+		final int bis = Math.min(von + groesse, alle.size());
+
+		final List<String> inhalt = new ArrayList<>(alle.subList(von, bis));
+		if (bis == alle.size()) {
+			return new Seite<>(inhalt, null);
+		}
+		return new Seite<>(inhalt, SeitenToken.erzeuge(inhalt.get(groesse - 1)));
 	}
 
 	// /////////////////////////////////////////////////////////////////////
@@ -5,31 +5,51 @@ import static java.util.logging.Level.SEVERE;
 
 import java.io.Serializable;
 import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.logging.Logger;
 
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 import javax.validation.ConstraintViolation;
 import javax.validation.Validator;
 import javax.validation.groups.Default;
 
+import de.shop.produktverwaltung.domain.AbstractMerkmal_;
+import de.shop.produktverwaltung.domain.Farbe_;
+import de.shop.produktverwaltung.domain.Groesse_;
+import de.shop.produktverwaltung.domain.Hersteller_;
 import de.shop.produktverwaltung.domain.Produkt;
 import de.shop.produktverwaltung.domain.Produkt_;
 import de.shop.produktverwaltung.domain.Produktdaten;
 import de.shop.produktverwaltung.domain.Produktdaten_;
+import de.shop.produktverwaltung.service.util.CacheStatistik;
+import de.shop.produktverwaltung.service.util.FlashSale;
+import de.shop.produktverwaltung.service.util.FlashSaleStatus;
+import de.shop.produktverwaltung.service.util.ProduktdatenIndex;
 import de.shop.produktverwaltung.service.util.SuchFilter;
+import de.shop.produktverwaltung.service.util.SuchFilterCache;
+import de.shop.produktverwaltung.service.util.Suchergebnis;
+import de.shop.util.Feldauswahl;
 import de.shop.util.IdGroup;
+import de.shop.util.Mehrfachsuche;
+import de.shop.util.Seite;
+import de.shop.util.SeitenToken;
 import de.shop.util.ValidatorProvider;
 import de.shop.util.exceptions.ProduktdatenValidationException;
 
@@ -59,12 +79,31 @@ public class ProduktdatenService implements Serializable {
 
 	private static final long serialVersionUID = 834626904238820805L;
 
+	// Felder fuer die Feldauswahl, Namen wie im JSON der Produktdaten
+	public static final String FELD_ID = "produktdatenID";
+	public static final String FELD_ANZAHL = "anzahlVerfuegbar";
+	public static final String FELD_FARBE = "farbe";
+	public static final String FELD_GROESSE = "groesse";
+	public static final String FELD_PREIS = "preis";
+
 	@PersistenceContext
 	private transient EntityManager entityManager;
 
 	@Inject
 	private ValidatorProvider validatorProvider;
 
+	@Inject
+	private ProduktdatenIndex produktdatenIndex;
+
+	@Inject
+	private SuchFilterCache suchFilterCache;
+
+	@Inject
+	private FlashSale flashSale;
+
+	@Inject
+	private Merkmalverzeichnis merkmalverzeichnis;
+
 	// /////////////////////////////////////////////////////////////////////
 	// METHODS
 
@@ -83,6 +122,7 @@ public class ProduktdatenService implements Serializable {
 				Default.class));
 
 		// Speichern
+		merkmalverzeichnis.ordneZu(neueProduktdaten);
 		entityManager.persist(neueProduktdaten);
 
 		// Log
@@ -107,6 +147,46 @@ public class ProduktdatenService implements Serializable {
 		return result;
 	}
 
+	/**
+	 * Liefert eine Seite aller Produktdaten, sortiert nach ID
+	 *
+	 * @param weiter
+	 *            Token der vorherigen Seite oder null fuer die erste Seite
+	 * @param anzahl
+	 *            Gewuenschte Seitengroesse (wird begrenzt)
+	 * @return Produktdaten der Seite und ggf. Token fuer die naechste Seite
+	 */
+	@SuppressWarnings("unchecked")
+	public Seite<Produktdaten> findProduktdatenKomplett(String weiter,
+			Integer anzahl) {
+
+		// Log
+		LOGGER.log(FINER, "BEGINN: Finde Seite nach Produktdaten-Token={0}",
+				weiter);
+
+		final int groesse = Seite.begrenze(anzahl);
+		final Integer nachId = weiter == null || weiter.isEmpty() ? 0
+				: SeitenToken.leseInteger(weiter);
+
+		final List<Produktdaten> results = entityManager
+				.createNamedQuery(Produktdaten.PRODUKTDATEN_SEITE)
+				.setParameter("nachId", nachId).setMaxResults(groesse + 1)
+				.getResultList();
+
+		// Log
+		LOGGER.log(FINER,
+				"ENDE: Finde Seite nach Produktdaten-Token. Gefunden: {0}",
+				results.size());
+
+		if (results.size() <= groesse) {
+			return new Seite<>(results, null);
+		}
+		final List<Produktdaten> inhalt = new ArrayList<>(results.subList(0,
+				groesse));
+		return new Seite<>(inhalt, SeitenToken.erzeuge(inhalt.get(groesse - 1)
+				.getProduktdatenID()));
+	}
+
 	/**
 	 * Suche nach Produktdaten anhand von ProduktdatenID
 	 * 
@@ -138,36 +218,362 @@ public class ProduktdatenService implements Serializable {
 		return produktdaten;
 	}
 
+	/**
+	 * Liest nur die Version von Produktdaten, z.B. fuer ETags
+	 * 
+	 * @return Version oder null, falls es keine Zeile mit der ID gibt
+	 */
+	public Integer findVersionById(Integer id) {
+		final List<Integer> versionen = entityManager
+				.createNamedQuery(Produktdaten.PRODUKTDATEN_VERSION_BY_ID, Integer.class)
+				.setParameter("id", id).getResultList();
+		return versionen.isEmpty() ? null : versionen.get(0);
+	}
+
 	/*
-	 * Suche nach Produktdaten anhand von Such-Filter
+	 * Suche nach Produktdaten anhand von Such-Filter. Ist der
+	 * Produktdaten-Index aufgebaut und enthaelt der Filter keine
+	 * Beschreibung, wird der Filter im Speicher ausgewertet und die DB nur
+	 * noch nach den Treffern per ID gefragt.
 	 */
 	public List<Produktdaten> findProduktdatenByFilter(SuchFilter filter,
 			Locale locale) {
 
+		// Log
+		LOGGER.log(FINER,
+				"BEGINN: Suche nach Produktdaten anhand Suchfilter={0}", filter);
+
+		final List<Produktdaten> gefundeneProduktdaten = sucheByFilter(filter)
+				.getProduktdaten();
+
+		// Log
+		LOGGER.log(
+				FINER,
+				"ENDE: Suche nach Produktdaten anhand Suchfilter. Ergebnis: {0} Produktdaten",
+				gefundeneProduktdaten.size());
+
+		return gefundeneProduktdaten;
+	}
+
+	/**
+	 * Suche nach Produktdaten anhand von Such-Filter, wobei nur die Spalten
+	 * der ausgewaehlten Felder gelesen werden (Tuple-Query statt Entities).
+	 * Die Reihenfolge entspricht
+	 * {@link #findProduktdatenByFilter(SuchFilter, Locale)}.
+	 *
+	 * @param filter
+	 *            Der Such-Filter
+	 * @param auswahl
+	 *            Felder, siehe FELD_...
+	 * @return Je Treffer eine Map Feld -> Wert
+	 */
+	public List<Map<String, Object>> findProduktdatenProjektionByFilter(
+			SuchFilter filter, Feldauswahl auswahl) {
+
+		// Log
+		LOGGER.log(FINER,
+				"BEGINN: Suche nach Produktdaten anhand Suchfilter={0}, {1}",
+				new Object[] {filter, auswahl });
+
+		final CriteriaQuery<Tuple> query = entityManager.getCriteriaBuilder()
+				.createTupleQuery();
+		final Root<Produktdaten> pd = query.from(Produktdaten.class);
+
+		final Map<String, Path<?>> spalten = new HashMap<>();
+		spalten.put(FELD_ID, pd.get(Produktdaten_.produktdatenID));
+		spalten.put(FELD_ANZAHL, pd.get(Produktdaten_.anzahlVerfuegbar));
+		spalten.put(FELD_PREIS, pd.get(Produktdaten_.preis));
+
+		// Nachschlagetabellen nur joinen, wenn die Bezeichnung gebraucht wird
+		if (auswahl.enthaelt(FELD_FARBE)) {
+			spalten.put(FELD_FARBE,
+					pd.join(Produktdaten_.farbeMerkmal, JoinType.LEFT).get(
+							AbstractMerkmal_.bezeichnung));
+		}
+		if (auswahl.enthaelt(FELD_GROESSE)) {
+			spalten.put(FELD_GROESSE,
+					pd.join(Produktdaten_.groesseMerkmal, JoinType.LEFT).get(
+							AbstractMerkmal_.bezeichnung));
+		}
+		auswahl.selektiere(query, spalten);
+
+		final List<Map<String, Object>> gefundeneProduktdaten = auswahl
+				.alsMaps(entityManager.createQuery(
+						filtere(query, pd, filter.normalisiert(), null))
+						.getResultList());
+
+		// Log
+		LOGGER.log(
+				FINER,
+				"ENDE: Suche nach Produktdaten anhand Suchfilter. Ergebnis: {0} Produktdaten",
+				gefundeneProduktdaten.size());
+
+		return gefundeneProduktdaten;
+	}
+
+	/**
+	 * Suche nach Produktdaten anhand von Such-Filter. Zusaetzlich zu den
+	 * Treffern werden die Facetten (Anzahl pro Farbe, Groesse, Hersteller und
+	 * Preisbereich) geliefert.
+	 *
+	 * @param filter
+	 *            Der Such-Filter
+	 * @param locale
+	 * @return Treffer und Facetten
+	 */
+	public Suchergebnis findProduktdatenMitFacetten(SuchFilter filter,
+			Locale locale) {
+
+		// Log
+		LOGGER.log(FINER, "BEGINN: Suche mit Facetten anhand Suchfilter={0}",
+				filter);
+
+		final Suchergebnis ergebnis = sucheByFilter(filter);
+
+		// Log
+		LOGGER.log(FINER, "ENDE: Suche mit Facetten. Ergebnis: {0}", ergebnis);
+
+		return ergebnis;
+	}
+
+	/**
+	 * Suche nach Produktdaten anhand mehrerer IDs. Produktdaten im
+	 * 2nd-Level-Cache werden von dort gelesen, die uebrigen mit einer
+	 * IN-Query (in Bloecken zu je 1000 Parametern).
+	 *
+	 * @param ids
+	 *            IDs der Produktdaten
+	 * @return Gefundene Produktdaten in der Reihenfolge der IDs
+	 */
+	public List<Produktdaten> findProduktdatenByIds(List<Integer> ids) {
+
+		// Log
+		LOGGER.log(FINER, "BEGINN: Suche Produktdaten nach IDs={0}", ids);
+
+		final List<Produktdaten> results = Mehrfachsuche.findeByIds(
+				entityManager, Produktdaten.class,
+				Produktdaten.PRODUKTDATEN_BY_IDS, ids);
+
+		// Log
+		LOGGER.log(FINER, "ENDE: Suche Produktdaten nach IDs. Ergebnis: {0}",
+				results.size());
+
+		return results;
+	}
+
+	/**
+	 * Die guenstigsten Produktdaten, die noch verfuegbar sind (z.B. fuer die
+	 * Startseite). Solange der Index nicht aufgebaut ist, wird die DB
+	 * abgefragt.
+	 *
+	 * @param anzahl
+	 *            Maximale Anzahl Treffer (wird begrenzt)
+	 * @return Produktdaten aufsteigend nach Preis
+	 */
+	@SuppressWarnings("unchecked")
+	public List<Produktdaten> findGuenstigsteVerfuegbare(Integer anzahl) {
+
+		// Log
+		LOGGER.log(FINER, "BEGINN: Suche guenstigste verfuegbare Produktdaten");
+
+		final int max = Seite.begrenze(anzahl);
+		final List<Produktdaten> results = produktdatenIndex.isBereit() ? findProduktdatenByIds(produktdatenIndex
+				.guenstigsteVerfuegbare(max)) : entityManager
+				.createNamedQuery(Produktdaten.PRODUKTDATEN_GUENSTIGSTE)
+				.setMaxResults(max).getResultList();
+
+		// Log
+		LOGGER.log(FINER,
+				"ENDE: Suche guenstigste verfuegbare Produktdaten. Ergebnis: {0}",
+				results.size());
+
+		return results;
+	}
+
+	/**
+	 * Kennzahlen des Caches fuer die Detailsuche
+	 *
+	 * @return Treffer, Fehlschlaege, Verdraengungen und Katalog-Version
+	 */
+	public CacheStatistik getSuchCacheStatistik() {
+		return suchFilterCache.getStatistik();
+	}
+
+	/**
+	 * Startet einen Flash-Sale fuer Produktdaten: nur die angegebene
+	 * Stueckzahl wird verkauft, und nur wenige Bestellungen laufen
+	 * gleichzeitig
+	 *
+	 * @param tokens
+	 *            Insgesamt verkaufbare Stueckzahl
+	 * @param parallel
+	 *            Anzahl gleichzeitiger Bestellungen
+	 * @return Stand des Flash-Sales, null falls es die Produktdaten nicht gibt
+	 */
+	public FlashSaleStatus starteFlashSale(Integer produktdatenID, int tokens,
+			int parallel, Locale locale) {
+
+		// Log
+		LOGGER.log(FINER,
+				"BEGINN: Starte Flash-Sale fuer Produktdaten ID={0}, tokens={1}",
+				new Object[] {produktdatenID, tokens });
+
+		if (findProduktdatenByID(produktdatenID, locale) == null) {
+			return null;
+		}
+		final FlashSaleStatus status = flashSale.starte(produktdatenID,
+				tokens, parallel);
+
+		// Log
+		LOGGER.log(FINER, "ENDE: Starte Flash-Sale. Ergebnis={0}", status);
+
+		return status;
+	}
+
+	/**
+	 * @return Letzter Stand des Flash-Sales, null falls keiner lief
+	 */
+	public FlashSaleStatus beendeFlashSale(Integer produktdatenID) {
+		return flashSale.beende(produktdatenID);
+	}
+
+	/**
+	 * @return Stand des Flash-Sales, null falls keiner laeuft
+	 */
+	public FlashSaleStatus getFlashSaleStatus(Integer produktdatenID) {
+		return flashSale.getStatus(produktdatenID);
+	}
+
+	/*
+	 * Wertet den normalisierten Such-Filter ueber den Cache, den Index oder
+	 * die DB aus; die Facetten werden beim Sammeln der Treffer mitgezaehlt
+	 */
+	private Suchergebnis sucheByFilter(SuchFilter filter) {
+
+		final SuchFilter normalisiert = filter.normalisiert();
+		final Suchergebnis ergebnis = new Suchergebnis();
+
+		// Version vor der Suche lesen, damit ein zwischenzeitlich geaenderter
+		// Katalog nicht mit alter Version gecacht wird
+		final long version = suchFilterCache.getVersion();
+		final int[] gecachteIds = suchFilterCache.get(normalisiert);
+		if (gecachteIds != null) {
+			for (Produktdaten produktdaten : findProduktdatenByIds(alsListe(gecachteIds))) {
+				ergebnis.add(produktdaten);
+			}
+			return ergebnis;
+		}
+
+		if (produktdatenIndex.kannSuchen(normalisiert)) {
+			for (Produktdaten produktdaten : findProduktdatenByIds(produktdatenIndex
+					.suche(normalisiert))) {
+				// Index wird erst nach dem Commit aktualisiert
+				if (passtZuFilter(produktdaten, normalisiert)) {
+					ergebnis.add(produktdaten);
+				}
+			}
+		}
+		else {
+			for (Produktdaten produktdaten : findProduktdatenByFilterInDb(normalisiert)) {
+				ergebnis.add(produktdaten);
+			}
+		}
+
+		final List<Produktdaten> treffer = ergebnis.getProduktdaten();
+		final int[] ids = new int[treffer.size()];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = treffer.get(i).getProduktdatenID();
+		}
+		suchFilterCache.put(normalisiert, version, ids);
+
+		return ergebnis;
+	}
+
+	private static List<Integer> alsListe(int[] ids) {
+		final List<Integer> result = new ArrayList<>(ids.length);
+		for (int id : ids) {
+			result.add(id);
+		}
+		return result;
+	}
+
+	/*
+	 * Suche nach Produktdaten anhand von Such-Filter per Criteria-Query
+	 */
+	private List<Produktdaten> findProduktdatenByFilterInDb(SuchFilter filter) {
+		return entityManager.createQuery(erzeugeFilterQuery(filter, null))
+				.getResultList();
+	}
+
+	/**
+	 * Abschnitt der Detailsuche fuer das Streaming: Produktdaten mit einer ID
+	 * groesser als nachId, aufsteigend nach ID. Gesucht wird immer in der DB,
+	 * damit der Speicherbedarf unabhaengig von der Trefferzahl bleibt.
+	 *
+	 * @param filter
+	 *            Der Such-Filter
+	 * @param nachId
+	 *            Letzte ID des vorherigen Abschnitts bzw. 0
+	 * @param anzahl
+	 *            Maximale Anzahl Treffer des Abschnitts
+	 * @return Treffer des Abschnitts
+	 */
+	public List<Produktdaten> findProduktdatenByFilterNachId(SuchFilter filter,
+			Integer nachId, int anzahl) {
+		return entityManager
+				.createQuery(
+						erzeugeFilterQuery(filter.normalisiert(), nachId))
+				.setMaxResults(anzahl).getResultList();
+	}
+
+	/*
+	 * Criteria-Query zum Such-Filter; ohne nachId nach Preis sortiert (wie der
+	 * Index), sonst als Keyset-Abschnitt nach ID
+	 */
+	private CriteriaQuery<Produktdaten> erzeugeFilterQuery(SuchFilter filter,
+			Integer nachId) {
+
+		// SELECT pd
+		final CriteriaQuery<Produktdaten> query = entityManager
+				.getCriteriaBuilder().createQuery(Produktdaten.class);
+
+		// FROM Produktdaten
+		final Root<Produktdaten> pd = query.from(Produktdaten.class);
+
+		return filtere(query, pd, filter, nachId);
+	}
+
+	/*
+	 * Bedingungen und Sortierung des Such-Filters fuer eine Query ueber
+	 * Produktdaten, unabhaengig davon, was selektiert wird
+	 */
+	private <T> CriteriaQuery<T> filtere(CriteriaQuery<T> query,
+			Root<Produktdaten> pd, SuchFilter filter, Integer nachId) {
+
 		/*
 		 * HQL QUERY:
 		 * =====================================================================
 		 * SELECT pd FROM Produktdaten as pd JOIN pd.produkt p WHERE
 		 * pd.anzahlVerfuegbar > :anzahl AND pd.preis BETWEEN :preis_unten AND
-		 * :preis_oben AND LOWER(pd.farbe) LIKE LOWER(CONCAT('%',:farbe,'%'))
-		 * AND pd.groesse = :groesse AND LOWER(p.hersteller) LIKE
-		 * LOWER(CONCAT('%',:hersteller,'%')) AND LOWER(p.beschreibung) LIKE
-		 * LOWER(CONCAT('%',:beschreibung,'%'))
+		 * :preis_oben AND pd.farbeMerkmal.id IN :farbCodes AND
+		 * pd.groesseMerkmal.id IN :groessenCodes AND p.herstellerMerkmal.id IN
+		 * :herstellerCodes AND
+		 * LOWER(p.beschreibung) LIKE LOWER(CONCAT('%',:beschreibung,'%'))
 		 * =====================================================================
 		 */
 
-		// Log
-		LOGGER.log(FINER,
-				"BEGINN: Suche nach Produktdaten anhand Suchfilter={0}", filter);
-
 		final CriteriaBuilder builder = entityManager.getCriteriaBuilder();
 
-		// SELECT pd
-		final CriteriaQuery<Produktdaten> query = builder
-				.createQuery(Produktdaten.class);
-
-		// FROM Produktdaten
-		final Root<Produktdaten> pd = query.from(Produktdaten.class);
+		// Farbe, Groesse und Hersteller einmal in Codes aufloesen
+		final List<Short> farbCodes = filter.getFarbe() == null
+				|| filter.getFarbe().isEmpty() ? null : merkmalverzeichnis
+				.findFarbCodes(filter.getFarbe());
+		final List<Short> groessenCodes = filter.getGroesse() == null
+				|| filter.getGroesse().isEmpty() ? null : merkmalverzeichnis
+				.findGroessenCodes(filter.getGroesse());
+		final List<Integer> herstellerCodes = filter.getHersteller() == null
+				|| filter.getHersteller().isEmpty() ? null
+				: merkmalverzeichnis.findHerstellerCodes(filter.getHersteller());
 
 		// JOIN pd.produkt
 		final Join<Produktdaten, Produkt> join = pd.join(Produktdaten_.produkt);
@@ -182,37 +588,36 @@ public class ProduktdatenService implements Serializable {
 			predicates.add(predAnzahl);
 		}
 
-		// PREIS
-		if (filter.getPreisOben() != null && filter.getPreisUnten() != null
+		// PREIS (ohne Untergrenze ab 0)
+		if (filter.getPreisOben() != null
 				&& filter.getPreisOben().doubleValue() != 0.0) {
+			final Double preisUnten = filter.getPreisUnten() == null ? 0.0
+					: filter.getPreisUnten();
 			final Predicate predPreis = builder.between(
-					pd.get(Produktdaten_.preis), filter.getPreisUnten(),
+					pd.get(Produktdaten_.preis), preisUnten,
 					filter.getPreisOben());
 			predicates.add(predPreis);
 		}
 
-		// FARBE
-		if (filter.getFarbe() != null && !filter.getFarbe().isEmpty()) {
-			final Predicate predFarbe = builder.like(
-					builder.lower(pd.get(Produktdaten_.farbe)), "%"
-							+ filter.getFarbe().toLowerCase() + "%");
-			predicates.add(predFarbe);
+		// FARBE (alle Farben, die den Suchbegriff enthalten)
+		if (farbCodes != null) {
+			predicates.add(inCodes(builder,
+					pd.get(Produktdaten_.farbeMerkmal).get(Farbe_.id),
+					farbCodes));
 		}
 
 		// GROESSE
-		if (filter.getGroesse() != null && !filter.getGroesse().isEmpty()) {
-			final Predicate predGroesse = builder.equal(builder.lower(pd
-					.get(Produktdaten_.groesse)), filter.getGroesse()
-					.toLowerCase());
-			predicates.add(predGroesse);
+		if (groessenCodes != null) {
+			predicates.add(inCodes(builder,
+					pd.get(Produktdaten_.groesseMerkmal).get(Groesse_.id),
+					groessenCodes));
 		}
 
-		// HERSTELLER
-		if (filter.getHersteller() != null && !filter.getHersteller().isEmpty()) {
-			final Predicate predHersteller = builder.like(
-					builder.lower(join.get(Produkt_.hersteller)), "%"
-							+ filter.getHersteller().toLowerCase() + "%");
-			predicates.add(predHersteller);
+		// HERSTELLER (alle Hersteller, deren Name den Suchbegriff enthaelt)
+		if (herstellerCodes != null) {
+			predicates.add(inCodes(builder,
+					join.get(Produkt_.herstellerMerkmal).get(Hersteller_.id),
+					herstellerCodes));
 		}
 
 		// BESCHREIBUNG
@@ -224,20 +629,75 @@ public class ProduktdatenService implements Serializable {
 			predicates.add(predBeschreibung);
 		}
 
+		// KEYSET
+		if (nachId != null) {
+			predicates.add(builder.gt(pd.get(Produktdaten_.produktdatenID),
+					nachId));
+		}
+
 		final Predicate[] predArray = new Predicate[predicates.size()];
 		query.where(builder.and(predicates.toArray(predArray)));
 
-		// Suche in DB
-		final List<Produktdaten> gefundeneProduktdaten = entityManager
-				.createQuery(query).getResultList();
+		if (nachId != null) {
+			// ORDER BY pd.produktdatenID
+			query.orderBy(builder.asc(pd.get(Produktdaten_.produktdatenID)));
+		}
+		else {
+			// ORDER BY pd.preis, pd.produktdatenID (wie der Index)
+			query.orderBy(builder.asc(pd.get(Produktdaten_.preis)),
+					builder.asc(pd.get(Produktdaten_.produktdatenID)));
+		}
 
-		// Log
-		LOGGER.log(
-				FINER,
-				"ENDE: Suche nach Produktdaten anhand Suchfilter. Ergebnis: {0} Produktdaten",
-				gefundeneProduktdaten.size());
+		return query;
+	}
 
-		return gefundeneProduktdaten;
+	/*
+	 * Vergleich per Code; ohne passende Codes gibt es keine Treffer
+	 */
+	private static <C> Predicate inCodes(CriteriaBuilder builder,
+			Path<C> spalte, List<C> codes) {
+		if (codes.isEmpty()) {
+			return builder.disjunction();
+		}
+		if (codes.size() == 1) {
+			return builder.equal(spalte, codes.get(0));
+		}
+		return spalte.in(codes);
+	}
+
+	/*
+	 * Prueft einzelne Produktdaten gegen den Such-Filter (gleiche Semantik wie
+	 * die Criteria-Query)
+	 */
+	private static boolean passtZuFilter(Produktdaten produktdaten,
+			SuchFilter filter) {
+
+		if (filter.getAnzahl() != null && filter.getAnzahl().intValue() != 0
+				&& produktdaten.getAnzahlVerfuegbar() <= filter.getAnzahl()) {
+			return false;
+		}
+		if (filter.getPreisOben() != null
+				&& filter.getPreisOben().doubleValue() != 0.0
+				&& (filter.getPreisUnten() != null
+				&& produktdaten.getPreis() < filter.getPreisUnten()
+				|| produktdaten.getPreis() > filter.getPreisOben())) {
+			return false;
+		}
+		if (filter.getGroesse() != null && !filter.getGroesse().isEmpty()
+				&& !filter.getGroesse().equalsIgnoreCase(produktdaten.getGroesse())) {
+			return false;
+		}
+		final Produkt produkt = produktdaten.getProdukt();
+		return enthaelt(produktdaten.getFarbe(), filter.getFarbe())
+				&& enthaelt(produkt.getHersteller(), filter.getHersteller())
+				&& enthaelt(produkt.getBeschreibung(), filter.getBeschreibung());
+	}
+
+	private static boolean enthaelt(String wert, String teil) {
+		if (teil == null || teil.isEmpty()) {
+			return true;
+		}
+		return wert != null && wert.toLowerCase().contains(teil.toLowerCase());
 	}
 
 	@SuppressWarnings("unchecked")
@@ -273,6 +733,7 @@ public class ProduktdatenService implements Serializable {
 				Default.class, IdGroup.class));
 
 		// Update in DB
+		merkmalverzeichnis.ordneZu(produktdaten);
 		entityManager.merge(produktdaten);
 
 		// Log
@@ -0,0 +1,58 @@
+package de.shop.produktverwaltung.service.util;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Verkaufte Mengen, die der LagerbestandSchreiber in einer Transaktion aus
+ * der Datenbank abbucht, siehe
+ * {@link Lagerbestand#entnehmeAusstehendeInTransaktion()}
+ */
+public class Abbuchung {
+
+	private final ConcurrentMap<Integer, Integer> mengeByProduktdatenId;
+
+	// Bestand in der Datenbank nach dem UPDATE
+	private final ConcurrentMap<Integer, Integer> inDatenbankByProduktdatenId = new ConcurrentHashMap<>();
+
+	Abbuchung(Map<Integer, Integer> mengeByProduktdatenId) {
+		this.mengeByProduktdatenId = new ConcurrentHashMap<>(
+				mengeByProduktdatenId);
+	}
+
+	/**
+	 * @return Abzubuchende Anzahl pro Produktdaten-ID
+	 */
+	public Map<Integer, Integer> getMengeByProduktdatenId() {
+		return Collections.unmodifiableMap(mengeByProduktdatenId);
+	}
+
+	public boolean isEmpty() {
+		return mengeByProduktdatenId.isEmpty();
+	}
+
+	/**
+	 * Merkt sich den Bestand in der Datenbank nach dem Abbuchen, damit der
+	 * Zaehler nach dem Commit abgeglichen werden kann
+	 */
+	public void setInDatenbank(Integer produktdatenId, int anzahlVerfuegbar) {
+		inDatenbankByProduktdatenId.put(produktdatenId, anzahlVerfuegbar);
+	}
+
+	Integer getInDatenbank(Integer produktdatenId) {
+		return inDatenbankByProduktdatenId.get(produktdatenId);
+	}
+
+	Integer entferne(Integer produktdatenId) {
+		inDatenbankByProduktdatenId.remove(produktdatenId);
+		return mengeByProduktdatenId.remove(produktdatenId);
+	}
+
+	@Override
+	public String toString() {
+		return "Abbuchung [mengeByProduktdatenId=" + mengeByProduktdatenId
+				+ "]";
+	}
+}
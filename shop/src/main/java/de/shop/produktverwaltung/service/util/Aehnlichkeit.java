@@ -0,0 +1,50 @@
+package de.shop.produktverwaltung.service.util;
+
+import java.io.Serializable;
+
+/**
+ * Ein Vorschlag der unscharfen Suche ("Meinten Sie ...?") mit seiner
+ * Aehnlichkeit zum Suchtext
+ *
+ * @see TrigrammIndex
+ */
+public class Aehnlichkeit implements Serializable {
+
+	private static final long serialVersionUID = 4460917238811526093L;
+
+	private final String begriff;
+
+	private final String attribut;
+
+	private final double wert;
+
+	public Aehnlichkeit(String begriff, String attribut, double wert) {
+		this.begriff = begriff;
+		this.attribut = attribut;
+		this.wert = wert;
+	}
+
+	public String getBegriff() {
+		return begriff;
+	}
+
+	/**
+	 * @return "hersteller" oder "beschreibung"
+	 */
+	public String getAttribut() {
+		return attribut;
+	}
+
+	/**
+	 * @return Dice-Koeffizient zwischen 0 und 1
+	 */
+	public double getWert() {
+		return wert;
+	}
+
+	@Override
+	public String toString() {
+		return "Aehnlichkeit [begriff=" + begriff + ", attribut=" + attribut
+				+ ", wert=" + wert + "]";
+	}
+}
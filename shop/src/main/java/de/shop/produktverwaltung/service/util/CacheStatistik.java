@@ -0,0 +1,54 @@
+package de.shop.produktverwaltung.service.util;
+
+import java.io.Serializable;
+
+/**
+ * Kennzahlen des {@link SuchFilterCache}
+ */
+public class CacheStatistik implements Serializable {
+
+	private static final long serialVersionUID = -8215634790027143318L;
+
+	private final long treffer;
+	private final long fehlschlaege;
+	private final long verdraengungen;
+	private final int eintraege;
+	private final long katalogVersion;
+
+	public CacheStatistik(long treffer, long fehlschlaege, long verdraengungen,
+			int eintraege, long katalogVersion) {
+		this.treffer = treffer;
+		this.fehlschlaege = fehlschlaege;
+		this.verdraengungen = verdraengungen;
+		this.eintraege = eintraege;
+		this.katalogVersion = katalogVersion;
+	}
+
+	public long getTreffer() {
+		return treffer;
+	}
+
+	public long getFehlschlaege() {
+		return fehlschlaege;
+	}
+
+	public long getVerdraengungen() {
+		return verdraengungen;
+	}
+
+	public int getEintraege() {
+		return eintraege;
+	}
+
+	public long getKatalogVersion() {
+		return katalogVersion;
+	}
+
+	@Override
+	public String toString() {
+		return "CacheStatistik [treffer=" + treffer + ", fehlschlaege="
+				+ fehlschlaege + ", verdraengungen=" + verdraengungen
+				+ ", eintraege=" + eintraege + ", katalogVersion="
+				+ katalogVersion + "]";
+	}
+}
@@ -0,0 +1,108 @@
+package de.shop.produktverwaltung.service.util;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import de.shop.produktverwaltung.domain.Produktdaten;
+
+/**
+ * Anzahl der Treffer einer Detailsuche pro Farbe, Groesse, Hersteller und
+ * Preisbereich. Die Zaehler werden beim Durchlaufen der Treffer befuellt, es
+ * ist also keine weitere Abfrage noetig.
+ */
+public class Facetten implements Serializable {
+
+	// /////////////////////////////////////////////////////////////////////
+	// ATTRIBUTES
+
+	private static final long serialVersionUID = -6129470271963385420L;
+
+	/**
+	 * Obergrenzen (exklusiv) der Preisbereiche in EUR
+	 */
+	private static final int[] PREIS_GRENZEN = {25, 50, 100, 250 };
+
+	private final Map<String, Integer> farbe = new TreeMap<>();
+
+	private final Map<String, Integer> groesse = new TreeMap<>();
+
+	private final Map<String, Integer> hersteller = new TreeMap<>();
+
+	private final Map<String, Integer> preis = new LinkedHashMap<>();
+
+	// /////////////////////////////////////////////////////////////////////
+	// CONSTRUCTOR
+
+	public Facetten() {
+		int untergrenze = 0;
+		for (int grenze : PREIS_GRENZEN) {
+			preis.put(untergrenze + "-" + grenze, 0);
+			untergrenze = grenze;
+		}
+		preis.put(untergrenze + "+", 0);
+	}
+
+	// /////////////////////////////////////////////////////////////////////
+	// METHODS
+
+	/**
+	 * Zaehlt einen Treffer in allen Facetten
+	 *
+	 * @param produktdaten
+	 *            Ein Treffer der Detailsuche
+	 */
+	public void zaehle(Produktdaten produktdaten) {
+		erhoehe(farbe, produktdaten.getFarbe());
+		erhoehe(groesse, produktdaten.getGroesse());
+		if (produktdaten.getProdukt() != null) {
+			erhoehe(hersteller, produktdaten.getProdukt().getHersteller());
+		}
+		erhoehe(preis, preisbereich(produktdaten.getPreis()));
+	}
+
+	private static String preisbereich(double wert) {
+		int untergrenze = 0;
+		for (int grenze : PREIS_GRENZEN) {
+			if (wert < grenze) {
+				return untergrenze + "-" + grenze;
+			}
+			untergrenze = grenze;
+		}
+		return untergrenze + "+";
+	}
+
+	private static void erhoehe(Map<String, Integer> facette, String wert) {
+		if (wert == null) {
+			return;
+		}
+		final Integer bisher = facette.get(wert);
+		facette.put(wert, bisher == null ? 1 : bisher + 1);
+	}
+
+	@Override
+	public String toString() {
+		return "Facetten [farbe=" + farbe + ", groesse=" + groesse
+				+ ", hersteller=" + hersteller + ", preis=" + preis + "]";
+	}
+
+	// /////////////////////////////////////////////////////////////////////
+	// GETTER & SETTER
+
+	public Map<String, Integer> getFarbe() {
+		return farbe;
+	}
+
+	public Map<String, Integer> getGroesse() {
+		return groesse;
+	}
+
+	public Map<String, Integer> getHersteller() {
+		return hersteller;
+	}
+
+	public Map<String, Integer> getPreis() {
+		return preis;
+	}
+}
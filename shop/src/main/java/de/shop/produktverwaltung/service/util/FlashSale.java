@@ -0,0 +1,324 @@
+package de.shop.produktverwaltung.service.util;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.logging.Level.FINER;
+import static java.util.logging.Level.INFO;
+import static javax.transaction.Status.STATUS_COMMITTED;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import javax.annotation.Resource;
+import javax.enterprise.context.ApplicationScoped;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import de.shop.util.exceptions.AusverkauftException;
+import de.shop.util.exceptions.WartezeitUeberschrittenException;
+
+/**
+ * Zulassung zu Bestellungen fuer Produktdaten im Flash-Sale. Pro Produktdaten
+ * wird eine feste Anzahl Kauf-Tokens ausgegeben; nur wer Tokens erhaelt,
+ * gelangt in die Bestell-Transaktion. Gleichzeitig duerfen nur wenige
+ * Bestellungen je Produktdaten laufen, die uebrigen warten in einer
+ * FIFO-Warteschlange (fairer Semaphore) und geben nach einer begrenzten
+ * Wartezeit auf. Sind die Tokens verbraucht, wird sofort abgelehnt.
+ *
+ * Gewartet wird nur vor der Bestell-Transaktion ({@link #zulassen(Map)}),
+ * damit wartende Bestellungen weder Transaktion noch Connection belegen. Die
+ * Zulassung wird danach mit {@link #bindeAnTransaktion(Zulassung)} an die
+ * Bestell-Transaktion gebunden.
+ */
+@ApplicationScoped
+public class FlashSale {
+
+	// /////////////////////////////////////////////////////////////////////
+	// ATTRIBUTES
+
+	private static final Logger LOGGER = Logger.getLogger(MethodHandles
+			.lookup().lookupClass().getName());
+
+	private static final long WARTEZEIT_MS = 3000;
+
+	private final ConcurrentMap<Integer, Aktion> aktionen = new ConcurrentHashMap<>();
+
+	@Resource
+	private TransactionSynchronizationRegistry transaktionen;
+
+	// /////////////////////////////////////////////////////////////////////
+	// METHODS
+
+	/**
+	 * Startet den Flash-Sale fuer Produktdaten oder setzt ihn neu auf. Bereits
+	 * zugelassene Bestellungen laufen mit der bisherigen Aktion zu Ende.
+	 *
+	 * @param tokens
+	 *            Insgesamt verkaufbare Stueckzahl
+	 * @param parallel
+	 *            Anzahl gleichzeitiger Bestellungen
+	 */
+	public FlashSaleStatus starte(Integer produktdatenId, int tokens,
+			int parallel) {
+		if (tokens < 0 || parallel < 1) {
+			throw new IllegalArgumentException("tokens=" + tokens
+					+ ", parallel=" + parallel);
+		}
+		final Aktion aktion = new Aktion(tokens, parallel);
+		aktionen.put(produktdatenId, aktion);
+		LOGGER.log(INFO, "Flash-Sale fuer Produktdaten {0} gestartet: {1}",
+				new Object[] {produktdatenId, aktion });
+		return aktion.getStatus(produktdatenId);
+	}
+
+	/**
+	 * @return Der letzte Stand, null falls kein Flash-Sale lief
+	 */
+	public FlashSaleStatus beende(Integer produktdatenId) {
+		final Aktion aktion = aktionen.remove(produktdatenId);
+		if (aktion == null) {
+			return null;
+		}
+		LOGGER.log(INFO, "Flash-Sale fuer Produktdaten {0} beendet: {1}",
+				new Object[] {produktdatenId, aktion });
+		return aktion.getStatus(produktdatenId);
+	}
+
+	/**
+	 * @return Der aktuelle Stand, null falls kein Flash-Sale laeuft
+	 */
+	public FlashSaleStatus getStatus(Integer produktdatenId) {
+		final Aktion aktion = aktionen.get(produktdatenId);
+		return aktion == null ? null : aktion.getStatus(produktdatenId);
+	}
+
+	/**
+	 * @return true, falls fuer die Produktdaten ein Flash-Sale laeuft und
+	 *         keine Tokens mehr uebrig sind
+	 */
+	public boolean isAusverkauft(Integer produktdatenId) {
+		final Aktion aktion = aktionen.get(produktdatenId);
+		return aktion != null && aktion.tokens.get() <= 0;
+	}
+
+	/**
+	 * Laesst eine Bestellung innerhalb der laufenden Transaktion ohne Warten
+	 * zu, falls sie nicht vorher mit {@link #zulassen(Map)} zugelassen wurde,
+	 * und bindet die Zulassung an die Transaktion
+	 *
+	 * @param mengeByProduktdatenId
+	 *            Bestellte Anzahl pro Produktdaten-ID
+	 * @throws AusverkauftException
+	 *             Falls die Tokens nicht mehr reichen
+	 * @throws WartezeitUeberschrittenException
+	 *             Falls gerade kein Platz frei ist
+	 */
+	public Zulassung zulassenInTransaktion(
+			Map<Integer, Integer> mengeByProduktdatenId) {
+
+		final Zulassung zulassung = zulassen(mengeByProduktdatenId, 0);
+		bindeAnTransaktion(zulassung);
+		return zulassung;
+	}
+
+	/**
+	 * Bindet eine Zulassung an die laufende Transaktion: nach dem Commit sind
+	 * die Tokens verbraucht, nach einem Rollback wieder frei. In beiden
+	 * Faellen wird der Platz in der Warteschlange freigegeben.
+	 */
+	public void bindeAnTransaktion(final Zulassung zulassung) {
+		if (zulassung.plaetze.isEmpty() || !zulassung.offen.get()) {
+			return;
+		}
+
+		transaktionen.registerInterposedSynchronization(new Synchronization() {
+			@Override
+			public void beforeCompletion() {
+				// nichts zu tun
+			}
+
+			@Override
+			public void afterCompletion(int status) {
+				if (status == STATUS_COMMITTED) {
+					bestaetige(zulassung);
+				}
+				else {
+					freigeben(zulassung);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Laesst eine Bestellung fuer alle Produktdaten im Flash-Sale zu oder fuer
+	 * keine. Produktdaten ohne Flash-Sale werden nicht beruecksichtigt. Da auf
+	 * einen Platz gewartet wird, nur ausserhalb einer Transaktion aufrufen;
+	 * die Zulassung muss anschliessend gebunden, bestaetigt oder freigegeben
+	 * werden.
+	 *
+	 * @param mengeByProduktdatenId
+	 *            Bestellte Anzahl pro Produktdaten-ID
+	 * @throws AusverkauftException
+	 *             Falls die Tokens nicht mehr reichen
+	 * @throws WartezeitUeberschrittenException
+	 *             Falls die Bestellung nicht rechtzeitig an die Reihe kommt
+	 */
+	public Zulassung zulassen(Map<Integer, Integer> mengeByProduktdatenId) {
+		return zulassen(mengeByProduktdatenId, WARTEZEIT_MS);
+	}
+
+	private Zulassung zulassen(Map<Integer, Integer> mengeByProduktdatenId,
+			long wartezeitMs) {
+
+		final Zulassung zulassung = new Zulassung();
+		if (aktionen.isEmpty()) {
+			return zulassung;
+		}
+
+		// Feste Reihenfolge, damit sich Bestellungen mit mehreren Aktionen
+		// nicht gegenseitig blockieren
+		for (Map.Entry<Integer, Integer> e : new TreeMap<>(
+				mengeByProduktdatenId).entrySet()) {
+			final Aktion aktion = aktionen.get(e.getKey());
+			if (aktion == null) {
+				continue;
+			}
+			try {
+				aktion.zulassen(e.getKey(), e.getValue(), wartezeitMs);
+			}
+			catch (RuntimeException ex) {
+				freigeben(zulassung);
+				throw ex;
+			}
+			zulassung.plaetze.add(new Platz(aktion, e.getValue()));
+		}
+
+		if (!zulassung.plaetze.isEmpty()) {
+			LOGGER.log(FINER, "Zugelassen: {0}", mengeByProduktdatenId);
+		}
+		return zulassung;
+	}
+
+	/**
+	 * Die Tokens sind verbraucht, die Plaetze werden frei
+	 */
+	public void bestaetige(Zulassung zulassung) {
+		if (!zulassung.offen.compareAndSet(true, false)) {
+			return;
+		}
+		for (Platz platz : zulassung.plaetze) {
+			platz.aktion.plaetze.release();
+		}
+	}
+
+	/**
+	 * Die Tokens und die Plaetze werden frei
+	 */
+	public void freigeben(Zulassung zulassung) {
+		if (!zulassung.offen.compareAndSet(true, false)) {
+			return;
+		}
+		for (Platz platz : zulassung.plaetze) {
+			platz.aktion.tokens.addAndGet(platz.menge);
+			platz.aktion.plaetze.release();
+		}
+	}
+
+	// /////////////////////////////////////////////////////////////////////
+	// INNER CLASSES
+
+	/**
+	 * Plaetze und Tokens einer zugelassenen Bestellung; wird genau einmal
+	 * bestaetigt oder freigegeben
+	 */
+	public static final class Zulassung {
+		private final List<Platz> plaetze = new ArrayList<>();
+
+		private final AtomicBoolean offen = new AtomicBoolean(true);
+
+		private Zulassung() {
+			super();
+		}
+
+		@Override
+		public String toString() {
+			return "Zulassung [plaetze=" + plaetze.size() + ", offen=" + offen
+					+ "]";
+		}
+	}
+
+	private static final class Platz {
+		private final Aktion aktion;
+		private final int menge;
+
+		Platz(Aktion aktion, int menge) {
+			this.aktion = aktion;
+			this.menge = menge;
+		}
+	}
+
+	private static final class Aktion {
+		// Noch verkaufbare Stueckzahl
+		private final AtomicInteger tokens;
+
+		// Fair: wartende Bestellungen kommen in der Reihenfolge ihres
+		// Eintreffens an die Reihe
+		private final Semaphore plaetze;
+
+		private final int parallel;
+
+		Aktion(int tokens, int parallel) {
+			this.tokens = new AtomicInteger(tokens);
+			this.plaetze = new Semaphore(parallel, true);
+			this.parallel = parallel;
+		}
+
+		void zulassen(Integer produktdatenId, int menge, long wartezeitMs) {
+			// Ausverkauft: gar nicht erst anstellen
+			if (menge < 1 || tokens.get() < menge) {
+				throw new AusverkauftException(produktdatenId, menge);
+			}
+
+			boolean platz;
+			try {
+				platz = plaetze.tryAcquire(wartezeitMs, MILLISECONDS);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				platz = false;
+			}
+			if (!platz) {
+				throw new WartezeitUeberschrittenException(produktdatenId);
+			}
+
+			// Waehrend des Wartens koennen die Tokens ausgegangen sein
+			int alt;
+			do {
+				alt = tokens.get();
+				if (alt < menge) {
+					plaetze.release();
+					throw new AusverkauftException(produktdatenId, menge);
+				}
+			} while (!tokens.compareAndSet(alt, alt - menge));
+		}
+
+		FlashSaleStatus getStatus(Integer produktdatenId) {
+			return new FlashSaleStatus(produktdatenId, tokens.get(), parallel,
+					plaetze.getQueueLength());
+		}
+
+		@Override
+		public String toString() {
+			return "Aktion [tokens=" + tokens + ", parallel=" + parallel
+					+ ", wartend=" + plaetze.getQueueLength() + "]";
+		}
+	}
+}
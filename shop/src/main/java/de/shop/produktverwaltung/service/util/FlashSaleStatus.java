@@ -0,0 +1,53 @@
+package de.shop.produktverwaltung.service.util;
+
+import java.io.Serializable;
+
+/**
+ * Stand eines {@link FlashSale} fuer Produktdaten
+ */
+public class FlashSaleStatus implements Serializable {
+
+	private static final long serialVersionUID = 4127693815504227318L;
+
+	private final Integer produktdatenId;
+	private final int tokens;
+	private final int parallel;
+	private final int wartend;
+
+	public FlashSaleStatus(Integer produktdatenId, int tokens, int parallel,
+			int wartend) {
+		this.produktdatenId = produktdatenId;
+		this.tokens = tokens;
+		this.parallel = parallel;
+		this.wartend = wartend;
+	}
+
+	public Integer getProduktdatenId() {
+		return produktdatenId;
+	}
+
+	/**
+	 * @return Noch verkaufbare Stueckzahl
+	 */
+	public int getTokens() {
+		return tokens;
+	}
+
+	public int getParallel() {
+		return parallel;
+	}
+
+	/**
+	 * @return Ungefaehre Anzahl wartender Bestellungen
+	 */
+	public int getWartend() {
+		return wartend;
+	}
+
+	@Override
+	public String toString() {
+		return "FlashSaleStatus [produktdatenId=" + produktdatenId
+				+ ", tokens=" + tokens + ", parallel=" + parallel
+				+ ", wartend=" + wartend + "]";
+	}
+}
@@ -0,0 +1,76 @@
+package de.shop.produktverwaltung.service.util;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Ergebnis eines Katalog-Imports: Anzahl der gespeicherten Produkte und
+ * Produktdaten sowie die fehlerhaften Zeilen mit ihren Meldungen
+ */
+public class ImportErgebnis implements Serializable {
+
+	private static final long serialVersionUID = -6302617455908710921L;
+
+	private int zeilen;
+
+	private int produkte;
+
+	private int produktdaten;
+
+	private final List<ImportZeile> fehler = new ArrayList<>();
+
+	public void gespeichert(ImportZeile zeile) {
+		zeilen++;
+		produkte++;
+		produktdaten += zeile.getProdukt().getProduktdaten().size();
+	}
+
+	public void fehlerhaft(ImportZeile zeile) {
+		zeilen++;
+		fehler.add(zeile);
+	}
+
+	/**
+	 * Gueltige Zeilen eines Abschnitts, dessen Transaktion zurueckgerollt
+	 * wurde
+	 *
+	 * @param abschnitt
+	 *            Zeilen des Abschnitts
+	 * @param meldung
+	 *            Ursache, wird fuer jede Zeile gemeldet
+	 */
+	public void nichtGespeichert(List<ImportZeile> abschnitt, String meldung) {
+		for (ImportZeile zeile : abschnitt) {
+			fehlerhaft(new ImportZeile(zeile.getZeile(), null,
+					Collections.singletonList(meldung)));
+		}
+	}
+
+	/**
+	 * @return Anzahl der nicht leeren Zeilen
+	 */
+	public int getZeilen() {
+		return zeilen;
+	}
+
+	public int getProdukte() {
+		return produkte;
+	}
+
+	public int getProduktdaten() {
+		return produktdaten;
+	}
+
+	public List<ImportZeile> getFehler() {
+		return fehler;
+	}
+
+	@Override
+	public String toString() {
+		return "ImportErgebnis [zeilen=" + zeilen + ", produkte=" + produkte
+				+ ", produktdaten=" + produktdaten + ", fehler="
+				+ fehler.size() + "]";
+	}
+}
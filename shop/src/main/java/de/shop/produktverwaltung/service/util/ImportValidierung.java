@@ -0,0 +1,125 @@
+package de.shop.produktverwaltung.service.util;
+
+import static javax.ejb.TransactionAttributeType.NOT_SUPPORTED;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Future;
+
+import javax.ejb.AsyncResult;
+import javax.ejb.Asynchronous;
+import javax.ejb.LocalBean;
+import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import javax.validation.groups.Default;
+
+import org.codehaus.jackson.JsonNode;
+import org.codehaus.jackson.map.ObjectMapper;
+
+import de.shop.produktverwaltung.domain.Produkt;
+import de.shop.produktverwaltung.domain.Produktdaten;
+
+/**
+ * Parst und validiert die Zeilen eines Katalog-Imports blockweise. Jede Zeile
+ * ist ein JSON-Objekt (NDJSON) mit den Attributen eines Produkts und einem
+ * Array "produktdaten" mit dessen Varianten, z.B.
+ *
+ * <pre>
+ * {"hersteller":"Brandit","beschreibung":"Cargo Hose","produktdaten":[{"farbe":"oliv","groesse":"M","preis":49.9,"anzahlVerfuegbar":10}]}
+ * </pre>
+ *
+ * Validiert wird mit dem Validator des Aufrufers (siehe ValidatorProvider),
+ * damit die Meldungen in dessen Sprache erscheinen. Jeder Block ist ein
+ * asynchroner EJB-Aufruf im Thread-Pool des Containers; der Aufrufer
+ * begrenzt, wie viele Bloecke gleichzeitig geprueft werden, damit der Pool
+ * z.B. fuer die Schreiber des BestellungEingang frei bleibt. Gespeichert wird
+ * nicht hier, sondern im Thread des Aufrufers, da der EntityManager nicht
+ * threadsicher ist.
+ */
+@Stateless
+@LocalBean
+@TransactionAttribute(NOT_SUPPORTED)
+public class ImportValidierung {
+
+	// /////////////////////////////////////////////////////////////////////
+	// ATTRIBUTES
+
+	private static final String PRODUKTDATEN = "produktdaten";
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	// /////////////////////////////////////////////////////////////////////
+	// METHODS
+
+	/**
+	 * Parst und validiert einen Block von Zeilen im Thread-Pool des
+	 * Containers
+	 *
+	 * @param zeilen
+	 *            Zeilen der Eingabe
+	 * @param ersteNummer
+	 *            Nummer der ersten Zeile in der Eingabe
+	 * @param validator
+	 *            Validator in der Sprache des Aufrufers
+	 * @return Ergebnisse in der Reihenfolge der Zeilen
+	 */
+	@Asynchronous
+	public Future<List<ImportZeile>> pruefe(List<String> zeilen,
+			int ersteNummer, Validator validator) {
+
+		final List<ImportZeile> result = new ArrayList<>(zeilen.size());
+		int nummer = ersteNummer;
+		for (String zeile : zeilen) {
+			result.add(parseZeile(nummer++, zeile, validator));
+		}
+		return new AsyncResult<>(result);
+	}
+
+	private static ImportZeile parseZeile(int nummer, String zeile,
+			Validator validator) {
+
+		if (zeile.trim().isEmpty()) {
+			return new ImportZeile(nummer, null, null);
+		}
+
+		final Produkt produkt;
+		try {
+			final JsonNode knoten = MAPPER.readTree(zeile);
+			produkt = MAPPER.treeToValue(knoten, Produkt.class);
+			produkt.setProduktId(null);
+
+			final JsonNode varianten = knoten.get(PRODUKTDATEN);
+			if (varianten != null) {
+				for (JsonNode variante : varianten) {
+					final Produktdaten produktdaten = MAPPER.treeToValue(
+							variante, Produktdaten.class);
+					produktdaten.setProduktdatenID(null);
+					produkt.addProduktdaten(produktdaten);
+				}
+			}
+		}
+		catch (IOException | IllegalArgumentException e) {
+			return new ImportZeile(nummer, null,
+					Collections.singletonList("Ungueltiges JSON: "
+							+ e.getMessage()));
+		}
+
+		final Set<ConstraintViolation<Produkt>> violations = validator
+				.validate(produkt, Default.class);
+		if (violations.isEmpty()) {
+			return new ImportZeile(nummer, produkt, null);
+		}
+
+		final List<String> fehler = new ArrayList<>(violations.size());
+		for (ConstraintViolation<Produkt> v : violations) {
+			fehler.add(v.getPropertyPath() + ": " + v.getMessage());
+		}
+		Collections.sort(fehler);
+		return new ImportZeile(nummer, null, fehler);
+	}
+}
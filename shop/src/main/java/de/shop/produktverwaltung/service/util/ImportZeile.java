@@ -0,0 +1,62 @@
+package de.shop.produktverwaltung.service.util;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+import org.codehaus.jackson.annotate.JsonIgnore;
+
+import de.shop.produktverwaltung.domain.Produkt;
+
+/**
+ * Eine geparste und validierte Zeile eines Katalog-Imports: entweder ein
+ * gueltiges Produkt samt Produktdaten oder die Fehlermeldungen der Zeile
+ *
+ * @see ImportValidierung
+ */
+public class ImportZeile implements Serializable {
+
+	private static final long serialVersionUID = 2984471553870294612L;
+
+	private final int zeile;
+
+	private final transient Produkt produkt;
+
+	private final List<String> fehler;
+
+	public ImportZeile(int zeile, Produkt produkt, List<String> fehler) {
+		this.zeile = zeile;
+		this.produkt = produkt;
+		this.fehler = fehler == null ? Collections.<String> emptyList()
+				: fehler;
+	}
+
+	/**
+	 * @return Nummer der Zeile in der Eingabe, beginnend mit 1
+	 */
+	public int getZeile() {
+		return zeile;
+	}
+
+	/**
+	 * @return Das Produkt, null bei Fehlern oder einer Leerzeile
+	 */
+	@JsonIgnore
+	public Produkt getProdukt() {
+		return produkt;
+	}
+
+	public List<String> getFehler() {
+		return fehler;
+	}
+
+	@JsonIgnore
+	public boolean isFehlerhaft() {
+		return !fehler.isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		return "ImportZeile [zeile=" + zeile + ", fehler=" + fehler + "]";
+	}
+}
@@ -0,0 +1,27 @@
+package de.shop.produktverwaltung.service.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.enterprise.context.ApplicationScoped;
+
+/**
+ * Globaler Versionszaehler des Katalogs. Er wird nach jeder Schreiboperation
+ * auf Produkt oder Produktdaten erhoeht, und zwar erst nachdem der
+ * {@link ProduktdatenIndex} die Aenderung uebernommen hat. Zwischengespeicherte
+ * Suchergebnisse mit einer aelteren Version sind damit ungueltig.
+ *
+ * @see SuchFilterCache
+ */
+@ApplicationScoped
+public class KatalogVersion {
+
+	private final AtomicLong version = new AtomicLong();
+
+	public long get() {
+		return version.get();
+	}
+
+	public long erhoehe() {
+		return version.incrementAndGet();
+	}
+}
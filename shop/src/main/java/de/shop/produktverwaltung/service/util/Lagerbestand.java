@@ -0,0 +1,363 @@
+package de.shop.produktverwaltung.service.util;
+
+import static java.util.logging.Level.FINER;
+import static javax.enterprise.event.TransactionPhase.AFTER_SUCCESS;
+import static javax.transaction.Status.STATUS_COMMITTED;
+
+import java.lang.invoke.MethodHandles;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import javax.annotation.Resource;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import de.shop.produktverwaltung.domain.KatalogAenderung;
+import de.shop.produktverwaltung.domain.Produktdaten;
+import de.shop.util.exceptions.NichtVerfuegbarException;
+
+/**
+ * Verfuegbare Anzahl pro Produktdaten als atomare Zaehler im Speicher. Eine
+ * Bestellung reserviert ihre Mengen per compareAndSet, ohne Sperren und ohne
+ * Optimistic-Locking-Konflikte auf den Produktdaten. Nach dem Commit der
+ * Bestellung wird die Reservierung bestaetigt, sonst wieder freigegeben.
+ *
+ * Bestaetigte Mengen werden gesammelt und vom LagerbestandSchreiber ueber
+ * die gesperrten Produktdaten in die Datenbank geschrieben (Write-Behind).
+ * Bis dessen Transaktion committed ist, zaehlen die entnommenen Mengen
+ * weiter als verkauft, aber noch nicht abgebucht. Ein Zaehler wird beim ersten Zugriff aus der Datenbank geladen und bei Aenderungen der
+ * Produktdaten (siehe {@link KatalogAenderung}) neu berechnet; bei
+ * gleichzeitigen Zugriffen ist er im Zweifel zu niedrig, nie zu hoch.
+ */
+@ApplicationScoped
+public class Lagerbestand {
+
+	// /////////////////////////////////////////////////////////////////////
+	// ATTRIBUTES
+
+	private static final Logger LOGGER = Logger.getLogger(MethodHandles
+			.lookup().lookupClass().getName());
+
+	private final ConcurrentMap<Integer, Bestand> bestaende = new ConcurrentHashMap<>();
+
+	@PersistenceContext
+	private EntityManager em;
+
+	@Resource
+	private TransactionSynchronizationRegistry transaktionen;
+
+	// /////////////////////////////////////////////////////////////////////
+	// METHODS
+
+	/**
+	 * Reserviert alle Mengen oder keine und bindet die Reservierung an die
+	 * laufende Transaktion: nach dem Commit wird sie bestaetigt, nach einem
+	 * Rollback freigegeben.
+	 *
+	 * @param mengeByProduktdatenId
+	 *            Bestellte Anzahl pro Produktdaten-ID
+	 * @throws NichtVerfuegbarException
+	 *             Falls eine Menge nicht verfuegbar ist
+	 */
+	public Reservierung reserviereInTransaktion(
+			Map<Integer, Integer> mengeByProduktdatenId) {
+
+		final Reservierung reservierung = reserviere(mengeByProduktdatenId);
+		transaktionen.registerInterposedSynchronization(new Synchronization() {
+			@Override
+			public void beforeCompletion() {
+				// nichts zu tun
+			}
+
+			@Override
+			public void afterCompletion(int status) {
+				if (status == STATUS_COMMITTED) {
+					bestaetige(reservierung);
+				}
+				else {
+					freigeben(reservierung);
+				}
+			}
+		});
+		return reservierung;
+	}
+
+	/**
+	 * Reserviert alle Mengen oder keine
+	 *
+	 * @param mengeByProduktdatenId
+	 *            Bestellte Anzahl pro Produktdaten-ID
+	 * @throws NichtVerfuegbarException
+	 *             Falls eine Menge nicht verfuegbar ist
+	 */
+	public Reservierung reserviere(Map<Integer, Integer> mengeByProduktdatenId) {
+
+		final Map<Integer, Integer> reserviert = new TreeMap<>();
+		for (Map.Entry<Integer, Integer> e : new TreeMap<>(
+				mengeByProduktdatenId).entrySet()) {
+			if (e.getValue() < 1
+					|| !getBestand(e.getKey()).reserviere(e.getValue())) {
+				// Bisherige Mengen zurueckgeben
+				freigeben(new Reservierung(reserviert));
+				throw new NichtVerfuegbarException(e.getKey(), e.getValue());
+			}
+			reserviert.put(e.getKey(), e.getValue());
+		}
+
+		LOGGER.log(FINER, "Reserviert: {0}", reserviert);
+		return new Reservierung(reserviert);
+	}
+
+	/**
+	 * Die reservierten Mengen sind verkauft und werden beim naechsten
+	 * Write-Behind aus der Datenbank abgebucht
+	 */
+	public void bestaetige(Reservierung reservierung) {
+		if (!reservierung.abschliessen()) {
+			return;
+		}
+		for (Map.Entry<Integer, Integer> e : reservierung
+				.getMengeByProduktdatenId().entrySet()) {
+			final Bestand bestand = bestaende.get(e.getKey());
+			if (bestand != null) {
+				bestand.bestaetige(e.getValue());
+			}
+		}
+	}
+
+	/**
+	 * Die reservierten Mengen sind wieder verfuegbar
+	 */
+	public void freigeben(Reservierung reservierung) {
+		if (!reservierung.abschliessen()) {
+			return;
+		}
+		for (Map.Entry<Integer, Integer> e : reservierung
+				.getMengeByProduktdatenId().entrySet()) {
+			final Bestand bestand = bestaende.get(e.getKey());
+			if (bestand != null) {
+				bestand.freigeben(e.getValue());
+			}
+		}
+	}
+
+	/**
+	 * Entnimmt alle bestaetigten, noch nicht in die Datenbank geschriebenen
+	 * Mengen zum Abbuchen in der laufenden Transaktion. Bis zu deren Ende
+	 * werden sie bei einer Neuberechnung weiter abgezogen; nach dem Commit
+	 * gelten sie als abgebucht, nach einem Rollback wieder als ausstehend.
+	 *
+	 * @return Abzubuchende Anzahl pro Produktdaten-ID
+	 */
+	public Abbuchung entnehmeAusstehendeInTransaktion() {
+		final Map<Integer, Integer> mengen = new HashMap<>();
+		for (Map.Entry<Integer, Bestand> e : bestaende.entrySet()) {
+			final int menge = e.getValue().entnehme();
+			if (menge > 0) {
+				mengen.put(e.getKey(), menge);
+			}
+		}
+
+		final Abbuchung abbuchung = new Abbuchung(mengen);
+		if (mengen.isEmpty()) {
+			return abbuchung;
+		}
+		transaktionen.registerInterposedSynchronization(new Synchronization() {
+			@Override
+			public void beforeCompletion() {
+				// nichts zu tun
+			}
+
+			@Override
+			public void afterCompletion(int status) {
+				if (status == STATUS_COMMITTED) {
+					abgebucht(abbuchung);
+				}
+				else {
+					zuruecklegen(abbuchung);
+				}
+			}
+		});
+		return abbuchung;
+	}
+
+	/**
+	 * Legt die Menge einer Produktdaten-ID sofort wieder zurueck, z.B. weil
+	 * der Bestand in der Datenbank nicht reicht. Sie wird beim naechsten
+	 * Write-Behind erneut abgebucht.
+	 */
+	public void zuruecklegen(Abbuchung abbuchung, Integer produktdatenId) {
+		final Integer menge = abbuchung.entferne(produktdatenId);
+		final Bestand bestand = bestaende.get(produktdatenId);
+		if (menge != null && bestand != null) {
+			bestand.zuruecklegen(menge);
+		}
+	}
+
+	private void zuruecklegen(Abbuchung abbuchung) {
+		for (Map.Entry<Integer, Integer> e : abbuchung
+				.getMengeByProduktdatenId().entrySet()) {
+			final Bestand bestand = bestaende.get(e.getKey());
+			if (bestand != null) {
+				bestand.zuruecklegen(e.getValue());
+			}
+		}
+	}
+
+	private void abgebucht(Abbuchung abbuchung) {
+		for (Map.Entry<Integer, Integer> e : abbuchung
+				.getMengeByProduktdatenId().entrySet()) {
+			final Bestand bestand = bestaende.get(e.getKey());
+			if (bestand == null) {
+				continue;
+			}
+			bestand.abgebucht(e.getValue());
+
+			// Eine Neuberechnung waehrend der Transaktion hat die Menge
+			// doppelt abgezogen: mit dem neuen Stand der Datenbank abgleichen
+			final Integer inDatenbank = abbuchung.getInDatenbank(e.getKey());
+			if (inDatenbank != null) {
+				bestand.synchronisiere(inDatenbank);
+			}
+		}
+	}
+
+	/**
+	 * @return Verfuegbare Anzahl abzueglich aller Reservierungen, null falls
+	 *         noch nicht geladen
+	 */
+	public Integer getVerfuegbar(Integer produktdatenId) {
+		final Bestand bestand = bestaende.get(produktdatenId);
+		return bestand == null ? null : bestand.verfuegbar.get();
+	}
+
+	/**
+	 * Berechnet die Zaehler nach Aenderungen der Produktdaten neu, z.B. nach
+	 * einer Korrektur des Bestands oder dem Write-Behind
+	 */
+	public void onKatalogAenderung(
+			@Observes(during = AFTER_SUCCESS) KatalogAenderung aenderung) {
+
+		final Produktdaten produktdaten = aenderung.getProduktdaten();
+		if (produktdaten == null) {
+			return;
+		}
+
+		if (aenderung.getArt() == KatalogAenderung.Art.GELOESCHT) {
+			bestaende.remove(produktdaten.getProduktdatenID());
+			return;
+		}
+
+		final Bestand bestand = bestaende.get(produktdaten
+				.getProduktdatenID());
+		if (bestand != null) {
+			bestand.synchronisiere(produktdaten.getAnzahlVerfuegbar());
+		}
+	}
+
+	private Bestand getBestand(Integer produktdatenId) {
+		Bestand bestand = bestaende.get(produktdatenId);
+		if (bestand != null) {
+			return bestand;
+		}
+
+		final Produktdaten produktdaten = em.find(Produktdaten.class,
+				produktdatenId);
+		bestand = new Bestand(produktdaten == null ? 0 : produktdaten
+				.getAnzahlVerfuegbar());
+		final Bestand vorhanden = bestaende.putIfAbsent(produktdatenId,
+				bestand);
+		return vorhanden == null ? bestand : vorhanden;
+	}
+
+	// /////////////////////////////////////////////////////////////////////
+	// INNER CLASSES
+
+	private static class Bestand {
+		// Noch nicht reserviert
+		private final AtomicInteger verfuegbar;
+
+		// Reserviert, Transaktion noch offen
+		private final AtomicInteger reserviert = new AtomicInteger();
+
+		// Verkauft, aber noch nicht in der Datenbank abgebucht
+		private final AtomicInteger ausstehend = new AtomicInteger();
+
+		// Entnommen zum Abbuchen, Transaktion noch offen
+		private final AtomicInteger inArbeit = new AtomicInteger();
+
+		Bestand(int verfuegbar) {
+			this.verfuegbar = new AtomicInteger(verfuegbar);
+		}
+
+		// Erst reserviert zaehlen, dann von verfuegbar abziehen: eine
+		// gleichzeitige Neuberechnung zieht die Menge hoechstens doppelt ab
+		boolean reserviere(int menge) {
+			reserviert.addAndGet(menge);
+			int alt;
+			do {
+				alt = verfuegbar.get();
+				if (alt < menge) {
+					reserviert.addAndGet(-menge);
+					return false;
+				}
+			} while (!verfuegbar.compareAndSet(alt, alt - menge));
+			return true;
+		}
+
+		void bestaetige(int menge) {
+			ausstehend.addAndGet(menge);
+			reserviert.addAndGet(-menge);
+		}
+
+		void freigeben(int menge) {
+			verfuegbar.addAndGet(menge);
+			reserviert.addAndGet(-menge);
+		}
+
+		// Erst in Arbeit zaehlen, dann aus ausstehend nehmen: eine
+		// gleichzeitige Neuberechnung zieht die Menge hoechstens doppelt ab
+		int entnehme() {
+			final int menge = ausstehend.get();
+			if (menge <= 0) {
+				return 0;
+			}
+			inArbeit.addAndGet(menge);
+			ausstehend.addAndGet(-menge);
+			return menge;
+		}
+
+		void zuruecklegen(int menge) {
+			ausstehend.addAndGet(menge);
+			inArbeit.addAndGet(-menge);
+		}
+
+		void abgebucht(int menge) {
+			inArbeit.addAndGet(-menge);
+		}
+
+		// Die Zaehler in Flussrichtung lesen (reserviert, ausstehend, in
+		// Arbeit), damit eine gleichzeitig weitergereichte Menge hoechstens
+		// doppelt abgezogen wird. Per compareAndSet statt set(), damit eine
+		// Reservierung zwischen Lesen und Schreiben nicht verloren geht.
+		void synchronisiere(int inDatenbank) {
+			int alt;
+			int neu;
+			do {
+				alt = verfuegbar.get();
+				final int inTransaktion = reserviert.get();
+				final int nichtAbgebucht = ausstehend.get() + inArbeit.get();
+				neu = inDatenbank - inTransaktion - nichtAbgebucht;
+			} while (!verfuegbar.compareAndSet(alt, neu));
+		}
+	}
+}
@@ -0,0 +1,149 @@
+package de.shop.produktverwaltung.service.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sortiertes Array aller unterschiedlichen Werte eines Attributs fuer die
+ * Vervollstaendigung per Praefix. Gesucht wird per binaerer Suche ohne
+ * Sperre auf einem unveraenderlichen Schnappschuss; Aenderungen zaehlen die
+ * Vorkommen eines Wertes mit und erzeugen nur dann einen neuen Schnappschuss,
+ * wenn ein Wert neu hinzukommt oder ganz wegfaellt.
+ */
+public class PraefixIndex {
+
+	// /////////////////////////////////////////////////////////////////////
+	// ATTRIBUTES
+
+	private final Map<String, Integer> vorkommen = new HashMap<>();
+
+	private volatile Schnappschuss schnappschuss = new Schnappschuss(
+			new String[0]);
+
+	// /////////////////////////////////////////////////////////////////////
+	// METHODS
+
+	/**
+	 * Ersetzt den Inhalt komplett
+	 *
+	 * @param werte
+	 *            Alle Werte (auch mehrfach) des Attributs
+	 */
+	public synchronized void setzeAlle(Collection<String> werte) {
+		vorkommen.clear();
+		for (String wert : werte) {
+			zaehle(wert, 1);
+		}
+		schnappschuss = new Schnappschuss(vorkommen.keySet().toArray(
+				new String[vorkommen.size()]));
+	}
+
+	/**
+	 * Ersetzt ein Vorkommen von alt durch neu
+	 *
+	 * @param alt
+	 *            Bisheriger Wert oder null bei neuen Eintraegen
+	 * @param neu
+	 *            Neuer Wert oder null beim Loeschen
+	 */
+	public synchronized void ersetze(String alt, String neu) {
+		if (alt == null ? neu == null : alt.equals(neu)) {
+			return;
+		}
+		final boolean geaendert = zaehle(alt, -1) | zaehle(neu, 1);
+		if (geaendert) {
+			schnappschuss = new Schnappschuss(vorkommen.keySet().toArray(
+					new String[vorkommen.size()]));
+		}
+	}
+
+	/**
+	 * Liefert die ersten Werte, die mit dem Praefix beginnen (Gross- und
+	 * Kleinschreibung wird ignoriert)
+	 *
+	 * @param praefix
+	 *            Der bisher eingegebene Text
+	 * @param max
+	 *            Maximale Anzahl Vorschlaege
+	 * @return Passende Werte in alphabetischer Reihenfolge
+	 */
+	public List<String> vorschlaege(String praefix, int max) {
+
+		final Schnappschuss aktuell = schnappschuss;
+		final String gesucht = praefix == null ? "" : praefix.toUpperCase();
+
+		int index = Arrays.binarySearch(aktuell.schluessel, gesucht);
+		if (index < 0) {
+			index = -index - 1;
+		}
+		else {
+			// gleiche Schluessel koennen mehrfach vorkommen
+			while (index > 0 && aktuell.schluessel[index - 1].equals(gesucht)) {
+				index--;
+			}
+		}
+
+		final List<String> result = new ArrayList<>();
+		for (int i = index; i < aktuell.schluessel.length
+				&& result.size() < max
+				&& aktuell.schluessel[i].startsWith(gesucht); i++) {
+			result.add(aktuell.werte[i]);
+		}
+		return result;
+	}
+
+	/*
+	 * Aendert die Anzahl der Vorkommen; liefert true, wenn der Wert dadurch
+	 * hinzugekommen oder weggefallen ist
+	 */
+	private boolean zaehle(String wert, int delta) {
+		if (wert == null) {
+			return false;
+		}
+		final Integer bisher = vorkommen.get(wert);
+		final int anzahl = (bisher == null ? 0 : bisher) + delta;
+		if (anzahl <= 0) {
+			vorkommen.remove(wert);
+			return bisher != null;
+		}
+		vorkommen.put(wert, anzahl);
+		return bisher == null;
+	}
+
+	// /////////////////////////////////////////////////////////////////////
+	// INNER CLASSES
+
+	/*
+	 * Unveraenderliche, nach Grossbuchstaben sortierte Werte
+	 */
+	private static class Schnappschuss {
+		private final String[] schluessel;
+		private final String[] werte;
+
+		Schnappschuss(String[] unsortiert) {
+			final String[][] paare = new String[unsortiert.length][];
+			for (int i = 0; i < unsortiert.length; i++) {
+				paare[i] = new String[] {unsortiert[i].toUpperCase(),
+						unsortiert[i] };
+			}
+			Arrays.sort(paare, new Comparator<String[]>() {
+				@Override
+				public int compare(String[] a, String[] b) {
+					final int vergleich = a[0].compareTo(b[0]);
+					return vergleich != 0 ? vergleich : a[1].compareTo(b[1]);
+				}
+			});
+			schluessel = new String[paare.length];
+			werte = new String[paare.length];
+			for (int i = 0; i < paare.length; i++) {
+				schluessel[i] = paare[i][0];
+				werte[i] = paare[i][1];
+			}
+		}
+	}
+}
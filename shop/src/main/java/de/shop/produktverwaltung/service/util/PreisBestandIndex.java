@@ -0,0 +1,305 @@
+package de.shop.produktverwaltung.service.util;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Nach Preis bzw. verfuegbarer Anzahl sortierte Slots des
+ * {@link ProduktdatenIndex}. Schluessel und Slots liegen in parallelen
+ * primitiven Arrays (ohne Double/Integer), Bereichsabfragen werden per
+ * binaerer Suche beantwortet. Bei gleichem Schluessel entscheidet der Slot,
+ * so dass jeder Eintrag eine eindeutige Position hat.
+ *
+ * Der Index wird einmal komplett sortiert und danach bei Aenderungen per
+ * Einfuegen/Entfernen an der passenden Position aktuell gehalten. Die Klasse
+ * ist nicht threadsicher; die Synchronisation uebernimmt der
+ * {@link ProduktdatenIndex}.
+ */
+public class PreisBestandIndex {
+
+	// /////////////////////////////////////////////////////////////////////
+	// ATTRIBUTES
+
+	private static final int START_KAPAZITAET = 256;
+
+	/**
+	 * Teilbereiche bis zu dieser Groesse werden per Insertion Sort sortiert
+	 */
+	private static final int INSERTION_SORT_GRENZE = 16;
+
+	private int groesse = 0;
+
+	private double[] preise = new double[START_KAPAZITAET];
+	private int[] slotsNachPreis = new int[START_KAPAZITAET];
+
+	private int[] bestaende = new int[START_KAPAZITAET];
+	private int[] slotsNachBestand = new int[START_KAPAZITAET];
+
+	// /////////////////////////////////////////////////////////////////////
+	// METHODS
+
+	public void leeren() {
+		groesse = 0;
+	}
+
+	/**
+	 * Baut den Index aus allen belegten Slots neu auf
+	 *
+	 * @param belegt
+	 *            Belegte Slots
+	 * @param preisProSlot
+	 *            Preis, indiziert ueber den Slot
+	 * @param bestandProSlot
+	 *            Verfuegbare Anzahl, indiziert ueber den Slot
+	 */
+	public void aufbauen(BitSet belegt, double[] preisProSlot,
+			int[] bestandProSlot) {
+
+		groesse = 0;
+		sichereKapazitaet(belegt.cardinality());
+
+		final long[] bestandUndSlot = new long[belegt.cardinality()];
+		for (int slot = belegt.nextSetBit(0); slot >= 0; slot = belegt
+				.nextSetBit(slot + 1)) {
+			preise[groesse] = preisProSlot[slot];
+			slotsNachPreis[groesse] = slot;
+			bestandUndSlot[groesse] = packe(bestandProSlot[slot], slot);
+			groesse++;
+		}
+
+		sortiere(preise, slotsNachPreis, 0, groesse);
+
+		// int-Schluessel samt Slot passen in ein long und lassen sich direkt
+		// sortieren
+		Arrays.sort(bestandUndSlot);
+		for (int i = 0; i < groesse; i++) {
+			bestaende[i] = (int) (bestandUndSlot[i] >> 32);
+			slotsNachBestand[i] = (int) bestandUndSlot[i];
+		}
+	}
+
+	public void einfuegen(int slot, double preis, int bestand) {
+
+		sichereKapazitaet(groesse + 1);
+
+		final int posPreis = positionPreis(preis, slot);
+		System.arraycopy(preise, posPreis, preise, posPreis + 1, groesse
+				- posPreis);
+		System.arraycopy(slotsNachPreis, posPreis, slotsNachPreis,
+				posPreis + 1, groesse - posPreis);
+		preise[posPreis] = preis;
+		slotsNachPreis[posPreis] = slot;
+
+		final int posBestand = positionBestand(bestand, slot);
+		System.arraycopy(bestaende, posBestand, bestaende, posBestand + 1,
+				groesse - posBestand);
+		System.arraycopy(slotsNachBestand, posBestand, slotsNachBestand,
+				posBestand + 1, groesse - posBestand);
+		bestaende[posBestand] = bestand;
+		slotsNachBestand[posBestand] = slot;
+
+		groesse++;
+	}
+
+	/**
+	 * @param preis
+	 *            Preis, unter dem der Slot eingefuegt wurde
+	 * @param bestand
+	 *            Anzahl, unter der der Slot eingefuegt wurde
+	 */
+	public void entfernen(int slot, double preis, int bestand) {
+
+		final int posPreis = positionPreis(preis, slot);
+		final int posBestand = positionBestand(bestand, slot);
+		if (posPreis >= groesse || slotsNachPreis[posPreis] != slot
+				|| posBestand >= groesse
+				|| slotsNachBestand[posBestand] != slot) {
+			return;
+		}
+
+		System.arraycopy(preise, posPreis + 1, preise, posPreis, groesse
+				- posPreis - 1);
+		System.arraycopy(slotsNachPreis, posPreis + 1, slotsNachPreis,
+				posPreis, groesse - posPreis - 1);
+		System.arraycopy(bestaende, posBestand + 1, bestaende, posBestand,
+				groesse - posBestand - 1);
+		System.arraycopy(slotsNachBestand, posBestand + 1, slotsNachBestand,
+				posBestand, groesse - posBestand - 1);
+
+		groesse--;
+	}
+
+	/**
+	 * Setzt in ziel alle Slots mit unten <= preis <= oben
+	 */
+	public void preisZwischen(double unten, double oben, BitSet ziel) {
+		for (int i = positionPreis(unten, Integer.MIN_VALUE); i < groesse
+				&& preise[i] <= oben; i++) {
+			ziel.set(slotsNachPreis[i]);
+		}
+	}
+
+	/**
+	 * Setzt in ziel alle Slots mit bestand > untergrenze
+	 */
+	public void bestandGroesserAls(int untergrenze, BitSet ziel) {
+		for (int i = positionBestand(untergrenze, Integer.MAX_VALUE); i < groesse; i++) {
+			ziel.set(slotsNachBestand[i]);
+		}
+	}
+
+	public int getGroesse() {
+		return groesse;
+	}
+
+	/**
+	 * @param position
+	 *            0 fuer den guenstigsten Eintrag
+	 * @return Slot an dieser Position der Preis-Sortierung
+	 */
+	public int slotNachPreis(int position) {
+		return slotsNachPreis[position];
+	}
+
+	/**
+	 * Sortiert Slots aufsteigend nach ihrem Preis, z.B. die Treffer einer
+	 * Suche
+	 *
+	 * @param slots
+	 *            Zu sortierende Slots
+	 * @param preisProSlot
+	 *            Preis, indiziert ueber den Slot
+	 */
+	public static void sortiereNachPreis(int[] slots, double[] preisProSlot) {
+		final double[] schluessel = new double[slots.length];
+		for (int i = 0; i < slots.length; i++) {
+			schluessel[i] = preisProSlot[slots[i]];
+		}
+		sortiere(schluessel, slots, 0, slots.length);
+	}
+
+	/*
+	 * Erste Position, deren (Preis, Slot) nicht kleiner ist als der gesuchte
+	 */
+	private int positionPreis(double preis, int slot) {
+		int links = 0;
+		int rechts = groesse;
+		while (links < rechts) {
+			final int mitte = (links + rechts) >>> 1;
+			if (vergleiche(preise[mitte], slotsNachPreis[mitte], preis, slot) < 0) {
+				links = mitte + 1;
+			}
+			else {
+				rechts = mitte;
+			}
+		}
+		return links;
+	}
+
+	/*
+	 * Erste Position, deren (Bestand, Slot) nicht kleiner ist als der gesuchte
+	 */
+	private int positionBestand(int bestand, int slot) {
+		final long gesucht = packe(bestand, slot);
+		int links = 0;
+		int rechts = groesse;
+		while (links < rechts) {
+			final int mitte = (links + rechts) >>> 1;
+			if (packe(bestaende[mitte], slotsNachBestand[mitte]) < gesucht) {
+				links = mitte + 1;
+			}
+			else {
+				rechts = mitte;
+			}
+		}
+		return links;
+	}
+
+	private void sichereKapazitaet(int benoetigt) {
+		if (benoetigt <= preise.length) {
+			return;
+		}
+		final int kapazitaet = Math.max(benoetigt, preise.length * 2);
+		preise = Arrays.copyOf(preise, kapazitaet);
+		slotsNachPreis = Arrays.copyOf(slotsNachPreis, kapazitaet);
+		bestaende = Arrays.copyOf(bestaende, kapazitaet);
+		slotsNachBestand = Arrays.copyOf(slotsNachBestand, kapazitaet);
+	}
+
+	/*
+	 * Bestand in den oberen, Slot in den unteren 32 Bit: die natuerliche
+	 * Ordnung der long-Werte entspricht (Bestand, Slot)
+	 */
+	private static long packe(int bestand, int slot) {
+		return (long) bestand << 32 | slot & 0xFFFFFFFFL;
+	}
+
+	private static int vergleiche(double preis1, int slot1, double preis2,
+			int slot2) {
+		final int vergleich = Double.compare(preis1, preis2);
+		return vergleich != 0 ? vergleich : Integer.compare(slot1, slot2);
+	}
+
+	/*
+	 * Quicksort auf parallelen Arrays (bis exklusiv); die groessere Haelfte
+	 * wird iterativ behandelt, damit die Rekursionstiefe logarithmisch bleibt
+	 */
+	private static void sortiere(double[] schluessel, int[] slots, int von,
+			int bis) {
+
+		while (bis - von > INSERTION_SORT_GRENZE) {
+			final int mitte = (von + bis) >>> 1;
+			final double pivotSchluessel = schluessel[mitte];
+			final int pivotSlot = slots[mitte];
+
+			int i = von;
+			int j = bis - 1;
+			while (i <= j) {
+				while (vergleiche(schluessel[i], slots[i], pivotSchluessel,
+						pivotSlot) < 0) {
+					i++;
+				}
+				while (vergleiche(schluessel[j], slots[j], pivotSchluessel,
+						pivotSlot) > 0) {
+					j--;
+				}
+				if (i <= j) {
+					tausche(schluessel, slots, i, j);
+					i++;
+					j--;
+				}
+			}
+
+			if (j + 1 - von < bis - i) {
+				sortiere(schluessel, slots, von, j + 1);
+				von = i;
+			}
+			else {
+				sortiere(schluessel, slots, i, bis);
+				bis = j + 1;
+			}
+		}
+
+		for (int i = von + 1; i < bis; i++) {
+			final double s = schluessel[i];
+			final int slot = slots[i];
+			int j = i - 1;
+			while (j >= von && vergleiche(schluessel[j], slots[j], s, slot) > 0) {
+				schluessel[j + 1] = schluessel[j];
+				slots[j + 1] = slots[j];
+				j--;
+			}
+			schluessel[j + 1] = s;
+			slots[j + 1] = slot;
+		}
+	}
+
+	private static void tausche(double[] schluessel, int[] slots, int i, int j) {
+		final double s = schluessel[i];
+		schluessel[i] = schluessel[j];
+		schluessel[j] = s;
+		final int slot = slots[i];
+		slots[i] = slots[j];
+		slots[j] = slot;
+	}
+}
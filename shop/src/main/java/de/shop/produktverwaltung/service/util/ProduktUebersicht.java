@@ -0,0 +1,89 @@
+package de.shop.produktverwaltung.service.util;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Zusammenfassung eines Produkts fuer Listen: guenstigster Preis, gesamter
+ * Bestand sowie alle Groessen und Farben seiner Produktdaten. Unveraenderlich,
+ * damit der {@link ProduktUebersichtIndex} sie ohne Sperren ausliefern kann.
+ */
+public class ProduktUebersicht implements Serializable {
+
+	private static final long serialVersionUID = -3170284416572253949L;
+
+	private final Integer produktId;
+	private final String beschreibung;
+	private final String hersteller;
+	private final Double minPreis;
+	private final int gesamtBestand;
+	private final int anzahlVarianten;
+	private final List<String> groessen;
+	private final List<String> farben;
+
+	public ProduktUebersicht(Integer produktId, String beschreibung,
+			String hersteller, Double minPreis, int gesamtBestand,
+			int anzahlVarianten, List<String> groessen, List<String> farben) {
+		this.produktId = produktId;
+		this.beschreibung = beschreibung;
+		this.hersteller = hersteller;
+		this.minPreis = minPreis;
+		this.gesamtBestand = gesamtBestand;
+		this.anzahlVarianten = anzahlVarianten;
+		this.groessen = groessen;
+		this.farben = farben;
+	}
+
+	public Integer getProduktId() {
+		return produktId;
+	}
+
+	public String getBeschreibung() {
+		return beschreibung;
+	}
+
+	public String getHersteller() {
+		return hersteller;
+	}
+
+	/**
+	 * @return Guenstigster Preis, null falls es keine Produktdaten gibt
+	 */
+	public Double getMinPreis() {
+		return minPreis;
+	}
+
+	/**
+	 * @return Summe der verfuegbaren Anzahl ueber alle Produktdaten
+	 */
+	public int getGesamtBestand() {
+		return gesamtBestand;
+	}
+
+	public int getAnzahlVarianten() {
+		return anzahlVarianten;
+	}
+
+	/**
+	 * @return Alle Groessen, sortiert und ohne Duplikate
+	 */
+	public List<String> getGroessen() {
+		return groessen;
+	}
+
+	/**
+	 * @return Alle Farben, sortiert und ohne Duplikate
+	 */
+	public List<String> getFarben() {
+		return farben;
+	}
+
+	@Override
+	public String toString() {
+		return "ProduktUebersicht [produktId=" + produktId + ", beschreibung="
+				+ beschreibung + ", hersteller=" + hersteller + ", minPreis="
+				+ minPreis + ", gesamtBestand=" + gesamtBestand
+				+ ", anzahlVarianten=" + anzahlVarianten + ", groessen="
+				+ groessen + ", farben=" + farben + "]";
+	}
+}
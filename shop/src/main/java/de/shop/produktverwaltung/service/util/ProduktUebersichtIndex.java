@@ -0,0 +1,306 @@
+package de.shop.produktverwaltung.service.util;
+
+import static java.util.logging.Level.FINER;
+import static java.util.logging.Level.INFO;
+import static javax.enterprise.event.TransactionPhase.AFTER_SUCCESS;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.logging.Logger;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+
+import de.shop.produktverwaltung.domain.KatalogAenderung;
+import de.shop.produktverwaltung.domain.Produkt;
+import de.shop.produktverwaltung.domain.Produktdaten;
+
+/**
+ * Read-Model fuer Produktlisten: pro Produkt eine fertige
+ * {@link ProduktUebersicht}, sortiert nach Produkt-ID. Eine Seite kostet damit
+ * O(Produkte der Seite) statt eines JOINs ueber alle Produktdaten mit
+ * anschliessender Aggregation.
+ *
+ * Das Read-Model wird beim Start aufgebaut (siehe KatalogIndexLoader) und
+ * ueber {@link KatalogAenderung} inkrementell gepflegt: eine Aenderung an
+ * Produktdaten fasst nur das betroffene Produkt neu zusammen. Geschrieben
+ * wird unter dem Monitor, gelesen ohne Sperren.
+ */
+@ApplicationScoped
+public class ProduktUebersichtIndex {
+
+	// /////////////////////////////////////////////////////////////////////
+	// ATTRIBUTES
+
+	private static final Logger LOGGER = Logger.getLogger(MethodHandles
+			.lookup().lookupClass().getName());
+
+	private volatile boolean bereit = false;
+
+	// Lesend: fertige Zusammenfassungen
+	private final ConcurrentNavigableMap<Integer, ProduktUebersicht> uebersichten = new ConcurrentSkipListMap<>();
+
+	// Schreibend, nur unter dem Monitor
+	private final Map<Integer, ProduktEintrag> produkte = new HashMap<>();
+	private final Map<Integer, Integer> produktIdByProduktdatenId = new HashMap<>();
+
+	// /////////////////////////////////////////////////////////////////////
+	// METHODS
+
+	/**
+	 * Baut das Read-Model komplett neu auf
+	 *
+	 * @param alleProdukte
+	 *            Alle Produkte des Katalogs
+	 * @param alleProduktdaten
+	 *            Alle Produktdaten des Katalogs
+	 */
+	public synchronized void aufbauen(List<Produkt> alleProdukte,
+			List<Produktdaten> alleProduktdaten) {
+
+		LOGGER.log(FINER, "BEGINN: Aufbau Produkt-Uebersichten");
+
+		bereit = false;
+		produkte.clear();
+		produktIdByProduktdatenId.clear();
+		uebersichten.clear();
+
+		for (Produkt produkt : alleProdukte) {
+			produkte.put(produkt.getProduktId(), new ProduktEintrag(produkt));
+		}
+		for (Produktdaten produktdaten : alleProduktdaten) {
+			final Produkt produkt = produktdaten.getProdukt();
+			if (produkt == null || produkt.getProduktId() == null) {
+				continue;
+			}
+			final ProduktEintrag eintrag = produkte.get(produkt.getProduktId());
+			if (eintrag == null) {
+				continue;
+			}
+			eintrag.varianten.put(produktdaten.getProduktdatenID(),
+					new Variante(produktdaten));
+			produktIdByProduktdatenId.put(produktdaten.getProduktdatenID(),
+					produkt.getProduktId());
+		}
+		for (Map.Entry<Integer, ProduktEintrag> e : produkte.entrySet()) {
+			uebersichten.put(e.getKey(), e.getValue().zusammenfassen(e.getKey()));
+		}
+		bereit = true;
+
+		LOGGER.log(INFO, "Produkt-Uebersichten mit {0} Eintraegen aufgebaut",
+				uebersichten.size());
+	}
+
+	/**
+	 * @return true, wenn das Read-Model aufgebaut ist und fuer Listen
+	 *         verwendet werden kann
+	 */
+	public boolean isBereit() {
+		return bereit;
+	}
+
+	/**
+	 * @param nachId
+	 *            Nur Produkte mit groesserer ID, 0 fuer den Anfang
+	 * @param max
+	 *            Hoechstens so viele Uebersichten
+	 * @return Uebersichten aufsteigend nach Produkt-ID
+	 */
+	public List<ProduktUebersicht> findUebersichten(Integer nachId, int max) {
+		final List<ProduktUebersicht> result = new ArrayList<>(max);
+		for (ProduktUebersicht uebersicht : uebersichten.tailMap(nachId, false)
+				.values()) {
+			if (result.size() == max) {
+				break;
+			}
+			result.add(uebersicht);
+		}
+		return result;
+	}
+
+	/**
+	 * Fasst ein Produkt mit seinen (ggf. nachgeladenen) Produktdaten zusammen,
+	 * falls das Read-Model noch nicht aufgebaut ist
+	 */
+	public static ProduktUebersicht zusammenfassen(Produkt produkt) {
+		final ProduktEintrag eintrag = new ProduktEintrag(produkt);
+		if (produkt.getProduktdaten() != null) {
+			for (Produktdaten produktdaten : produkt.getProduktdaten()) {
+				eintrag.varianten.put(produktdaten.getProduktdatenID(),
+						new Variante(produktdaten));
+			}
+		}
+		return eintrag.zusammenfassen(produkt.getProduktId());
+	}
+
+	/**
+	 * Fasst nach jedem erfolgreichen Commit nur das betroffene Produkt neu
+	 * zusammen
+	 */
+	public synchronized void onKatalogAenderung(
+			@Observes(during = AFTER_SUCCESS) KatalogAenderung aenderung) {
+
+		if (!bereit) {
+			// Wird beim Aufbau ohnehin aus der DB gelesen
+			return;
+		}
+
+		final Produkt produkt = aenderung.getProdukt();
+		final Produktdaten produktdaten = aenderung.getProduktdaten();
+		switch (aenderung.getArt()) {
+		case NEU:
+		case GEAENDERT:
+			if (produkt != null) {
+				setzeProdukt(produkt);
+			}
+			else {
+				setzeProduktdaten(produktdaten);
+			}
+			break;
+
+		case GELOESCHT:
+			if (produkt != null) {
+				entferneProdukt(produkt.getProduktId());
+			}
+			else {
+				entferneProduktdaten(produktdaten.getProduktdatenID());
+			}
+			break;
+
+		default:
+			break;
+		}
+	}
+
+	private void setzeProdukt(Produkt produkt) {
+		final ProduktEintrag eintrag = produkte.get(produkt.getProduktId());
+		if (eintrag == null) {
+			produkte.put(produkt.getProduktId(), new ProduktEintrag(produkt));
+		}
+		else {
+			eintrag.beschreibung = produkt.getBeschreibung();
+			eintrag.hersteller = produkt.getHersteller();
+		}
+		veroeffentlichen(produkt.getProduktId());
+	}
+
+	private void setzeProduktdaten(Produktdaten produktdaten) {
+		final Integer id = produktdaten.getProduktdatenID();
+		final Produkt produkt = produktdaten.getProdukt();
+		if (produkt == null || produkt.getProduktId() == null) {
+			entferneProduktdaten(id);
+			return;
+		}
+
+		// Produktdaten koennen einem anderen Produkt zugeordnet worden sein
+		final Integer produktId = produkt.getProduktId();
+		final Integer bisher = produktIdByProduktdatenId.put(id, produktId);
+		if (bisher != null && !bisher.equals(produktId)) {
+			final ProduktEintrag alt = produkte.get(bisher);
+			if (alt != null) {
+				alt.varianten.remove(id);
+				veroeffentlichen(bisher);
+			}
+		}
+
+		ProduktEintrag eintrag = produkte.get(produktId);
+		if (eintrag == null) {
+			eintrag = new ProduktEintrag(produkt);
+			produkte.put(produktId, eintrag);
+		}
+		eintrag.varianten.put(id, new Variante(produktdaten));
+		veroeffentlichen(produktId);
+	}
+
+	private void entferneProduktdaten(Integer id) {
+		final Integer produktId = produktIdByProduktdatenId.remove(id);
+		if (produktId == null) {
+			return;
+		}
+		final ProduktEintrag eintrag = produkte.get(produktId);
+		if (eintrag != null) {
+			eintrag.varianten.remove(id);
+			veroeffentlichen(produktId);
+		}
+	}
+
+	private void entferneProdukt(Integer produktId) {
+		final ProduktEintrag eintrag = produkte.remove(produktId);
+		if (eintrag != null) {
+			for (Integer id : eintrag.varianten.keySet()) {
+				produktIdByProduktdatenId.remove(id);
+			}
+		}
+		uebersichten.remove(produktId);
+	}
+
+	private void veroeffentlichen(Integer produktId) {
+		final ProduktEintrag eintrag = produkte.get(produktId);
+		if (eintrag != null) {
+			uebersichten.put(produktId, eintrag.zusammenfassen(produktId));
+		}
+	}
+
+	// /////////////////////////////////////////////////////////////////////
+	// INNER CLASSES
+
+	private static final class ProduktEintrag {
+		private String beschreibung;
+		private String hersteller;
+		private final Map<Integer, Variante> varianten = new HashMap<>();
+
+		ProduktEintrag(Produkt produkt) {
+			this.beschreibung = produkt.getBeschreibung();
+			this.hersteller = produkt.getHersteller();
+		}
+
+		ProduktUebersicht zusammenfassen(Integer produktId) {
+			Double minPreis = null;
+			int gesamtBestand = 0;
+			final SortedSet<String> groessen = new TreeSet<>();
+			final SortedSet<String> farben = new TreeSet<>();
+			for (Variante variante : varianten.values()) {
+				if (minPreis == null || variante.preis < minPreis) {
+					minPreis = variante.preis;
+				}
+				gesamtBestand += variante.anzahl;
+				if (variante.groesse != null) {
+					groessen.add(variante.groesse);
+				}
+				if (variante.farbe != null) {
+					farben.add(variante.farbe);
+				}
+			}
+			return new ProduktUebersicht(produktId, beschreibung, hersteller,
+					minPreis, gesamtBestand, varianten.size(), liste(groessen),
+					liste(farben));
+		}
+
+		private static List<String> liste(Collection<String> werte) {
+			return Collections.unmodifiableList(new ArrayList<>(werte));
+		}
+	}
+
+	private static final class Variante {
+		private final double preis;
+		private final int anzahl;
+		private final String groesse;
+		private final String farbe;
+
+		Variante(Produktdaten produktdaten) {
+			this.preis = produktdaten.getPreis();
+			this.anzahl = produktdaten.getAnzahlVerfuegbar();
+			this.groesse = produktdaten.getGroesse();
+			this.farbe = produktdaten.getFarbe();
+		}
+	}
+}
@@ -0,0 +1,511 @@
+package de.shop.produktverwaltung.service.util;
+
+import static java.util.logging.Level.FINER;
+import static java.util.logging.Level.INFO;
+import static javax.enterprise.event.TransactionPhase.AFTER_SUCCESS;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Logger;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+
+import de.shop.produktverwaltung.domain.KatalogAenderung;
+import de.shop.produktverwaltung.domain.Produkt;
+import de.shop.produktverwaltung.domain.Produktdaten;
+
+/**
+ * In-Memory-Index ueber alle Produktdaten fuer die Detailsuche. Jede
+ * Produktvariante belegt einen Slot; pro Farbe, Groesse und Hersteller gibt
+ * es ein Bitmap ueber die Slots. Bitmaps gibt es nur fuer diese Merkmale mit
+ * wenigen verschiedenen Werten, da jedes Bitmap bis zum hoechsten Slot Platz
+ * belegt. Preis und verfuegbare Anzahl liegen sortiert im
+ * {@link PreisBestandIndex}, so dass Bereichsabfragen per binaerer Suche
+ * beantwortet werden. Ein Suchfilter wird damit auf AND/OR-Verknuepfungen von
+ * Bitmaps abgebildet, die Datenbank liefert danach nur noch die Treffer per
+ * ID. Suchfilter mit Beschreibung beantwortet der Index nicht (siehe
+ * {@link #kannSuchen(SuchFilter)}).
+ *
+ * Der Index wird beim Start aufgebaut (siehe KatalogIndexLoader) und ueber
+ * {@link KatalogAenderung} nach jedem erfolgreichen Commit aktualisiert.
+ * Solange er nicht aufgebaut ist, liefert {@link #isBereit()} false.
+ *
+ * @see SuchFilter
+ */
+@ApplicationScoped
+public class ProduktdatenIndex {
+
+	// /////////////////////////////////////////////////////////////////////
+	// ATTRIBUTES
+
+	private static final Logger LOGGER = Logger.getLogger(MethodHandles
+			.lookup().lookupClass().getName());
+
+	private static final int START_KAPAZITAET = 256;
+
+	@Inject
+	private KatalogVersion katalogVersion;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private volatile boolean bereit = false;
+
+	// Slot-Verwaltung
+	private final Map<Integer, Integer> slotById = new HashMap<>();
+	private final Deque<Integer> freieSlots = new ArrayDeque<>();
+	private final BitSet belegt = new BitSet();
+	private int naechsterSlot = 0;
+
+	// Werte pro Slot
+	private int[] ids = new int[START_KAPAZITAET];
+	private int[] produktIds = new int[START_KAPAZITAET];
+	private double[] preise = new double[START_KAPAZITAET];
+	private int[] anzahl = new int[START_KAPAZITAET];
+	private String[] farben = new String[START_KAPAZITAET];
+	private String[] groessen = new String[START_KAPAZITAET];
+
+	// Bitmaps pro Attributwert (Schluessel in Kleinbuchstaben)
+	private final Map<String, BitSet> farbeBitmaps = new HashMap<>();
+	private final Map<String, BitSet> groesseBitmaps = new HashMap<>();
+	private final Map<String, BitSet> herstellerBitmaps = new HashMap<>();
+
+	// Der Hersteller steht am Produkt
+	private final Map<Integer, ProduktEintrag> produkte = new HashMap<>();
+
+	// Sortierte Arrays fuer Bereichsabfragen
+	private final PreisBestandIndex preisBestand = new PreisBestandIndex();
+
+	// /////////////////////////////////////////////////////////////////////
+	// METHODS
+
+	/**
+	 * Baut den Index komplett neu auf
+	 *
+	 * @param alleProdukte
+	 *            Alle Produkte des Katalogs
+	 * @param alleProduktdaten
+	 *            Alle Produktdaten des Katalogs
+	 */
+	public void aufbauen(List<Produkt> alleProdukte,
+			List<Produktdaten> alleProduktdaten) {
+
+		LOGGER.log(FINER, "BEGINN: Aufbau Produktdaten-Index");
+
+		lock.writeLock().lock();
+		try {
+			leeren();
+			for (Produkt produkt : alleProdukte) {
+				setzeProdukt(produkt);
+			}
+			for (Produktdaten produktdaten : alleProduktdaten) {
+				setzeProduktdaten(produktdaten);
+			}
+			preisBestand.aufbauen(belegt, preise, anzahl);
+			bereit = true;
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+		katalogVersion.erhoehe();
+
+		LOGGER.log(INFO, "Produktdaten-Index mit {0} Eintraegen aufgebaut",
+				slotById.size());
+	}
+
+	/**
+	 * @return true, wenn der Index aufgebaut ist und fuer Suchen verwendet
+	 *         werden kann
+	 */
+	public boolean isBereit() {
+		return bereit;
+	}
+
+	/**
+	 * Nach der Beschreibung (LIKE '%x%' ueber alle Produkte) sucht weiterhin
+	 * die Datenbank; Bitmaps pro Beschreibung wuerden mit dem Katalog
+	 * quadratisch wachsen.
+	 *
+	 * @return true, wenn der Index aufgebaut ist und den Suchfilter
+	 *         beantworten kann
+	 */
+	public boolean kannSuchen(SuchFilter filter) {
+		return bereit && !istGesetzt(filter.getBeschreibung());
+	}
+
+	/**
+	 * Wertet einen Suchfilter aus. Die Semantik entspricht der Criteria-Query
+	 * in ProduktdatenService; eine fehlende Preis-Untergrenze gilt als 0.
+	 *
+	 * @param filter
+	 *            Der Suchfilter ohne Beschreibung
+	 * @return IDs der passenden Produktdaten, aufsteigend nach Preis
+	 * @see #kannSuchen(SuchFilter)
+	 */
+	public List<Integer> suche(SuchFilter filter) {
+
+		if (istGesetzt(filter.getBeschreibung())) {
+			throw new IllegalArgumentException(
+					"Der Index sucht nicht nach der Beschreibung");
+		}
+
+		lock.readLock().lock();
+		try {
+			final BitSet treffer = (BitSet) belegt.clone();
+
+			// ANZAHL
+			if (filter.getAnzahl() != null
+					&& filter.getAnzahl().intValue() != 0) {
+				final BitSet anzahlTreffer = new BitSet();
+				preisBestand.bestandGroesserAls(filter.getAnzahl().intValue(),
+						anzahlTreffer);
+				treffer.and(anzahlTreffer);
+			}
+
+			// PREIS
+			if (filter.getPreisOben() != null
+					&& filter.getPreisOben().doubleValue() != 0.0) {
+				final double unten = filter.getPreisUnten() == null ? 0.0
+						: filter.getPreisUnten().doubleValue();
+				final BitSet preisTreffer = new BitSet();
+				preisBestand.preisZwischen(unten, filter.getPreisOben()
+						.doubleValue(), preisTreffer);
+				treffer.and(preisTreffer);
+			}
+
+			// FARBE
+			if (istGesetzt(filter.getFarbe())) {
+				treffer.and(enthaelt(farbeBitmaps, filter.getFarbe()));
+			}
+
+			// GROESSE
+			if (istGesetzt(filter.getGroesse())) {
+				final BitSet groesse = groesseBitmaps.get(filter.getGroesse()
+						.toLowerCase());
+				if (groesse == null) {
+					return new ArrayList<>();
+				}
+				treffer.and(groesse);
+			}
+
+			// HERSTELLER
+			if (istGesetzt(filter.getHersteller())) {
+				treffer.and(enthaelt(herstellerBitmaps, filter.getHersteller()));
+			}
+
+			final int[] slots = new int[treffer.cardinality()];
+			int i = 0;
+			for (int slot = treffer.nextSetBit(0); slot >= 0; slot = treffer
+					.nextSetBit(slot + 1)) {
+				slots[i++] = slot;
+			}
+			PreisBestandIndex.sortiereNachPreis(slots, preise);
+
+			final List<Integer> result = new ArrayList<>(slots.length);
+			for (int slot : slots) {
+				result.add(ids[slot]);
+			}
+			return result;
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Die guenstigsten Produktdaten, die noch verfuegbar sind
+	 *
+	 * @param max
+	 *            Maximale Anzahl Treffer
+	 * @return IDs der Produktdaten, aufsteigend nach Preis
+	 */
+	public List<Integer> guenstigsteVerfuegbare(int max) {
+
+		lock.readLock().lock();
+		try {
+			final List<Integer> result = new ArrayList<>(max);
+			for (int i = 0; i < preisBestand.getGroesse()
+					&& result.size() < max; i++) {
+				final int slot = preisBestand.slotNachPreis(i);
+				if (anzahl[slot] > 0) {
+					result.add(ids[slot]);
+				}
+			}
+			return result;
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Haelt den Index nach erfolgreichen Schreiboperationen aktuell. Danach
+	 * wird die {@link KatalogVersion} erhoeht, damit kein Cache-Eintrag auf
+	 * einem veralteten Index beruht.
+	 */
+	public void onKatalogAenderung(
+			@Observes(during = AFTER_SUCCESS) KatalogAenderung aenderung) {
+
+		try {
+			aktualisiere(aenderung);
+		}
+		finally {
+			katalogVersion.erhoehe();
+		}
+	}
+
+	private void aktualisiere(KatalogAenderung aenderung) {
+
+		if (!bereit) {
+			// Wird beim Aufbau ohnehin aus der DB gelesen
+			return;
+		}
+
+		lock.writeLock().lock();
+		try {
+			final Produkt produkt = aenderung.getProdukt();
+			final Produktdaten produktdaten = aenderung.getProduktdaten();
+			switch (aenderung.getArt()) {
+			case NEU:
+			case GEAENDERT:
+				if (produkt != null) {
+					setzeProdukt(produkt);
+				}
+				else {
+					setzeProduktdaten(produktdaten);
+				}
+				break;
+
+			case GELOESCHT:
+				if (produkt != null) {
+					produkte.remove(produkt.getProduktId());
+				}
+				else {
+					entferneProduktdaten(produktdaten.getProduktdatenID());
+				}
+				break;
+
+			default:
+				break;
+			}
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void leeren() {
+		slotById.clear();
+		freieSlots.clear();
+		belegt.clear();
+		naechsterSlot = 0;
+		farbeBitmaps.clear();
+		groesseBitmaps.clear();
+		herstellerBitmaps.clear();
+		produkte.clear();
+		preisBestand.leeren();
+		bereit = false;
+	}
+
+	/*
+	 * Uebernimmt den Hersteller eines Produkts; die Slots seiner Varianten
+	 * wandern ggf. in ein anderes Bitmap
+	 */
+	private void setzeProdukt(Produkt produkt) {
+
+		final String hersteller = klein(produkt.getHersteller());
+
+		ProduktEintrag eintrag = produkte.get(produkt.getProduktId());
+		if (eintrag == null) {
+			eintrag = new ProduktEintrag(hersteller);
+			produkte.put(produkt.getProduktId(), eintrag);
+			return;
+		}
+
+		if (!eintrag.hersteller.equals(hersteller)) {
+			verschiebe(herstellerBitmaps, eintrag.hersteller, hersteller,
+					eintrag);
+			eintrag.hersteller = hersteller;
+		}
+	}
+
+	private void setzeProduktdaten(Produktdaten produktdaten) {
+
+		final Integer id = produktdaten.getProduktdatenID();
+		if (slotById.containsKey(id)) {
+			entferneProduktdaten(id);
+		}
+
+		final Produkt produkt = produktdaten.getProdukt();
+		if (produkt == null || produkt.getProduktId() == null) {
+			return;
+		}
+
+		ProduktEintrag eintrag = produkte.get(produkt.getProduktId());
+		if (eintrag == null) {
+			eintrag = new ProduktEintrag(klein(produkt.getHersteller()));
+			produkte.put(produkt.getProduktId(), eintrag);
+		}
+
+		final int slot = neuerSlot();
+		slotById.put(id, slot);
+		belegt.set(slot);
+		ids[slot] = id;
+		produktIds[slot] = produkt.getProduktId();
+		preise[slot] = produktdaten.getPreis();
+		anzahl[slot] = produktdaten.getAnzahlVerfuegbar();
+		farben[slot] = klein(produktdaten.getFarbe());
+		groessen[slot] = klein(produktdaten.getGroesse());
+
+		bitmap(farbeBitmaps, farben[slot]).set(slot);
+		bitmap(groesseBitmaps, groessen[slot]).set(slot);
+		bitmap(herstellerBitmaps, eintrag.hersteller).set(slot);
+		eintrag.fuegeHinzu(slot);
+
+		// Beim Aufbau wird einmal am Ende sortiert
+		if (bereit) {
+			preisBestand.einfuegen(slot, preise[slot], anzahl[slot]);
+		}
+	}
+
+	private void entferneProduktdaten(Integer id) {
+
+		final Integer slot = slotById.remove(id);
+		if (slot == null) {
+			return;
+		}
+
+		loesche(farbeBitmaps, farben[slot], slot);
+		loesche(groesseBitmaps, groessen[slot], slot);
+		final ProduktEintrag eintrag = produkte.get(produktIds[slot]);
+		if (eintrag != null) {
+			loesche(herstellerBitmaps, eintrag.hersteller, slot);
+			eintrag.entferne(slot);
+		}
+
+		if (bereit) {
+			preisBestand.entfernen(slot, preise[slot], anzahl[slot]);
+		}
+		belegt.clear(slot);
+		farben[slot] = null;
+		groessen[slot] = null;
+		freieSlots.push(slot);
+	}
+
+	private int neuerSlot() {
+
+		if (!freieSlots.isEmpty()) {
+			return freieSlots.pop();
+		}
+
+		if (naechsterSlot == ids.length) {
+			final int kapazitaet = ids.length * 2;
+			ids = Arrays.copyOf(ids, kapazitaet);
+			produktIds = Arrays.copyOf(produktIds, kapazitaet);
+			preise = Arrays.copyOf(preise, kapazitaet);
+			anzahl = Arrays.copyOf(anzahl, kapazitaet);
+			farben = Arrays.copyOf(farben, kapazitaet);
+			groessen = Arrays.copyOf(groessen, kapazitaet);
+		}
+		return naechsterSlot++;
+	}
+
+	/*
+	 * ODER-Verknuepfung aller Bitmaps, deren Wert den Suchbegriff enthaelt
+	 * (entspricht LIKE '%x%'); durchlaufen werden nur die wenigen
+	 * verschiedenen Werte, nicht die Produktdaten
+	 */
+	private static BitSet enthaelt(Map<String, BitSet> bitmaps, String suche) {
+
+		final String teil = suche.toLowerCase();
+		final BitSet result = new BitSet();
+		for (Map.Entry<String, BitSet> entry : bitmaps.entrySet()) {
+			if (entry.getKey().contains(teil)) {
+				result.or(entry.getValue());
+			}
+		}
+		return result;
+	}
+
+	private static void verschiebe(Map<String, BitSet> bitmaps, String alt,
+			String neu, ProduktEintrag eintrag) {
+
+		for (int i = 0; i < eintrag.anzahlSlots; i++) {
+			loesche(bitmaps, alt, eintrag.slots[i]);
+			bitmap(bitmaps, neu).set(eintrag.slots[i]);
+		}
+	}
+
+	private static BitSet bitmap(Map<String, BitSet> bitmaps, String wert) {
+
+		BitSet bitmap = bitmaps.get(wert);
+		if (bitmap == null) {
+			bitmap = new BitSet();
+			bitmaps.put(wert, bitmap);
+		}
+		return bitmap;
+	}
+
+	private static void loesche(Map<String, BitSet> bitmaps, String wert,
+			int slot) {
+
+		final BitSet bitmap = bitmaps.get(wert);
+		if (bitmap != null) {
+			bitmap.clear(slot);
+			if (bitmap.isEmpty()) {
+				bitmaps.remove(wert);
+			}
+		}
+	}
+
+	private static String klein(String wert) {
+		return wert == null ? "" : wert.toLowerCase();
+	}
+
+	private static boolean istGesetzt(String wert) {
+		return wert != null && !wert.isEmpty();
+	}
+
+	// /////////////////////////////////////////////////////////////////////
+	// INNER CLASSES
+
+	/*
+	 * Die Slots eines Produkts als kleines int-Array: ein Produkt hat nur
+	 * wenige Varianten, ein BitSet wuerde bis zum hoechsten Slot wachsen
+	 */
+	private static class ProduktEintrag {
+		private String hersteller;
+		private int[] slots = new int[2];
+		private int anzahlSlots = 0;
+
+		ProduktEintrag(String hersteller) {
+			this.hersteller = hersteller;
+		}
+
+		void fuegeHinzu(int slot) {
+			if (anzahlSlots == slots.length) {
+				slots = Arrays.copyOf(slots, slots.length * 2);
+			}
+			slots[anzahlSlots++] = slot;
+		}
+
+		void entferne(int slot) {
+			for (int i = 0; i < anzahlSlots; i++) {
+				if (slots[i] == slot) {
+					slots[i] = slots[--anzahlSlots];
+					return;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package de.shop.produktverwaltung.service.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Auswahl der besten k Treffer einer bewerteten Suche ueber einen Min-Heap
+ * der Groesse k, ohne alle Treffer zu sortieren
+ */
+public final class Rangliste {
+
+	private static final Comparator<Map.Entry<Integer, Double>> SCHLECHTER_ZUERST = new Comparator<Map.Entry<Integer, Double>>() {
+		@Override
+		public int compare(Map.Entry<Integer, Double> a,
+				Map.Entry<Integer, Double> b) {
+			final int vergleich = Double.compare(a.getValue(), b.getValue());
+			return vergleich != 0 ? vergleich : b.getKey().compareTo(a.getKey());
+		}
+	};
+
+	private Rangliste() {
+	}
+
+	/**
+	 * @param scores
+	 *            Bewertung pro ID
+	 * @param max
+	 *            Maximale Anzahl Treffer
+	 * @return IDs absteigend nach Bewertung, bei Gleichstand die kleinere ID
+	 *         zuerst
+	 */
+	public static List<Integer> beste(Map<Integer, Double> scores, int max) {
+
+		final PriorityQueue<Map.Entry<Integer, Double>> heap = new PriorityQueue<>(
+				max + 1, SCHLECHTER_ZUERST);
+		for (Map.Entry<Integer, Double> e : scores.entrySet()) {
+			heap.add(e);
+			if (heap.size() > max) {
+				heap.poll();
+			}
+		}
+
+		final List<Integer> result = new ArrayList<>(heap.size());
+		while (!heap.isEmpty()) {
+			result.add(heap.poll().getKey());
+		}
+		Collections.reverse(result);
+		return result;
+	}
+}
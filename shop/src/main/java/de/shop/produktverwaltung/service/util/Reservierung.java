@@ -0,0 +1,38 @@
+package de.shop.produktverwaltung.service.util;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Im {@link Lagerbestand} reservierte Mengen einer Bestellung. Eine
+ * Reservierung wird genau einmal bestaetigt oder freigegeben.
+ */
+public class Reservierung {
+
+	private final Map<Integer, Integer> mengeByProduktdatenId;
+
+	private final AtomicBoolean offen = new AtomicBoolean(true);
+
+	Reservierung(Map<Integer, Integer> mengeByProduktdatenId) {
+		this.mengeByProduktdatenId = Collections
+				.unmodifiableMap(mengeByProduktdatenId);
+	}
+
+	public Map<Integer, Integer> getMengeByProduktdatenId() {
+		return mengeByProduktdatenId;
+	}
+
+	/**
+	 * @return true beim ersten Aufruf, danach false
+	 */
+	boolean abschliessen() {
+		return offen.compareAndSet(true, false);
+	}
+
+	@Override
+	public String toString() {
+		return "Reservierung [mengeByProduktdatenId=" + mengeByProduktdatenId
+				+ ", offen=" + offen + "]";
+	}
+}
@@ -87,6 +87,30 @@ public class SuchFilter implements Serializable {
 		this.beschreibung = beschreibung;
 	}
 
+	/**
+	 * Liefert eine normalisierte Kopie fuer Suche und Cache: Texte werden
+	 * getrimmt und klein geschrieben, null wird wie 0 bzw. "" behandelt.
+	 *
+	 * @return Normalisierter Such-Filter
+	 */
+	public SuchFilter normalisiert() {
+		final SuchFilter result = new SuchFilter();
+		result.anzahl = anzahl == null ? 0 : anzahl;
+		result.preisUnten = preisUnten == null || preisUnten == 0 ? 0.0
+				: preisUnten;
+		result.preisOben = preisOben == null || preisOben == 0 ? 0.0
+				: preisOben;
+		result.farbe = normalisiere(farbe);
+		result.groesse = normalisiere(groesse);
+		result.hersteller = normalisiere(hersteller);
+		result.beschreibung = normalisiere(beschreibung);
+		return result;
+	}
+
+	private static String normalisiere(String text) {
+		return text == null ? "" : text.trim().toLowerCase();
+	}
+
 	@Override
 	public String toString() {
 		return "SuchFilter [anzahl=" + anzahl + ", preisUnten=" + preisUnten
@@ -0,0 +1,133 @@
+package de.shop.produktverwaltung.service.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+/**
+ * Begrenzter LRU-Cache fuer die Detailsuche. Schluessel ist der normalisierte
+ * {@link SuchFilter}, gespeichert werden nur die IDs der Treffer zusammen mit
+ * der {@link KatalogVersion}, unter der sie ermittelt wurden. Eintraege einer
+ * aelteren Version gelten als Fehlschlag und werden entfernt.
+ */
+@ApplicationScoped
+public class SuchFilterCache {
+
+	// /////////////////////////////////////////////////////////////////////
+	// ATTRIBUTES
+
+	private static final int MAX_EINTRAEGE = 1000;
+
+	@Inject
+	private KatalogVersion katalogVersion;
+
+	private final AtomicLong treffer = new AtomicLong();
+	private final AtomicLong fehlschlaege = new AtomicLong();
+	private final AtomicLong verdraengungen = new AtomicLong();
+
+	private final Map<String, Eintrag> eintraege = new LinkedHashMap<String, Eintrag>(
+			16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Eintrag> eldest) {
+			if (size() > MAX_EINTRAEGE) {
+				verdraengungen.incrementAndGet();
+				return true;
+			}
+			return false;
+		}
+	};
+
+	// /////////////////////////////////////////////////////////////////////
+	// METHODS
+
+	/**
+	 * @param filter
+	 *            Normalisierter Such-Filter
+	 * @return IDs der Treffer oder null, falls nicht (mehr) im Cache
+	 */
+	public int[] get(SuchFilter filter) {
+
+		final String schluessel = schluessel(filter);
+		final long version = katalogVersion.get();
+
+		synchronized (eintraege) {
+			final Eintrag eintrag = eintraege.get(schluessel);
+			if (eintrag != null && eintrag.version == version) {
+				treffer.incrementAndGet();
+				return eintrag.ids;
+			}
+			if (eintrag != null) {
+				eintraege.remove(schluessel);
+			}
+		}
+		fehlschlaege.incrementAndGet();
+		return null;
+	}
+
+	/**
+	 * @param filter
+	 *            Normalisierter Such-Filter
+	 * @param version
+	 *            Katalog-Version, die VOR der Suche gelesen wurde
+	 * @param ids
+	 *            IDs der Treffer
+	 */
+	public void put(SuchFilter filter, long version, int[] ids) {
+
+		if (version != katalogVersion.get()) {
+			// Katalog wurde waehrend der Suche geaendert
+			return;
+		}
+		synchronized (eintraege) {
+			eintraege.put(schluessel(filter), new Eintrag(version, ids));
+		}
+	}
+
+	public long getVersion() {
+		return katalogVersion.get();
+	}
+
+	public CacheStatistik getStatistik() {
+		final int anzahl;
+		synchronized (eintraege) {
+			anzahl = eintraege.size();
+		}
+		return new CacheStatistik(treffer.get(), fehlschlaege.get(),
+				verdraengungen.get(), anzahl, katalogVersion.get());
+	}
+
+	/*
+	 * Texte mit vorangestellter Laenge, damit Trennzeichen im Suchtext keine
+	 * Kollisionen erzeugen
+	 */
+	private static String schluessel(SuchFilter filter) {
+		final StringBuilder sb = new StringBuilder();
+		sb.append(filter.getAnzahl()).append('|')
+				.append(filter.getPreisUnten()).append('|')
+				.append(filter.getPreisOben());
+		for (String text : new String[] {filter.getFarbe(),
+				filter.getGroesse(), filter.getHersteller(),
+				filter.getBeschreibung() }) {
+			sb.append('|').append(text.length()).append(':').append(text);
+		}
+		return sb.toString();
+	}
+
+	// /////////////////////////////////////////////////////////////////////
+	// INNER CLASSES
+
+	private static class Eintrag {
+		private final long version;
+		private final int[] ids;
+
+		Eintrag(long version, int[] ids) {
+			this.version = version;
+			this.ids = ids;
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package de.shop.produktverwaltung.service.util;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.codehaus.jackson.annotate.JsonIgnore;
+
+import de.shop.produktverwaltung.domain.Produktdaten;
+
+/**
+ * Treffer einer Detailsuche zusammen mit den Facetten ueber diese Treffer
+ *
+ * @see Facetten
+ */
+public class Suchergebnis implements Serializable {
+
+	private static final long serialVersionUID = 2981764203568174419L;
+
+	private final List<Produktdaten> produktdaten = new ArrayList<>();
+
+	private final Facetten facetten = new Facetten();
+
+	/**
+	 * Fuegt einen Treffer hinzu und zaehlt ihn in den Facetten
+	 *
+	 * @param treffer
+	 *            Passende Produktdaten
+	 */
+	public void add(Produktdaten treffer) {
+		produktdaten.add(treffer);
+		facetten.zaehle(treffer);
+	}
+
+	@JsonIgnore
+	public boolean isEmpty() {
+		return produktdaten.isEmpty();
+	}
+
+	public List<Produktdaten> getProduktdaten() {
+		return produktdaten;
+	}
+
+	public Facetten getFacetten() {
+		return facetten;
+	}
+
+	@Override
+	public String toString() {
+		return "Suchergebnis [produktdaten=" + produktdaten.size()
+				+ ", facetten=" + facetten + "]";
+	}
+}
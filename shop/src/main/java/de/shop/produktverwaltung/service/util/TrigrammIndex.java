@@ -0,0 +1,296 @@
+package de.shop.produktverwaltung.service.util;
+
+import static java.util.logging.Level.INFO;
+import static javax.enterprise.event.TransactionPhase.AFTER_SUCCESS;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Logger;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+
+import de.shop.produktverwaltung.domain.KatalogAenderung;
+import de.shop.produktverwaltung.domain.Produkt;
+
+/**
+ * Fehlertolerante Suche ueber Hersteller und Beschreibung. Hersteller werden
+ * als Ganzes, Beschreibungen wortweise in {@link Trigramme} zerlegt. Damit
+ * lassen sich zu einem vertippten Suchtext "Meinten Sie ...?"-Vorschlaege und
+ * unscharf passende Produkte finden.
+ *
+ * Der Index wird beim Start aufgebaut (siehe KatalogIndexLoader) und ueber
+ * {@link KatalogAenderung} nach jedem erfolgreichen Commit aktualisiert.
+ */
+@ApplicationScoped
+public class TrigrammIndex {
+
+	// /////////////////////////////////////////////////////////////////////
+	// ATTRIBUTES
+
+	private static final Logger LOGGER = Logger.getLogger(MethodHandles
+			.lookup().lookupClass().getName());
+
+	/**
+	 * Untergrenze fuer den Dice-Koeffizienten eines Vorschlags
+	 */
+	private static final double MIN_AEHNLICHKEIT = 0.4;
+
+	/**
+	 * Kuerzere Woerter haben zu wenige Trigramme fuer einen sinnvollen
+	 * Vergleich
+	 */
+	private static final int MIN_WORTLAENGE = 3;
+
+	public static final String ATTRIBUT_HERSTELLER = "hersteller";
+	public static final String ATTRIBUT_BESCHREIBUNG = "beschreibung";
+
+	private static final Comparator<Aehnlichkeit> AEHNLICHSTE_ZUERST = new Comparator<Aehnlichkeit>() {
+		@Override
+		public int compare(Aehnlichkeit a, Aehnlichkeit b) {
+			final int vergleich = Double.compare(b.getWert(), a.getWert());
+			return vergleich != 0 ? vergleich : a.getBegriff().compareTo(
+					b.getBegriff());
+		}
+	};
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private volatile boolean bereit = false;
+
+	private final Trigramme hersteller = new Trigramme();
+
+	private final Trigramme woerter = new Trigramme();
+
+	// Bisherige Werte, um bei Aenderungen die alten Begriffe auszutragen
+	private final Map<Integer, Produktwerte> werteByProduktId = new HashMap<>();
+
+	// /////////////////////////////////////////////////////////////////////
+	// METHODS
+
+	public void aufbauen(List<Produkt> alleProdukte) {
+
+		lock.writeLock().lock();
+		try {
+			hersteller.leeren();
+			woerter.leeren();
+			werteByProduktId.clear();
+			for (Produkt produkt : alleProdukte) {
+				eintragen(produkt);
+			}
+			bereit = true;
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+
+		LOGGER.log(INFO, "Trigramm-Index fuer {0} Produkte aufgebaut",
+				alleProdukte.size());
+	}
+
+	public boolean isBereit() {
+		return bereit;
+	}
+
+	/**
+	 * "Meinten Sie ...?": Hersteller, die dem ganzen Suchtext aehneln, und
+	 * Woerter aus Beschreibungen, die einem unbekannten Wort des Suchtexts
+	 * aehneln
+	 *
+	 * @param suchtext
+	 *            Eingabe des Kunden, ggf. mit Tippfehlern
+	 * @param max
+	 *            Maximale Anzahl Vorschlaege
+	 * @return Vorschlaege, die aehnlichsten zuerst
+	 */
+	public List<Aehnlichkeit> meintenSie(String suchtext, int max) {
+
+		if (suchtext == null || suchtext.trim().isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		final List<Aehnlichkeit> result = new ArrayList<>();
+		lock.readLock().lock();
+		try {
+			if (!hersteller.enthaelt(suchtext)) {
+				for (Map.Entry<String, Double> e : hersteller.aehnliche(
+						suchtext, MIN_AEHNLICHKEIT).entrySet()) {
+					result.add(new Aehnlichkeit(hersteller.getAnzeige(e
+							.getKey()), ATTRIBUT_HERSTELLER, e.getValue()));
+				}
+			}
+
+			final Map<String, Double> besteWoerter = new HashMap<>();
+			for (String wort : woerter(suchtext)) {
+				if (woerter.enthaelt(wort)) {
+					// richtig geschrieben
+					continue;
+				}
+				for (Map.Entry<String, Double> e : woerter.aehnliche(wort,
+						MIN_AEHNLICHKEIT).entrySet()) {
+					final Double bisher = besteWoerter.get(e.getKey());
+					if (bisher == null || bisher < e.getValue()) {
+						besteWoerter.put(e.getKey(), e.getValue());
+					}
+				}
+			}
+			for (Map.Entry<String, Double> e : besteWoerter.entrySet()) {
+				result.add(new Aehnlichkeit(woerter.getAnzeige(e.getKey()),
+						ATTRIBUT_BESCHREIBUNG, e.getValue()));
+			}
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+
+		Collections.sort(result, AEHNLICHSTE_ZUERST);
+		return result.size() <= max ? result : new ArrayList<>(result.subList(
+				0, max));
+	}
+
+	/**
+	 * Unscharfe Suche nach Produkten. Ein Produkt erhaelt die hoehere von
+	 * zwei Bewertungen: die Aehnlichkeit seines Herstellers zum ganzen
+	 * Suchtext oder den Mittelwert ueber alle Suchwoerter, jeweils mit dem
+	 * aehnlichsten Wort seiner Beschreibung.
+	 *
+	 * @param suchtext
+	 *            Eingabe des Kunden, ggf. mit Tippfehlern
+	 * @param max
+	 *            Maximale Anzahl Treffer
+	 * @return IDs der Produkte, die aehnlichsten zuerst
+	 */
+	public List<Integer> suche(String suchtext, int max) {
+
+		if (suchtext == null || suchtext.trim().isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		final Map<Integer, Double> scores = new HashMap<>();
+		lock.readLock().lock();
+		try {
+			for (Map.Entry<String, Double> e : hersteller.aehnliche(suchtext,
+					MIN_AEHNLICHKEIT).entrySet()) {
+				for (Integer produktId : hersteller.getProdukte(e.getKey())) {
+					maximum(scores, produktId, e.getValue());
+				}
+			}
+
+			final Set<String> suchwoerter = woerter(suchtext);
+			final Map<Integer, Double> beschreibung = new HashMap<>();
+			for (String wort : suchwoerter) {
+				final Map<Integer, Double> bestesWort = new HashMap<>();
+				for (Map.Entry<String, Double> e : woerter.aehnliche(wort,
+						MIN_AEHNLICHKEIT).entrySet()) {
+					for (Integer produktId : woerter.getProdukte(e.getKey())) {
+						maximum(bestesWort, produktId, e.getValue());
+					}
+				}
+				for (Map.Entry<Integer, Double> e : bestesWort.entrySet()) {
+					final Double bisher = beschreibung.get(e.getKey());
+					final double anteil = e.getValue() / suchwoerter.size();
+					beschreibung.put(e.getKey(), bisher == null ? anteil
+							: bisher + anteil);
+				}
+			}
+			for (Map.Entry<Integer, Double> e : beschreibung.entrySet()) {
+				maximum(scores, e.getKey(), e.getValue());
+			}
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+
+		return Rangliste.beste(scores, max);
+	}
+
+	/**
+	 * Haelt den Index nach erfolgreichen Schreiboperationen aktuell
+	 */
+	public void onKatalogAenderung(
+			@Observes(during = AFTER_SUCCESS) KatalogAenderung aenderung) {
+
+		final Produkt produkt = aenderung.getProdukt();
+		if (!bereit || produkt == null) {
+			return;
+		}
+
+		lock.writeLock().lock();
+		try {
+			austragen(produkt.getProduktId());
+			if (aenderung.getArt() != KatalogAenderung.Art.GELOESCHT) {
+				eintragen(produkt);
+			}
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void eintragen(Produkt produkt) {
+		final Produktwerte werte = new Produktwerte(produkt);
+		werteByProduktId.put(produkt.getProduktId(), werte);
+		hersteller.hinzufuegen(produkt.getProduktId(), werte.hersteller);
+		for (String wort : woerter(werte.beschreibung)) {
+			woerter.hinzufuegen(produkt.getProduktId(), wort);
+		}
+	}
+
+	private void austragen(Integer produktId) {
+		final Produktwerte werte = werteByProduktId.remove(produktId);
+		if (werte == null) {
+			return;
+		}
+		hersteller.entfernen(produktId, werte.hersteller);
+		for (String wort : woerter(werte.beschreibung)) {
+			woerter.entfernen(produktId, wort);
+		}
+	}
+
+	private static void maximum(Map<Integer, Double> scores, Integer id,
+			double wert) {
+		final Double bisher = scores.get(id);
+		if (bisher == null || bisher < wert) {
+			scores.put(id, wert);
+		}
+	}
+
+	/*
+	 * Woerter mit mindestens MIN_WORTLAENGE Buchstaben oder Ziffern, in der
+	 * Schreibweise des Texts
+	 */
+	private static Set<String> woerter(String text) {
+		final Set<String> result = new LinkedHashSet<>();
+		if (text == null) {
+			return result;
+		}
+		for (String wort : text.split("[^\\p{L}\\p{N}]+")) {
+			if (wort.length() >= MIN_WORTLAENGE) {
+				result.add(wort);
+			}
+		}
+		return result;
+	}
+
+	// /////////////////////////////////////////////////////////////////////
+	// INNER CLASSES
+
+	private static class Produktwerte {
+		private final String hersteller;
+		private final String beschreibung;
+
+		Produktwerte(Produkt produkt) {
+			hersteller = produkt.getHersteller();
+			beschreibung = produkt.getBeschreibung();
+		}
+	}
+}
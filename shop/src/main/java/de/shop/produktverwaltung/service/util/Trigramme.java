@@ -0,0 +1,159 @@
+package de.shop.produktverwaltung.service.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Begriffe eines Attributs, zerlegt in Trigramme (Folgen von drei Zeichen).
+ * Zu einem Suchtext werden alle Begriffe gefunden, die genuegend Trigramme mit
+ * ihm teilen; die Aehnlichkeit ist der Dice-Koeffizient 2|A&B| / (|A|+|B|)
+ * der beiden Trigramm-Mengen. Tippfehler aendern nur wenige Trigramme, so dass
+ * z.B. "surplsu" noch deutlich aehnlich zu "surplus" ist.
+ *
+ * Die Klasse ist nicht threadsicher; die Synchronisation uebernimmt der
+ * {@link TrigrammIndex}.
+ */
+public class Trigramme {
+
+	// /////////////////////////////////////////////////////////////////////
+	// ATTRIBUTES
+
+	// Begriff (klein) -> Produkte, die ihn enthalten
+	private final Map<String, Set<Integer>> produkteByBegriff = new HashMap<>();
+
+	// Begriff (klein) -> Schreibweise wie gespeichert
+	private final Map<String, String> anzeigeByBegriff = new HashMap<>();
+
+	// Trigramm -> Begriffe, die es enthalten
+	private final Map<String, Set<String>> begriffeByTrigramm = new HashMap<>();
+
+	// Begriff (klein) -> Anzahl unterschiedlicher Trigramme
+	private final Map<String, Integer> groesseByBegriff = new HashMap<>();
+
+	// /////////////////////////////////////////////////////////////////////
+	// METHODS
+
+	public void leeren() {
+		produkteByBegriff.clear();
+		anzeigeByBegriff.clear();
+		begriffeByTrigramm.clear();
+		groesseByBegriff.clear();
+	}
+
+	public void hinzufuegen(Integer produktId, String begriff) {
+		if (begriff == null || begriff.trim().isEmpty()) {
+			return;
+		}
+		final String schluessel = begriff.trim().toLowerCase();
+		Set<Integer> produkte = produkteByBegriff.get(schluessel);
+		if (produkte == null) {
+			produkte = new HashSet<>();
+			produkteByBegriff.put(schluessel, produkte);
+			anzeigeByBegriff.put(schluessel, begriff.trim());
+			final Set<String> trigramme = trigramme(schluessel);
+			for (String trigramm : trigramme) {
+				Set<String> begriffe = begriffeByTrigramm.get(trigramm);
+				if (begriffe == null) {
+					begriffe = new HashSet<>();
+					begriffeByTrigramm.put(trigramm, begriffe);
+				}
+				begriffe.add(schluessel);
+			}
+			groesseByBegriff.put(schluessel, trigramme.size());
+		}
+		produkte.add(produktId);
+	}
+
+	public void entfernen(Integer produktId, String begriff) {
+		if (begriff == null || begriff.trim().isEmpty()) {
+			return;
+		}
+		final String schluessel = begriff.trim().toLowerCase();
+		final Set<Integer> produkte = produkteByBegriff.get(schluessel);
+		if (produkte == null || !produkte.remove(produktId)
+				|| !produkte.isEmpty()) {
+			return;
+		}
+
+		// Letztes Vorkommen: Begriff ganz austragen
+		produkteByBegriff.remove(schluessel);
+		anzeigeByBegriff.remove(schluessel);
+		groesseByBegriff.remove(schluessel);
+		for (String trigramm : trigramme(schluessel)) {
+			final Set<String> begriffe = begriffeByTrigramm.get(trigramm);
+			begriffe.remove(schluessel);
+			if (begriffe.isEmpty()) {
+				begriffeByTrigramm.remove(trigramm);
+			}
+		}
+	}
+
+	/**
+	 * @param text
+	 *            Suchtext
+	 * @param minAehnlichkeit
+	 *            Untergrenze fuer den Dice-Koeffizienten (0 bis 1)
+	 * @return Aehnliche Begriffe (klein geschrieben) mit ihrer Aehnlichkeit
+	 */
+	public Map<String, Double> aehnliche(String text, double minAehnlichkeit) {
+
+		final Set<String> gesucht = trigramme(text.trim().toLowerCase());
+		if (gesucht.isEmpty()) {
+			return Collections.emptyMap();
+		}
+
+		final Map<String, Integer> gemeinsam = new HashMap<>();
+		for (String trigramm : gesucht) {
+			final Set<String> begriffe = begriffeByTrigramm.get(trigramm);
+			if (begriffe == null) {
+				continue;
+			}
+			for (String begriff : begriffe) {
+				final Integer bisher = gemeinsam.get(begriff);
+				gemeinsam.put(begriff, bisher == null ? 1 : bisher + 1);
+			}
+		}
+
+		final Map<String, Double> result = new HashMap<>();
+		for (Map.Entry<String, Integer> e : gemeinsam.entrySet()) {
+			final double dice = 2.0 * e.getValue()
+					/ (gesucht.size() + groesseByBegriff.get(e.getKey()));
+			if (dice >= minAehnlichkeit) {
+				result.put(e.getKey(), dice);
+			}
+		}
+		return result;
+	}
+
+	public boolean enthaelt(String begriff) {
+		return produkteByBegriff.containsKey(begriff.trim().toLowerCase());
+	}
+
+	public Set<Integer> getProdukte(String begriff) {
+		final Set<Integer> produkte = produkteByBegriff.get(begriff);
+		return produkte == null ? Collections.<Integer> emptySet() : produkte;
+	}
+
+	public String getAnzeige(String begriff) {
+		return anzeigeByBegriff.get(begriff);
+	}
+
+	/*
+	 * Trigramme mit zwei Leerzeichen vorne und einem hinten, damit Wortanfaenge
+	 * staerker zaehlen (wie pg_trgm)
+	 */
+	private static Set<String> trigramme(String text) {
+		final Set<String> result = new HashSet<>();
+		if (text.isEmpty()) {
+			return result;
+		}
+		final String aufgefuellt = "  " + text + " ";
+		for (int i = 0; i + 3 <= aufgefuellt.length(); i++) {
+			result.add(aufgefuellt.substring(i, i + 3));
+		}
+		return result;
+	}
+}
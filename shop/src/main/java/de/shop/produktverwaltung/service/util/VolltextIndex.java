@@ -0,0 +1,211 @@
+package de.shop.produktverwaltung.service.util;
+
+import static java.util.logging.Level.INFO;
+import static javax.enterprise.event.TransactionPhase.AFTER_SUCCESS;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Logger;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+
+import de.shop.produktverwaltung.domain.KatalogAenderung;
+import de.shop.produktverwaltung.domain.Produkt;
+
+/**
+ * Invertierter Index ueber Beschreibung und Hersteller aller Produkte fuer die
+ * Volltextsuche. Pro Term (siehe {@link Wortstamm}) wird gespeichert, wie oft
+ * er in welchem Produkt vorkommt; die Treffer werden nach BM25 bewertet und
+ * nur die besten k ueber die {@link Rangliste} ausgewaehlt. Der Aufwand haengt damit von
+ * der Anzahl der Produkte ab, die einen Suchterm enthalten, nicht von der
+ * Groesse des Katalogs.
+ *
+ * Der Index wird beim Start aufgebaut (siehe KatalogIndexLoader) und ueber
+ * {@link KatalogAenderung} nach jedem erfolgreichen Commit aktualisiert.
+ */
+@ApplicationScoped
+public class VolltextIndex {
+
+	// /////////////////////////////////////////////////////////////////////
+	// ATTRIBUTES
+
+	private static final Logger LOGGER = Logger.getLogger(MethodHandles
+			.lookup().lookupClass().getName());
+
+	/**
+	 * Saettigung der Termhaeufigkeit
+	 */
+	private static final double K1 = 1.2;
+
+	/**
+	 * Einfluss der Dokumentlaenge
+	 */
+	private static final double B = 0.75;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private volatile boolean bereit = false;
+
+	// Term -> (Produkt-ID -> Haeufigkeit)
+	private final Map<String, Map<Integer, Integer>> postings = new HashMap<>();
+
+	// Anzahl Terme pro Produkt
+	private final Map<Integer, Integer> laengeByProduktId = new HashMap<>();
+
+	// Unterschiedliche Terme pro Produkt, um Aenderungen gezielt auszutragen
+	private final Map<Integer, Set<String>> termeByProduktId = new HashMap<>();
+
+	private long gesamtLaenge = 0;
+
+	// /////////////////////////////////////////////////////////////////////
+	// METHODS
+
+	public void aufbauen(List<Produkt> alleProdukte) {
+
+		lock.writeLock().lock();
+		try {
+			postings.clear();
+			laengeByProduktId.clear();
+			termeByProduktId.clear();
+			gesamtLaenge = 0;
+			for (Produkt produkt : alleProdukte) {
+				hinzufuegen(produkt.getProduktId(), terme(produkt));
+			}
+			bereit = true;
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+
+		LOGGER.log(INFO,
+				"Volltext-Index fuer {0} Produkte mit {1} Termen aufgebaut",
+				new Object[] {alleProdukte.size(), postings.size() });
+	}
+
+	public boolean isBereit() {
+		return bereit;
+	}
+
+	/**
+	 * Sucht die am besten passenden Produkte
+	 *
+	 * @param suchtext
+	 *            Freitext, z.B. "herren hosen"
+	 * @param max
+	 *            Maximale Anzahl Treffer
+	 * @return IDs der Produkte, absteigend nach Relevanz
+	 */
+	public List<Integer> suche(String suchtext, int max) {
+
+		final Set<String> suchterme = new LinkedHashSet<>(
+				Wortstamm.terme(suchtext));
+		if (suchterme.isEmpty() || max <= 0) {
+			return Collections.emptyList();
+		}
+
+		final Map<Integer, Double> scores = new HashMap<>();
+		lock.readLock().lock();
+		try {
+			final int anzahlProdukte = laengeByProduktId.size();
+			if (anzahlProdukte == 0) {
+				return Collections.emptyList();
+			}
+			final double durchschnitt = (double) gesamtLaenge / anzahlProdukte;
+
+			for (String term : suchterme) {
+				final Map<Integer, Integer> treffer = postings.get(term);
+				if (treffer == null) {
+					continue;
+				}
+				final double idf = Math.log(1 + (anzahlProdukte
+						- treffer.size() + 0.5)
+						/ (treffer.size() + 0.5));
+				for (Map.Entry<Integer, Integer> e : treffer.entrySet()) {
+					final int tf = e.getValue();
+					final double norm = K1
+							* (1 - B + B * laengeByProduktId.get(e.getKey())
+									/ durchschnitt);
+					final double score = idf * tf * (K1 + 1) / (tf + norm);
+					final Double bisher = scores.get(e.getKey());
+					scores.put(e.getKey(), bisher == null ? score : bisher
+							+ score);
+				}
+			}
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+
+		return Rangliste.beste(scores, max);
+	}
+
+	/**
+	 * Haelt den Index nach erfolgreichen Schreiboperationen aktuell
+	 */
+	public void onKatalogAenderung(
+			@Observes(during = AFTER_SUCCESS) KatalogAenderung aenderung) {
+
+		final Produkt produkt = aenderung.getProdukt();
+		if (!bereit || produkt == null) {
+			// Produktdaten enthalten keine indizierten Texte
+			return;
+		}
+
+		lock.writeLock().lock();
+		try {
+			entfernen(produkt.getProduktId());
+			if (aenderung.getArt() != KatalogAenderung.Art.GELOESCHT) {
+				hinzufuegen(produkt.getProduktId(), terme(produkt));
+			}
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private static List<String> terme(Produkt produkt) {
+		final List<String> result = Wortstamm.terme(produkt.getBeschreibung());
+		result.addAll(Wortstamm.terme(produkt.getHersteller()));
+		return result;
+	}
+
+	private void hinzufuegen(Integer produktId, List<String> terme) {
+		for (String term : terme) {
+			Map<Integer, Integer> treffer = postings.get(term);
+			if (treffer == null) {
+				treffer = new HashMap<>();
+				postings.put(term, treffer);
+			}
+			final Integer bisher = treffer.get(produktId);
+			treffer.put(produktId, bisher == null ? 1 : bisher + 1);
+		}
+		laengeByProduktId.put(produktId, terme.size());
+		termeByProduktId.put(produktId, new HashSet<>(terme));
+		gesamtLaenge += terme.size();
+	}
+
+	private void entfernen(Integer produktId) {
+		final Integer laenge = laengeByProduktId.remove(produktId);
+		if (laenge == null) {
+			return;
+		}
+		gesamtLaenge -= laenge;
+
+		for (String term : termeByProduktId.remove(produktId)) {
+			final Map<Integer, Integer> treffer = postings.get(term);
+			treffer.remove(produktId);
+			if (treffer.isEmpty()) {
+				postings.remove(term);
+			}
+		}
+	}
+}
@@ -0,0 +1,140 @@
+package de.shop.produktverwaltung.service.util;
+
+import static java.util.logging.Level.INFO;
+import static javax.enterprise.event.TransactionPhase.AFTER_SUCCESS;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+
+import de.shop.produktverwaltung.domain.KatalogAenderung;
+import de.shop.produktverwaltung.domain.Produkt;
+import de.shop.produktverwaltung.domain.Produktdaten;
+
+/**
+ * Vorschlaege fuer die Autovervollstaendigung von Groesse, Hersteller und
+ * Beschreibung. Pro Attribut gibt es einen {@link PraefixIndex}, der beim
+ * Start aufgebaut und ueber {@link KatalogAenderung} inkrementell
+ * aktualisiert wird.
+ */
+@ApplicationScoped
+public class VorschlagIndex {
+
+	// /////////////////////////////////////////////////////////////////////
+	// ATTRIBUTES
+
+	private static final Logger LOGGER = Logger.getLogger(MethodHandles
+			.lookup().lookupClass().getName());
+
+	private final PraefixIndex groessen = new PraefixIndex();
+	private final PraefixIndex hersteller = new PraefixIndex();
+	private final PraefixIndex beschreibungen = new PraefixIndex();
+
+	// Bisherige Werte, um bei Aenderungen das alte Vorkommen abzuziehen
+	private final Map<Integer, String> groesseByProduktdatenId = new ConcurrentHashMap<>();
+	private final Map<Integer, Produktwerte> werteByProduktId = new ConcurrentHashMap<>();
+
+	private volatile boolean bereit = false;
+
+	// /////////////////////////////////////////////////////////////////////
+	// METHODS
+
+	public synchronized void aufbauen(List<Produkt> alleProdukte,
+			List<Produktdaten> alleProduktdaten) {
+
+		groesseByProduktdatenId.clear();
+		werteByProduktId.clear();
+
+		final List<String> alleHersteller = new ArrayList<>(alleProdukte.size());
+		final List<String> alleBeschreibungen = new ArrayList<>(
+				alleProdukte.size());
+		for (Produkt produkt : alleProdukte) {
+			werteByProduktId.put(produkt.getProduktId(), new Produktwerte(
+					produkt));
+			alleHersteller.add(produkt.getHersteller());
+			alleBeschreibungen.add(produkt.getBeschreibung());
+		}
+
+		final List<String> alleGroessen = new ArrayList<>(
+				alleProduktdaten.size());
+		for (Produktdaten produktdaten : alleProduktdaten) {
+			if (produktdaten.getGroesse() != null) {
+				groesseByProduktdatenId.put(produktdaten.getProduktdatenID(),
+						produktdaten.getGroesse());
+				alleGroessen.add(produktdaten.getGroesse());
+			}
+		}
+
+		hersteller.setzeAlle(alleHersteller);
+		beschreibungen.setzeAlle(alleBeschreibungen);
+		groessen.setzeAlle(alleGroessen);
+		bereit = true;
+
+		LOGGER.log(INFO, "Vorschlag-Index fuer {0} Produkte aufgebaut",
+				alleProdukte.size());
+	}
+
+	public boolean isBereit() {
+		return bereit;
+	}
+
+	public List<String> findGroessen(String praefix, int max) {
+		return groessen.vorschlaege(praefix, max);
+	}
+
+	public List<String> findHersteller(String praefix, int max) {
+		return hersteller.vorschlaege(praefix, max);
+	}
+
+	public List<String> findBeschreibungen(String praefix, int max) {
+		return beschreibungen.vorschlaege(praefix, max);
+	}
+
+	public synchronized void onKatalogAenderung(
+			@Observes(during = AFTER_SUCCESS) KatalogAenderung aenderung) {
+
+		if (!bereit) {
+			return;
+		}
+
+		final boolean geloescht = aenderung.getArt() == KatalogAenderung.Art.GELOESCHT;
+
+		final Produkt produkt = aenderung.getProdukt();
+		if (produkt != null) {
+			final Produktwerte alt = geloescht ? werteByProduktId
+					.remove(produkt.getProduktId()) : werteByProduktId.put(
+					produkt.getProduktId(), new Produktwerte(produkt));
+			hersteller.ersetze(alt == null ? null : alt.hersteller,
+					geloescht ? null : produkt.getHersteller());
+			beschreibungen.ersetze(alt == null ? null : alt.beschreibung,
+					geloescht ? null : produkt.getBeschreibung());
+			return;
+		}
+
+		final Produktdaten produktdaten = aenderung.getProduktdaten();
+		final Integer id = produktdaten.getProduktdatenID();
+		final String alt = geloescht || produktdaten.getGroesse() == null ? groesseByProduktdatenId
+				.remove(id) : groesseByProduktdatenId.put(id,
+				produktdaten.getGroesse());
+		groessen.ersetze(alt, geloescht ? null : produktdaten.getGroesse());
+	}
+
+	// /////////////////////////////////////////////////////////////////////
+	// INNER CLASSES
+
+	private static class Produktwerte {
+		private final String hersteller;
+		private final String beschreibung;
+
+		Produktwerte(Produkt produkt) {
+			hersteller = produkt.getHersteller();
+			beschreibung = produkt.getBeschreibung();
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package de.shop.produktverwaltung.service.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Bidirektionale Zuordnung zwischen wenigen Bezeichnungen und ihren Codes
+ * (Dictionary Encoding). Lesen und Eintragen ist ohne Sperren moeglich.
+ *
+ * @param <C>
+ *            Typ der Codes, d.h. der IDs in der Nachschlagetabelle
+ */
+public class Woerterbuch<C> {
+
+	// /////////////////////////////////////////////////////////////////////
+	// ATTRIBUTES
+
+	private final ConcurrentMap<String, C> codeByWert = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<C, String> wertByCode = new ConcurrentHashMap<>();
+
+	// /////////////////////////////////////////////////////////////////////
+	// METHODS
+
+	/**
+	 * @return Code der Bezeichnung (Gross-/Kleinschreibung wird
+	 *         unterschieden) oder null
+	 */
+	public C getCode(String wert) {
+		return wert == null ? null : codeByWert.get(wert);
+	}
+
+	/**
+	 * @return Bezeichnung zum Code oder null
+	 */
+	public String getWert(C code) {
+		return code == null ? null : wertByCode.get(code);
+	}
+
+	public void setze(C code, String wert) {
+		wertByCode.put(code, wert);
+		codeByWert.put(wert, code);
+	}
+
+	/**
+	 * Loest einen Suchbegriff einmal pro Suche in Codes auf, damit die
+	 * Datenbank nur noch Zahlen vergleicht
+	 *
+	 * @param suchbegriff
+	 *            Suchbegriff, ohne Beachtung der Gross-/Kleinschreibung
+	 * @param teilwort
+	 *            true: Bezeichnung enthaelt den Suchbegriff, false:
+	 *            Bezeichnung ist gleich dem Suchbegriff
+	 * @return Codes der passenden Bezeichnungen, ggf. leer
+	 */
+	public List<C> findCodes(String suchbegriff, boolean teilwort) {
+		final String gesucht = suchbegriff.toLowerCase();
+		final List<C> result = new ArrayList<>();
+		for (Map.Entry<C, String> e : wertByCode.entrySet()) {
+			final String wert = e.getValue().toLowerCase();
+			if (teilwort ? wert.contains(gesucht) : wert.equals(gesucht)) {
+				result.add(e.getKey());
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return Alle Bezeichnungen in beliebiger Reihenfolge
+	 */
+	public Collection<String> getWerte() {
+		return wertByCode.values();
+	}
+
+	public int size() {
+		return wertByCode.size();
+	}
+}
@@ -0,0 +1,128 @@
+package de.shop.produktverwaltung.service.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Zerlegt Texte in Suchterme fuer den {@link VolltextIndex}. Ein Text wird an
+ * allen Zeichen ausser Buchstaben und Ziffern getrennt, Stoppwoerter entfallen
+ * und jedes Wort wird auf seinen Stamm reduziert. Die Stammbildung folgt
+ * CISTEM (Weissweiler/Fraser 2017), so dass z.B. "Hose", "Hosen" und "Herren"
+ * bzw. "Herr" jeweils auf denselben Term fallen.
+ */
+public final class Wortstamm {
+
+	// /////////////////////////////////////////////////////////////////////
+	// ATTRIBUTES
+
+	private static final int MIN_LAENGE = 2;
+
+	private static final Set<String> STOPPWOERTER = new HashSet<>(
+			Arrays.asList("und", "oder", "der", "die", "das", "den", "dem",
+					"des", "ein", "eine", "einer", "mit", "fuer", "f\u00fcr",
+					"von", "im", "in", "auf", "the", "of", "and", "for",
+					"with"));
+
+	// /////////////////////////////////////////////////////////////////////
+	// CONSTRUCTOR
+
+	private Wortstamm() {
+	}
+
+	// /////////////////////////////////////////////////////////////////////
+	// METHODS
+
+	/**
+	 * @param text
+	 *            Beliebiger Text, z.B. eine Beschreibung oder Suchanfrage
+	 * @return Stammformen aller Woerter in der Reihenfolge des Textes
+	 */
+	public static List<String> terme(String text) {
+
+		final List<String> result = new ArrayList<>();
+		if (text == null) {
+			return result;
+		}
+
+		final String klein = text.toLowerCase(Locale.GERMAN);
+		int anfang = -1;
+		for (int i = 0; i <= klein.length(); i++) {
+			final boolean wortzeichen = i < klein.length()
+					&& Character.isLetterOrDigit(klein.charAt(i));
+			if (wortzeichen && anfang < 0) {
+				anfang = i;
+			}
+			else if (!wortzeichen && anfang >= 0) {
+				final String wort = klein.substring(anfang, i);
+				anfang = -1;
+				if (wort.length() >= MIN_LAENGE
+						&& !STOPPWOERTER.contains(wort)) {
+					result.add(stamm(wort));
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Reduziert ein klein geschriebenes Wort auf seinen Stamm
+	 *
+	 * @param wort
+	 *            Ein einzelnes Wort
+	 * @return Stammform
+	 */
+	public static String stamm(String wort) {
+
+		String w = wort.replace('\u00fc', 'u').replace('\u00f6', 'o')
+				.replace('\u00e4', 'a').replace("\u00df", "ss");
+		if (w.length() >= 6 && w.startsWith("ge")) {
+			w = w.substring(2);
+		}
+
+		// Mehrbuchstabige Laute und Doppelbuchstaben voruebergehend ersetzen,
+		// damit sie beim Abschneiden der Endungen erhalten bleiben
+		w = w.replace("sch", "$").replace("ei", "%").replace("ie", "&");
+		final StringBuilder sb = new StringBuilder(w.length());
+		for (int i = 0; i < w.length(); i++) {
+			final char c = w.charAt(i);
+			sb.append(c);
+			if (i + 1 < w.length() && w.charAt(i + 1) == c) {
+				sb.append('*');
+				i++;
+			}
+		}
+
+		// Endungen abschneiden
+		while (sb.length() > 3) {
+			final int laenge = sb.length();
+			if (laenge > 5) {
+				final String ende = sb.substring(laenge - 2);
+				if ("em".equals(ende) || "er".equals(ende)
+						|| "nd".equals(ende)) {
+					sb.setLength(laenge - 2);
+					continue;
+				}
+			}
+			final char letztes = sb.charAt(laenge - 1);
+			if (letztes == 't' || letztes == 'e' || letztes == 's'
+					|| letztes == 'n') {
+				sb.setLength(laenge - 1);
+				continue;
+			}
+			break;
+		}
+
+		// Ersetzungen rueckgaengig machen
+		for (int i = 1; i < sb.length(); i++) {
+			if (sb.charAt(i) == '*') {
+				sb.setCharAt(i, sb.charAt(i - 1));
+			}
+		}
+		return sb.toString().replace("&", "ie").replace("%", "ei")
+				.replace("$", "sch");
+	}
+}
@@ -0,0 +1,140 @@
+package de.shop.util;
+
+import static javax.persistence.criteria.JoinType.LEFT;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.FetchParent;
+import javax.persistence.criteria.Root;
+import javax.persistence.metamodel.SingularAttribute;
+
+import de.shop.util.exceptions.InvalidAbrufplanException;
+
+/**
+ * Abrufplan einer REST-Anfrage, z.B. ?expand=bestellposten,kunde: die
+ * angeforderten Beziehungen werden zusammen mit der Entity in einer einzigen
+ * Query per JOIN FETCH gelesen und in die Antwort eingebettet. Alle anderen
+ * Beziehungen laedt Hibernate bei Bedarf blockweise nach
+ * (hibernate.default_batch_fetch_size in persistence.xml), so dass jede Form
+ * einer Anfrage mit einer festen Anzahl SQL-Anweisungen auskommt.
+ *
+ * @see Erweitert
+ */
+public final class Abrufplan {
+
+	// /////////////////////////////////////////////////////////////////////
+	// ATTRIBUTES
+
+	/**
+	 * Nur die Entity selbst, z.B. ohne ?expand=
+	 */
+	public static final Abrufplan KEINER = new Abrufplan(new TreeSet<String>());
+
+	// Sortiert, damit "a" immer vor "a.b" kommt
+	private final SortedSet<String> pfade;
+
+	// /////////////////////////////////////////////////////////////////////
+	// METHODS
+
+	private Abrufplan(SortedSet<String> pfade) {
+		this.pfade = pfade;
+	}
+
+	/**
+	 * @param expand
+	 *            Kommaseparierte Pfade, z.B. "bestellposten.produktdaten,kunde"
+	 * @param erlaubt
+	 *            Pfade, die die Resource unterstuetzt
+	 * @throws InvalidAbrufplanException
+	 *             bei einem nicht erlaubten Pfad
+	 */
+	public static Abrufplan lese(String expand, String... erlaubt) {
+		if (expand == null || expand.trim().isEmpty()) {
+			return KEINER;
+		}
+
+		final List<String> erlaubteListe = Arrays.asList(erlaubt);
+		final SortedSet<String> pfade = new TreeSet<>();
+		for (String teil : expand.split(",")) {
+			final String pfad = teil.trim();
+			if (!erlaubteListe.contains(pfad)) {
+				throw new InvalidAbrufplanException(expand, erlaubteListe);
+			}
+			// Fuer "a.b" muss auch "a" geholt werden
+			for (int punkt = pfad.indexOf('.'); punkt > 0; punkt = pfad
+					.indexOf('.', punkt + 1)) {
+				pfade.add(pfad.substring(0, punkt));
+			}
+			pfade.add(pfad);
+		}
+		return new Abrufplan(pfade);
+	}
+
+	public boolean enthaelt(String pfad) {
+		return pfade.contains(pfad);
+	}
+
+	public boolean isLeer() {
+		return pfade.isEmpty();
+	}
+
+	/**
+	 * @return Eindeutige Darstellung des Plans, z.B. fuer ETags
+	 */
+	public String getSchluessel() {
+		final StringBuilder sb = new StringBuilder();
+		for (String pfad : pfade) {
+			if (sb.length() > 0) {
+				sb.append(',');
+			}
+			sb.append(pfad);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Sucht eine Entity samt den Beziehungen dieses Plans mit einer Query.
+	 * Ohne Beziehungen wird find() verwendet, um den 2nd-Level-Cache zu
+	 * nutzen.
+	 *
+	 * @return Gefundene Entity oder null
+	 */
+	public <T> T findeById(EntityManager em, Class<T> klasse,
+			SingularAttribute<? super T, ?> idAttribut, Object id) {
+
+		if (isLeer()) {
+			return em.find(klasse, id);
+		}
+
+		final CriteriaBuilder builder = em.getCriteriaBuilder();
+		final CriteriaQuery<T> query = builder.createQuery(klasse);
+		final Root<T> root = query.from(klasse);
+
+		// LEFT JOIN FETCH je Pfad, verschachtelt ueber den Elternpfad
+		final Map<String, FetchParent<?, ?>> fetches = new HashMap<>();
+		for (String pfad : pfade) {
+			final int punkt = pfad.lastIndexOf('.');
+			final FetchParent<?, ?> eltern = punkt < 0 ? root : fetches
+					.get(pfad.substring(0, punkt));
+			fetches.put(pfad, eltern.fetch(pfad.substring(punkt + 1), LEFT));
+		}
+
+		query.select(root).distinct(true)
+				.where(builder.equal(root.get(idAttribut), id));
+		final List<T> result = em.createQuery(query).getResultList();
+		return result.isEmpty() ? null : result.get(0);
+	}
+
+	@Override
+	public String toString() {
+		return "Abrufplan [" + getSchluessel() + "]";
+	}
+}
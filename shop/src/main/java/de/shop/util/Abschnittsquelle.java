@@ -0,0 +1,31 @@
+package de.shop.util;
+
+import java.util.List;
+
+/**
+ * Liefert die Daten fuer den {@link JsonStreamer} abschnittsweise per Keyset:
+ * jeder Abschnitt beginnt hinter der letzten ID des vorherigen Abschnitts.
+ *
+ * @param <T>
+ *            Typ der Elemente
+ */
+public abstract class Abschnittsquelle<T> {
+
+	/**
+	 * @param nachId
+	 *            Letzte ID des vorherigen Abschnitts bzw. 0
+	 * @param anzahl
+	 *            Maximale Anzahl Elemente des Abschnitts
+	 * @return Elemente mit ID > nachId, aufsteigend nach ID
+	 */
+	public abstract List<T> lade(Integer nachId, int anzahl);
+
+	public abstract Integer getId(T element);
+
+	/**
+	 * Wird vor dem Schreiben jedes Elements aufgerufen, z.B. um URIs zu
+	 * setzen
+	 */
+	public void vorbereiten(T element) {
+	}
+}
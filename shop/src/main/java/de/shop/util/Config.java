@@ -33,6 +33,10 @@ public class Config implements Serializable {
 
 	@Resource(name = "locales")
 	private String localesStr;
+
+	// Neue Bestellungen gruppenweise committen (siehe BestellungEingang)
+	@Resource(name = "gruppenCommit")
+	private Boolean gruppenCommit = Boolean.FALSE;
 	
 	private List<Locale> locales;
 	private Locale defaultLocale = Locale.GERMAN;
@@ -106,10 +110,15 @@ public class Config implements Serializable {
 		this.empfaengerName = empfaengerName;
 	}
 
+	public boolean isGruppenCommit() {
+		return Boolean.TRUE.equals(gruppenCommit);
+	}
+
 	@Override
 	public String toString() {
 		return "Config [locales=" + locales + ", defaultLocale=" + defaultLocale + ", absenderMail=" + absenderMail
 				+ ", absenderName=" + absenderName + ", empfaengerMail="
-				+ empfaengerMail + ", empfaengerName=" + empfaengerName + "]";
+				+ empfaengerMail + ", empfaengerName=" + empfaengerName
+				+ ", gruppenCommit=" + gruppenCommit + "]";
 	}
 }
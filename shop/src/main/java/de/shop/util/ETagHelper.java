@@ -0,0 +1,40 @@
+package de.shop.util;
+
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
+
+/**
+ * Starke ETags fuer Entities mit JPA-Version: ID und Version aendern sich
+ * gemeinsam genau dann, wenn sich die Entity aendert. Zu einem If-None-Match
+ * genuegt deshalb die Version aus einer Projektion, um mit 304 zu antworten,
+ * ohne die Entity zu laden.
+ */
+public final class ETagHelper {
+
+	private ETagHelper() {
+	}
+
+	public static EntityTag erzeuge(Integer id, int version) {
+		return new EntityTag(id + "-" + version);
+	}
+
+	/**
+	 * @return Response mit 304, falls If-None-Match zur aktuellen Version
+	 *         passt, sonst null
+	 */
+	public static Response nichtGeaendert(Request request, Integer id,
+			int version) {
+		final ResponseBuilder builder = request
+				.evaluatePreconditions(erzeuge(id, version));
+		return builder == null ? null : builder.build();
+	}
+
+	/**
+	 * @return Response mit 200, der Entity und ihrem ETag
+	 */
+	public static Response mitETag(Object entity, Integer id, int version) {
+		return Response.ok(entity).tag(erzeuge(id, version)).build();
+	}
+}
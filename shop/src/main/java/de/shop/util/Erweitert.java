@@ -0,0 +1,52 @@
+package de.shop.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.codehaus.jackson.annotate.JsonAnyGetter;
+import org.codehaus.jackson.annotate.JsonUnwrapped;
+
+/**
+ * JSON-Darstellung einer Entity mit eingebetteten Beziehungen gemaess
+ * {@link Abrufplan}. Die Attribute der Entity bleiben auf oberster Ebene, die
+ * Beziehungen kommen unter ihrem Namen hinzu.
+ *
+ * @param <T>
+ *            Klasse der Entity
+ */
+public class Erweitert<T> {
+
+	private final T entity;
+
+	private final Map<String, Object> beziehungen = new LinkedHashMap<>();
+
+	public Erweitert(T entity) {
+		this.entity = entity;
+	}
+
+	/**
+	 * Bettet eine Beziehung ein
+	 *
+	 * @return Dieses Objekt
+	 */
+	public Erweitert<T> mit(String name, Object wert) {
+		beziehungen.put(name, wert);
+		return this;
+	}
+
+	@JsonUnwrapped
+	public T getEntity() {
+		return entity;
+	}
+
+	@JsonAnyGetter
+	public Map<String, Object> getBeziehungen() {
+		return beziehungen;
+	}
+
+	@Override
+	public String toString() {
+		return "Erweitert [entity=" + entity + ", beziehungen="
+				+ beziehungen.keySet() + "]";
+	}
+}
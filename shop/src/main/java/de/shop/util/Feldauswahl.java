@@ -0,0 +1,132 @@
+package de.shop.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.persistence.Tuple;
+import javax.persistence.TupleElement;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Selection;
+
+import de.shop.util.exceptions.InvalidFeldauswahlException;
+
+/**
+ * Feldauswahl einer REST-Anfrage (Sparse Fieldset), z.B.
+ * ?fields=nachname,vorname: per Tuple-Query werden nur die Spalten dieser
+ * Felder gelesen, und jede Zeile wird als Map mit genau diesen Feldern
+ * geschrieben. Die ID ist immer dabei, damit der Client die Zeile zuordnen
+ * und URIs bilden kann.
+ *
+ * @see Abrufplan
+ */
+public final class Feldauswahl {
+
+	// /////////////////////////////////////////////////////////////////////
+	// ATTRIBUTES
+
+	/**
+	 * Alle Felder, d.h. die Entity wie bisher, z.B. ohne ?fields=
+	 */
+	public static final Feldauswahl ALLE = new Feldauswahl(
+			Collections.<String> emptySet());
+
+	// In der Reihenfolge der Anfrage, die ID zuerst
+	private final Set<String> felder;
+
+	// /////////////////////////////////////////////////////////////////////
+	// METHODS
+
+	private Feldauswahl(Set<String> felder) {
+		this.felder = felder;
+	}
+
+	/**
+	 * @param fields
+	 *            Kommaseparierte Felder, z.B. "nachname,vorname"
+	 * @param id
+	 *            Feld der ID, wird immer ausgewaehlt
+	 * @param erlaubt
+	 *            Weitere Felder, die die Resource unterstuetzt
+	 * @throws InvalidFeldauswahlException
+	 *             bei einem nicht erlaubten Feld
+	 */
+	public static Feldauswahl lese(String fields, String id, String... erlaubt) {
+		if (fields == null || fields.trim().isEmpty()) {
+			return ALLE;
+		}
+
+		final List<String> erlaubteListe = new ArrayList<>();
+		erlaubteListe.add(id);
+		erlaubteListe.addAll(Arrays.asList(erlaubt));
+
+		final Set<String> felder = new LinkedHashSet<>();
+		felder.add(id);
+		for (String teil : fields.split(",")) {
+			final String feld = teil.trim();
+			if (!erlaubteListe.contains(feld)) {
+				throw new InvalidFeldauswahlException(fields, erlaubteListe);
+			}
+			felder.add(feld);
+		}
+		return new Feldauswahl(Collections.unmodifiableSet(felder));
+	}
+
+	public boolean isAlle() {
+		return felder.isEmpty();
+	}
+
+	public boolean enthaelt(String feld) {
+		return felder.contains(feld);
+	}
+
+	public Set<String> getFelder() {
+		return felder;
+	}
+
+	/**
+	 * Selektiert die Spalten der ausgewaehlten Felder, jeweils mit dem
+	 * Feldnamen als Alias. Felder ohne Spalte (z.B. URIs) ergaenzt der
+	 * Aufrufer nach der Query.
+	 *
+	 * @param spalten
+	 *            Spalte (Path) je Feld
+	 */
+	public void selektiere(CriteriaQuery<Tuple> query,
+			Map<String, ? extends Selection<?>> spalten) {
+		final List<Selection<?>> selections = new ArrayList<>();
+		for (String feld : felder) {
+			final Selection<?> spalte = spalten.get(feld);
+			if (spalte != null) {
+				selections.add(spalte.alias(feld));
+			}
+		}
+		query.multiselect(selections);
+	}
+
+	/**
+	 * @return Je Zeile eine Map Feld -> Wert in der Reihenfolge der Anfrage
+	 */
+	public List<Map<String, Object>> alsMaps(List<Tuple> zeilen) {
+		final List<Map<String, Object>> result = new ArrayList<>(
+				zeilen.size());
+		for (Tuple zeile : zeilen) {
+			final Map<String, Object> map = new LinkedHashMap<>();
+			for (TupleElement<?> element : zeile.getElements()) {
+				map.put(element.getAlias(), zeile.get(element));
+			}
+			result.add(map);
+		}
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return "Feldauswahl " + felder;
+	}
+}
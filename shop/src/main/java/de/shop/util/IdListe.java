@@ -0,0 +1,56 @@
+package de.shop.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.shop.util.exceptions.InvalidIdListeException;
+
+/**
+ * Liest eine kommaseparierte Liste von IDs aus einem Query-Parameter, z.B.
+ * ?ids=401,402,405 fuer Mehrfachabfragen.
+ *
+ * @see Mehrfachsuche
+ */
+public final class IdListe {
+
+	/**
+	 * Maximale Anzahl IDs pro Anfrage
+	 */
+	public static final int MAX_IDS = Seite.MAX_GROESSE;
+
+	private IdListe() {
+	}
+
+	/**
+	 * @return IDs in der Reihenfolge der Anfrage
+	 * @throws InvalidIdListeException
+	 *             falls die Liste leer oder zu lang ist oder etwas anderes als
+	 *             positive Zahlen enthaelt
+	 */
+	public static List<Integer> lese(String ids) {
+		if (ids == null || ids.trim().isEmpty()) {
+			throw new InvalidIdListeException(ids);
+		}
+
+		final String[] teile = ids.split(",");
+		if (teile.length > MAX_IDS) {
+			throw new InvalidIdListeException(ids);
+		}
+
+		final List<Integer> result = new ArrayList<>(teile.length);
+		for (String teil : teile) {
+			final Integer id;
+			try {
+				id = Integer.valueOf(teil.trim());
+			}
+			catch (NumberFormatException e) {
+				throw new InvalidIdListeException(ids, e);
+			}
+			if (id <= 0) {
+				throw new InvalidIdListeException(ids);
+			}
+			result.add(id);
+		}
+		return result;
+	}
+}
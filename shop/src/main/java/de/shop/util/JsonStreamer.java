@@ -0,0 +1,145 @@
+package de.shop.util;
+
+import static java.util.logging.Level.FINER;
+import static javax.transaction.Status.STATUS_NO_TRANSACTION;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.lang.invoke.MethodHandles;
+import java.util.List;
+import java.util.logging.Logger;
+
+import javax.annotation.Resource;
+import javax.enterprise.context.ApplicationScoped;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.transaction.NotSupportedException;
+import javax.transaction.SystemException;
+import javax.transaction.UserTransaction;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.codehaus.jackson.JsonEncoding;
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.map.ObjectMapper;
+
+/**
+ * Schreibt grosse Ergebnismengen als JSON-Array direkt in den Response, statt
+ * sie vorher als Liste zu laden. Die Daten werden abschnittsweise gelesen;
+ * nach jedem Abschnitt wird der Persistenzkontext geleert, so dass der
+ * Speicherbedarf nicht von der Groesse des Ergebnisses abhaengt.
+ *
+ * Der Response wird erst nach dem Ende der REST-Methode (und damit nach deren
+ * Transaktion) geschrieben. Fuer das Lesen wird deshalb eine eigene
+ * Transaktion gestartet, die am Ende zurueckgesetzt wird, da nichts geaendert
+ * wird.
+ */
+@ApplicationScoped
+public class JsonStreamer implements Serializable {
+
+	// /////////////////////////////////////////////////////////////////////
+	// ATTRIBUTES
+
+	private static final long serialVersionUID = -3705124587725908316L;
+
+	private static final Logger LOGGER = Logger.getLogger(MethodHandles
+			.lookup().lookupClass().getName());
+
+	/**
+	 * Anzahl Zeilen, nach denen der Persistenzkontext geleert wird
+	 */
+	public static final int ABSCHNITT_GROESSE = 100;
+
+	private static final JsonFactory JSON_FACTORY = new ObjectMapper()
+			.getJsonFactory().configure(
+					JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+
+	@PersistenceContext
+	private transient EntityManager em;
+
+	@Resource
+	private transient UserTransaction trans;
+
+	// /////////////////////////////////////////////////////////////////////
+	// METHODS
+
+	/**
+	 * @param quelle
+	 *            Liefert die Elemente abschnittsweise
+	 * @return Entity fuer einen Response, der ein JSON-Array aller Elemente
+	 *         schreibt
+	 */
+	public <T> StreamingOutput streame(final Abschnittsquelle<T> quelle) {
+		return new StreamingOutput() {
+			@Override
+			public void write(OutputStream out) throws IOException {
+				schreibe(quelle, out);
+			}
+		};
+	}
+
+	private <T> void schreibe(Abschnittsquelle<T> quelle, OutputStream out)
+			throws IOException {
+
+		LOGGER.log(FINER, "BEGINN: JSON-Stream");
+
+		final boolean gestartet = beginne();
+		int anzahl = 0;
+		try (JsonGenerator generator = JSON_FACTORY.createJsonGenerator(out,
+				JsonEncoding.UTF8)) {
+
+			generator.writeStartArray();
+			Integer nachId = 0;
+			List<T> abschnitt;
+			do {
+				abschnitt = quelle.lade(nachId, ABSCHNITT_GROESSE);
+				for (T element : abschnitt) {
+					quelle.vorbereiten(element);
+					generator.writeObject(element);
+				}
+				generator.flush();
+
+				if (!abschnitt.isEmpty()) {
+					nachId = quelle.getId(abschnitt.get(abschnitt.size() - 1));
+					anzahl += abschnitt.size();
+				}
+				if (gestartet) {
+					// Geschriebene Entities freigeben
+					em.clear();
+				}
+			} while (abschnitt.size() == ABSCHNITT_GROESSE);
+			generator.writeEndArray();
+		}
+		finally {
+			beende(gestartet);
+		}
+
+		LOGGER.log(FINER, "ENDE: JSON-Stream mit {0} Elementen", anzahl);
+	}
+
+	private boolean beginne() {
+		try {
+			if (trans.getStatus() != STATUS_NO_TRANSACTION) {
+				return false;
+			}
+			trans.begin();
+			return true;
+		}
+		catch (SystemException | NotSupportedException e) {
+			throw new InternalError(e);
+		}
+	}
+
+	private void beende(boolean gestartet) {
+		if (!gestartet) {
+			return;
+		}
+		try {
+			trans.rollback();
+		}
+		catch (SystemException e) {
+			throw new InternalError(e);
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package de.shop.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceUnitUtil;
+
+/**
+ * Laedt mehrere Entities anhand ihrer IDs mit moeglichst wenig Zugriffen auf
+ * die DB: IDs, deren Entity im 2nd-Level-Cache liegt, werden per find()
+ * aus dem Cache gelesen, alle uebrigen mit einer IN-Query pro Block.
+ */
+public final class Mehrfachsuche {
+
+	/**
+	 * Maximale Anzahl Parameter einer IN-Liste (Oracle: 1000)
+	 */
+	public static final int MAX_IN_PARAMETER = 1000;
+
+	private Mehrfachsuche() {
+	}
+
+	/**
+	 * @param em
+	 *            EntityManager der aufrufenden Transaktion
+	 * @param klasse
+	 *            Klasse der Entities
+	 * @param queryName
+	 *            Named Query mit dem Parameter "ids" fuer die IN-Liste
+	 * @param ids
+	 *            IDs, ggf. mit Duplikaten
+	 * @return Gefundene Entities in der Reihenfolge der IDs; fehlende IDs
+	 *         werden uebersprungen
+	 */
+	public static <T> List<T> findeByIds(EntityManager em, Class<T> klasse,
+			String queryName, List<Integer> ids) {
+
+		final Cache cache = em.getEntityManagerFactory().getCache();
+		final Map<Integer, T> byId = new HashMap<>(ids.size() * 2);
+		final Set<Integer> gesehen = new HashSet<>(ids.size() * 2);
+		final List<Integer> fehlend = new ArrayList<>();
+		for (Integer id : ids) {
+			if (!gesehen.add(id)) {
+				continue;
+			}
+			if (cache.contains(klasse, id)) {
+				byId.put(id, em.find(klasse, id));
+			}
+			else {
+				fehlend.add(id);
+			}
+		}
+
+		final PersistenceUnitUtil util = em.getEntityManagerFactory()
+				.getPersistenceUnitUtil();
+		for (int i = 0; i < fehlend.size(); i += MAX_IN_PARAMETER) {
+			final List<Integer> block = fehlend.subList(i,
+					Math.min(i + MAX_IN_PARAMETER, fehlend.size()));
+			for (T entity : em.createNamedQuery(queryName, klasse)
+					.setParameter("ids", block).getResultList()) {
+				byId.put((Integer) util.getIdentifier(entity), entity);
+			}
+		}
+
+		final List<T> results = new ArrayList<>(ids.size());
+		for (Integer id : ids) {
+			final T entity = byId.get(id);
+			if (entity != null) {
+				results.add(entity);
+			}
+		}
+		return results;
+	}
+}
@@ -0,0 +1,63 @@
+package de.shop.util;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Eine Seite einer Liste, die per Keyset-Pagination gelesen wird. Das Token
+ * "weiter" ist fuer den Client undurchsichtig und wird beim naechsten Aufruf
+ * unveraendert zurueckgeschickt; es ist null, wenn keine weitere Seite
+ * existiert.
+ *
+ * @see SeitenToken
+ */
+public class Seite<T> implements Serializable {
+
+	private static final long serialVersionUID = 4307184522318601953L;
+
+	/**
+	 * Standardgroesse einer Seite
+	 */
+	public static final int STANDARD_GROESSE = 20;
+
+	/**
+	 * Obergrenze fuer die Groesse einer Seite
+	 */
+	public static final int MAX_GROESSE = 100;
+
+	private final List<T> inhalt;
+
+	private final String weiter;
+
+	public Seite(List<T> inhalt, String weiter) {
+		this.inhalt = inhalt;
+		this.weiter = weiter;
+	}
+
+	/**
+	 * Begrenzt die gewuenschte Seitengroesse auf den erlaubten Bereich
+	 *
+	 * @param anzahl
+	 *            Gewuenschte Groesse oder null
+	 * @return Groesse zwischen 1 und {@link #MAX_GROESSE}
+	 */
+	public static int begrenze(Integer anzahl) {
+		if (anzahl == null || anzahl <= 0) {
+			return STANDARD_GROESSE;
+		}
+		return Math.min(anzahl, MAX_GROESSE);
+	}
+
+	public List<T> getInhalt() {
+		return inhalt;
+	}
+
+	public String getWeiter() {
+		return weiter;
+	}
+
+	@Override
+	public String toString() {
+		return "Seite [inhalt=" + inhalt.size() + ", weiter=" + weiter + "]";
+	}
+}
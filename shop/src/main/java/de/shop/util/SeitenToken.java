@@ -0,0 +1,60 @@
+package de.shop.util;
+
+import java.nio.charset.Charset;
+
+import javax.xml.bind.DatatypeConverter;
+
+import de.shop.util.exceptions.InvalidSeitenTokenException;
+
+/**
+ * Kodiert den Schluessel des letzten Elements einer Seite als
+ * URL-taugliches Base64, damit Clients keine Annahmen ueber den Aufbau des
+ * Tokens treffen.
+ *
+ * @see Seite
+ */
+public final class SeitenToken {
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private static final String PREFIX = "v1:";
+
+	private SeitenToken() {
+	}
+
+	public static String erzeuge(Object letzterSchluessel) {
+		final String base64 = DatatypeConverter
+				.printBase64Binary((PREFIX + letzterSchluessel).getBytes(UTF8));
+		return base64.replace('+', '-').replace('/', '_').replace("=", "");
+	}
+
+	public static String leseString(String token) {
+		final String base64 = token.replace('-', '+').replace('_', '/');
+		final StringBuilder sb = new StringBuilder(base64);
+		while (sb.length() % 4 != 0) {
+			sb.append('=');
+		}
+
+		final String klartext;
+		try {
+			klartext = new String(DatatypeConverter.parseBase64Binary(sb
+					.toString()), UTF8);
+		}
+		catch (IllegalArgumentException e) {
+			throw new InvalidSeitenTokenException(token, e);
+		}
+		if (!klartext.startsWith(PREFIX)) {
+			throw new InvalidSeitenTokenException(token);
+		}
+		return klartext.substring(PREFIX.length());
+	}
+
+	public static Integer leseInteger(String token) {
+		try {
+			return Integer.valueOf(leseString(token));
+		}
+		catch (NumberFormatException e) {
+			throw new InvalidSeitenTokenException(token, e);
+		}
+	}
+}
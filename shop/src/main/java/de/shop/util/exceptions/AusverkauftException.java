@@ -0,0 +1,27 @@
+package de.shop.util.exceptions;
+
+/**
+ * Exception, die ausgeloest wird, wenn die Tokens eines Flash-Sales nicht
+ * mehr fuer eine Bestellung reichen
+ */
+public class AusverkauftException extends AbstractBestellungServiceException {
+
+	private static final long serialVersionUID = -6042235117395328841L;
+	private final Integer produktdatenId;
+	private final int anzahl;
+
+	public AusverkauftException(Integer produktdatenId, int anzahl) {
+		super("Produktdaten mit ID " + produktdatenId
+				+ " im Flash-Sale ausverkauft: " + anzahl + " angefragt");
+		this.produktdatenId = produktdatenId;
+		this.anzahl = anzahl;
+	}
+
+	public Integer getProduktdatenId() {
+		return produktdatenId;
+	}
+
+	public int getAnzahl() {
+		return anzahl;
+	}
+}
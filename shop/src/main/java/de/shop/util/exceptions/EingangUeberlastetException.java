@@ -0,0 +1,16 @@
+package de.shop.util.exceptions;
+
+import de.shop.util.AbstractShopException;
+
+/**
+ * Exception, die ausgeloest wird, wenn die Warteschlange fuer neue
+ * Bestellungen voll ist
+ */
+public class EingangUeberlastetException extends AbstractShopException {
+
+	private static final long serialVersionUID = -2817690941836530672L;
+
+	public EingangUeberlastetException() {
+		super("Zu viele gleichzeitige Bestellungen");
+	}
+}
@@ -0,0 +1,31 @@
+package de.shop.util.exceptions;
+
+import static javax.ws.rs.core.MediaType.TEXT_PLAIN;
+import static javax.ws.rs.core.Response.Status.SERVICE_UNAVAILABLE;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.ExceptionMapper;
+import javax.ws.rs.ext.Provider;
+
+
+@Provider
+@ApplicationScoped
+public class EingangUeberlastetExceptionMapper implements ExceptionMapper<EingangUeberlastetException> {
+	private static final String RETRY_AFTER = "Retry-After";
+
+	// Sekunden bis zum naechsten Versuch
+	private static final int RETRY_AFTER_SEKUNDEN = 1;
+
+	@Override
+	public Response toResponse(EingangUeberlastetException e) {
+		final String msg = e.getMessage();
+		final Response response = Response.status(SERVICE_UNAVAILABLE)
+		                                  .header(RETRY_AFTER, RETRY_AFTER_SEKUNDEN)
+		                                  .type(TEXT_PLAIN)
+		                                  .entity(msg)
+		                                  .build();
+		return response;
+	}
+
+}
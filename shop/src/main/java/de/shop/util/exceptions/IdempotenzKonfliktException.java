@@ -0,0 +1,16 @@
+package de.shop.util.exceptions;
+
+import de.shop.util.AbstractShopException;
+
+/**
+ * Exception, die ausgeloest wird, wenn eine gleichzeitige Anfrage mit
+ * demselben Idempotency-Key nicht rechtzeitig fertig wird
+ */
+public class IdempotenzKonfliktException extends AbstractShopException {
+
+	private static final long serialVersionUID = 4263518020951877136L;
+
+	public IdempotenzKonfliktException() {
+		super("Eine Anfrage mit demselben Idempotency-Key wird noch bearbeitet");
+	}
+}
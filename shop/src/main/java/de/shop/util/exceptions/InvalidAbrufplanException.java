@@ -0,0 +1,15 @@
+package de.shop.util.exceptions;
+
+import java.util.List;
+
+import de.shop.util.AbstractShopException;
+
+public class InvalidAbrufplanException extends AbstractShopException {
+
+	private static final long serialVersionUID = -6514339720953358420L;
+
+	public InvalidAbrufplanException(String expand, List<String> erlaubt) {
+		super("Ungueltiger Wert fuer expand: " + expand + " (erlaubt: "
+				+ erlaubt + ")");
+	}
+}
@@ -0,0 +1,15 @@
+package de.shop.util.exceptions;
+
+import java.util.List;
+
+import de.shop.util.AbstractShopException;
+
+public class InvalidFeldauswahlException extends AbstractShopException {
+
+	private static final long serialVersionUID = 3905238418240566172L;
+
+	public InvalidFeldauswahlException(String fields, List<String> erlaubt) {
+		super("Ungueltiger Wert fuer fields: " + fields + " (erlaubt: "
+				+ erlaubt + ")");
+	}
+}
@@ -0,0 +1,25 @@
+package de.shop.util.exceptions;
+
+import static javax.ws.rs.core.MediaType.TEXT_PLAIN;
+import static javax.ws.rs.core.Response.Status.BAD_REQUEST;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.ExceptionMapper;
+import javax.ws.rs.ext.Provider;
+
+
+@Provider
+@ApplicationScoped
+public class InvalidFeldauswahlExceptionMapper implements ExceptionMapper<InvalidFeldauswahlException> {
+	@Override
+	public Response toResponse(InvalidFeldauswahlException e) {
+		final String msg = e.getMessage();
+		final Response response = Response.status(BAD_REQUEST)
+		                                  .type(TEXT_PLAIN)
+		                                  .entity(msg)
+		                                  .build();
+		return response;
+	}
+
+}
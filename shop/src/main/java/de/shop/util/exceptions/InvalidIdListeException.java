@@ -0,0 +1,20 @@
+package de.shop.util.exceptions;
+
+import de.shop.util.AbstractShopException;
+import de.shop.util.IdListe;
+
+public class InvalidIdListeException extends AbstractShopException {
+
+	private static final long serialVersionUID = 4920186713365019264L;
+
+	private static final String MSG = "Ungueltige Liste von IDs (hoechstens "
+			+ IdListe.MAX_IDS + " positive Zahlen, durch Komma getrennt): ";
+
+	public InvalidIdListeException(String ids) {
+		super(MSG + ids);
+	}
+
+	public InvalidIdListeException(String ids, Throwable t) {
+		super(MSG + ids, t);
+	}
+}
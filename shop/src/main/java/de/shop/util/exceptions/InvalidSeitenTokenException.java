@@ -0,0 +1,16 @@
+package de.shop.util.exceptions;
+
+import de.shop.util.AbstractShopException;
+
+public class InvalidSeitenTokenException extends AbstractShopException {
+
+	private static final long serialVersionUID = -2790473518205871256L;
+
+	public InvalidSeitenTokenException(String token) {
+		super("Ungueltiges Token fuer die naechste Seite: " + token);
+	}
+
+	public InvalidSeitenTokenException(String token, Throwable t) {
+		super("Ungueltiges Token fuer die naechste Seite: " + token, t);
+	}
+}
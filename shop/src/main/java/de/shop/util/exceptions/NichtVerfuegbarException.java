@@ -0,0 +1,27 @@
+package de.shop.util.exceptions;
+
+/**
+ * Exception, die ausgeloest wird, wenn fuer eine Bestellung nicht genuegend
+ * Produktdaten auf Lager sind
+ */
+public class NichtVerfuegbarException extends AbstractBestellungServiceException {
+
+	private static final long serialVersionUID = 5231771020918452786L;
+	private final Integer produktdatenId;
+	private final int anzahl;
+
+	public NichtVerfuegbarException(Integer produktdatenId, int anzahl) {
+		super("Nicht genuegend Produktdaten mit ID " + produktdatenId
+				+ " verfuegbar: " + anzahl + " angefragt");
+		this.produktdatenId = produktdatenId;
+		this.anzahl = anzahl;
+	}
+
+	public Integer getProduktdatenId() {
+		return produktdatenId;
+	}
+
+	public int getAnzahl() {
+		return anzahl;
+	}
+}
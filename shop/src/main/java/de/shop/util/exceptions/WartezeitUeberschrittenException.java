@@ -0,0 +1,23 @@
+package de.shop.util.exceptions;
+
+import de.shop.util.AbstractShopException;
+
+/**
+ * Exception, die ausgeloest wird, wenn eine Bestellung in der Warteschlange
+ * eines Flash-Sales nicht rechtzeitig an die Reihe kommt
+ */
+public class WartezeitUeberschrittenException extends AbstractShopException {
+
+	private static final long serialVersionUID = 1953340618624722057L;
+	private final Integer produktdatenId;
+
+	public WartezeitUeberschrittenException(Integer produktdatenId) {
+		super("Zu viele gleichzeitige Bestellungen fuer Produktdaten mit ID "
+				+ produktdatenId);
+		this.produktdatenId = produktdatenId;
+	}
+
+	public Integer getProduktdatenId() {
+		return produktdatenId;
+	}
+}
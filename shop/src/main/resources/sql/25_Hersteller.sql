@@ -0,0 +1,10 @@
+INSERT INTO Hersteller (ID, Bezeichnung) VALUES (1,'Brandit');
+INSERT INTO Hersteller (ID, Bezeichnung) VALUES (2,'Carisma');
+INSERT INTO Hersteller (ID, Bezeichnung) VALUES (3,'Doublju');
+INSERT INTO Hersteller (ID, Bezeichnung) VALUES (4,'ESPRIT');
+INSERT INTO Hersteller (ID, Bezeichnung) VALUES (5,'Jack & Jones');
+INSERT INTO Hersteller (ID, Bezeichnung) VALUES (6,'MFH');
+INSERT INTO Hersteller (ID, Bezeichnung) VALUES (7,'Redbrige');
+INSERT INTO Hersteller (ID, Bezeichnung) VALUES (8,'Russell');
+INSERT INTO Hersteller (ID, Bezeichnung) VALUES (9,'Surplus');
+INSERT INTO Hersteller (ID, Bezeichnung) VALUES (10,'Urban Classics');
@@ -1,21 +1,22 @@
-INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller, Version, Erstellt, Geaendert) VALUES (300,'Surplus Xylontum Herren Chino Hose mit Guertel','Surplus', 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller, Version, Erstellt, Geaendert) VALUES (301,'SURPLUS ATHLETIC VINTAGE Trousers','Surplus', 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller, Version, Erstellt, Geaendert) VALUES (302,'BRANDIT Cargo Hose Freizeithose Rangerhose','Brandit', 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller, Version, Erstellt, Geaendert) VALUES (303,'urban classics sweatpants','Urban Classics', 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller, Version, Erstellt, Geaendert) VALUES (304,'Laessige VINTAGE Trouser M65 Hose oliv-washed','MFH', 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller, Version, Erstellt, Geaendert) VALUES (305,'Surplus Athletic Vintage Trousers','Surplus', 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller, Version, Erstellt, Geaendert) VALUES (306,'Surplus Designer-Hose Infantry Cargo','Surplus', 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller, Version, Erstellt, Geaendert) VALUES (307,'Herren Hose Trekking Trouser','Surplus', 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller, Version, Erstellt, Geaendert) VALUES (308,'Redbridge Kurzarmhemd R-2122','Redbrige', 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller, Version, Erstellt, Geaendert) VALUES (309,'Herren T-shirt V-Ausschnitt einfarbig (056D)','Doublju', 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller, Version, Erstellt, Geaendert) VALUES (310,'Redbridge Hemd Slim Fit','Redbrige', 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller, Version, Erstellt, Geaendert) VALUES (311,'Carisma Langarmhemd H-110','Carisma', 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller, Version, Erstellt, Geaendert) VALUES (312,'ESPRIT Herren Freizeithemd Regular Fit, kariert E30921','ESPRIT', 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller, Version, Erstellt, Geaendert) VALUES (313,'Doublju Herren Henry Shirt (D15);','Doublju', 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller, Version, Erstellt, Geaendert) VALUES (314,'Russell Collection! Pflegeleichtes Langarm Oxford Hemd','Russell', 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller, Version, Erstellt, Geaendert) VALUES (315,'Fruit of the Loom T-Shirts 5er Pack','ESPRIT', 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller, Version, Erstellt, Geaendert) VALUES (316,'ESPRIT single jersey t-shirt N32604 Herren Shirts/ T-Shirts','ESPRIT', 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller, Version, Erstellt, Geaendert) VALUES (317,'ESPRIT Herren Poloshirt, Piqu N32675','ESPRIT', 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller, Version, Erstellt, Geaendert) VALUES (318,'JACK & JONES Herren T-Shirt Regular Fit 12061557 Travel Tee','Jack & Jones', 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller, Version, Erstellt, Geaendert) VALUES (319,'ESPRIT Herren T-Shirt','ESPRIT', 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller, Version, Erstellt, Geaendert) VALUES (320,'ESPRIT Damen T-Shirt','ESPRIT', 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
\ No newline at end of file
+CREATE INDEX Produkt_Hersteller_idx ON Produkt(Hersteller_FK);
+INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller_FK, Version, Erstellt, Geaendert) VALUES (300,'Surplus Xylontum Herren Chino Hose mit Guertel',9, 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller_FK, Version, Erstellt, Geaendert) VALUES (301,'SURPLUS ATHLETIC VINTAGE Trousers',9, 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller_FK, Version, Erstellt, Geaendert) VALUES (302,'BRANDIT Cargo Hose Freizeithose Rangerhose',1, 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller_FK, Version, Erstellt, Geaendert) VALUES (303,'urban classics sweatpants',10, 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller_FK, Version, Erstellt, Geaendert) VALUES (304,'Laessige VINTAGE Trouser M65 Hose oliv-washed',6, 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller_FK, Version, Erstellt, Geaendert) VALUES (305,'Surplus Athletic Vintage Trousers',9, 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller_FK, Version, Erstellt, Geaendert) VALUES (306,'Surplus Designer-Hose Infantry Cargo',9, 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller_FK, Version, Erstellt, Geaendert) VALUES (307,'Herren Hose Trekking Trouser',9, 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller_FK, Version, Erstellt, Geaendert) VALUES (308,'Redbridge Kurzarmhemd R-2122',7, 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller_FK, Version, Erstellt, Geaendert) VALUES (309,'Herren T-shirt V-Ausschnitt einfarbig (056D)',3, 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller_FK, Version, Erstellt, Geaendert) VALUES (310,'Redbridge Hemd Slim Fit',7, 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller_FK, Version, Erstellt, Geaendert) VALUES (311,'Carisma Langarmhemd H-110',2, 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller_FK, Version, Erstellt, Geaendert) VALUES (312,'ESPRIT Herren Freizeithemd Regular Fit, kariert E30921',4, 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller_FK, Version, Erstellt, Geaendert) VALUES (313,'Doublju Herren Henry Shirt (D15);',3, 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller_FK, Version, Erstellt, Geaendert) VALUES (314,'Russell Collection! Pflegeleichtes Langarm Oxford Hemd',8, 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller_FK, Version, Erstellt, Geaendert) VALUES (315,'Fruit of the Loom T-Shirts 5er Pack',4, 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller_FK, Version, Erstellt, Geaendert) VALUES (316,'ESPRIT single jersey t-shirt N32604 Herren Shirts/ T-Shirts',4, 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller_FK, Version, Erstellt, Geaendert) VALUES (317,'ESPRIT Herren Poloshirt, Piqu N32675',4, 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller_FK, Version, Erstellt, Geaendert) VALUES (318,'JACK & JONES Herren T-Shirt Regular Fit 12061557 Travel Tee',5, 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller_FK, Version, Erstellt, Geaendert) VALUES (319,'ESPRIT Herren T-Shirt',4, 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produkt (Produkt_ID, Beschreibung, Hersteller_FK, Version, Erstellt, Geaendert) VALUES (320,'ESPRIT Damen T-Shirt',4, 1, to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
\ No newline at end of file
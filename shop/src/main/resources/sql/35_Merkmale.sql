@@ -0,0 +1,23 @@
+INSERT INTO Farbe (ID, Bezeichnung) VALUES (1,'schwarz');
+INSERT INTO Farbe (ID, Bezeichnung) VALUES (2,'blau');
+INSERT INTO Farbe (ID, Bezeichnung) VALUES (3,'wei/rot');
+INSERT INTO Farbe (ID, Bezeichnung) VALUES (4,'wei');
+INSERT INTO Farbe (ID, Bezeichnung) VALUES (5,'rot');
+INSERT INTO Farbe (ID, Bezeichnung) VALUES (6,'navy');
+INSERT INTO Farbe (ID, Bezeichnung) VALUES (7,'weiss-blau');
+INSERT INTO Farbe (ID, Bezeichnung) VALUES (8,'lila');
+INSERT INTO Farbe (ID, Bezeichnung) VALUES (9,'bunt');
+INSERT INTO Farbe (ID, Bezeichnung) VALUES (10,'gelb');
+INSERT INTO Farbe (ID, Bezeichnung) VALUES (11,'rot/wei');
+INSERT INTO Groesse (ID, Bezeichnung) VALUES (1,'S');
+INSERT INTO Groesse (ID, Bezeichnung) VALUES (2,'M');
+INSERT INTO Groesse (ID, Bezeichnung) VALUES (3,'L');
+INSERT INTO Groesse (ID, Bezeichnung) VALUES (4,'XL');
+INSERT INTO Groesse (ID, Bezeichnung) VALUES (5,'40');
+INSERT INTO Groesse (ID, Bezeichnung) VALUES (6,'42');
+INSERT INTO Groesse (ID, Bezeichnung) VALUES (7,'44');
+INSERT INTO Groesse (ID, Bezeichnung) VALUES (8,'46');
+INSERT INTO Groesse (ID, Bezeichnung) VALUES (9,'38');
+INSERT INTO Groesse (ID, Bezeichnung) VALUES (10,'XS');
+INSERT INTO Groesse (ID, Bezeichnung) VALUES (11,'XXL');
+INSERT INTO Groesse (ID, Bezeichnung) VALUES (12,'36');
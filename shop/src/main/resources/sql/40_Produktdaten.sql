@@ -1,32 +1,34 @@
-INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse, Farbe, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (401,301,'S','schwarz',34.99,7,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse, Farbe, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (402,301,'M','schwarz',34.99,2,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse, Farbe, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (403,301,'L','schwarz',34.99,10,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse, Farbe, Preis, Anzahl_Verfuegbar,Version,  Erstellt, Geaendert) VALUES (404,301,'XL','schwarz',34.99,3,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse, Farbe, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (405,302,'40','blau',45.00,11,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse, Farbe, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (406,302,'42','blau',45.00,24,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse, Farbe, Preis, Anzahl_Verfuegbar,Version,  Erstellt, Geaendert) VALUES (407,304,'44','blau',45.00,12,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse, Farbe, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (408,304,'46','blau',45.00,4,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse, Farbe, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (409,304,'38','blau',45.00,1,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse, Farbe, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (410,305,'M','wei/rot',19.99,0,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse, Farbe, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (411,307,'S','wei/rot',19.99,4,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse, Farbe, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (412,307,'L','wei/rot',19.99,21,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse, Farbe, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (413,312,'XS','wei',19.99,32,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse, Farbe, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (414,312,'S','blau',54.00,12,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse, Farbe, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (415,312,'M','blau',54.00,42,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse, Farbe, Preis, Anzahl_Verfuegbar,Version,  Erstellt, Geaendert) VALUES (416,314,'L','rot',54.00,12,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse, Farbe, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (417,314,'XL','blau',54.00,42,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse, Farbe, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (418,318,'XXL','navy',54.00,12,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse, Farbe, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (419,319,'42','wei',54.00,42,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse, Farbe, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (420,319,'42','weiss-blau',54.00,42,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse, Farbe, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (421,300,'42','weiss-blau',54.00,42,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse, Farbe, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (422,303,'XXL','lila',54.00,42,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse, Farbe, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (423,306,'S','rot',54.00,42,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse, Farbe, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (424,308,'M','bunt',54.00,42,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse, Farbe, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (425,309,'L','gelb',54.00,42,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse, Farbe, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (426,310,'40','blau',45.00,11,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse, Farbe, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (427,311,'36','blau',45.00,11,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse, Farbe, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (428,313,'L','rot',45.00,11,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse, Farbe, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (429,315,'M','schwarz',45.00,11,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse, Farbe, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (430,316,'XS','navy',45.00,11,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse, Farbe, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (431,317,'XL','rot',45.00,11,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
-INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse, Farbe, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (432,320,'XXL','rot/wei',45.00,11,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
\ No newline at end of file
+CREATE INDEX Produktdaten_Farbe_idx ON Produktdaten(Farbe_FK);
+CREATE INDEX Produktdaten_Groesse_idx ON Produktdaten(Groesse_FK);
+INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse_FK, Farbe_FK, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (401,301,1,1,34.99,7,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse_FK, Farbe_FK, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (402,301,2,1,34.99,2,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse_FK, Farbe_FK, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (403,301,3,1,34.99,10,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse_FK, Farbe_FK, Preis, Anzahl_Verfuegbar,Version,  Erstellt, Geaendert) VALUES (404,301,4,1,34.99,3,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse_FK, Farbe_FK, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (405,302,5,2,45.00,11,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse_FK, Farbe_FK, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (406,302,6,2,45.00,24,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse_FK, Farbe_FK, Preis, Anzahl_Verfuegbar,Version,  Erstellt, Geaendert) VALUES (407,304,7,2,45.00,12,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse_FK, Farbe_FK, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (408,304,8,2,45.00,4,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse_FK, Farbe_FK, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (409,304,9,2,45.00,1,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse_FK, Farbe_FK, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (410,305,2,3,19.99,0,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse_FK, Farbe_FK, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (411,307,1,3,19.99,4,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse_FK, Farbe_FK, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (412,307,3,3,19.99,21,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse_FK, Farbe_FK, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (413,312,10,4,19.99,32,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse_FK, Farbe_FK, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (414,312,1,2,54.00,12,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse_FK, Farbe_FK, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (415,312,2,2,54.00,42,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse_FK, Farbe_FK, Preis, Anzahl_Verfuegbar,Version,  Erstellt, Geaendert) VALUES (416,314,3,5,54.00,12,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse_FK, Farbe_FK, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (417,314,4,2,54.00,42,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse_FK, Farbe_FK, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (418,318,11,6,54.00,12,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse_FK, Farbe_FK, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (419,319,6,4,54.00,42,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse_FK, Farbe_FK, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (420,319,6,7,54.00,42,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse_FK, Farbe_FK, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (421,300,6,7,54.00,42,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse_FK, Farbe_FK, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (422,303,11,8,54.00,42,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse_FK, Farbe_FK, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (423,306,1,5,54.00,42,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse_FK, Farbe_FK, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (424,308,2,9,54.00,42,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse_FK, Farbe_FK, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (425,309,3,10,54.00,42,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse_FK, Farbe_FK, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (426,310,5,2,45.00,11,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse_FK, Farbe_FK, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (427,311,12,2,45.00,11,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse_FK, Farbe_FK, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (428,313,3,5,45.00,11,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse_FK, Farbe_FK, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (429,315,2,1,45.00,11,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse_FK, Farbe_FK, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (430,316,10,6,45.00,11,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse_FK, Farbe_FK, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (431,317,4,5,45.00,11,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
+INSERT INTO Produktdaten (Produktdaten_ID, Produkt_FK, Groesse_FK, Farbe_FK, Preis, Anzahl_Verfuegbar, Version, Erstellt, Geaendert) VALUES (432,320,11,11,45.00,11,0,to_timestamp('05.11.2012 10:10:00', 'DD.MM.YYYY HH24:MI:SS'),to_timestamp('06.11.2012 01:30:00', 'DD.MM.YYYY HH24:MI:SS'));
\ No newline at end of file
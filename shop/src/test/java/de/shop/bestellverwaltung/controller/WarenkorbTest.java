@@ -0,0 +1,145 @@
+package de.shop.bestellverwaltung.controller;
+
+import static de.shop.util.TestContainer.injiziere;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import javax.faces.component.UIInput;
+import javax.faces.event.ValueChangeEvent;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.shop.bestellverwaltung.domain.Bestellposten;
+import de.shop.produktverwaltung.domain.Produktdaten;
+import de.shop.produktverwaltung.service.util.FlashSale;
+
+/**
+ * Bestellposten und Gesamtpreis in Cent im {@link Warenkorb} ohne Container
+ */
+public class WarenkorbTest {
+
+	private static final double DELTA = 0.0001;
+
+	private Warenkorb warenkorb;
+
+	private final FlashSale flashSale = new FlashSale();
+
+	private final Produktdaten hose = produktdaten(1, 19.99);
+
+	private final Produktdaten socken = produktdaten(2, 0.1);
+
+	@Before
+	public void init() {
+		warenkorb = new Warenkorb();
+		injiziere(warenkorb, "flashSale", flashSale);
+	}
+
+	@Test
+	public void addSummiertInCent() {
+		warenkorb.add(hose);
+		warenkorb.add(hose);
+		for (int i = 0; i < 3; i++) {
+			warenkorb.add(socken);
+		}
+
+		assertThat(warenkorb.getSize(), is(2));
+		assertThat(warenkorb.getPositionen().get(0).getAnzahl(), is(2));
+		assertThat(warenkorb.getPositionen().get(1).getAnzahl(), is(3));
+
+		// 0.1 dreimal addiert ergibt ohne Rundungsfehler 0.30
+		assertThat(warenkorb.getGesamtpreisCent(), is(2L * 1999 + 3 * 10));
+		assertThat(Math.abs(warenkorb.getGesamtpreis() - 40.28) < DELTA,
+				is(true));
+	}
+
+	@Test
+	public void addOhneIdOderAusverkauft() {
+		warenkorb.add(null);
+		warenkorb.add(new Produktdaten());
+		flashSale.starte(hose.getProduktdatenID(), 0, 1);
+		warenkorb.add(hose);
+
+		assertThat(warenkorb.isEmpty(), is(true));
+		assertThat(warenkorb.getGesamtpreisCent(), is(0L));
+	}
+
+	@Test
+	public void setAnzahl() {
+		warenkorb.add(hose);
+		warenkorb.add(socken);
+
+		warenkorb.setAnzahl(hose.getProduktdatenID(), 5);
+		assertThat(warenkorb.getPositionen().get(0).getAnzahl(), is(5));
+		assertThat(warenkorb.getGesamtpreisCent(), is(5L * 1999 + 10));
+
+		// Unbekannte Produktdaten: keine Aenderung
+		warenkorb.setAnzahl(Integer.valueOf(99), 2);
+		assertThat(warenkorb.getSize(), is(2));
+
+		// Anzahl 0 loescht den Bestellposten
+		warenkorb.setAnzahl(socken.getProduktdatenID(), 0);
+		assertThat(warenkorb.getSize(), is(1));
+		assertThat(warenkorb.getGesamtpreisCent(), is(5L * 1999));
+	}
+
+	@Test
+	public void deleteUndReset() {
+		warenkorb.add(hose);
+		warenkorb.add(socken);
+		warenkorb.add(socken);
+
+		final Bestellposten posten = warenkorb.getPositionen().get(1);
+		warenkorb.delete(posten);
+		assertThat(warenkorb.getSize(), is(1));
+		assertThat(warenkorb.getPositionen().get(0).getProduktdaten(),
+				is(sameInstance(hose)));
+		assertThat(warenkorb.getGesamtpreisCent(), is(1999L));
+
+		// Ein zweites Mal ohne Wirkung
+		warenkorb.delete(posten);
+		warenkorb.delete(null);
+		assertThat(warenkorb.getGesamtpreisCent(), is(1999L));
+
+		warenkorb.reset();
+		assertThat(warenkorb.isEmpty(), is(true));
+		assertThat(warenkorb.getGesamtpreisCent(), is(0L));
+	}
+
+	@Test
+	public void spinner() {
+		warenkorb.add(hose);
+
+		warenkorb.spinner(event(hose.getProduktdatenID(), Integer.valueOf(3)));
+		assertThat(warenkorb.getPositionen().get(0).getAnzahl(), is(3));
+		assertThat(warenkorb.getGesamtpreisCent(), is(3L * 1999));
+
+		// Ohne Zahl als Anzahl oder ID: keine Aenderung
+		warenkorb.spinner(event(hose.getProduktdatenID(), "x"));
+		warenkorb.spinner(event(null, Integer.valueOf(1)));
+		assertThat(warenkorb.getPositionen().get(0).getAnzahl(), is(3));
+
+		// Ein Long aus dem Attribut genuegt
+		warenkorb.spinner(event(Long.valueOf(hose.getProduktdatenID().longValue()),
+				Integer.valueOf(0)));
+		assertThat(warenkorb.isEmpty(), is(true));
+		assertThat(warenkorb.getGesamtpreisCent(), is(0L));
+	}
+
+	private static Produktdaten produktdaten(int id, double preis) {
+		final Produktdaten produktdaten = new Produktdaten();
+		produktdaten.setProduktdatenID(Integer.valueOf(id));
+		produktdaten.setPreis(preis);
+		return produktdaten;
+	}
+
+	private static ValueChangeEvent event(Number produktdatenId, Object anzahl) {
+		final UIInput spinner = new UIInput();
+		if (produktdatenId != null) {
+			spinner.getAttributes().put(Warenkorb.ATTR_PRODUKTDATEN_ID,
+					produktdatenId);
+		}
+		return new ValueChangeEvent(spinner, null, anzahl);
+	}
+}
@@ -41,6 +41,7 @@ public class BestellungResourceTest extends AbstractResourceTest {
 	private static final double PREIS = 666.0;
 	private static final String USERNAME = USERNAME_ADMIN;
 	private static final String PASSWORD = PASSWORD_ADMIN;
+	private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
 	//@Ignore
 	@Test
 	public void findBestellungById() {
@@ -103,6 +104,32 @@ public class BestellungResourceTest extends AbstractResourceTest {
 		assertThat(id > 0, is(true));
 	}
 	
+	@Test
+	public void createBestellungIdempotent() {
+		final JsonObject jsonObject = getJsonBuilderFactory()
+				.createObjectBuilder()
+				.add("kundeUri", KUNDEN_URI + "/" + VALID_KUNDE_ID)
+				.add("gesamtpreis", EINS_ZWEI_DREI)
+				.build();
+		final String idempotencyKey = "bestellung-" + System.nanoTime();
+
+		final Response response = given().auth()
+				.basic(USERNAME, PASSWORD).contentType(APPLICATION_JSON)
+				.header(IDEMPOTENCY_KEY, idempotencyKey)
+				.body(jsonObject.toString())
+				.post(BESTELLUNGEN_PATH);
+		assertThat(response.getStatusCode(), is(HttpURLConnection.HTTP_CREATED));
+
+		// Wiederholung liefert dieselbe Bestellung
+		final Response wiederholung = given().auth()
+				.basic(USERNAME, PASSWORD).contentType(APPLICATION_JSON)
+				.header(IDEMPOTENCY_KEY, idempotencyKey)
+				.body(jsonObject.toString())
+				.post(BESTELLUNGEN_PATH);
+		assertThat(wiederholung.getStatusCode(), is(HttpURLConnection.HTTP_CREATED));
+		assertThat(wiederholung.getHeader(LOCATION), is(response.getHeader(LOCATION)));
+	}
+
 	@Test
 	public void dontcreateBestellung() {
 		
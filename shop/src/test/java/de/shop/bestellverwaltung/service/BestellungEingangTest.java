@@ -0,0 +1,216 @@
+package de.shop.bestellverwaltung.service;
+
+import static de.shop.util.TestContainer.injiziere;
+import static de.shop.util.TestContainer.proxy;
+import static javax.transaction.Status.STATUS_COMMITTED;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.persistence.EntityManager;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.shop.bestellverwaltung.domain.Bestellposten;
+import de.shop.bestellverwaltung.domain.Bestellung;
+import de.shop.bestellverwaltung.service.BestellungEingang.Auftrag;
+import de.shop.produktverwaltung.service.util.FlashSale;
+import de.shop.produktverwaltung.service.util.FlashSale.Zulassung;
+import de.shop.util.TestContainer.Transaktion;
+import de.shop.util.exceptions.EingangUeberlastetException;
+
+/**
+ * Group Commit des {@link BestellungEingang} ohne Container: der
+ * EntityManager ist ein Proxy, der BestellungService laesst jede Bestellung
+ * mit einem Stueck im Flash-Sale zu, vergibt nur IDs und weist markierte
+ * Bestellungen ab. Die Transaktion der Gruppe wird von Hand beendet.
+ */
+public class BestellungEingangTest {
+
+	private static final double UNGUELTIG = -1;
+	private static final long KURZ_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+	private static final Integer PRODUKTDATEN_ID = 404;
+	private static final int TOKENS = 5;
+	private static final int PARALLEL = 3;
+
+	private BestellungEingang eingang;
+
+	private BestellungService bs;
+
+	private final FlashSale flashSale = new FlashSale();
+
+	private final Transaktion transaktion = new Transaktion();
+
+	private final AtomicInteger flushes = new AtomicInteger();
+
+	private final AtomicInteger ids = new AtomicInteger();
+
+	@Before
+	public void init() {
+		injiziere(flashSale, "transaktionen", transaktion.getRegistry());
+		flashSale.starte(PRODUKTDATEN_ID, TOKENS, PARALLEL);
+
+		bs = new BestellungService() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public Zulassung lasseZu(Collection<Bestellposten> pPositionen) {
+				return flashSale.zulassen(Collections.singletonMap(
+						PRODUKTDATEN_ID, 1));
+			}
+
+			@Override
+			public void gibFrei(Zulassung pZulassung) {
+				flashSale.freigeben(pZulassung);
+			}
+
+			@Override
+			public void persistiereBestellung(Bestellung pBD,
+					Zulassung pZulassung, Locale pLocale) {
+				if (pBD.getGesamtpreis() == UNGUELTIG) {
+					throw new EingangUeberlastetException();
+				}
+				// Wie reserviereBestand()
+				if (pZulassung == null) {
+					flashSale.zulassenInTransaktion(Collections.singletonMap(
+							PRODUKTDATEN_ID, 1));
+				}
+				else {
+					flashSale.bindeAnTransaktion(pZulassung);
+				}
+				pBD.setBestellungID(ids.incrementAndGet());
+			}
+		};
+
+		eingang = new BestellungEingang();
+		injiziere(eingang, "em", proxy(EntityManager.class,
+				new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method,
+							Object[] args) {
+						if ("flush".equals(method.getName())) {
+							flushes.incrementAndGet();
+							return null;
+						}
+						throw new UnsupportedOperationException(method
+								.getName());
+					}
+				}));
+		injiziere(eingang, "bs", bs);
+		// Aufrufe ueber die Business-Sicht gehen direkt an die Bean
+		injiziere(eingang, "self", eingang);
+	}
+
+	@Test
+	public void gruppeMitUngueltigerBestellung() {
+		final Auftrag gueltig1 = auftrag(1);
+		final Auftrag ungueltig = auftrag(UNGUELTIG);
+		final Auftrag gueltig2 = auftrag(2);
+
+		final List<Auftrag> angenommen = eingang.schreibeGruppe(Arrays
+				.asList(gueltig1, ungueltig, gueltig2));
+
+		// Ein Flush fuer die Gruppe, die ungueltige scheitert einzeln
+		assertThat(angenommen, is(Arrays.asList(gueltig1, gueltig2)));
+		assertThat(flushes.get(), is(1));
+		assertThat(ungueltig.isFertig(), is(true));
+		try {
+			ungueltig.warte(KURZ_NANOS);
+			fail();
+		}
+		catch (EingangUeberlastetException e) {
+			// erwartet
+		}
+
+		// Die gescheiterte Bestellung hat ihr Token sofort zurueckgegeben
+		assertThat(getTokens(), is(TOKENS - 2));
+
+		// Nach dem Commit sind alle Plaetze wieder frei
+		transaktion.beende(STATUS_COMMITTED);
+		for (int i = 0; i < PARALLEL; i++) {
+			flashSale.zulassen(Collections.singletonMap(PRODUKTDATEN_ID, 1));
+		}
+		assertThat(getTokens(), is(TOKENS - 2 - PARALLEL));
+	}
+
+	@Test
+	public void gruppeWartetNichtAufEigenePlaetze() {
+		flashSale.starte(PRODUKTDATEN_ID, TOKENS, 1);
+
+		// Der Aufrufer belegt den einzigen Platz schon vor dem Einreihen
+		final Auftrag auftrag = auftrag(1);
+		final List<Auftrag> angenommen = eingang.schreibeGruppe(Collections
+				.singletonList(auftrag));
+		assertThat(angenommen, is(Collections.singletonList(auftrag)));
+
+		transaktion.beende(STATUS_COMMITTED);
+		assertThat(getTokens(), is(TOKENS - 1));
+		flashSale.zulassenInTransaktion(Collections.singletonMap(
+				PRODUKTDATEN_ID, 1));
+	}
+
+	@Test
+	public void zeitueberschreitungBrichtAuftragAb() {
+		final Auftrag auftrag = auftrag(1);
+		try {
+			auftrag.warte(KURZ_NANOS);
+			fail();
+		}
+		catch (EingangUeberlastetException e) {
+			// erwartet
+		}
+
+		// Ein Schreiber uebernimmt den abgebrochenen Auftrag nicht mehr
+		assertThat(auftrag.beginne(), is(false));
+		assertThat(auftrag.isAbgebrochen(), is(true));
+	}
+
+	@Test
+	public void bestelleUeberSchreiber() throws InterruptedException {
+		injiziere(eingang, "aktiv", true);
+		final Thread schreiber = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				eingang.schreibe();
+			}
+		});
+		schreiber.start();
+		try {
+			final Bestellung bestellung = new Bestellung();
+			bestellung.setGesamtpreis(1);
+			final Bestellung gespeichert = eingang.bestelle(bestellung,
+					Locale.GERMAN);
+			assertThat(gespeichert, is(sameInstance(bestellung)));
+			assertThat(gespeichert.getBestellungID() != null, is(true));
+			assertThat(flushes.get(), is(1));
+			assertThat(getTokens(), is(TOKENS - 1));
+		}
+		finally {
+			injiziere(eingang, "aktiv", false);
+			schreiber.join();
+		}
+	}
+
+	private Auftrag auftrag(double gesamtpreis) {
+		final Bestellung bestellung = new Bestellung();
+		bestellung.setGesamtpreis(gesamtpreis);
+		return new Auftrag(bestellung, bs.lasseZu(bestellung
+				.getBestellposten()), Locale.GERMAN);
+	}
+
+	private int getTokens() {
+		return flashSale.getStatus(PRODUKTDATEN_ID).getTokens();
+	}
+}
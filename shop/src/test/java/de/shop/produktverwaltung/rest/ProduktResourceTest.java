@@ -3,9 +3,11 @@ package de.shop.produktverwaltung.rest;
 import static com.jayway.restassured.RestAssured.given;
 import static java.net.HttpURLConnection.HTTP_CREATED;
 import static java.net.HttpURLConnection.HTTP_NOT_FOUND;
+import static java.net.HttpURLConnection.HTTP_NOT_MODIFIED;
 import static java.net.HttpURLConnection.HTTP_NO_CONTENT;
 import static java.net.HttpURLConnection.HTTP_OK;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+import static javax.ws.rs.core.MediaType.TEXT_PLAIN;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 import static org.junit.runners.MethodSorters.NAME_ASCENDING;
@@ -13,6 +15,7 @@ import static org.junit.runners.MethodSorters.NAME_ASCENDING;
 import java.io.StringReader;
 import java.util.Set;
 
+import javax.json.JsonArray;
 import javax.json.JsonObject;
 import javax.json.JsonObjectBuilder;
 import javax.json.JsonReader;
@@ -49,6 +52,30 @@ public class ProduktResourceTest extends AbstractResourceTest {
 	private static final String PATH_WITH_PARAM_ID = PATH + "/{"
 			+ PATH_PARAM_PRODUKT_ID + "}";
 	private static final String ACCEPT = "Accept";
+	private static final int SEITEN_GROESSE = 2;
+	private static final String QUERY_PARAM_ANZAHL = "anzahl";
+	private static final String QUERY_PARAM_WEITER = "weiter";
+	private static final String JSON_KEY_INHALT = "inhalt";
+	private static final String JSON_KEY_PRODUKT_ID = "produktId";
+	private static final String PATH_VOLLTEXT = PATH + "/volltext";
+	private static final String QUERY_PARAM_SUCHTEXT = "suchtext";
+	private static final String SUCHTEXT_PLURAL = "Hosen";
+	private static final String WORTSTAMM_SINGULAR = "hose";
+	private static final String PATH_AEHNLICH = PATH + "/aehnlich";
+	private static final String HERSTELLER_VERTIPPT = "Surplsu";
+	private static final String HERSTELLER_KORREKT = "Surplus";
+	private static final String JSON_KEY_BEGRIFF = "begriff";
+	private static final String ETAG = "ETag";
+	private static final String IF_NONE_MATCH = "If-None-Match";
+	private static final String PATH_IMPORT = PATH + "/import";
+	private static final String JSON_KEY_PRODUKTE = "produkte";
+	private static final String JSON_KEY_FEHLER = "fehler";
+	private static final String JSON_KEY_ZEILE = "zeile";
+	private static final String JSON_KEY_PRODUKTDATEN = "produktdaten";
+	private static final String IMPORT_FARBE = "schwarz";
+	private static final String IMPORT_GROESSE = "XL";
+	private static final double IMPORT_PREIS = 49.9;
+	private static final int IMPORT_ANZAHL = 10;
 
 	/**
 	 * GET Request
@@ -76,6 +103,118 @@ public class ProduktResourceTest extends AbstractResourceTest {
 		}
 	}
 
+	/**
+	 * Bedingter GET Request mit dem ETag der vorherigen Antwort
+	 */
+	@Test
+	public void findProduktByProduktIdNichtGeaendert() {
+
+		// Given
+		final Integer produktId = Integer.valueOf(EXISTING_ID);
+		final String etag = given().header(ACCEPT, APPLICATION_JSON)
+				.pathParameter(PATH_PARAM_PRODUKT_ID, produktId)
+				.get(PATH_WITH_PARAM_ID).getHeader(ETAG);
+
+		// When
+		final Response response = given().header(ACCEPT, APPLICATION_JSON)
+				.header(IF_NONE_MATCH, etag)
+				.pathParameter(PATH_PARAM_PRODUKT_ID, produktId)
+				.get(PATH_WITH_PARAM_ID);
+
+		// Then
+		assertThat(response.getStatusCode(), is(HTTP_NOT_MODIFIED));
+		assertThat(response.getHeader(ETAG), is(etag));
+	}
+
+	/**
+	 * GET Request seitenweise ueber alle Produkte
+	 */
+	@Test
+	public void findProdukteSeitenweise() {
+
+		// When
+		final Response ersteSeite = given().header(ACCEPT, APPLICATION_JSON)
+				.queryParam(QUERY_PARAM_ANZAHL, SEITEN_GROESSE).get(PATH);
+
+		// Then
+		assertThat(ersteSeite.getStatusCode(), is(HTTP_OK));
+		final int letzteId;
+		final String weiter;
+		try (JsonReader jsonReader = getJsonReaderFactory().createReader(
+				new StringReader(ersteSeite.asString()))) {
+
+			final JsonObject jsonObject = jsonReader.readObject();
+			final JsonArray inhalt = jsonObject.getJsonArray(JSON_KEY_INHALT);
+			assertThat(inhalt.size(), is(SEITEN_GROESSE));
+			letzteId = inhalt.getJsonObject(SEITEN_GROESSE - 1).getInt(
+					JSON_KEY_PRODUKT_ID);
+			weiter = jsonObject.getString(QUERY_PARAM_WEITER);
+		}
+
+		// When
+		final Response zweiteSeite = given().header(ACCEPT, APPLICATION_JSON)
+				.queryParam(QUERY_PARAM_ANZAHL, SEITEN_GROESSE)
+				.queryParam(QUERY_PARAM_WEITER, weiter).get(PATH);
+
+		// Then
+		assertThat(zweiteSeite.getStatusCode(), is(HTTP_OK));
+		try (JsonReader jsonReader = getJsonReaderFactory().createReader(
+				new StringReader(zweiteSeite.asString()))) {
+
+			final JsonArray inhalt = jsonReader.readObject().getJsonArray(
+					JSON_KEY_INHALT);
+			assertThat(inhalt.getJsonObject(0).getInt(JSON_KEY_PRODUKT_ID) > letzteId,
+					is(true));
+		}
+	}
+
+	/**
+	 * GET Request Volltextsuche: Pluralform findet Beschreibungen im Singular
+	 */
+	@Test
+	public void findProdukteByVolltext() {
+
+		// When
+		final Response response = given().header(ACCEPT, APPLICATION_JSON)
+				.queryParam(QUERY_PARAM_SUCHTEXT, SUCHTEXT_PLURAL)
+				.get(PATH_VOLLTEXT);
+
+		// Then
+		assertThat(response.getStatusCode(), is(HTTP_OK));
+		try (JsonReader jsonReader = getJsonReaderFactory().createReader(
+				new StringReader(response.asString()))) {
+
+			final JsonArray produkte = jsonReader.readArray();
+			assertThat(produkte.isEmpty(), is(false));
+			assertThat(produkte.getJsonObject(0)
+					.getString(JSON_KEY_BESCHREIBUNG).toLowerCase()
+					.contains(WORTSTAMM_SINGULAR), is(true));
+		}
+	}
+
+	/**
+	 * GET Request "Meinten Sie ...?" zu einem vertippten Hersteller
+	 */
+	@Test
+	public void findAehnlicheBegriffe() {
+
+		// When
+		final Response response = given().header(ACCEPT, APPLICATION_JSON)
+				.queryParam(QUERY_PARAM_SUCHTEXT, HERSTELLER_VERTIPPT)
+				.get(PATH_AEHNLICH);
+
+		// Then
+		assertThat(response.getStatusCode(), is(HTTP_OK));
+		try (JsonReader jsonReader = getJsonReaderFactory().createReader(
+				new StringReader(response.asString()))) {
+
+			final JsonArray vorschlaege = jsonReader.readArray();
+			assertThat(vorschlaege.getJsonObject(0)
+					.getString(JSON_KEY_BEGRIFF)
+					.equalsIgnoreCase(HERSTELLER_KORREKT), is(true));
+		}
+	}
+
 	/**
 	 * GET Request fehlerhaft (ID existiert nicht)
 	 */
@@ -138,6 +277,56 @@ public class ProduktResourceTest extends AbstractResourceTest {
 		assertThat(response.statusCode(), is(HTTP_CREATED));
 	}
 
+	/**
+	 * POST Request Katalog-Import mit einer gueltigen, einer ungueltigen und
+	 * einer gueltigen Zeile mit Produktdaten
+	 */
+	@Test
+	public void importiereProdukte() {
+
+		// Given
+		final JsonObject gueltig = getJsonBuilderFactory()
+				.createObjectBuilder()
+				.add(JSON_KEY_BESCHREIBUNG, BESCHREIBUNG_CREATE)
+				.add(JSON_KEY_HERSTELLER, HERSTELLER_CREATE).build();
+		final JsonObject ungueltig = getJsonBuilderFactory()
+				.createObjectBuilder()
+				.add(JSON_KEY_BESCHREIBUNG, BESCHREIBUNG_CREATE_INVALID)
+				.add(JSON_KEY_HERSTELLER, HERSTELLER_CREATE_INVALID).build();
+		final JsonObject mitProduktdaten = getJsonBuilderFactory()
+				.createObjectBuilder()
+				.add(JSON_KEY_BESCHREIBUNG, BESCHREIBUNG_CREATE)
+				.add(JSON_KEY_HERSTELLER, HERSTELLER_CREATE)
+				.add(JSON_KEY_PRODUKTDATEN, getJsonBuilderFactory()
+						.createArrayBuilder()
+						.add(getJsonBuilderFactory().createObjectBuilder()
+								.add("farbe", IMPORT_FARBE)
+								.add("groesse", IMPORT_GROESSE)
+								.add("preis", IMPORT_PREIS)
+								.add("anzahlVerfuegbar", IMPORT_ANZAHL)))
+				.build();
+
+		// When
+		final Response response = given().auth()
+				.basic(BASIC_USER, BASIC_PASSWORD)
+				.header(ACCEPT, APPLICATION_JSON).contentType(TEXT_PLAIN)
+				.body(gueltig.toString() + "\n" + ungueltig.toString() + "\n"
+						+ mitProduktdaten.toString())
+				.post(PATH_IMPORT);
+
+		// Then
+		assertThat(response.statusCode(), is(HTTP_OK));
+		try (JsonReader jsonReader = getJsonReaderFactory().createReader(
+				new StringReader(response.asString()))) {
+
+			final JsonObject jsonObject = jsonReader.readObject();
+			assertThat(jsonObject.getInt(JSON_KEY_PRODUKTE), is(2));
+			final JsonArray fehler = jsonObject.getJsonArray(JSON_KEY_FEHLER);
+			assertThat(fehler.size(), is(1));
+			assertThat(fehler.getJsonObject(0).getInt(JSON_KEY_ZEILE), is(2));
+		}
+	}
+
 	/**
 	 * POST Request fehlerhaft (ungltige Beschreibung + Hersteller)
 	 */
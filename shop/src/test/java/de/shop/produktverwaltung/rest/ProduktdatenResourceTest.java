@@ -1,6 +1,7 @@
 package de.shop.produktverwaltung.rest;
 
 import static com.jayway.restassured.RestAssured.given;
+import static java.net.HttpURLConnection.HTTP_BAD_REQUEST;
 import static java.net.HttpURLConnection.HTTP_CREATED;
 import static java.net.HttpURLConnection.HTTP_NOT_FOUND;
 import static java.net.HttpURLConnection.HTTP_NO_CONTENT;
@@ -13,6 +14,7 @@ import static org.junit.runners.MethodSorters.NAME_ASCENDING;
 import java.io.StringReader;
 import java.util.Set;
 
+import javax.json.JsonArray;
 import javax.json.JsonObject;
 import javax.json.JsonObjectBuilder;
 import javax.json.JsonReader;
@@ -48,6 +50,12 @@ public class ProduktdatenResourceTest extends AbstractResourceTest {
 	private static final String JSON_KEY_FARBE = "farbe";
 	private static final String JSON_KEY_GROESSE = "groesse";
 	private static final String JSON_KEY_PREIS = "preis";
+	private static final String EXISTING_FARBE = "schwarz";
+	private static final int MIN_ANZAHL_SCHWARZ = 4;
+	private static final int ANZAHL_GUENSTIGSTE = 3;
+	private static final String JSON_KEY_ANZAHL = "anzahlVerfuegbar";
+	private static final String IDS_AUSWAHL = "405,401,1717,402";
+	private static final int[] IDS_AUSWAHL_GEFUNDEN = {405, 401, 402 };
 
 	/**
 	 * GET Request
@@ -96,6 +104,131 @@ public class ProduktdatenResourceTest extends AbstractResourceTest {
 
 	}
 
+	/**
+	 * GET Request Detailsuche mit Facetten
+	 */
+	@Test
+	public void findProduktdatenMitFacetten() {
+
+		// When
+		final Response response = given().header(ACCEPT, APPLICATION_JSON)
+				.queryParam(JSON_KEY_FARBE, EXISTING_FARBE)
+				.get(PATH + "/suche");
+
+		// Then
+		assertThat(response.getStatusCode(), is(HTTP_OK));
+		try (JsonReader jsonReader = getJsonReaderFactory().createReader(
+				new StringReader(response.asString()))) {
+
+			final JsonObject jsonObject = jsonReader.readObject();
+			final int anzahlTreffer = jsonObject.getJsonArray("produktdaten")
+					.size();
+			final JsonObject farbeFacette = jsonObject
+					.getJsonObject("facetten").getJsonObject(JSON_KEY_FARBE);
+			assertThat(anzahlTreffer >= MIN_ANZAHL_SCHWARZ, is(true));
+			assertThat(farbeFacette.getInt(EXISTING_FARBE), is(anzahlTreffer));
+		}
+	}
+
+	/**
+	 * GET Request guenstigste verfuegbare Produktdaten
+	 */
+	@Test
+	public void findGuenstigsteVerfuegbare() {
+
+		// When
+		final Response response = given().header(ACCEPT, APPLICATION_JSON)
+				.queryParam("anzahl", ANZAHL_GUENSTIGSTE)
+				.get(PATH + "/guenstigste");
+
+		// Then
+		assertThat(response.getStatusCode(), is(HTTP_OK));
+		try (JsonReader jsonReader = getJsonReaderFactory().createReader(
+				new StringReader(response.asString()))) {
+
+			final JsonArray produktdaten = jsonReader.readArray();
+			assertThat(produktdaten.size() <= ANZAHL_GUENSTIGSTE, is(true));
+			for (int i = 0; i < produktdaten.size(); i++) {
+				final JsonObject jsonObject = produktdaten.getJsonObject(i);
+				assertThat(jsonObject.getInt(JSON_KEY_ANZAHL) > 0, is(true));
+				if (i > 0) {
+					assertThat(produktdaten.getJsonObject(i - 1)
+							.getJsonNumber(JSON_KEY_PREIS).doubleValue() <= jsonObject
+							.getJsonNumber(JSON_KEY_PREIS).doubleValue(),
+							is(true));
+				}
+			}
+		}
+	}
+
+	/**
+	 * GET Request Detailsuche mit Feldauswahl
+	 */
+	@Test
+	public void findProduktdatenMitFeldauswahl() {
+
+		// When
+		final Response response = given().header(ACCEPT, APPLICATION_JSON)
+				.queryParam(JSON_KEY_FARBE, EXISTING_FARBE)
+				.queryParam("fields", JSON_KEY_FARBE + "," + JSON_KEY_PREIS)
+				.get(PATH);
+
+		// Then: nur die ID und die ausgewaehlten Felder
+		assertThat(response.getStatusCode(), is(HTTP_OK));
+		try (JsonReader jsonReader = getJsonReaderFactory().createReader(
+				new StringReader(response.asString()))) {
+
+			final JsonArray produktdaten = jsonReader.readArray();
+			assertThat(produktdaten.isEmpty(), is(false));
+			for (int i = 0; i < produktdaten.size(); i++) {
+				final JsonObject jsonObject = produktdaten.getJsonObject(i);
+				assertThat(jsonObject.size(), is(3));
+				assertThat(jsonObject.containsKey(JSON_KEY_ID), is(true));
+				assertThat(jsonObject.containsKey(JSON_KEY_PREIS), is(true));
+				assertThat(jsonObject.getString(JSON_KEY_FARBE).toLowerCase()
+						.contains(EXISTING_FARBE), is(true));
+			}
+		}
+	}
+
+	/**
+	 * GET Request mit unbekanntem Feld
+	 */
+	@Test
+	public void findProduktdatenMitUnbekanntemFeld() {
+
+		// When
+		final Response response = given().header(ACCEPT, APPLICATION_JSON)
+				.queryParam("fields", "erstellt").get(PATH);
+
+		// Then
+		assertThat(response.getStatusCode(), is(HTTP_BAD_REQUEST));
+	}
+
+	/**
+	 * GET Request mehrere Produktdaten mit einer Anfrage
+	 */
+	@Test
+	public void findProduktdatenByIds() {
+
+		// When
+		final Response response = given().header(ACCEPT, APPLICATION_JSON)
+				.queryParam("ids", IDS_AUSWAHL).get(PATH + "/auswahl");
+
+		// Then: Reihenfolge der Anfrage, unbekannte ID uebersprungen
+		assertThat(response.getStatusCode(), is(HTTP_OK));
+		try (JsonReader jsonReader = getJsonReaderFactory().createReader(
+				new StringReader(response.asString()))) {
+
+			final JsonArray produktdaten = jsonReader.readArray();
+			assertThat(produktdaten.size(), is(IDS_AUSWAHL_GEFUNDEN.length));
+			for (int i = 0; i < produktdaten.size(); i++) {
+				assertThat(produktdaten.getJsonObject(i).getInt(JSON_KEY_ID),
+						is(IDS_AUSWAHL_GEFUNDEN[i]));
+			}
+		}
+	}
+
 	/**
 	 * POST Request
 	 */
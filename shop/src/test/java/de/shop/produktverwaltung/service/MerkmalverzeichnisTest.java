@@ -0,0 +1,238 @@
+package de.shop.produktverwaltung.service;
+
+import static de.shop.util.TestContainer.injiziere;
+import static de.shop.util.TestContainer.proxy;
+import static javax.transaction.Status.STATUS_COMMITTED;
+import static javax.transaction.Status.STATUS_ROLLEDBACK;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.shop.produktverwaltung.domain.AbstractMerkmal;
+import de.shop.produktverwaltung.domain.Farbe;
+import de.shop.produktverwaltung.domain.Groesse;
+import de.shop.produktverwaltung.domain.Hersteller;
+import de.shop.produktverwaltung.domain.Produkt;
+import de.shop.produktverwaltung.domain.Produktdaten;
+import de.shop.util.TestContainer.Transaktion;
+
+/**
+ * Zuordnen von Farbe, Groesse und Hersteller im {@link Merkmalverzeichnis} ohne
+ * Container: der EntityManager arbeitet auf einer Liste als Tabelle, die
+ * Transaktion wird von Hand beendet.
+ */
+public class MerkmalverzeichnisTest {
+
+	private static final short ROT = 1;
+	private static final short GROESSE_M = 2;
+	private static final short GELB = 3;
+	private static final Integer ESPRIT = 4;
+	private static final short ERSTE_NEUE_ID = 1000;
+
+	private Merkmalverzeichnis merkmalverzeichnis;
+
+	private final Transaktion transaktion = new Transaktion();
+
+	// Alle Zeilen von Farbe, Groesse und Hersteller
+	private final List<AbstractMerkmal<?>> tabelle = new ArrayList<>();
+
+	private final List<AbstractMerkmal<?>> persistiert = new ArrayList<>();
+
+	@Before
+	public void init() {
+		tabelle.add(merkmal(new Farbe("rot"), ROT));
+		tabelle.add(merkmal(new Groesse("M"), GROESSE_M));
+		tabelle.add(merkmal(new Hersteller("ESPRIT"), ESPRIT));
+
+		merkmalverzeichnis = new Merkmalverzeichnis();
+		injiziere(merkmalverzeichnis, "em", proxy(EntityManager.class,
+				new EntityManagerHandler()));
+		injiziere(merkmalverzeichnis, "transaktionen",
+				transaktion.getRegistry());
+		merkmalverzeichnis.ladeNeu();
+	}
+
+	@Test
+	public void bekannteBezeichnungen() {
+		final Produktdaten pd = produktdaten("rot", "M");
+		merkmalverzeichnis.ordneZu(pd);
+
+		assertThat(pd.getFarbeMerkmal().getId(), is(ROT));
+		assertThat(pd.getGroesseMerkmal().getId(), is(GROESSE_M));
+		assertThat(persistiert.isEmpty(), is(true));
+	}
+
+	@Test
+	public void neueFarbeNachDemCommitImWoerterbuch() {
+		final Produktdaten pd = produktdaten("gruen", "M");
+		merkmalverzeichnis.ordneZu(pd);
+
+		assertThat(persistiert.size(), is(1));
+		assertThat(pd.getFarbeMerkmal().getBezeichnung(), is("gruen"));
+		assertThat(merkmalverzeichnis.findFarbCodes("gruen").isEmpty(),
+				is(true));
+
+		// Dieselbe neue Farbe in derselben Transaktion nur einmal anlegen
+		final Produktdaten nochmal = produktdaten("gruen", "M");
+		merkmalverzeichnis.ordneZu(nochmal);
+		assertThat(nochmal.getFarbeMerkmal(),
+				sameInstance(pd.getFarbeMerkmal()));
+		assertThat(persistiert.size(), is(1));
+
+		transaktion.beende(STATUS_COMMITTED);
+		assertThat(merkmalverzeichnis.findFarbCodes("gruen"),
+				is(Collections.singletonList(ERSTE_NEUE_ID)));
+	}
+
+	@Test
+	public void neueGroesseNachRollbackNichtImWoerterbuch() {
+		merkmalverzeichnis.ordneZu(produktdaten("rot", "XXL"));
+		assertThat(persistiert.size(), is(1));
+
+		transaktion.beende(STATUS_ROLLEDBACK);
+		assertThat(merkmalverzeichnis.findGroessenCodes("XXL").isEmpty(),
+				is(true));
+	}
+
+	@Test
+	public void vonAnderemServerAngelegt() {
+		tabelle.add(merkmal(new Farbe("gelb"), GELB));
+
+		final Produktdaten pd = produktdaten("gelb", "M");
+		merkmalverzeichnis.ordneZu(pd);
+
+		assertThat(pd.getFarbeMerkmal().getId(), is(GELB));
+		assertThat(persistiert.isEmpty(), is(true));
+		assertThat(merkmalverzeichnis.findFarbCodes("gelb"),
+				is(Collections.singletonList(GELB)));
+	}
+
+	@Test
+	public void neuerHerstellerMitProduktdaten() {
+		final Produkt produkt = new Produkt("Hose", "Brandit");
+		produkt.addProduktdaten(produktdaten("rot", "M"));
+		merkmalverzeichnis.ordneZu(produkt);
+
+		assertThat(produkt.getHerstellerMerkmal().getBezeichnung(),
+				is("Brandit"));
+		assertThat(produkt.getProduktdaten().get(0).getFarbeMerkmal().getId(),
+				is(ROT));
+		assertThat(merkmalverzeichnis.findHerstellerCode("Brandit"),
+				is(nullValue()));
+
+		transaktion.beende(STATUS_COMMITTED);
+		assertThat(merkmalverzeichnis.findHerstellerCode("Brandit"),
+				is(Integer.valueOf(ERSTE_NEUE_ID)));
+		assertThat(merkmalverzeichnis.getAlleHersteller(),
+				is(Arrays.asList("Brandit", "ESPRIT")));
+	}
+
+	@Test
+	public void bekannterHersteller() {
+		final Produkt produkt = new Produkt("Hemd", "ESPRIT");
+		merkmalverzeichnis.ordneZu(produkt);
+
+		assertThat(produkt.getHerstellerMerkmal().getId(), is(ESPRIT));
+		assertThat(merkmalverzeichnis.findHerstellerCodes("esp"),
+				is(Collections.singletonList(ESPRIT)));
+		assertThat(persistiert.isEmpty(), is(true));
+	}
+
+	@Test
+	public void ohneBezeichnung() {
+		final Produktdaten pd = produktdaten("", null);
+		merkmalverzeichnis.ordneZu(pd);
+
+		assertThat(pd.getFarbeMerkmal(), is(nullValue()));
+		assertThat(pd.getGroesseMerkmal(), is(nullValue()));
+	}
+
+	private static <C extends Number, M extends AbstractMerkmal<C>> M merkmal(
+			M merkmal, C id) {
+		injiziere(merkmal, "id", id);
+		return merkmal;
+	}
+
+	private static Produktdaten produktdaten(String farbe, String groesse) {
+		final Produktdaten pd = new Produktdaten();
+		pd.setFarbe(farbe);
+		pd.setGroesse(groesse);
+		return pd;
+	}
+
+	/*
+	 * Named Queries per Name, getReference() und persist() auf der Tabelle
+	 */
+	private class EntityManagerHandler implements InvocationHandler {
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) {
+			switch (method.getName()) {
+				case "createNamedQuery":
+					return query((String) args[0], (Class<?>) args[1]);
+				case "getReference":
+					for (AbstractMerkmal<?> m : tabelle) {
+						if (m.getClass() == args[0]
+								&& m.getId().equals(args[1])) {
+							return m;
+						}
+					}
+					throw new IllegalArgumentException(String.valueOf(args[1]));
+				case "persist":
+					final AbstractMerkmal<?> neu = (AbstractMerkmal<?>) args[0];
+					final int id = ERSTE_NEUE_ID + persistiert.size();
+					if (neu instanceof Hersteller) {
+						injiziere(neu, "id", Integer.valueOf(id));
+					}
+					else {
+						injiziere(neu, "id", Short.valueOf((short) id));
+					}
+					persistiert.add(neu);
+					return null;
+				default:
+					throw new UnsupportedOperationException(method.getName());
+			}
+		}
+
+		private TypedQuery<?> query(final String name, final Class<?> typ) {
+			final Object[] bezeichnung = new Object[1];
+			return proxy(TypedQuery.class, new InvocationHandler() {
+				@Override
+				public Object invoke(Object query, Method method, Object[] args) {
+					switch (method.getName()) {
+						case "setParameter":
+							bezeichnung[0] = args[1];
+							return query;
+						case "getResultList":
+							final List<AbstractMerkmal<?>> result = new ArrayList<>();
+							for (AbstractMerkmal<?> m : tabelle) {
+								if (m.getClass() == typ
+										&& (!name.endsWith("findeByBezeichnung") || m
+												.getBezeichnung().equals(
+														bezeichnung[0]))) {
+									result.add(m);
+								}
+							}
+							return result;
+						default:
+							throw new UnsupportedOperationException(
+									method.getName());
+					}
+				}
+			});
+		}
+	}
+}
@@ -0,0 +1,146 @@
+package de.shop.produktverwaltung.service.util;
+
+import static de.shop.util.TestContainer.injiziere;
+import static javax.transaction.Status.STATUS_COMMITTED;
+import static javax.transaction.Status.STATUS_ROLLEDBACK;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.shop.produktverwaltung.service.util.FlashSale.Zulassung;
+import de.shop.util.TestContainer.Transaktion;
+import de.shop.util.exceptions.AusverkauftException;
+import de.shop.util.exceptions.WartezeitUeberschrittenException;
+
+/**
+ * Zulassung zum {@link FlashSale} ohne Container: die Transaktion wird von
+ * Hand beendet.
+ */
+public class FlashSaleTest {
+
+	private static final Integer PRODUKTDATEN_ID = 404;
+	private static final Integer OHNE_FLASH_SALE = 405;
+	private static final int TOKENS = 5;
+	private static final int MENGE = 2;
+
+	private FlashSale flashSale;
+
+	private final Transaktion transaktion = new Transaktion();
+
+	@Before
+	public void init() {
+		flashSale = new FlashSale();
+		injiziere(flashSale, "transaktionen", transaktion.getRegistry());
+		flashSale.starte(PRODUKTDATEN_ID, TOKENS, 1);
+	}
+
+	@Test
+	public void zulassenVorDerTransaktionUndCommit() {
+		final Zulassung zulassung = flashSale.zulassen(Collections
+				.singletonMap(PRODUKTDATEN_ID, MENGE));
+		assertThat(getTokens(), is(TOKENS - MENGE));
+
+		flashSale.bindeAnTransaktion(zulassung);
+		transaktion.beende(STATUS_COMMITTED);
+
+		// Tokens verbraucht, Platz wieder frei
+		assertThat(getTokens(), is(TOKENS - MENGE));
+		flashSale.zulassenInTransaktion(Collections.singletonMap(
+				PRODUKTDATEN_ID, 1));
+
+		// Nach dem Ende der Transaktion ohne Wirkung
+		flashSale.freigeben(zulassung);
+		assertThat(getTokens(), is(TOKENS - MENGE - 1));
+	}
+
+	@Test
+	public void rollbackGibtTokensFrei() {
+		final Zulassung zulassung = flashSale.zulassen(Collections
+				.singletonMap(PRODUKTDATEN_ID, MENGE));
+		flashSale.bindeAnTransaktion(zulassung);
+		transaktion.beende(STATUS_ROLLEDBACK);
+
+		assertThat(getTokens(), is(TOKENS));
+		flashSale.zulassen(Collections.singletonMap(PRODUKTDATEN_ID, TOKENS));
+		assertThat(flashSale.isAusverkauft(PRODUKTDATEN_ID), is(true));
+	}
+
+	@Test
+	public void ausverkauft() {
+		try {
+			flashSale.zulassen(Collections.singletonMap(PRODUKTDATEN_ID,
+					TOKENS + 1));
+			fail();
+		}
+		catch (AusverkauftException e) {
+			assertThat(e.getProduktdatenId(), is(PRODUKTDATEN_ID));
+		}
+		assertThat(getTokens(), is(TOKENS));
+	}
+
+	@Test
+	public void inDerTransaktionOhneWarten() {
+		final Zulassung belegt = flashSale.zulassen(Collections.singletonMap(
+				PRODUKTDATEN_ID, 1));
+
+		// Der einzige Platz ist belegt: sofort abweisen statt mit offener
+		// Transaktion zu warten
+		try {
+			flashSale.zulassenInTransaktion(Collections.singletonMap(
+					PRODUKTDATEN_ID, 1));
+			fail();
+		}
+		catch (WartezeitUeberschrittenException e) {
+			assertThat(e.getProduktdatenId(), is(PRODUKTDATEN_ID));
+		}
+		assertThat(getTokens(), is(TOKENS - 1));
+
+		flashSale.bestaetige(belegt);
+		flashSale.zulassenInTransaktion(Collections.singletonMap(
+				PRODUKTDATEN_ID, 1));
+		assertThat(getTokens(), is(TOKENS - 2));
+	}
+
+	@Test(timeout = 10000)
+	public void wartendeBestellungKommtDran() throws InterruptedException {
+		final Zulassung belegt = flashSale.zulassen(Collections.singletonMap(
+				PRODUKTDATEN_ID, 1));
+
+		final AtomicReference<Zulassung> zugelassen = new AtomicReference<>();
+		final Thread wartend = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				zugelassen.set(flashSale.zulassen(Collections.singletonMap(
+						PRODUKTDATEN_ID, 1)));
+			}
+		});
+		wartend.start();
+		while (flashSale.getStatus(PRODUKTDATEN_ID).getWartend() == 0) {
+			Thread.sleep(1);
+		}
+
+		flashSale.freigeben(belegt);
+		wartend.join();
+		assertThat(zugelassen.get() != null, is(true));
+		assertThat(getTokens(), is(TOKENS - 1));
+	}
+
+	@Test
+	public void ohneFlashSale() {
+		final Zulassung zulassung = flashSale.zulassen(Collections
+				.singletonMap(OHNE_FLASH_SALE, TOKENS + 1));
+		flashSale.bindeAnTransaktion(zulassung);
+		transaktion.beende(STATUS_ROLLEDBACK);
+		assertThat(getTokens(), is(TOKENS));
+	}
+
+	private int getTokens() {
+		return flashSale.getStatus(PRODUKTDATEN_ID).getTokens();
+	}
+}
@@ -0,0 +1,188 @@
+package de.shop.produktverwaltung.service.util;
+
+import static javax.transaction.Status.STATUS_COMMITTED;
+import static javax.transaction.Status.STATUS_ROLLEDBACK;
+import static de.shop.util.TestContainer.injiziere;
+import static de.shop.util.TestContainer.proxy;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.persistence.EntityManager;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.shop.produktverwaltung.domain.KatalogAenderung;
+import de.shop.produktverwaltung.domain.KatalogAenderung.Art;
+import de.shop.produktverwaltung.domain.Produktdaten;
+import de.shop.util.TestContainer.Transaktion;
+import de.shop.util.exceptions.NichtVerfuegbarException;
+
+/**
+ * Write-Behind des {@link Lagerbestand} ohne Container: EntityManager und
+ * Transaktionen werden durch Proxies ersetzt, die Transaktionen werden von
+ * Hand beendet.
+ */
+public class LagerbestandTest {
+
+	private static final Integer PRODUKTDATEN_ID = 404;
+	private static final int BESTAND = 10;
+	private static final int VERKAUFT = 3;
+	private static final int GROSSER_BESTAND = 20000;
+	private static final int THREADS = 4;
+
+	private Lagerbestand lagerbestand;
+
+	// Bestand der Produktdaten in der "Datenbank"
+	private Produktdaten produktdaten;
+
+	private final Transaktion transaktion = new Transaktion();
+
+	@Before
+	public void init() {
+		produktdaten = new Produktdaten();
+		produktdaten.setProduktdatenID(PRODUKTDATEN_ID);
+		produktdaten.setAnzahlVerfuegbar(BESTAND);
+
+		lagerbestand = new Lagerbestand();
+		injiziere(lagerbestand, "em", proxy(EntityManager.class,
+				new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method,
+							Object[] args) {
+						if ("find".equals(method.getName())) {
+							return produktdaten;
+						}
+						throw new UnsupportedOperationException(method
+								.getName());
+					}
+				}));
+		injiziere(lagerbestand, "transaktionen", transaktion.getRegistry());
+
+		// Eine Bestellung wird committed
+		lagerbestand.reserviereInTransaktion(Collections.singletonMap(
+				PRODUKTDATEN_ID, VERKAUFT));
+		transaktion.beende(STATUS_COMMITTED);
+		assertThat(lagerbestand.getVerfuegbar(PRODUKTDATEN_ID), is(BESTAND
+				- VERKAUFT));
+	}
+
+	@Test
+	public void abbuchenNeuberechnungVorCommit() {
+		final Abbuchung abbuchung = lagerbestand
+				.entnehmeAusstehendeInTransaktion();
+		assertThat(abbuchung.getMengeByProduktdatenId().get(PRODUKTDATEN_ID),
+				is(VERKAUFT));
+
+		// Aenderung der Produktdaten mit dem alten Stand, bevor das UPDATE
+		// committed ist: der Zaehler darf nicht steigen
+		aendere(BESTAND);
+		assertThat(lagerbestand.getVerfuegbar(PRODUKTDATEN_ID), is(BESTAND
+				- VERKAUFT));
+
+		// UPDATE und Commit
+		abbuchung.setInDatenbank(PRODUKTDATEN_ID, BESTAND - VERKAUFT);
+		transaktion.beende(STATUS_COMMITTED);
+		assertThat(lagerbestand.getVerfuegbar(PRODUKTDATEN_ID), is(BESTAND
+				- VERKAUFT));
+
+		// Nichts mehr abzubuchen
+		assertThat(lagerbestand.entnehmeAusstehendeInTransaktion().isEmpty(),
+				is(true));
+	}
+
+	@Test
+	public void abbuchenRollback() {
+		lagerbestand.entnehmeAusstehendeInTransaktion();
+		transaktion.beende(STATUS_ROLLEDBACK);
+
+		// Die Mengen sind wieder ausstehend und werden beruecksichtigt
+		aendere(BESTAND);
+		assertThat(lagerbestand.getVerfuegbar(PRODUKTDATEN_ID), is(BESTAND
+				- VERKAUFT));
+		final Abbuchung abbuchung = lagerbestand
+				.entnehmeAusstehendeInTransaktion();
+		assertThat(abbuchung.getMengeByProduktdatenId().get(PRODUKTDATEN_ID),
+				is(VERKAUFT));
+	}
+
+	@Test
+	public void abbuchenBestandReichtNicht() {
+		final Abbuchung abbuchung = lagerbestand
+				.entnehmeAusstehendeInTransaktion();
+
+		// Der Bestand in der Datenbank reicht nicht: die Menge wird
+		// zurueckgelegt
+		lagerbestand.zuruecklegen(abbuchung, PRODUKTDATEN_ID);
+		transaktion.beende(STATUS_COMMITTED);
+
+		final Abbuchung naechste = lagerbestand
+				.entnehmeAusstehendeInTransaktion();
+		assertThat(naechste.getMengeByProduktdatenId().get(PRODUKTDATEN_ID),
+				is(VERKAUFT));
+	}
+
+	@Test(timeout = 60000)
+	public void reservierenWaehrendNeuberechnung() throws InterruptedException {
+		aendere(GROSSER_BESTAND);
+		final int verkaeuflich = GROSSER_BESTAND - VERKAUFT;
+
+		// Mehrere Sessions reservieren einzeln, bis die Neuberechnungen
+		// vorbei sind; fehlgeschlagene Versuche werden wiederholt
+		final AtomicBoolean neuberechnungen = new AtomicBoolean(true);
+		final AtomicInteger reserviert = new AtomicInteger();
+		final List<Thread> sessions = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			final Thread session = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					do {
+						try {
+							lagerbestand.reserviere(Collections.singletonMap(
+									PRODUKTDATEN_ID, 1));
+							reserviert.incrementAndGet();
+						}
+						catch (NichtVerfuegbarException e) {
+							Thread.yield();
+						}
+					} while (neuberechnungen.get());
+				}
+			});
+			sessions.add(session);
+			session.start();
+		}
+
+		// Der Bestand in der Datenbank bleibt gleich: jede Neuberechnung muss
+		// die offenen Reservierungen abziehen
+		while (reserviert.get() < verkaeuflich) {
+			aendere(GROSSER_BESTAND);
+		}
+		for (int i = 0; i < GROSSER_BESTAND; i++) {
+			aendere(GROSSER_BESTAND);
+		}
+		neuberechnungen.set(false);
+		for (Thread session : sessions) {
+			session.join();
+		}
+
+		// Nie mehr reserviert als vorhanden
+		assertThat(reserviert.get(), is(verkaeuflich));
+		aendere(GROSSER_BESTAND);
+		assertThat(lagerbestand.getVerfuegbar(PRODUKTDATEN_ID), is(0));
+	}
+
+	private void aendere(int inDatenbank) {
+		produktdaten.setAnzahlVerfuegbar(inDatenbank);
+		lagerbestand.onKatalogAenderung(new KatalogAenderung(Art.GEAENDERT,
+				produktdaten));
+	}
+
+}
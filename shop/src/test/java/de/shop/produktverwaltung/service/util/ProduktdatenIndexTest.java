@@ -0,0 +1,132 @@
+package de.shop.produktverwaltung.service.util;
+
+import static de.shop.util.TestContainer.injiziere;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.shop.produktverwaltung.domain.KatalogAenderung;
+import de.shop.produktverwaltung.domain.KatalogAenderung.Art;
+import de.shop.produktverwaltung.domain.Produkt;
+import de.shop.produktverwaltung.domain.Produktdaten;
+
+/**
+ * Auswertung von Suchfiltern im {@link ProduktdatenIndex} und Aktualisierung
+ * nach Katalog-Aenderungen, ohne Container
+ */
+public class ProduktdatenIndexTest {
+
+	private static final Integer ESPRIT_ID = 300;
+	private static final Integer BRANDIT_ID = 301;
+
+	private ProduktdatenIndex index;
+
+	private Produkt esprit;
+
+	private Produkt brandit;
+
+	@Before
+	public void init() {
+		index = new ProduktdatenIndex();
+		injiziere(index, "katalogVersion", new KatalogVersion());
+
+		esprit = produkt(ESPRIT_ID, "ESPRIT");
+		brandit = produkt(BRANDIT_ID, "Brandit");
+		index.aufbauen(Arrays.asList(esprit, brandit), Arrays.asList(
+				produktdaten(401, esprit, "rot", "M", 30.0, 5),
+				produktdaten(402, esprit, "weiss/rot", "M", 20.0, 0),
+				produktdaten(403, esprit, "blau", "L", 10.0, 2),
+				produktdaten(404, brandit, "rot", "m", 40.0, 1)));
+	}
+
+	@Test
+	public void sucheFarbeUndGroesse() {
+		final SuchFilter filter = new SuchFilter();
+		filter.setFarbe("ROT");
+		filter.setGroesse("M");
+
+		// Farbe als Teilwort, Groesse exakt; aufsteigend nach Preis
+		assertThat(index.suche(filter), is(Arrays.asList(402, 401, 404)));
+	}
+
+	@Test
+	public void sucheHerstellerUndBestand() {
+		final SuchFilter filter = new SuchFilter();
+		filter.setHersteller("esp");
+		filter.setAnzahl(1);
+
+		assertThat(index.suche(filter), is(Arrays.asList(403, 401)));
+	}
+
+	@Test
+	public void sucheUnbekannteGroesse() {
+		final SuchFilter filter = new SuchFilter();
+		filter.setGroesse("XXL");
+
+		assertThat(index.suche(filter), is(Collections.<Integer> emptyList()));
+	}
+
+	@Test
+	public void beschreibungSuchtDieDatenbank() {
+		final SuchFilter filter = new SuchFilter();
+		filter.setBeschreibung("hose");
+
+		assertThat(index.kannSuchen(filter), is(false));
+		assertThat(index.kannSuchen(new SuchFilter()), is(true));
+	}
+
+	@Test
+	public void herstellerGeaendert() {
+		esprit.setHersteller("Carisma");
+		index.onKatalogAenderung(new KatalogAenderung(Art.GEAENDERT, esprit));
+
+		// Alle Varianten wandern in das Bitmap des neuen Herstellers
+		assertThat(sucheHersteller("esprit"),
+				is(Collections.<Integer> emptyList()));
+		assertThat(sucheHersteller("carisma"), is(Arrays.asList(403, 402, 401)));
+	}
+
+	@Test
+	public void produktdatenGeloeschtUndNeu() {
+		final Produktdaten geloescht = produktdaten(402, esprit, "weiss/rot",
+				"M", 20.0, 0);
+		index.onKatalogAenderung(new KatalogAenderung(Art.GELOESCHT,
+				geloescht));
+		index.onKatalogAenderung(new KatalogAenderung(Art.NEU, produktdaten(
+				405, brandit, "gruen", "S", 5.0, 3)));
+
+		assertThat(sucheHersteller("esprit"), is(Arrays.asList(403, 401)));
+		assertThat(sucheHersteller("brandit"), is(Arrays.asList(405, 404)));
+		assertThat(index.guenstigsteVerfuegbare(2), is(Arrays.asList(405, 403)));
+	}
+
+	private List<Integer> sucheHersteller(String hersteller) {
+		final SuchFilter filter = new SuchFilter();
+		filter.setHersteller(hersteller);
+		return index.suche(filter);
+	}
+
+	private static Produkt produkt(Integer id, String hersteller) {
+		final Produkt produkt = new Produkt("Hose", hersteller);
+		produkt.setProduktId(id);
+		return produkt;
+	}
+
+	private static Produktdaten produktdaten(Integer id, Produkt produkt,
+			String farbe, String groesse, double preis, int anzahl) {
+		final Produktdaten produktdaten = new Produktdaten();
+		produktdaten.setProduktdatenID(id);
+		produktdaten.setProdukt(produkt);
+		produktdaten.setFarbe(farbe);
+		produktdaten.setGroesse(groesse);
+		produktdaten.setPreis(preis);
+		produktdaten.setAnzahlVerfuegbar(anzahl);
+		return produktdaten;
+	}
+}
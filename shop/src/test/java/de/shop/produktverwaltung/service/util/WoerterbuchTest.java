@@ -0,0 +1,57 @@
+package de.shop.produktverwaltung.service.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Kodieren und Suchen im {@link Woerterbuch}
+ */
+public class WoerterbuchTest {
+
+	private static final short ROT = 1;
+	private static final short WEISS_ROT = 2;
+	private static final short BLAU = 7;
+
+	private Woerterbuch<Short> woerterbuch;
+
+	@Before
+	public void init() {
+		woerterbuch = new Woerterbuch<>();
+		woerterbuch.setze(ROT, "rot");
+		woerterbuch.setze(WEISS_ROT, "weiss/rot");
+		woerterbuch.setze(BLAU, "Blau");
+	}
+
+	@Test
+	public void kodierenUndDekodieren() {
+		assertThat(woerterbuch.getCode("rot"), is(ROT));
+		assertThat(woerterbuch.getWert(BLAU), is("Blau"));
+		assertThat(woerterbuch.size(), is(3));
+
+		// Gross-/Kleinschreibung wird beim Kodieren unterschieden
+		assertThat(woerterbuch.getCode("blau"), is(nullValue()));
+		assertThat(woerterbuch.getCode(null), is(nullValue()));
+		assertThat(woerterbuch.getWert(null), is(nullValue()));
+	}
+
+	@Test
+	public void findCodesAlsTeilwort() {
+		assertThat(new HashSet<>(woerterbuch.findCodes("ROT", true)),
+				is(new HashSet<>(Arrays.asList(ROT, WEISS_ROT))));
+	}
+
+	@Test
+	public void findCodesExakt() {
+		assertThat(woerterbuch.findCodes("blau", false),
+				is(Collections.singletonList(BLAU)));
+		assertThat(woerterbuch.findCodes("bla", false).isEmpty(), is(true));
+	}
+}
@@ -0,0 +1,142 @@
+package de.shop.util;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Date;
+import java.util.Locale;
+
+import org.codehaus.jackson.map.DeserializationConfig;
+import org.codehaus.jackson.map.ObjectMapper;
+
+import de.shop.bestellverwaltung.domain.Bestellung;
+import de.shop.kundenverwaltung.domain.Kunde;
+import de.shop.produktverwaltung.domain.Produkt;
+import de.shop.produktverwaltung.domain.Produktdaten;
+
+/**
+ * Vergleicht den Durchsatz beim Schreiben und Lesen von Listen mit Kunden,
+ * Bestellungen und Produktdaten als JSON und als Smile (siehe
+ * {@link SmileProvider}). Kein JUnit-Test, sondern ein eigenes Programm, das
+ * ohne Server laeuft, z.B. aus der IDE oder mit
+ * mvn test-compile exec:java -Dexec.mainClass=de.shop.util.SmileBenchmark
+ * -Dexec.classpathScope=test
+ */
+public final class SmileBenchmark {
+
+	private static final int ANZAHL_ELEMENTE = 100;
+	private static final int AUFWAERMEN = 2000;
+	private static final int DURCHLAEUFE = 10000;
+	private static final double NANOS_PRO_SEKUNDE = 1e9;
+
+	private static final String[] FARBEN = {"schwarz", "weiss", "rot", "blau" };
+	private static final String[] GROESSEN = {"S", "M", "L", "XL" };
+	private static final String BASIS_URI = "http://localhost:8080/shop2/rest";
+
+	private SmileBenchmark() {
+		super();
+	}
+
+	public static void main(String[] args) throws IOException {
+		// Beide Mapper gleich konfiguriert, damit nur das Format verglichen
+		// wird; Properties ohne Setter (z.B. version) werden beim Lesen
+		// uebersprungen
+		final ObjectMapper json = new ObjectMapper().configure(
+				DeserializationConfig.Feature.FAIL_ON_UNKNOWN_PROPERTIES,
+				false);
+		final ObjectMapper smile = SmileProvider.erzeugeMapper().configure(
+				DeserializationConfig.Feature.FAIL_ON_UNKNOWN_PROPERTIES,
+				false);
+
+		miss("Kunde", erzeugeKunden(), Kunde[].class, json, smile);
+		miss("Bestellung", erzeugeBestellungen(), Bestellung[].class, json,
+				smile);
+		miss("Produktdaten", erzeugeProduktdaten(), Produktdaten[].class,
+				json, smile);
+	}
+
+	private static void miss(String name, Object[] daten, Class<?> typ,
+			ObjectMapper json, ObjectMapper smile) throws IOException {
+		System.out.println(name + " (" + daten.length + " pro Liste)");
+		miss("  JSON ", daten, typ, json);
+		miss("  Smile", daten, typ, smile);
+	}
+
+	private static void miss(String format, Object[] daten, Class<?> typ,
+			ObjectMapper mapper) throws IOException {
+
+		byte[] bytes = null;
+		for (int i = 0; i < AUFWAERMEN; i++) {
+			bytes = mapper.writeValueAsBytes(daten);
+			mapper.readValue(bytes, typ);
+		}
+
+		long start = System.nanoTime();
+		for (int i = 0; i < DURCHLAEUFE; i++) {
+			bytes = mapper.writeValueAsBytes(daten);
+		}
+		final long schreiben = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		for (int i = 0; i < DURCHLAEUFE; i++) {
+			mapper.readValue(bytes, typ);
+		}
+		final long lesen = System.nanoTime() - start;
+
+		System.out.println(String.format(Locale.GERMAN,
+				"%s: %,8d Bytes, schreiben %,10.0f Listen/s, lesen %,10.0f Listen/s",
+				format, bytes.length, DURCHLAEUFE * NANOS_PRO_SEKUNDE
+						/ schreiben, DURCHLAEUFE * NANOS_PRO_SEKUNDE / lesen));
+	}
+
+	private static Kunde[] erzeugeKunden() {
+		final Kunde[] kunden = new Kunde[ANZAHL_ELEMENTE];
+		for (int i = 0; i < kunden.length; i++) {
+			final int id = i + 1;
+			final Kunde kunde = new Kunde("Nachname" + id, "Vorname" + id,
+					"kunde" + id + "@hs-karlsruhe.de");
+			kunde.setKundeID(id);
+			kunde.setGeburtsdatum(new Date());
+			kunde.setBestellungenUri(URI.create(BASIS_URI
+					+ "/bestellung/kunde/" + id));
+			kunde.setAdressenUri(URI.create(BASIS_URI + "/kunden/" + id
+					+ "/adressen"));
+			kunden[i] = kunde;
+		}
+		return kunden;
+	}
+
+	private static Bestellung[] erzeugeBestellungen() {
+		final Bestellung[] bestellungen = new Bestellung[ANZAHL_ELEMENTE];
+		for (int i = 0; i < bestellungen.length; i++) {
+			final int id = i + 1;
+			final Bestellung bestellung = new Bestellung();
+			bestellung.setBestellungID(id);
+			bestellung.setGesamtpreis(id * 9.95);
+			bestellung.setKundeUri(URI.create(BASIS_URI + "/kunden/" + id));
+			bestellung.setBestellpostenUri(URI.create(BASIS_URI
+					+ "/bestellung/" + id + "/bestellposten"));
+			bestellungen[i] = bestellung;
+		}
+		return bestellungen;
+	}
+
+	private static Produktdaten[] erzeugeProduktdaten() {
+		final Produktdaten[] produktdaten = new Produktdaten[ANZAHL_ELEMENTE];
+		for (int i = 0; i < produktdaten.length; i++) {
+			final int id = i + 1;
+			final Produkt produkt = new Produkt("T-Shirt " + id / 4,
+					"Hersteller " + id % 10);
+			produkt.setProduktId(id / 4 + 1);
+
+			final Produktdaten pd = new Produktdaten();
+			pd.setProduktdatenID(id);
+			pd.setFarbe(FARBEN[i % FARBEN.length]);
+			pd.setGroesse(GROESSEN[i % GROESSEN.length]);
+			pd.setPreis(id * 1.5);
+			pd.setAnzahlVerfuegbar(id % 7);
+			pd.setProdukt(produkt);
+			produktdaten[i] = pd;
+		}
+		return produktdaten;
+	}
+}
@@ -0,0 +1,115 @@
+package de.shop.util;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+/**
+ * Ersetzt in Unit-Tests ohne Arquillian, was sonst der Container erledigt:
+ * Injection in private Felder und Ressourcen wie den EntityManager als
+ * Proxies.
+ */
+public final class TestContainer {
+
+	private TestContainer() {
+		super();
+	}
+
+	/**
+	 * Setzt ein (privates) Feld der Bean oder einer ihrer Oberklassen
+	 */
+	public static void injiziere(Object bean, String feld, Object wert) {
+		for (Class<?> c = bean.getClass(); c != null; c = c.getSuperclass()) {
+			try {
+				final Field field = c.getDeclaredField(feld);
+				field.setAccessible(true);
+				field.set(bean, wert);
+				return;
+			}
+			catch (NoSuchFieldException e) {
+				// in der Oberklasse weitersuchen
+			}
+			catch (IllegalAccessException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+		throw new IllegalArgumentException("Kein Feld " + feld + " in "
+				+ bean.getClass().getName());
+	}
+
+	/**
+	 * @return Proxy fuer eine Schnittstelle wie EntityManager; nicht
+	 *         behandelte Methoden sollte der Handler mit
+	 *         UnsupportedOperationException ablehnen
+	 */
+	public static <T> T proxy(Class<T> typ, InvocationHandler handler) {
+		return typ.cast(Proxy.newProxyInstance(
+				TestContainer.class.getClassLoader(), new Class<?>[] {typ },
+				handler));
+	}
+
+	/**
+	 * Eine von Hand beendete Transaktion: sammelt die registrierten
+	 * Synchronisationen und Ressourcen, bis {@link #beende(int)} aufgerufen
+	 * wird
+	 */
+	public static class Transaktion {
+		private final List<Synchronization> synchronisationen = new ArrayList<>();
+
+		private final Map<Object, Object> ressourcen = new HashMap<>();
+
+		private final TransactionSynchronizationRegistry registry = proxy(
+				TransactionSynchronizationRegistry.class,
+				new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method,
+							Object[] args) {
+						switch (method.getName()) {
+							case "registerInterposedSynchronization":
+								synchronisationen
+										.add((Synchronization) args[0]);
+								return null;
+							case "getTransactionKey":
+								return Transaktion.this;
+							case "putResource":
+								ressourcen.put(args[0], args[1]);
+								return null;
+							case "getResource":
+								return ressourcen.get(args[0]);
+							default:
+								throw new UnsupportedOperationException(
+										method.getName());
+						}
+					}
+				});
+
+		/**
+		 * @return Registry zum Injizieren in die Bean
+		 */
+		public TransactionSynchronizationRegistry getRegistry() {
+			return registry;
+		}
+
+		/**
+		 * Beendet die Transaktion mit dem Status aus
+		 * {@link javax.transaction.Status}; danach beginnt die naechste
+		 */
+		public void beende(int status) {
+			final List<Synchronization> beendet = new ArrayList<>(
+					synchronisationen);
+			synchronisationen.clear();
+			ressourcen.clear();
+			for (Synchronization s : beendet) {
+				s.afterCompletion(status);
+			}
+		}
+	}
+}